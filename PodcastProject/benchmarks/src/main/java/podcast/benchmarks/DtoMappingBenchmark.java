@@ -0,0 +1,190 @@
+package podcast.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import podcast.model.entities.*;
+import podcast.model.entities.dto.CommentaryDTO;
+import podcast.model.entities.dto.EpisodeDTO;
+import podcast.model.entities.dto.PodcastDTO;
+import podcast.model.entities.enums.Category;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Mapeo entidad -> DTO sobre un grafo sintético grande (podcasts con episodios, ratings y comentarios)
+// y el cálculo del rating promedio de los podcasts: recorriendo todos los ratings, como hacía
+// Podcast.updateAverageRating, contra los agregados rating_sum/rating_count de cada episodio.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"1000"})
+    private int podcasts;
+
+    @Param({"20"})
+    private int episodesPerPodcast;
+
+    @Param({"10"})
+    private int ratingsPerEpisode;
+
+    private List<Podcast> catalog;
+    private List<PodcastStats> stats;
+    private List<Episode> episodes;
+    private List<Commentary> commentaries;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<User> users = new ArrayList<>();
+        for (int u = 0; u < 500; u++) {
+            users.add(User.builder()
+                    .id((long) u)
+                    .nickname("oyente_" + u)
+                    .profilePicture("https://cdn.example.com/u/" + u + ".png")
+                    .build());
+        }
+
+        catalog = new ArrayList<>(podcasts);
+        stats = new ArrayList<>(podcasts);
+        episodes = new ArrayList<>(podcasts * episodesPerPodcast);
+        commentaries = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        int episodeId = 0;
+        for (long p = 0; p < podcasts; p++) {
+            Podcast podcast = Podcast.builder()
+                    .id(p)
+                    .title("Podcast " + p)
+                    .description("Descripción del podcast " + p + " con algo de texto para que pese como uno real")
+                    .ImageUrl("https://cdn.example.com/p/" + p + ".png")
+                    .isActive(true)
+                    .createdAt(now.minusDays(p))
+                    .categories(List.of(Category.TECNOLOGIA, Category.CIENCIA))
+                    .episodes(new ArrayList<>(episodesPerPodcast))
+                    .build();
+            double ratingAverageSum = 0;
+            for (int e = 0; e < episodesPerPodcast; e++) {
+                Episode episode = Episode.builder()
+                        .id(episodeId++)
+                        .title("Episodio " + e)
+                        .description("Descripción del episodio " + e)
+                        .publicationDate(now.minusDays(e))
+                        .views(random.nextInt(10_000))
+                        .season(1)
+                        .chapter(e + 1)
+                        .audioPath("https://cdn.example.com/a/" + episodeId + ".mp3")
+                        .imageUrl("https://cdn.example.com/e/" + episodeId + ".png")
+                        .duration(Duration.ofMinutes(20 + random.nextInt(60)))
+                        .podcast(podcast)
+                        .ratings(new ArrayList<>(ratingsPerEpisode))
+                        .build();
+                long ratingSum = 0;
+                for (int r = 0; r < ratingsPerEpisode; r++) {
+                    long score = 1 + random.nextInt(10);
+                    ratingSum += score;
+                    episode.getRatings().add(Rating.builder()
+                            .score(score)
+                            .user(users.get(random.nextInt(users.size())))
+                            .episode(episode)
+                            .build());
+                    commentaries.add(Commentary.builder()
+                            .id(commentaries.size())
+                            .content("Comentario " + r + " sobre el episodio " + e)
+                            .createdAt(now.minusMinutes(r))
+                            .user(users.get(random.nextInt(users.size())))
+                            .episode(episode)
+                            .build());
+                }
+                episode.setRatingSum(ratingSum);
+                episode.setRatingCount((long) ratingsPerEpisode);
+                if (ratingsPerEpisode > 0) {
+                    ratingAverageSum += (double) ratingSum / ratingsPerEpisode;
+                }
+                podcast.getEpisodes().add(episode);
+                episodes.add(episode);
+            }
+            int rated = ratingsPerEpisode > 0 ? episodesPerPodcast : 0;
+            stats.add(PodcastStats.builder()
+                    .podcastId(p)
+                    .episodeCount(episodesPerPodcast)
+                    .averageViews(5_000L)
+                    .ratingAverageSum(ratingAverageSum)
+                    .ratedEpisodes(rated)
+                    .averageRating(rated > 0 ? ratingAverageSum / rated : 0.0)
+                    .build());
+            catalog.add(podcast);
+        }
+    }
+
+    @Benchmark
+    public List<PodcastDTO> podcastToDTO() {
+        List<PodcastDTO> dtos = new ArrayList<>(catalog.size());
+        for (int i = 0; i < catalog.size(); i++) {
+            dtos.add(catalog.get(i).toDTO(stats.get(i)));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<EpisodeDTO> episodeToDTO() {
+        List<EpisodeDTO> dtos = new ArrayList<>(episodes.size());
+        for (Episode episode : episodes) {
+            dtos.add(episode.toDTO());
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<CommentaryDTO> commentaryToDTO() {
+        List<CommentaryDTO> dtos = new ArrayList<>(commentaries.size());
+        for (Commentary commentary : commentaries) {
+            dtos.add(commentary.toDTO());
+        }
+        return dtos;
+    }
+
+    // Lo que hacía Podcast.updateAverageRating (eliminado): promedio de los promedios de cada
+    // episodio, recorriendo todos sus ratings
+    @Benchmark
+    public void averageRatingFromRatings(Blackhole blackhole) {
+        for (Podcast podcast : catalog) {
+            double sum = 0.0;
+            int count = 0;
+            for (Episode episode : podcast.getEpisodes()) {
+                if (episode.getRatings() != null && !episode.getRatings().isEmpty()) {
+                    sum += episode.getRatings().stream()
+                            .mapToLong(Rating::getScore)
+                            .average()
+                            .orElse(0.0);
+                    count++;
+                }
+            }
+            blackhole.consume(count > 0 ? sum / count : 0.0);
+        }
+    }
+
+    // Mismo promedio desde los agregados de cada episodio, como lo reconstruye PodcastStatsService
+    // al arrancar (en cada rating solo se aplica el delta del episodio, que es O(1))
+    @Benchmark
+    public void averageRatingFromAggregates(Blackhole blackhole) {
+        for (Podcast podcast : catalog) {
+            double sum = 0.0;
+            int count = 0;
+            for (Episode episode : podcast.getEpisodes()) {
+                Double average = episode.getAverageRating();
+                if (average != null) {
+                    sum += average;
+                    count++;
+                }
+            }
+            blackhole.consume(count > 0 ? sum / count : 0.0);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package podcast.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import podcast.model.entities.dto.EpisodeDTO;
+import podcast.model.entities.dto.PodcastDTO;
+import podcast.model.entities.enums.Category;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialización de listas de PodcastDTO y EpisodeDTO con el ObjectMapper que arma Spring Boot
+// (módulos de java.time, fechas como texto), que es lo que paga cada GET de un listado.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoSerializationBenchmark {
+
+    // 20 = una página del catálogo, 1000 = listados sin paginar (episodios de un podcast grande)
+    @Param({"20", "1000"})
+    private int listSize;
+
+    private ObjectWriter podcastListWriter;
+    private ObjectWriter episodeListWriter;
+    private List<PodcastDTO> podcasts;
+    private List<EpisodeDTO> episodes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        podcastListWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, PodcastDTO.class));
+        episodeListWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, EpisodeDTO.class));
+
+        LocalDateTime now = LocalDateTime.now();
+        podcasts = new ArrayList<>(listSize);
+        episodes = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            podcasts.add(PodcastDTO.builder()
+                    .id((long) i)
+                    .title("Podcast " + i)
+                    .description("Descripción del podcast " + i + " con algo de texto para que pese como uno real")
+                    .category(List.of(Category.TECNOLOGIA, Category.CIENCIA))
+                    .imageUrl("https://cdn.example.com/p/" + i + ".png")
+                    .averageViews(1234L)
+                    .averageRating(7.5)
+                    .createdAt(now.minusDays(i))
+                    .episodeCount(42)
+                    .build());
+            episodes.add(EpisodeDTO.builder()
+                    .id(i)
+                    .title("Episodio " + i)
+                    .description("Descripción del episodio " + i)
+                    .audioPath("https://cdn.example.com/a/" + i + ".mp3")
+                    .imageUrl("https://cdn.example.com/e/" + i + ".png")
+                    .duration(Duration.ofMinutes(42))
+                    .views(1234)
+                    .season(1)
+                    .chapter(i + 1)
+                    .publicationDate(now.minusDays(i))
+                    .podcastTitle("Podcast " + (i / 20))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePodcastList() throws IOException {
+        return podcastListWriter.writeValueAsBytes(podcasts);
+    }
+
+    @Benchmark
+    public byte[] serializeEpisodeList() throws IOException {
+        return episodeListWriter.writeValueAsBytes(episodes);
+    }
+}
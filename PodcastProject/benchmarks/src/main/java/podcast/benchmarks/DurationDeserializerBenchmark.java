@@ -0,0 +1,42 @@
+package podcast.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import podcast.model.entities.helpers.DurationFromStringDeserializer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// DurationFromStringDeserializer por sus dos caminos: HH:mm:ss se resuelve en el primer intento,
+// ISO-8601 llega después de que LocalTime.parse lance (y llene) una excepción.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DurationDeserializerBenchmark {
+
+    private ObjectReader reader;
+
+    @Setup
+    public void setup() {
+        reader = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new SimpleModule().addDeserializer(Duration.class, new DurationFromStringDeserializer()))
+                .build()
+                .readerFor(Duration.class);
+    }
+
+    @Benchmark
+    public Duration clockTime() throws IOException {
+        return reader.readValue("\"00:42:17\"");
+    }
+
+    @Benchmark
+    public Duration iso8601() throws IOException {
+        return reader.readValue("\"PT42M17S\"");
+    }
+}
@@ -0,0 +1,93 @@
+package podcast.benchmarks;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import podcast.cfg.JwtUtil;
+import podcast.model.entities.enums.Role;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// Costo de CPU de autenticar un request con JWT: camino anterior (3 parseos, parser y clave
+// nuevos en cada uno) contra el parseo único con parser precompilado y contra la caché de tokens.
+// También la emisión del token en el login y los métodos públicos de JwtUtil con y sin caché.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET_KEY = "claveSecretaMuySeguraParaFirmarTokensJWT";
+
+    private JwtUtil cachedJwt;
+    private JwtUtil uncachedJwt;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        cachedJwt = new JwtUtil(10_000);
+        uncachedJwt = new JwtUtil(0);
+        user = User.withUsername("benchUser").password("x").authorities(Role.ROLE_USER).build();
+        token = cachedJwt.generateToken(user);
+        cachedJwt.verify(token);
+    }
+
+    // Reproduce lo que hacía JwtAuthFilter antes: extractUsername + isTokenValid (que vuelve a
+    // extraer el username y además revisa exp), cada uno con su propio parserBuilder y clave.
+    @Benchmark
+    public boolean legacyPerRequest() {
+        String username = legacyClaims(token).getSubject();
+        return username != null
+                && legacyClaims(token).getSubject().equals(user.getUsername())
+                && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public Claims singleParse() {
+        return uncachedJwt.verify(token);
+    }
+
+    @Benchmark
+    public Claims cachedVerify() {
+        return cachedJwt.verify(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return uncachedJwt.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractUsernameUncached() {
+        return uncachedJwt.extractUsername(token);
+    }
+
+    @Benchmark
+    public String extractUsernameCached() {
+        return cachedJwt.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValidUncached() {
+        return uncachedJwt.isTokenValid(token, user);
+    }
+
+    @Benchmark
+    public boolean isTokenValidCached() {
+        return cachedJwt.isTokenValid(token, user);
+    }
+
+    private static Claims legacyClaims(String token) {
+        Key key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+}
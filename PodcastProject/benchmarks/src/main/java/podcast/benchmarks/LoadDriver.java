@@ -0,0 +1,357 @@
+package podcast.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+// Driver de carga HTTP contra una o más instancias de la API ya levantadas: cada cliente es un hilo
+// virtual que manda requests seguidos (lazo cerrado) durante el tiempo pedido, y al final se informa
+// throughput y percentiles de latencia por instancia y escenario.
+//
+// El escenario mixed reproduce una carga de uso real con pesos configurables (--mix): navegar el
+// catálogo, reproducir, calificar y comentar. Cada cliente califica y comenta solo episodios que ya
+// reprodujo (como exige la API), y con --user-count cada cliente usa uno de varios usuarios (por
+// ejemplo los dg_<n> de DatasetGenerator).
+//
+// Para comparar hilos de plataforma contra virtuales se levanta la API dos veces sobre la misma BD,
+// una con --spring.threads.virtual.enabled=false y otra con true, y se pasan ambas como --target.
+// Ver README para los parámetros.
+public final class LoadDriver {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    record Scenario(String name, Function<Client, Call> next) {
+    }
+
+    // Un request: operation agrupa las latencias en el reporte; playedEpisode > 0 se recuerda si responde OK
+    record Call(String operation, String method, String path, String body, int playedEpisode) {
+
+        static Call get(String operation, String path) {
+            return new Call(operation, "GET", path, null, 0);
+        }
+    }
+
+    // Estado de un cliente: su token y los episodios que ya reprodujo (con el momento)
+    static final class Client {
+        // El historial se escribe en batch: se espera un poco antes de calificar o comentar lo reproducido
+        private static final long PLAYED_SETTLE_NANOS = Duration.ofSeconds(3).toNanos();
+        private static final int MAX_PLAYED = 256;
+
+        final String token;
+        private final ArrayDeque<long[]> played = new ArrayDeque<>();
+
+        Client(String token) {
+            this.token = token;
+        }
+
+        void played(int episodeId) {
+            if (played.size() == MAX_PLAYED) {
+                played.removeFirst();
+            }
+            played.addLast(new long[]{episodeId, System.nanoTime()});
+        }
+
+        // Un episodio reproducido hace más de unos segundos, o 0 si todavía no hay
+        int settledEpisode() {
+            long now = System.nanoTime();
+            int settled = 0;
+            for (long[] entry : played) {
+                if (now - entry[1] < PLAYED_SETTLE_NANOS) {
+                    break;
+                }
+                settled++;
+            }
+            if (settled == 0) {
+                return 0;
+            }
+            int pick = ThreadLocalRandom.current().nextInt(settled);
+            Iterator<long[]> iterator = played.iterator();
+            for (int i = 0; i < pick; i++) {
+                iterator.next();
+            }
+            return (int) iterator.next()[0];
+        }
+    }
+
+    public record Result(String target, String scenario, int concurrency, double durationSeconds, long requests,
+                         long errors, double throughput, double p50Ms, double p90Ms, double p99Ms, double maxMs) {
+    }
+
+    // Latencias (en nanos) de un cliente para una operación; crece sin boxing
+    static final class Samples {
+        long[] values = new long[1024];
+        int size;
+        long errors;
+
+        void add(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+    }
+
+    private LoadDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, List<String>> options = parse(args);
+        Map<String, String> targets = new LinkedHashMap<>();
+        for (String target : options.getOrDefault("target", List.of("local=http://localhost:8080"))) {
+            int eq = target.indexOf('=');
+            targets.put(eq > 0 ? target.substring(0, eq) : target, eq > 0 ? target.substring(eq + 1) : target);
+        }
+        int concurrency = Integer.parseInt(option(options, "concurrency", "400"));
+        int warmupSeconds = Integer.parseInt(option(options, "warmup", "10"));
+        int durationSeconds = Integer.parseInt(option(options, "duration", "30"));
+        int[] episodes = range(option(options, "episodes", "1-100"));
+        int[] podcasts = range(option(options, "podcasts", "1-50"));
+        String username = option(options, "username", null);
+        String password = option(options, "password", null);
+        // --username dg_%d --user-count 50: se loguean dg_0..dg_49 y los clientes se los reparten
+        int userCount = Integer.parseInt(option(options, "user-count", "1"));
+        Map<String, Integer> mix = weights(option(options, "mix", "browse=60,play=25,rate=10,comment=5"));
+
+        Map<String, Scenario> available = Map.of(
+                "podcasts", new Scenario("podcasts", client -> Call.get("podcasts", "/podcastUTN/v1/podcasts")),
+                "play", new Scenario("play", client -> play(episodes)),
+                "mixed", new Scenario("mixed", client -> mixed(client, mix, episodes, podcasts)));
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String name : option(options, "scenarios", "podcasts,play").split(",")) {
+            Scenario scenario = available.get(name.trim());
+            if (scenario == null) {
+                throw new IllegalArgumentException("Unknown scenario: " + name + " (available: " + available.keySet() + ")");
+            }
+            scenarios.add(scenario);
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        List<Result> results = new ArrayList<>();
+        for (Map.Entry<String, String> target : targets.entrySet()) {
+            List<String> tokens = new ArrayList<>();
+            if (username != null) {
+                for (int u = 0; u < userCount; u++) {
+                    tokens.add(login(client, target.getValue(), userCount > 1 ? String.format(username, u) : username, password));
+                }
+            }
+            for (Scenario scenario : scenarios) {
+                // Los mismos clientes en warmup y medición: conservan lo reproducido para calificar y comentar
+                List<Client> clients = new ArrayList<>(concurrency);
+                for (int c = 0; c < concurrency; c++) {
+                    clients.add(new Client(tokens.isEmpty() ? null : tokens.get(c % tokens.size())));
+                }
+                run(client, target.getValue(), clients, scenario, warmupSeconds);
+                Map<String, List<Samples>> byOperation = run(client, target.getValue(), clients, scenario, durationSeconds);
+                List<Samples> all = byOperation.values().stream().flatMap(List::stream).toList();
+                List<Result> scenarioResults = new ArrayList<>();
+                scenarioResults.add(summarize(target.getKey(), scenario.name(), concurrency, durationSeconds, all));
+                if (byOperation.size() > 1) {
+                    byOperation.forEach((operation, samples) -> scenarioResults.add(
+                            summarize(target.getKey(), scenario.name() + ":" + operation, concurrency, durationSeconds, samples)));
+                }
+                for (Result result : scenarioResults) {
+                    results.add(result);
+                    System.out.printf(Locale.ROOT, "%-10s %-15s %8.1f req/s  p50 %7.2f ms  p90 %7.2f ms  p99 %7.2f ms  max %8.2f ms  errores %d%n",
+                            result.target(), result.scenario(), result.throughput(), result.p50Ms(), result.p90Ms(),
+                            result.p99Ms(), result.maxMs(), result.errors());
+                }
+            }
+        }
+        String out = option(options, "out", null);
+        if (out != null) {
+            MAPPER.writeValue(Path.of(out).toFile(), results);
+        }
+    }
+
+    private static Map<String, List<Samples>> run(HttpClient client, String baseUrl, List<Client> clients,
+                                                  Scenario scenario, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Map<String, Samples>> samples = new ArrayList<>(clients.size());
+        List<Thread> threads = new ArrayList<>(clients.size());
+        for (int c = 0; c < clients.size(); c++) {
+            Client state = clients.get(c);
+            Map<String, Samples> own = new HashMap<>();
+            samples.add(own);
+            threads.add(Thread.ofVirtual().name("load-client-", c).start(() -> {
+                while (System.nanoTime() < deadline) {
+                    Call call = scenario.next().apply(state);
+                    Samples operation = own.computeIfAbsent(call.operation(), k -> new Samples());
+                    HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + call.path()))
+                            .timeout(Duration.ofSeconds(30))
+                            .method(call.method(), call.body() == null
+                                    ? HttpRequest.BodyPublishers.noBody()
+                                    : HttpRequest.BodyPublishers.ofString(call.body()));
+                    if (call.body() != null) {
+                        request.header("Content-Type", "application/json");
+                    }
+                    if (state.token != null) {
+                        request.header("Authorization", "Bearer " + state.token);
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            operation.errors++;
+                            continue;
+                        }
+                        operation.add(System.nanoTime() - start);
+                        if (call.playedEpisode() > 0) {
+                            state.played(call.playedEpisode());
+                        }
+                    } catch (IOException e) {
+                        operation.errors++;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Map<String, List<Samples>> byOperation = new TreeMap<>();
+        for (Map<String, Samples> own : samples) {
+            own.forEach((operation, values) -> byOperation.computeIfAbsent(operation, k -> new ArrayList<>()).add(values));
+        }
+        return byOperation;
+    }
+
+    // ── Escenarios ───────────────────────────────────────────────────────────────────
+
+    private static Call play(int[] episodes) {
+        int episodeId = ThreadLocalRandom.current().nextInt(episodes[0], episodes[1] + 1);
+        return new Call("play", "GET", "/podcastUTN/v1/episodes/" + episodeId + "/play", null, episodeId);
+    }
+
+    private static Call mixed(Client client, Map<String, Integer> mix, int[] episodes, int[] podcasts) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String operation = pick(mix, random);
+        switch (operation) {
+            case "browse" -> {
+                int podcastId = random.nextInt(podcasts[0], podcasts[1] + 1);
+                return switch (random.nextInt(3)) {
+                    case 0 -> Call.get("browse", "/podcastUTN/v1/podcasts");
+                    case 1 -> Call.get("browse", "/podcastUTN/v1/podcasts/" + podcastId);
+                    default -> Call.get("browse", "/podcastUTN/v1/episodes?podcastId=" + podcastId);
+                };
+            }
+            case "rate", "comment" -> {
+                int episodeId = client.settledEpisode();
+                if (episodeId == 0) {
+                    // Todavía no reprodujo nada (o es muy reciente): primero escucha
+                    return play(episodes);
+                }
+                return operation.equals("rate")
+                        ? new Call("rate", "POST", "/podcastUTN/v1/users/" + episodeId + "/rate",
+                                "{\"score\":" + random.nextInt(1, 11) + "}", 0)
+                        : new Call("comment", "POST", "/podcastUTN/v1/episodes/" + episodeId + "/comment",
+                                "{\"commentary\":\"Comentario de carga " + random.nextInt(1_000_000) + "\"}", 0);
+            }
+            default -> {
+                return play(episodes);
+            }
+        }
+    }
+
+    private static String pick(Map<String, Integer> weights, ThreadLocalRandom random) {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(total);
+        for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+            roll -= weight.getValue();
+            if (roll < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    // "browse=60,play=25,rate=10,comment=5"
+    static Map<String, Integer> weights(String spec) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (!Set.of("browse", "play", "rate", "comment").contains(pair[0])) {
+                throw new IllegalArgumentException("Unknown operation in --mix: " + pair[0]);
+            }
+            weights.put(pair[0], Integer.parseInt(pair[1]));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("--mix needs a positive weight");
+        }
+        return weights;
+    }
+
+    // "1-100" -> {1, 100}
+    private static int[] range(String spec) {
+        String[] bounds = spec.split("-");
+        return new int[]{Integer.parseInt(bounds[0]), Integer.parseInt(bounds[bounds.length - 1])};
+    }
+
+    static Result summarize(String target, String scenario, int concurrency, int seconds, List<Samples> samples) {
+        int total = samples.stream().mapToInt(s -> s.size).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        long errors = 0;
+        for (Samples s : samples) {
+            System.arraycopy(s.values, 0, all, offset, s.size);
+            offset += s.size;
+            errors += s.errors;
+        }
+        Arrays.sort(all);
+        return new Result(target, scenario, concurrency, seconds, total, errors, (double) total / seconds,
+                percentileMs(all, 0.50), percentileMs(all, 0.90), percentileMs(all, 0.99),
+                total == 0 ? 0 : all[total - 1] / 1e6);
+    }
+
+    // Percentil por rango más cercano sobre latencias ordenadas
+    static double percentileMs(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    private static String login(HttpClient client, String baseUrl, String username, String password) throws Exception {
+        String body = MAPPER.writeValueAsString(Map.of("username", username, "password", password));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/podcastUTN/v1/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed against " + baseUrl + ": " + response.statusCode());
+        }
+        return MAPPER.readTree(response.body()).get("token").asText();
+    }
+
+    // --clave valor, repetibles
+    private static Map<String, List<String>> parse(String[] args) {
+        Map<String, List<String>> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option, got: " + args[i]);
+            }
+            options.computeIfAbsent(args[i].substring(2), k -> new ArrayList<>()).add(args[i + 1]);
+        }
+        return options;
+    }
+
+    private static String option(Map<String, List<String>> options, String name, String defaultValue) {
+        List<String> values = options.get(name);
+        return values != null ? values.get(values.size() - 1) : defaultValue;
+    }
+}
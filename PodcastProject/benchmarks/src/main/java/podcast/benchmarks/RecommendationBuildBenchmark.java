@@ -0,0 +1,83 @@
+package podcast.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import podcast.cfg.ZipfSampler;
+import podcast.model.search.ItemSimilarityBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Reconstrucción completa de los vecinos ítem-ítem (lo que hace RecommendationService.rebuild sin la
+// lectura ni la escritura en la BD) sobre un historial sintético. La actividad de los usuarios y la
+// popularidad de los episodios siguen una Zipf; además cada usuario tiene un "gusto" (una zona del
+// catálogo) de donde sale la mitad de lo que escucha, así hay co-ocurrencias con estructura.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class RecommendationBuildBenchmark {
+
+    private static final int TASTE_WIDTH = 500;
+
+    @Param({"10000000"})
+    private int events;
+
+    @Param({"200000"})
+    private int users;
+
+    @Param({"50000"})
+    private int episodes;
+
+    // 0 = un hilo por procesador
+    @Param({"0"})
+    private int parallelism;
+
+    @Param({"300"})
+    private int maxItemsPerUser;
+
+    @Param({"1000000"})
+    private long blockEntries;
+
+    private int[] eventUsers;
+    private int[] eventEpisodes;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        ZipfSampler activity = new ZipfSampler(users, 1.0);
+        ZipfSampler popularity = new ZipfSampler(episodes, 1.0);
+        ZipfSampler taste = new ZipfSampler(TASTE_WIDTH, 1.0);
+        eventUsers = new int[events];
+        eventEpisodes = new int[events];
+        for (int i = 0; i < events; i++) {
+            int user = activity.sample(random);
+            eventUsers[i] = user;
+            eventEpisodes[i] = random.nextBoolean()
+                    ? popularity.sample(random)
+                    : (int) ((tasteOffset(user) + taste.sample(random)) % episodes);
+        }
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private long tasteOffset(int user) {
+        return Math.floorMod(user * 0x9E3779B97F4A7C15L, episodes);
+    }
+
+    @Benchmark
+    public ItemSimilarityBuilder.Result rebuild() {
+        ItemSimilarityBuilder builder = new ItemSimilarityBuilder(20, maxItemsPerUser, 0.5f, 5f, blockEntries);
+        for (int i = 0; i < events; i++) {
+            builder.addPlay(eventUsers[i], eventEpisodes[i]);
+        }
+        return builder.build(pool);
+    }
+}
@@ -0,0 +1,105 @@
+package podcast.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import podcast.model.entities.enums.SearchDocumentType;
+import podcast.model.search.SearchIndex;
+import podcast.model.search.TextAnalyzer;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Latencia de consultas sobre un corpus sintético grande: vocabulario generado a partir de sílabas
+// con frecuencias Zipf (pocas palabras muy comunes y una cola larga), como en texto real.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchIndexBenchmark {
+
+    private static final String[] SYLLABLES = {"ca", "de", "ti", "mo", "ra", "lu", "pe", "son", "ter", "vi",
+            "no", "gra", "cion", "men", "to", "pa", "cri", "sta", "lo", "ma"};
+
+    @Param({"200000"})
+    private int documents;
+
+    private SearchIndex index;
+    private String[] vocabulary;
+    private double[] zipfCumulative;
+    private SplittableRandom random;
+    private String commonTerm;
+    private String rareTerm;
+    private long nextUpdateId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        random = new SplittableRandom(42);
+        vocabulary = new String[20_000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            vocabulary[i] = word(i);
+        }
+        zipfCumulative = new double[vocabulary.length];
+        double sum = 0;
+        for (int i = 0; i < vocabulary.length; i++) {
+            sum += 1.0 / (i + 1);
+            zipfCumulative[i] = sum;
+        }
+        for (int i = 0; i < vocabulary.length; i++) {
+            zipfCumulative[i] /= sum;
+        }
+        index = new SearchIndex(new TextAnalyzer());
+        for (int id = 0; id < documents; id++) {
+            SearchDocumentType type = id % 10 == 0 ? SearchDocumentType.PODCAST : SearchDocumentType.EPISODE;
+            index.index(new SearchIndex.Document(type, id, text(6), text(40)));
+        }
+        commonTerm = vocabulary[5];
+        rareTerm = vocabulary[5_000];
+    }
+
+    private String word(int n) {
+        StringBuilder sb = new StringBuilder();
+        int value = n + SYLLABLES.length; // al menos dos sílabas
+        while (value > 0) {
+            sb.append(SYLLABLES[value % SYLLABLES.length]);
+            value /= SYLLABLES.length;
+        }
+        return sb.toString();
+    }
+
+    private String text(int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            int pos = java.util.Arrays.binarySearch(zipfCumulative, random.nextDouble());
+            sb.append(vocabulary[pos >= 0 ? pos : Math.min(-pos - 1, vocabulary.length - 1)]).append(' ');
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public SearchIndex.Result rareTerm() {
+        return index.search(rareTerm + " ", null, 0, 20);
+    }
+
+    @Benchmark
+    public SearchIndex.Result commonTerm() {
+        return index.search(commonTerm + " ", null, 0, 20);
+    }
+
+    @Benchmark
+    public SearchIndex.Result twoTerms() {
+        return index.search(rareTerm + " " + commonTerm + " ", null, 0, 20);
+    }
+
+    @Benchmark
+    public SearchIndex.Result prefix() {
+        return index.search(rareTerm.substring(0, 3), null, 0, 20);
+    }
+
+    // Alta incremental de un documento (lo que hace EpisodeService.save)
+    @Benchmark
+    public void indexDocument() {
+        index.index(new SearchIndex.Document(SearchDocumentType.EPISODE, documents + (nextUpdateId++ % 10_000),
+                text(6), text(40)));
+    }
+}
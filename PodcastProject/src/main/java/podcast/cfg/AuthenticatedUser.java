@@ -0,0 +1,67 @@
+package podcast.cfg;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import org.springframework.security.core.userdetails.UserDetails;
+import podcast.model.entities.User;
+import podcast.model.entities.enums.Role;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+// Principal liviano que se arma desde los claims del JWT (id, username y roles).
+// Evita cargar la entidad User en cada request: los servicios que sólo necesitan la
+// identidad del usuario trabajan con el id directamente.
+@Getter
+public class AuthenticatedUser implements UserDetails {
+
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+
+    private final Long id;
+    private final String username;
+    private final Set<Role> authorities;
+
+    public AuthenticatedUser(Long id, String username, Set<Role> authorities) {
+        this.id = id;
+        this.username = username;
+        this.authorities = Set.copyOf(authorities);
+    }
+
+    public static AuthenticatedUser from(User user) {
+        // EnumSet.copyOf falla con una colección vacía
+        Set<Role> authorities = EnumSet.noneOf(Role.class);
+        authorities.addAll(user.getCredential().getRoles());
+        return new AuthenticatedUser(user.getId(), user.getUsername(), authorities);
+    }
+
+    // Devuelve null si el token no trae los claims necesarios (por ej. tokens emitidos antes de agregar "uid")
+    public static AuthenticatedUser fromClaims(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        Object roles = claims.get(CLAIM_ROLES);
+        if (userId == null || claims.getSubject() == null || !(roles instanceof Collection<?> roleNames)) {
+            return null;
+        }
+        Set<Role> authorities = EnumSet.noneOf(Role.class);
+        for (Object roleName : roleNames) {
+            try {
+                authorities.add(Role.valueOf(String.valueOf(roleName)));
+            } catch (IllegalArgumentException e) {
+                return null; // Rol desconocido: mejor resolver contra la base
+            }
+        }
+        return new AuthenticatedUser(userId.longValue(), claims.getSubject(), authorities);
+    }
+
+    @Override
+    public Collection<Role> getAuthorities() {
+        return authorities;
+    }
+
+    // El principal nunca se usa para autenticar con contraseña, sólo viaja con el JWT
+    @Override
+    public String getPassword() {
+        return null;
+    }
+}
@@ -0,0 +1,374 @@
+package podcast.cfg;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import podcast.model.entities.enums.Category;
+import podcast.model.entities.enums.Role;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Genera un dataset sintético grande para reproducir localmente problemas de escala, sobre las tablas
+// de las entidades (users, podcasts, episodes, episode_history, ratings, commentaries, favorites) y
+// con inserts en batch por JDBC. Se activa con podcast.datagen.enabled=true y corre como
+// ApplicationRunner, antes de ApplicationReadyEvent: los listeners de arranque (podcast_stats,
+// índice de búsqueda, tendencias, índice de categorías) ya ven los datos nuevos.
+//
+// Sesgo realista:
+// - Reproducciones Zipf sobre episodios (la popularidad no depende del id) y sobre usuarios.
+// - Ratings y comentarios salen de reproducciones (nadie califica lo que no escuchó), un rating por par.
+// - Favoritos con cola pesada (Pareto): la mayoría pocos, algunos usuarios cientos.
+// Los agregados de cada episodio (views, rating_sum/count, comment_count) quedan consistentes.
+//
+// Los usuarios son dg_<n> con password podcast.datagen.password. Si ya hay un dataset generado no
+// hace nada. Con MySQL conviene rewriteBatchedStatements=true en la URL para que el batch sea un
+// solo INSERT multi-fila.
+@Component
+@ConditionalOnProperty(name = "podcast.datagen.enabled", havingValue = "true")
+public class DatasetGenerator implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    static final String USER_PREFIX = "dg_";
+    private static final String EMAIL_DOMAIN = "@datagen.local";
+    private static final String PODCAST_PREFIX = "Podcast generado ";
+    private static final long HISTORY_WINDOW_SECONDS = 90L * 24 * 3600;
+
+    public record Summary(int users, int podcasts, int episodes, long plays, int ratings, int comments,
+                          long favorites, long elapsedMs) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final int users;
+    private final int podcasts;
+    private final int episodesPerPodcast;
+    private final long plays;
+    private final int ratings;
+    private final int comments;
+    private final int maxFavorites;
+    private final double zipfExponent;
+    private final int batchSize;
+    private final long seed;
+    private final String password;
+
+    public DatasetGenerator(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder,
+                            @Value("${podcast.datagen.users:20000}") int users,
+                            @Value("${podcast.datagen.podcasts:2000}") int podcasts,
+                            @Value("${podcast.datagen.episodes-per-podcast:25}") int episodesPerPodcast,
+                            @Value("${podcast.datagen.plays:2000000}") long plays,
+                            @Value("${podcast.datagen.ratings:300000}") int ratings,
+                            @Value("${podcast.datagen.comments:200000}") int comments,
+                            @Value("${podcast.datagen.max-favorites:500}") int maxFavorites,
+                            @Value("${podcast.datagen.zipf-exponent:1.0}") double zipfExponent,
+                            @Value("${podcast.datagen.batch-size:1000}") int batchSize,
+                            @Value("${podcast.datagen.seed:42}") long seed,
+                            @Value("${podcast.datagen.password:Secret123!}") String password) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.users = users;
+        this.podcasts = podcasts;
+        this.episodesPerPodcast = episodesPerPodcast;
+        this.plays = plays;
+        this.ratings = ratings;
+        this.comments = comments;
+        this.maxFavorites = maxFavorites;
+        this.zipfExponent = zipfExponent;
+        this.batchSize = batchSize;
+        this.seed = seed;
+        this.password = password;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE email LIKE ?", Integer.class, "%" + EMAIL_DOMAIN);
+        if (existing != null && existing > 0) {
+            logger.info("Dataset generado ya presente ({} usuarios), no se vuelve a generar", existing);
+            return;
+        }
+        generate();
+    }
+
+    public Summary generate() {
+        long start = System.currentTimeMillis();
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDateTime now = LocalDateTime.now();
+
+        long[] userIds = insertUsers(now);
+        long[] podcastIds = insertPodcasts(random, userIds, now);
+        long[] episodeIds = insertEpisodes(random, podcastIds, now);
+
+        // Agregados por episodio (por índice en episodeIds), se escriben al final
+        long[] views = new long[episodeIds.length];
+        long[] ratingSum = new long[episodeIds.length];
+        long[] ratingCount = new long[episodeIds.length];
+        long[] commentCount = new long[episodeIds.length];
+
+        // Reproducciones guardadas como índices para sacar de ahí ratings y comentarios
+        int[] playUser = new int[(int) Math.min(plays, Integer.MAX_VALUE - 8)];
+        int[] playEpisode = new int[playUser.length];
+        insertHistory(random, userIds, episodeIds, playUser, playEpisode, views, now);
+        int insertedRatings = insertRatings(random, userIds, episodeIds, playUser, playEpisode, ratingSum, ratingCount, now);
+        int insertedComments = insertComments(random, userIds, episodeIds, playUser, playEpisode, commentCount, now);
+        updateEpisodeAggregates(episodeIds, views, ratingSum, ratingCount, commentCount);
+        long favorites = insertFavorites(random, userIds, podcastIds);
+
+        Summary summary = new Summary(userIds.length, podcastIds.length, episodeIds.length, playUser.length,
+                insertedRatings, insertedComments, favorites, System.currentTimeMillis() - start);
+        logger.info("Dataset generado: {}", summary);
+        return summary;
+    }
+
+    // ── Usuarios, podcasts y episodios ───────────────────────────────────────────────
+
+    private long[] insertUsers(LocalDateTime now) {
+        // BCrypt es caro a propósito: un solo hash para todos
+        String encoded = passwordEncoder.encode(password);
+        Timestamp createdAt = Timestamp.valueOf(now);
+        Batch batch = new Batch("INSERT INTO users (name, last_name, nickname, username, email, password, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)");
+        for (int i = 0; i < users; i++) {
+            String username = USER_PREFIX + i;
+            batch.add("Usuario", "Generado", username, username, username + EMAIL_DOMAIN, encoded, createdAt);
+        }
+        batch.flush();
+        long[] ids = ids("SELECT id FROM users WHERE email LIKE ? ORDER BY id", "%" + EMAIL_DOMAIN);
+
+        // roles no tiene @Enumerated: se guarda por ordinal. Uno de cada diez usuarios es creador
+        Batch roles = new Batch("INSERT INTO user_roles (user_id, roles) VALUES (?, ?)");
+        for (int i = 0; i < ids.length; i++) {
+            roles.add(ids[i], Role.ROLE_USER.ordinal());
+            if (i < creators()) {
+                roles.add(ids[i], Role.ROLE_CREATOR.ordinal());
+            }
+        }
+        roles.flush();
+        logger.info("Usuarios generados: {}", ids.length);
+        return ids;
+    }
+
+    private int creators() {
+        return Math.max(1, users / 10);
+    }
+
+    private long[] insertPodcasts(SplittableRandom random, long[] userIds, LocalDateTime now) {
+        Batch batch = new Batch("INSERT INTO podcasts (title, description, image_url, is_active, created_at, updated_at, user_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)");
+        for (int i = 0; i < podcasts; i++) {
+            Timestamp createdAt = Timestamp.valueOf(now.minusDays(random.nextInt(720)));
+            batch.add(PODCAST_PREFIX + i, "Descripción del podcast generado " + i,
+                    "https://cdn.example.com/podcasts/" + i + ".png", true, createdAt, createdAt,
+                    userIds[random.nextInt(Math.min(creators(), userIds.length))]);
+        }
+        batch.flush();
+        long[] ids = ids("SELECT id FROM podcasts WHERE title LIKE ? ORDER BY id", PODCAST_PREFIX + "%");
+
+        // Categorías también con sesgo: unas pocas concentran la mayoría de los podcasts
+        Category[] categories = Category.values();
+        ZipfSampler categorySampler = new ZipfSampler(categories.length, zipfExponent);
+        Batch categoryBatch = new Batch("INSERT INTO categoriesxpodcast (podcast_id, category) VALUES (?, ?)");
+        for (long podcastId : ids) {
+            EnumSet<Category> chosen = EnumSet.noneOf(Category.class);
+            int count = 1 + random.nextInt(3);
+            while (chosen.size() < count) {
+                chosen.add(categories[categorySampler.sample(random)]);
+            }
+            for (Category category : chosen) {
+                categoryBatch.add(podcastId, category.name());
+            }
+        }
+        categoryBatch.flush();
+        logger.info("Podcasts generados: {}", ids.length);
+        return ids;
+    }
+
+    private long[] insertEpisodes(SplittableRandom random, long[] podcastIds, LocalDateTime now) {
+        // Sin inbox generado: fanout_skipped hace que el feed los lea directo de los favoritos
+        Batch batch = new Batch("INSERT INTO episodes (title, description, publication_date, created_at, views, rating_sum, " +
+                "rating_count, comment_count, image_url, season, chapter, audio_path, duration, podcast_id, fanout_skipped) " +
+                "VALUES (?, ?, ?, ?, 0, 0, 0, 0, ?, ?, ?, ?, ?, ?, TRUE)");
+        for (long podcastId : podcastIds) {
+            // Entre 1 y el doble del promedio, en temporadas de hasta 10 capítulos
+            int count = 1 + random.nextInt(Math.max(1, 2 * episodesPerPodcast - 1));
+            LocalDateTime published = now.minusDays(count * 7L);
+            for (int e = 0; e < count; e++) {
+                Timestamp publicationDate = Timestamp.valueOf(published.plusDays(e * 7L));
+                // title es único en toda la tabla
+                batch.add("Episodio " + (e + 1) + " de " + podcastId, "Descripción del episodio " + (e + 1) + " del podcast " + podcastId,
+                        publicationDate, publicationDate, "https://cdn.example.com/episodes/" + podcastId + "-" + e + ".png",
+                        e / 10 + 1, e % 10 + 1, "https://cdn.example.com/audio/" + podcastId + "-" + e + ".mp3",
+                        (long) (600 + random.nextInt(5400)), podcastId);
+            }
+        }
+        batch.flush();
+        long[] ids = ids("SELECT e.id FROM episodes e JOIN podcasts p ON p.id = e.podcast_id WHERE p.title LIKE ? ORDER BY e.id",
+                PODCAST_PREFIX + "%");
+        logger.info("Episodios generados: {}", ids.length);
+        return ids;
+    }
+
+    // ── Actividad ────────────────────────────────────────────────────────────────────
+
+    private void insertHistory(SplittableRandom random, long[] userIds, long[] episodeIds,
+                               int[] playUser, int[] playEpisode, long[] views, LocalDateTime now) {
+        // Rango de popularidad -> episodio al azar, así los más escuchados no son siempre los primeros ids
+        int[] episodeByRank = permutation(random, episodeIds.length);
+        int[] userByRank = permutation(random, userIds.length);
+        ZipfSampler episodeSampler = new ZipfSampler(episodeIds.length, zipfExponent);
+        ZipfSampler userSampler = new ZipfSampler(userIds.length, zipfExponent);
+
+        Batch batch = new Batch("INSERT INTO episode_history (user_id, episode_id, listened_at) VALUES (?, ?, ?)");
+        for (int i = 0; i < playUser.length; i++) {
+            int user = userByRank[userSampler.sample(random)];
+            int episode = episodeByRank[episodeSampler.sample(random)];
+            playUser[i] = user;
+            playEpisode[i] = episode;
+            views[episode]++;
+            batch.add(userIds[user], episodeIds[episode],
+                    Timestamp.valueOf(now.minusSeconds(random.nextLong(HISTORY_WINDOW_SECONDS))));
+            if ((i + 1) % 500_000 == 0) {
+                logger.info("Historial: {} de {} reproducciones", i + 1, playUser.length);
+            }
+        }
+        batch.flush();
+        logger.info("Reproducciones generadas: {}", playUser.length);
+    }
+
+    private int insertRatings(SplittableRandom random, long[] userIds, long[] episodeIds, int[] playUser, int[] playEpisode,
+                              long[] ratingSum, long[] ratingCount, LocalDateTime now) {
+        if (playUser.length == 0) {
+            return 0;
+        }
+        Batch batch = new Batch("INSERT INTO ratings (user_id, episode_id, score, rated_at) VALUES (?, ?, ?, ?)");
+        Set<Long> rated = new HashSet<>(ratings * 2);
+        int inserted = 0;
+        // Tope de intentos por si hay menos pares usuario-episodio distintos que ratings pedidos
+        for (long attempt = 0; inserted < ratings && attempt < ratings * 10L; attempt++) {
+            int play = random.nextInt(playUser.length);
+            int user = playUser[play];
+            int episode = playEpisode[play];
+            if (!rated.add((long) user * episodeIds.length + episode)) {
+                continue;
+            }
+            // Sesgado hacia arriba, como los ratings reales
+            long score = Math.min(10, 4 + random.nextInt(4) + random.nextInt(4));
+            ratingSum[episode] += score;
+            ratingCount[episode]++;
+            batch.add(userIds[user], episodeIds[episode], score,
+                    Timestamp.valueOf(now.minusSeconds(random.nextLong(HISTORY_WINDOW_SECONDS))));
+            inserted++;
+        }
+        batch.flush();
+        logger.info("Ratings generados: {}", inserted);
+        return inserted;
+    }
+
+    private int insertComments(SplittableRandom random, long[] userIds, long[] episodeIds, int[] playUser, int[] playEpisode,
+                                long[] commentCount, LocalDateTime now) {
+        if (playUser.length == 0) {
+            return 0;
+        }
+        Batch batch = new Batch("INSERT INTO commentaries (content, created_at, user_id, episode_id) VALUES (?, ?, ?, ?)");
+        for (int i = 0; i < comments; i++) {
+            int play = random.nextInt(playUser.length);
+            int episode = playEpisode[play];
+            commentCount[episode]++;
+            batch.add("Comentario generado " + i, Timestamp.valueOf(now.minusSeconds(random.nextLong(HISTORY_WINDOW_SECONDS))),
+                    userIds[playUser[play]], episodeIds[episode]);
+        }
+        batch.flush();
+        logger.info("Comentarios generados: {}", comments);
+        return comments;
+    }
+
+    private void updateEpisodeAggregates(long[] episodeIds, long[] views, long[] ratingSum, long[] ratingCount,
+                                         long[] commentCount) {
+        Batch batch = new Batch("UPDATE episodes SET views = ?, rating_sum = ?, rating_count = ?, comment_count = ? WHERE id = ?");
+        for (int e = 0; e < episodeIds.length; e++) {
+            if (views[e] > 0 || ratingCount[e] > 0 || commentCount[e] > 0) {
+                batch.add(views[e], ratingSum[e], ratingCount[e], commentCount[e], episodeIds[e]);
+            }
+        }
+        batch.flush();
+    }
+
+    private long insertFavorites(SplittableRandom random, long[] userIds, long[] podcastIds) {
+        int[] podcastByRank = permutation(random, podcastIds.length);
+        ZipfSampler podcastSampler = new ZipfSampler(podcastIds.length, zipfExponent);
+        int cap = Math.min(maxFavorites, podcastIds.length);
+        Batch batch = new Batch("INSERT INTO favorites (user_id, podcast_id) VALUES (?, ?)");
+        long inserted = 0;
+        for (long userId : userIds) {
+            // Pareto con mínimo 1 y alfa 1.2: mediana cerca de 2, unos pocos usuarios llegan al tope
+            int count = (int) Math.min(cap, Math.floor(1 / Math.pow(1 - random.nextDouble(), 1 / 1.2)));
+            Set<Integer> chosen = new HashSet<>();
+            // Con listas largas el Zipf repite mucho: se completa con podcasts uniformes
+            for (int attempt = 0; chosen.size() < count && attempt < count * 4; attempt++) {
+                chosen.add(podcastByRank[podcastSampler.sample(random)]);
+            }
+            while (chosen.size() < count) {
+                chosen.add(random.nextInt(podcastIds.length));
+            }
+            for (int podcast : chosen) {
+                batch.add(userId, podcastIds[podcast]);
+            }
+            inserted += chosen.size();
+        }
+        batch.flush();
+        logger.info("Favoritos generados: {}", inserted);
+        return inserted;
+    }
+
+    // ── Auxiliares ───────────────────────────────────────────────────────────────────
+
+    private long[] ids(String sql, Object... args) {
+        return jdbcTemplate.queryForList(sql, Long.class, args).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static int[] permutation(SplittableRandom random, int n) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+        return values;
+    }
+
+    // Acumula filas y las manda con batchUpdate cada batch-size
+    private final class Batch {
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>();
+
+        Batch(String sql) {
+            this.sql = sql;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            if (rows.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package podcast.cfg;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Caché de segundo nivel de Hibernate sobre JCache (Caffeine) para las entidades que se leen en casi
+// todos los requests y cambian poco: podcasts con sus categorías y usuarios con sus roles, más la
+// consulta de podcasts por dueño. Cada región tiene tamaño máximo y TTL propios
+// (podcast.l2cache.<región>.max-entries / ttl-ms, con podcast.l2cache.max-entries / ttl-ms por
+// defecto). Una región usada en @Cache que no esté en REGIONS hace fallar el arranque, así que
+// ninguna queda sin límite. Métricas por región: cache.gets{result=hit|miss}, cache.puts,
+// cache.evictions y cache.removals (tag cache=<región>).
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String PODCASTS = "podcasts";
+    public static final String PODCAST_CATEGORIES = "podcast-categories";
+    public static final String USERS = "users";
+    public static final String USER_ROLES = "user-roles";
+    public static final String PODCASTS_BY_OWNER = "podcasts-by-owner";
+
+    public static final List<String> REGIONS = List.of(PODCASTS, PODCAST_CATEGORIES, USERS, USER_ROLES,
+            PODCASTS_BY_OWNER, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    private final boolean enabled;
+
+    public HibernateCacheConfig(@Value("${podcast.l2cache.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    // Un CacheManager por contexto: el provider los reutiliza por URI, y dos contextos (por ejemplo en
+    // los tests) no pueden compartir regiones
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment environment,
+                                              @Value("${podcast.l2cache.max-entries:10000}") long defaultMaxEntries,
+                                              @Value("${podcast.l2cache.ttl-ms:600000}") long defaultTtlMs) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("podcast:l2cache:" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : REGIONS) {
+            long maxEntries = environment.getProperty("podcast.l2cache." + region + ".max-entries", Long.class, defaultMaxEntries);
+            long ttlMs = environment.getProperty("podcast.l2cache." + region + ".ttl-ms", Long.class, defaultTtlMs);
+            cacheManager.createCache(region, regionConfiguration(OptionalLong.of(maxEntries), OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(ttlMs))));
+        }
+        // Las marcas de última escritura por tabla invalidan las consultas cacheadas: si vencieran o
+        // se desalojaran, una consulta podría devolver resultados viejos. Es una entrada por tabla.
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                regionConfiguration(OptionalLong.empty(), OptionalLong.empty()));
+        return cacheManager;
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(OptionalLong maxEntries, OptionalLong ttlNanos) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maxEntries);
+        configuration.setExpireAfterWrite(ttlNanos);
+        // Hibernate ya guarda el estado desarmado (inmutable): copiarlo en cada get/put no aporta nada
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, enabled);
+            if (enabled) {
+                properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+                properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+                properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> {
+            for (String region : REGIONS) {
+                JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(region), Tags.of("layer", "hibernate-l2"));
+            }
+        };
+    }
+}
@@ -1,5 +1,7 @@
 package podcast.cfg;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,10 +9,11 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import podcast.model.entities.User;
 import podcast.model.services.UserDetailsServiceImpl;
 
 import java.io.IOException;
@@ -24,6 +27,9 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -42,37 +48,63 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         // Extraemos el token sin el prefijo "Bearer "
         String token = authHeader.substring(7);
 
-        // Obtenemos el nombre de usuario desde el token
-        String username = jwtService.extractUsername(token);
+        // Verificamos firma y vencimiento una sola vez y obtenemos todos los claims
+        Claims claims;
+        try {
+            claims = jwtService.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            filterChain.doFilter(request, response);
+            return; // Token inválido o vencido: el request sigue como anónimo
+        }
+        String username = claims.getSubject();
 
-        // Si obtenemos un username y no hay autenticación en contexto, validamos el token
+        // Si obtenemos un username y no hay autenticación en contexto, autenticamos
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            // Cargamos los datos del usuario desde base de datos
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-            // Verificamos si el token es válido
-            if (jwtService.isTokenValid(token, userDetails)) {
-
-                // Creamos el token de autenticación de Spring
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-
-                // Cargamos información adicional del request
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                );
-
-                // Establecemos el usuario autenticado en el contexto de Spring
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+            // El principal sale de la caché o de los claims; sólo se consulta la base si el token es viejo
+            AuthenticatedUser userDetails;
+            try {
+                userDetails = resolvePrincipal(username, claims);
+            } catch (UsernameNotFoundException e) {
+                filterChain.doFilter(request, response);
+                return; // El usuario del token ya no existe
             }
+
+            // Creamos el token de autenticación de Spring
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(
+                            userDetails,
+                            null,
+                            userDetails.getAuthorities()
+                    );
+
+            // Cargamos información adicional del request
+            authToken.setDetails(
+                    new WebAuthenticationDetailsSource().buildDetails(request)
+            );
+
+            // Establecemos el usuario autenticado en el contexto de Spring
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
 
         // Continuamos la cadena de filtros
         filterChain.doFilter(request, response);
     }
+
+    private AuthenticatedUser resolvePrincipal(String username, Claims claims) {
+        long generation = principalCache.generation();
+        AuthenticatedUser principal = principalCache.get(username);
+        if (principal != null) {
+            return principal;
+        }
+        if (!principalCache.isStale(username, claims.getIssuedAt())) {
+            principal = AuthenticatedUser.fromClaims(claims);
+        }
+        if (principal == null) {
+            // Token emitido antes de un cambio de roles/credenciales (o sin "uid"): se lee el estado actual
+            principal = AuthenticatedUser.from((User) userDetailsService.loadUserByUsername(username));
+        }
+        principalCache.put(principal, generation);
+        return principal;
+    }
 }
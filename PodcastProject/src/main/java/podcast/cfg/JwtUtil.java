@@ -1,16 +1,22 @@
-
 package podcast.cfg;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import podcast.model.entities.User;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
+import java.util.List;
 
 @Service
 public class JwtUtil {
@@ -18,48 +24,71 @@ public class JwtUtil {
     // Clave secreta para firmar el token. ¡Nunca la subas a GitHub! Mejor usar variables de entorno.
     private static final String SECRET_KEY = "claveSecretaMuySeguraParaFirmarTokensJWT";
 
+    // Vida útil de cada token emitido (1 hora)
+    public static final long TOKEN_TTL_MS = 1000 * 60 * 60;
+
     /*@Value("${jwt.secret}")
     private String secretKey;*/
 
+    // La clave y el parser se construyen una sola vez: ambos son inmutables y thread-safe
+    private final Key key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8)); // Usa HMAC con SHA-256
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(key) // Le dice con qué clave validar la firma
+            .build();
+
+    // Tokens ya verificados: evita repetir el HMAC en cada request mientras el token no venza
+    private final VerifiedTokenCache verifiedTokens;
+
+    public JwtUtil(@Value("${jwt.cache.max-size:10000}") int cacheMaxSize) {
+        this.verifiedTokens = new VerifiedTokenCache(cacheMaxSize);
+    }
+
     // Genera un token para un usuario autenticado
     public String generateToken(UserDetails userDetails) {
-        return Jwts.builder()
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(userDetails.getUsername()) // El "dueño" del token (ej: nombre de usuario)
-                .claim("roles", userDetails.getAuthorities()) // Información adicional: los roles del usuario
-                .setIssuedAt(new Date(System.currentTimeMillis())) // Cuándo fue generado
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60)) // Expira en 1 hora
-                .signWith(getKey(), SignatureAlgorithm.HS256) // Firma el token con HS256 y la clave secreta
+                .claim(AuthenticatedUser.CLAIM_ROLES, roles); // Información adicional: los roles del usuario
+        if (userDetails instanceof User user && user.getId() != null) {
+            builder.claim(AuthenticatedUser.CLAIM_USER_ID, user.getId()); // Con el id el filtro no necesita ir a la base
+        }
+        long now = System.currentTimeMillis();
+        return builder
+                .setIssuedAt(new Date(now)) // Cuándo fue generado
+                .setExpiration(new Date(now + TOKEN_TTL_MS)) // Expira en 1 hora
+                .signWith(key, SignatureAlgorithm.HS256) // Firma el token con HS256 y la clave secreta
                 .compact(); // Lo convierte a una cadena tipo JWT (header.payload.firma)
     }
 
+    // Verifica firma y vencimiento en un único parseo y devuelve todos los claims.
+    // Lanza JwtException si el token es inválido o está vencido.
+    public Claims verify(String token) {
+        Claims cached = verifiedTokens.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = parser.parseClaimsJws(token).getBody(); // Parsea el JWT completo y lo valida (incluye exp)
+        verifiedTokens.put(token, claims);
+        return claims;
+    }
+
     //  Verifica si un token es válido para un usuario dado
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token); // extrae el usuario desde el token
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        try {
+            return verify(token).getSubject().equals(userDetails.getUsername());
+        } catch (JwtException e) {
+            return false;
+        }
     }
 
     // Extrae el nombre de usuario desde el token (campo "sub")
     public String extractUsername(String token) {
-        return extractAllClaims(token).getSubject();
-    }
-
-    // Verifica si el token está vencido (exp < fecha actual)
-    private boolean isTokenExpired(String token) {
-        return extractAllClaims(token).getExpiration().before(new Date());
-    }
-
-    // Extrae todos los datos (claims) del token
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getKey()) // Le dice con qué clave validar la firma
-                .build()
-                .parseClaimsJws(token) // Parsea el JWT completo y lo valida
-                .getBody(); // Devuelve el contenido (payload)
+        return verify(token).getSubject();
     }
 
-    //Convierte la clave secreta en un objeto Key para usar con la librería jjwt
-    private Key getKey() {
-        byte[] keyBytes = SECRET_KEY.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes); // Usa HMAC con SHA-256
+    public VerifiedTokenCache getVerifiedTokens() {
+        return verifiedTokens;
     }
 }
@@ -0,0 +1,54 @@
+package podcast.cfg;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import java.util.function.ToDoubleFunction;
+
+// Métricas en /actuator/prometheus. Spring Boot ya mide cada handler de los controllers
+// (http.server.requests), cada método de los I*Repository (spring.data.repository.invocations) y
+// los pools de Hikari (hikaricp.connections.*); acá se suman los histogramas de esos timers (ver
+// metrics-defaults.properties), las sentencias SQL por request y los aciertos de las cachés propias.
+@Configuration
+@PropertySource("classpath:metrics-defaults.properties")
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    // Mismo formato que las cachés instrumentadas por Micrometer: cache.gets{result=hit|miss} y cache.size
+    @Bean
+    public MeterBinder cacheMetrics(JwtUtil jwtUtil, PrincipalCache principalCache) {
+        return registry -> {
+            VerifiedTokenCache verifiedTokens = jwtUtil.getVerifiedTokens();
+            bindCache(registry, "verified-tokens", verifiedTokens, VerifiedTokenCache::getHits,
+                    VerifiedTokenCache::getMisses, VerifiedTokenCache::size);
+            bindCache(registry, "principals", principalCache, PrincipalCache::getHits,
+                    PrincipalCache::getMisses, PrincipalCache::size);
+        };
+    }
+
+    private static <T> void bindCache(MeterRegistry registry, String name, T cache, ToDoubleFunction<T> hits,
+                                      ToDoubleFunction<T> misses, ToDoubleFunction<T> size) {
+        FunctionCounter.builder("cache.gets", cache, hits)
+                .tags("cache", name, "result", "hit")
+                .description("Lecturas de la caché que encontraron la entrada")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, misses)
+                .tags("cache", name, "result", "miss")
+                .description("Lecturas de la caché que no encontraron la entrada")
+                .register(registry);
+        Gauge.builder("cache.size", cache, size)
+                .tag("cache", name)
+                .register(registry);
+    }
+}
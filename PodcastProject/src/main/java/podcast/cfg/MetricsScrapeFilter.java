@@ -0,0 +1,47 @@
+package podcast.cfg;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+// Autentica el scraping de /actuator/prometheus con un token fijo (podcast.metrics.scrape-token) en lugar
+// del JWT de login, que vence a la hora. Sin token configurado nadie puede leer las métricas.
+// No es un @Component: solo lo usa la cadena de SecurityConfig que atiende ese endpoint.
+public class MetricsScrapeFilter extends OncePerRequestFilter {
+
+    public static final String ROLE = "METRICS";
+
+    private final byte[] token;
+
+    public MetricsScrapeFilter(String token) {
+        this.token = token == null || token.isBlank() ? null : token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String authHeader = request.getHeader("Authorization");
+        if (token != null && authHeader != null && authHeader.startsWith("Bearer ")) {
+            byte[] presented = authHeader.substring(7).getBytes(StandardCharsets.UTF_8);
+            // Comparación en tiempo constante: no filtra cuántos caracteres coinciden
+            if (MessageDigest.isEqual(token, presented)) {
+                SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                        "prometheus", null, List.of(new SimpleGrantedAuthority("ROLE_" + ROLE))));
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,137 @@
+package podcast.cfg;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Caché con TTL de principals autenticados, por username.
+// Cuando cambian los roles o las credenciales de un usuario se invalida su entrada y se anota
+// el momento del cambio: los tokens emitidos antes de esa marca traen claims viejos, así que
+// para ellos el principal se vuelve a resolver contra la base en lugar de armarse desde el token.
+//
+// Un principal resuelto antes de una invalidación no se guarda (put compara la generación leída
+// antes de resolverlo) y una entrada anterior al último cambio del usuario no se devuelve.
+@Component
+public class PrincipalCache {
+
+    private record Entry(AuthenticatedUser principal, long cachedAt, long expiresAt) {
+    }
+
+    private final long ttlMs;
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // username -> instante (ms) del último cambio de roles/credenciales
+    private final Map<String, Long> invalidatedAt = new ConcurrentHashMap<>();
+    // Sube con cada invalidación, de cualquier usuario
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public PrincipalCache(@Value("${podcast.auth.principal-ttl-ms:300000}") long ttlMs,
+                          @Value("${podcast.auth.principal-cache-size:10000}") int maxSize) {
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+    }
+
+    public AuthenticatedUser get(String username) {
+        Entry entry = entries.get(username);
+        Long changedAt = invalidatedAt.get(username);
+        if (entry == null || entry.expiresAt() <= System.currentTimeMillis()
+                || (changedAt != null && entry.cachedAt() <= changedAt)) {
+            if (entry != null) {
+                entries.remove(username, entry);
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.principal();
+    }
+
+    // Leer antes de resolver el principal y pasarla a put
+    public long generation() {
+        return generation.get();
+    }
+
+    // No guarda nada si hubo una invalidación desde que se leyó resolvedAt: el principal puede ser viejo
+    public void put(AuthenticatedUser principal, long resolvedAt) {
+        if (generation.get() != resolvedAt) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evictExpired();
+            if (entries.size() >= maxSize) {
+                return; // Caché llena de entradas vigentes: se resuelve igual, sólo que sin cachear
+            }
+        }
+        long now = System.currentTimeMillis();
+        Entry entry = new Entry(principal, now, now + ttlMs);
+        entries.put(principal.getUsername(), entry);
+        // invalidate sube la generación antes de borrar: si corrió entre el chequeo y el put, se deshace acá
+        if (generation.get() != resolvedAt) {
+            entries.remove(principal.getUsername(), entry);
+        }
+    }
+
+    // Llamar al persistir un cambio de roles o credenciales del usuario. Dentro de una transacción se
+    // repite al confirmar: hasta entonces otro request puede seguir leyendo el estado anterior de la base.
+    public void invalidate(String username) {
+        if (username == null) {
+            return;
+        }
+        markChanged(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markChanged(username);
+                }
+            });
+        }
+    }
+
+    private void markChanged(String username) {
+        generation.incrementAndGet();
+        invalidatedAt.put(username, System.currentTimeMillis());
+        entries.remove(username);
+    }
+
+    // true si el token se emitió antes del último cambio del usuario (sus claims pueden estar desactualizados)
+    public boolean isStale(String username, Date issuedAt) {
+        Long changedAt = invalidatedAt.get(username);
+        if (changedAt == null) {
+            return false;
+        }
+        // Pasada la vida máxima de un token ya no puede quedar ninguno emitido antes del cambio
+        if (changedAt + JwtUtil.TOKEN_TTL_MS < System.currentTimeMillis()) {
+            invalidatedAt.remove(username, changedAt);
+            return false;
+        }
+        // "iat" tiene precisión de segundos: ante la duda se considera viejo
+        return issuedAt == null || issuedAt.getTime() <= changedAt;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+    }
+}
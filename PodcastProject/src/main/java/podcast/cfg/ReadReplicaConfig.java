@@ -0,0 +1,86 @@
+package podcast.cfg;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Solo se activa si hay réplicas configuradas (podcast.datasource.replica.urls, separadas por coma);
+// si no, queda el DataSource único de Spring Boot. La primaria sigue tomando spring.datasource.* y
+// spring.datasource.hikari.*; las réplicas usan el mismo usuario salvo que se indique otro.
+@Configuration
+@ConditionalOnProperty(name = "podcast.datasource.replica.urls")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource, DataSourceProperties properties, ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${podcast.datasource.replica.urls}") String[] urls,
+            @Value("${podcast.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${podcast.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${podcast.datasource.replica.pool-size:10}") int poolSize,
+            @Value("${podcast.datasource.replica.connection-timeout-ms:2000}") long connectionTimeoutMs,
+            @Value("${podcast.datasource.replica.sticky-window-ms:5000}") long stickyWindowMs,
+            @Value("${podcast.datasource.replica.health-interval-ms:5000}") long healthIntervalMs,
+            @Value("${podcast.datasource.replica.validation-timeout-seconds:2}") int validationTimeoutSeconds) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls[i].trim());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            // Una réplica caída no frena el arranque ni deja requests esperando 30 s por conexión
+            replica.setInitializationFailTimeout(-1);
+            replica.setConnectionTimeout(connectionTimeoutMs);
+            // La primaria es un bean y Spring Boot le agrega métricas solo; las réplicas no
+            meterRegistry.ifAvailable(replica::setMetricRegistry);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, stickyWindowMs, healthIntervalMs, validationTimeoutSeconds);
+    }
+
+    // Lecturas por destino: réplica, primaria por read-your-writes o primaria por falta de réplicas sanas
+    @Bean
+    public MeterBinder replicaRoutingMetrics(ReplicaRoutingDataSource routing) {
+        return registry -> {
+            FunctionCounter.builder("podcast.datasource.reads", routing, ReplicaRoutingDataSource::getReplicaReads)
+                    .tag("target", "replica").register(registry);
+            FunctionCounter.builder("podcast.datasource.reads", routing, ReplicaRoutingDataSource::getStickyReads)
+                    .tag("target", "sticky").register(registry);
+            FunctionCounter.builder("podcast.datasource.reads", routing, ReplicaRoutingDataSource::getFallbackReads)
+                    .tag("target", "fallback").register(registry);
+            Gauge.builder("podcast.datasource.replicas.healthy", routing, ReplicaRoutingDataSource::healthyReplicas)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,212 @@
+package podcast.cfg;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Envía las transacciones @Transactional(readOnly = true) a una réplica sana (round robin) y todo lo
+// demás a la primaria. Tiene que usarse detrás de un LazyConnectionDataSourceProxy: la conexión real
+// se pide con la primera sentencia, cuando el flag readOnly de la transacción ya está publicado.
+//
+// Read-your-writes: cuando un usuario confirma una transacción de escritura, sus lecturas van a la
+// primaria durante sticky-window-ms, para que no vea datos viejos mientras la réplica se pone al día.
+// Un chequeo periódico saca de la rotación a las réplicas que no responden; sin réplicas sanas
+// todo va a la primaria.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+    // Marca de que la transacción actual ya registró su escritura (una vez por transacción)
+    private static final Object WRITE_MARKER = new Object();
+
+    private static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long stickyWindowMs;
+    private final long healthIntervalMs;
+    private final int validationTimeoutSeconds;
+
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong replicaReads = new AtomicLong();
+    private final AtomicLong stickyReads = new AtomicLong();
+    private final AtomicLong fallbackReads = new AtomicLong();
+    private ScheduledExecutorService healthChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources, long stickyWindowMs,
+                                    long healthIntervalMs, int validationTimeoutSeconds) {
+        this.stickyWindowMs = stickyWindowMs;
+        this.healthIntervalMs = healthIntervalMs;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicaDataSources.get(i));
+            replicas.add(replica);
+            targets.put(replica.name, replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+        if (healthIntervalMs > 0) {
+            healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "replica-health-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            healthChecker.scheduleWithFixedDelay(this::checkReplicas, healthIntervalMs, healthIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriteOnCommit(user);
+            return PRIMARY;
+        }
+        if (user != null && isSticky(user)) {
+            stickyReads.incrementAndGet();
+            return PRIMARY;
+        }
+        Replica replica = nextHealthy();
+        if (replica == null) {
+            fallbackReads.incrementAndGet();
+            return PRIMARY;
+        }
+        replicaReads.incrementAndGet();
+        return replica.name;
+    }
+
+    private Replica nextHealthy() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    // La ventana arranca al confirmar: un rollback no obliga a leer de la primaria
+    private void rememberWriteOnCommit(String user) {
+        if (user == null || stickyWindowMs <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_MARKER)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WRITE_MARKER, user);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stickyUntil.put(user, System.currentTimeMillis() + stickyWindowMs);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_MARKER);
+            }
+        });
+    }
+
+    private boolean isSticky(String user) {
+        Long until = stickyUntil.get(user);
+        if (until == null) {
+            return false;
+        }
+        if (until < System.currentTimeMillis()) {
+            stickyUntil.remove(user, until);
+            return false;
+        }
+        return true;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+
+    // Marca cada réplica como sana si entrega una conexión válida dentro del timeout
+    void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(validationTimeoutSeconds);
+            } catch (Exception e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                if (healthy) {
+                    logger.info("Réplica {} de vuelta en la rotación de lecturas", replica.name);
+                } else {
+                    logger.warn("Réplica {} no responde: sus lecturas van a otras réplicas o a la primaria", replica.name);
+                }
+                replica.healthy = healthy;
+            }
+        }
+        long now = System.currentTimeMillis();
+        stickyUntil.values().removeIf(until -> until < now);
+    }
+
+    public int healthyReplicas() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    public long getReplicaReads() {
+        return replicaReads.get();
+    }
+
+    public long getStickyReads() {
+        return stickyReads.get();
+    }
+
+    public long getFallbackReads() {
+        return fallbackReads.get();
+    }
+}
@@ -2,9 +2,12 @@
 package podcast.cfg;
 
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.ProviderManager;
@@ -16,6 +19,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import podcast.model.services.UserDetailsServiceImpl;
 
@@ -45,8 +49,26 @@ public class SecurityConfig {
         return new ProviderManager(authenticationProvider);
     }
 
+    // Scraping de Prometheus: cadena propia con un token fijo de larga vida, sin el JWT de login
+    // (vence a la hora y cortaría el scraping). Actuator comparte el puerto de la API, así que las
+    // métricas (patrones de endpoints, latencias, pools, cachés) no quedan abiertas
+    @Bean
+    @Order(1)
+    public SecurityFilterChain metricsSecurityFilterChain(HttpSecurity http,
+                                                          @Value("${podcast.metrics.scrape-token:}") String scrapeToken) throws Exception {
+        return http
+                .securityMatcher("/actuator/prometheus")
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth.anyRequest().hasRole(MetricsScrapeFilter.ROLE))
+                .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .addFilterBefore(new MetricsScrapeFilter(scrapeToken), UsernamePasswordAuthenticationFilter.class)
+                .build();
+    }
+
     // Configuración del filtro de seguridad para proteger rutas y validar JWT
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http,
                                                    JwtAuthFilter jwtAuthFilter,
                                                    UserDetailsServiceImpl userDetailsService) throws Exception {
@@ -59,14 +81,24 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, //Agregar todos los GET que se permitan sin autenticación
                                 "/podcastUTN/v1/podcasts",
                                 "/podcastUTN/v1/podcasts/{podcastId}",
+                                "/podcastUTN/v1/podcasts/{podcastId}/feed.xml",
+                                "/podcastUTN/v1/podcasts/facets",
                                 "/podcastUTN/v1/episodes/{episodeId}",
+                                // Las apps de podcasts bajan el <enclosure> del feed sin token
+                                "/podcastUTN/v1/episodes/{episodeId}/audio",
                                 "/podcastUTN/v1/episodes",
+                                "/podcastUTN/v1/episodes/trending",
+                                "/podcastUTN/v1/episodes/{episodeId}/similar",
                                 "/podcastUTN/v1/users",
-                                "/podcastUTN/v1/users/{userId}")
+                                "/podcastUTN/v1/users/{userId}",
+                                "/podcastUTN/v1/search")
                         .permitAll()
                         .requestMatchers(HttpMethod.POST,
                                 "/podcastUTN/v1/users/register")
                         .permitAll()
+                        // health queda público para los balanceadores; /actuator/prometheus lo atiende metricsSecurityFilterChain
+                        .requestMatchers("/actuator/health")
+                        .permitAll()
                         .requestMatchers("/swagger-ui/**",
                                 "/swagger-ui.html",
                                 "/v3/api-docs/**",
@@ -0,0 +1,53 @@
+package podcast.cfg;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Sentencias SQL por request (podcast.http.statements), por endpoint: un N+1 aparece como un
+// endpoint cuyo histograma se corre hacia arriba. Va antes de Spring Security para contar también
+// las consultas de autenticación.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    static final String METRIC = "podcast.http.statements";
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    public StatementCountFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StatementCounter.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // El patrón (/episodes/{episodeId}) y no la URI real, para no crear una serie por id
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder(METRIC)
+                    .description("Sentencias SQL ejecutadas por Hibernate en el request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern != null ? pattern.toString() : UNKNOWN_URI)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(1.0)
+                    .maximumExpectedValue(500.0)
+                    .register(meterRegistry)
+                    .record(StatementCounter.current());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package podcast.cfg;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Cuenta las sentencias SQL que Hibernate prepara en el hilo actual. Lo registra MetricsConfig como
+// StatementInspector y StatementCountFilter lo lee al terminar cada request. No modifica el SQL.
+// Con startCapture además guarda el texto de cada sentencia (para tests y diagnóstico de N+1).
+public class StatementCounter implements StatementInspector {
+
+    private static final class State {
+        long count;
+        List<String> statements;
+    }
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    @Override
+    public String inspect(String sql) {
+        State state = STATE.get();
+        state.count++;
+        if (state.statements != null) {
+            state.statements.add(sql);
+        }
+        return sql;
+    }
+
+    public static void reset() {
+        STATE.get().count = 0;
+    }
+
+    public static long current() {
+        return STATE.get().count;
+    }
+
+    // Reinicia la cuenta y empieza a guardar las sentencias del hilo hasta stopCapture
+    public static void startCapture() {
+        State state = STATE.get();
+        state.count = 0;
+        state.statements = new ArrayList<>();
+    }
+
+    public static List<String> stopCapture() {
+        State state = STATE.get();
+        List<String> statements = state.statements != null ? state.statements : List.of();
+        state.statements = null;
+        return statements;
+    }
+}
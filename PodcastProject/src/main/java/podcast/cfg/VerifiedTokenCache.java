@@ -0,0 +1,87 @@
+package podcast.cfg;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Caché acotada de tokens cuya firma ya se verificó. Cada entrada vence en el "exp" de su token,
+// así un token vencido nunca se sirve desde la caché aunque siga dentro del límite de tamaño.
+// Se consulta en cada request autenticado: Caffeine lee sin locks y registra los accesos en buffers
+// por hilo, en vez de reordenar un LRU compartido bajo un único monitor.
+public class VerifiedTokenCache {
+
+    private record Entry(Claims claims, long expiresAt) {
+    }
+
+    private final int maxSize;
+    private final Cache<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public VerifiedTokenCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, maxSize))
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String token, Entry entry, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, entry.expiresAt() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(token, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                // La limpieza corre en el hilo que escribe: sin tareas en el ForkJoinPool común
+                .executor(Runnable::run)
+                .build();
+    }
+
+    public Claims get(String token) {
+        Entry entry = entries.getIfPresent(token);
+        // Caffeine redondea el vencimiento a su reloj interno: el exp del token manda
+        if (entry == null || entry.expiresAt() <= System.currentTimeMillis()) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.claims();
+    }
+
+    public void put(String token, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null || maxSize <= 0) {
+            return; // Sin exp no hay forma segura de acotar cuánto tiempo confiar en la entrada
+        }
+        entries.put(token, new Entry(claims, expiration.getTime()));
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+    }
+
+    public int size() {
+        entries.cleanUp();
+        return (int) entries.estimatedSize();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
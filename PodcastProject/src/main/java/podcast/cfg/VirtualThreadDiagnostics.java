@@ -0,0 +1,139 @@
+package podcast.cfg;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import podcast.model.entities.dto.ThreadingMetricsDTO;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Diagnóstico del modo de hilos virtuales (spring.threads.virtual.enabled=true).
+//
+// En Java 21 un hilo virtual que se bloquea dentro de un synchronized queda fijo (pinned) a su hilo
+// portador; si eso pasa durante I/O (drivers JDBC viejos, o código propio) el pool de portadores, del
+// tamaño de los núcleos, se agota y el modo virtual rinde peor que el de plataforma. Con el modo
+// activo se escuchan por JFR los eventos jdk.VirtualThreadPinned más largos que el umbral y se
+// cuentan por el primer frame fuera del JDK, que es el que hay que corregir (o actualizar el driver:
+// mysql-connector-j 9.x ya no usa synchronized en el camino de las consultas).
+//
+// Tamaño del pool: con hilos virtuales ya no hay 200 hilos de Tomcat que limiten cuántos requests
+// llegan a la BD, así que el límite pasa a ser maximum-pool-size de Hikari. Conviene dejarlo cerca de
+// 2 x núcleos del servidor de BD (no subirlo para "acompañar" a los hilos virtuales) y bajar
+// connection-timeout para que el exceso falle rápido en lugar de acumularse esperando conexión.
+@Component
+public class VirtualThreadDiagnostics {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadDiagnostics.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int TOP_FRAMES = 10;
+
+    private final DataSource dataSource;
+    private final boolean virtualThreads;
+    private final boolean monitorEnabled;
+    private final Duration threshold;
+
+    private final Map<String, LongAdder> pinnedByFrame = new ConcurrentHashMap<>();
+    private final LongAdder pinnedEvents = new LongAdder();
+    private RecordingStream recording;
+
+    public VirtualThreadDiagnostics(DataSource dataSource,
+                                    @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                    @Value("${podcast.threads.pinning-monitor.enabled:true}") boolean monitorEnabled,
+                                    @Value("${podcast.threads.pinning-monitor.threshold-ms:20}") long thresholdMs) {
+        this.dataSource = dataSource;
+        this.virtualThreads = virtualThreads;
+        this.monitorEnabled = monitorEnabled;
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        HikariDataSource hikari = hikari();
+        int poolMaximum = hikari != null ? hikari.getMaximumPoolSize() : -1;
+        logger.info("Modo de hilos: {} (pool de conexiones máximo {})", virtualThreads ? "virtual" : "plataforma", poolMaximum);
+        if (!virtualThreads || !monitorEnabled) {
+            return;
+        }
+        recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    void onPinned(RecordedEvent event) {
+        String frame = culprit(event);
+        pinnedEvents.increment();
+        LongAdder counter = new LongAdder();
+        LongAdder existing = pinnedByFrame.putIfAbsent(frame, counter);
+        // Solo se loguea la primera vez por frame; después queda en el contador
+        if (existing == null) {
+            logger.warn("Hilo virtual fijado {} ms en {}", event.getDuration().toMillis(), frame);
+        }
+        (existing != null ? existing : counter).increment();
+    }
+
+    // Primer frame fuera del JDK: el código (propio o de un driver) que tenía el monitor
+    private static String culprit(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return "jdk";
+    }
+
+    public ThreadingMetricsDTO getMetrics() {
+        HikariDataSource hikari = hikari();
+        HikariPoolMXBean pool = hikari != null ? hikari.getHikariPoolMXBean() : null;
+        Map<String, Long> top = new LinkedHashMap<>();
+        pinnedByFrame.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+                .limit(TOP_FRAMES)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue().sum()));
+        return ThreadingMetricsDTO.builder()
+                .virtualThreads(virtualThreads)
+                .poolMaximum(hikari != null ? hikari.getMaximumPoolSize() : -1)
+                .poolActive(pool != null ? pool.getActiveConnections() : -1)
+                .poolIdle(pool != null ? pool.getIdleConnections() : -1)
+                .poolPending(pool != null ? pool.getThreadsAwaitingConnection() : -1)
+                .pinnedEvents(pinnedEvents.sum())
+                .pinnedByFrame(top)
+                .build();
+    }
+
+    // null si el DataSource no es Hikari (el MXBean es null hasta la primera conexión)
+    private HikariDataSource hikari() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package podcast.cfg;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Muestrea rangos 0..n-1 con probabilidad proporcional a 1 / (rango + 1)^s: pocos elementos muy
+// frecuentes y una cola larga, como las reproducciones de un catálogo real. Tabla acumulada
+// precalculada y búsqueda binaria, O(log n) por muestra.
+public final class ZipfSampler {
+
+    private final double[] cumulative;
+
+    public ZipfSampler(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be at least 1");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    public int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+}
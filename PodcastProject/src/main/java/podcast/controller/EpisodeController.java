@@ -8,6 +8,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -18,17 +20,31 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
-import podcast.model.entities.Commentary;
+import podcast.cfg.AuthenticatedUser;
 import podcast.model.entities.Episode;
 import podcast.model.entities.dto.CommentaryDTO;
 import podcast.model.entities.dto.CommentaryRequestDTO;
+import podcast.model.entities.dto.CursorPageDTO;
 import podcast.model.entities.dto.EpisodeDTO;
+import podcast.model.entities.dto.PlayCounterMetricsDTO;
+import podcast.model.entities.dto.PlayIngestionMetricsDTO;
+import podcast.model.entities.dto.RecommendedEpisodeDTO;
+import podcast.model.entities.dto.TrendingEpisodeDTO;
 import podcast.model.entities.dto.UpdateEpisodeDTO;
+import podcast.model.entities.enums.Category;
+import podcast.model.entities.enums.CommentOrder;
+import podcast.model.entities.enums.TrendingWindow;
 import podcast.model.exceptions.*;
+import podcast.model.services.AudioStreamingService;
 import podcast.model.services.EpisodeHistoryService;
 import podcast.model.services.EpisodeService;
+import podcast.model.services.PlayCounterService;
+import podcast.model.services.PlayEventIngestionService;
 import podcast.model.services.RatingService;
+import podcast.model.services.RecommendationService;
+import podcast.model.services.TrendingService;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -39,12 +55,25 @@ public class EpisodeController {
     private final EpisodeService episodeService;
     private final EpisodeHistoryService episodeHistoryService;
     private final RatingService ratingService;
+    private final PlayCounterService playCounterService;
+    private final PlayEventIngestionService playEventIngestionService;
+    private final TrendingService trendingService;
+    private final AudioStreamingService audioStreamingService;
+    private final RecommendationService recommendationService;
 
     @Autowired
-    public EpisodeController(EpisodeService episodeService, EpisodeHistoryService episodeHistoryService, RatingService ratingService) {
+    public EpisodeController(EpisodeService episodeService, EpisodeHistoryService episodeHistoryService, RatingService ratingService,
+                             PlayCounterService playCounterService, PlayEventIngestionService playEventIngestionService,
+                             TrendingService trendingService, AudioStreamingService audioStreamingService,
+                             RecommendationService recommendationService) {
         this.episodeService = episodeService;
         this.episodeHistoryService = episodeHistoryService;
         this.ratingService = ratingService;
+        this.playCounterService = playCounterService;
+        this.playEventIngestionService = playEventIngestionService;
+        this.trendingService = trendingService;
+        this.audioStreamingService = audioStreamingService;
+        this.recommendationService = recommendationService;
     }
 
 //* ===================================================================================================================
@@ -176,8 +205,12 @@ public class EpisodeController {
     @GetMapping("/{episodeId}/play")
     public ResponseEntity<String> playEpisode(
             @Parameter(description = "ID del episodio") @PathVariable("episodeId") Long episodeId,
-            @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
-        episodeHistoryService.registerPlay(episodeId, userDetails.getUsername());
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser principal) {
+        // Con media local la reproducción la registra el propio stream al pedir el primer byte
+        if (audioStreamingService.servesLocally(episodeId)) {
+            return ResponseEntity.ok("/podcastUTN/v1/episodes/" + episodeId + "/audio");
+        }
+        episodeHistoryService.registerPlay(episodeId, principal.getId());
         String audioUrl = episodeService.getAudioUrl(episodeId);
         return ResponseEntity.ok(audioUrl);
     }
@@ -185,26 +218,197 @@ public class EpisodeController {
 //* ===================================================================================================================
 
     @Operation(
-            summary = "Obtener comentarios de un episodio",
-            description = "Recupera todos los comentarios asociados a un episodio específico"
+            summary = "Stream del audio",
+            description = "Sirve el audio del episodio cuando la media está en disco. Soporta Range (206), " +
+                         "ETag / Last-Modified (304) e If-Range. Es público porque es el enclosure del feed RSS: el pedido que arranca " +
+                         "en el byte 0 registra la reproducción en el historial solo si viene autenticado. " +
+                         "Si la media está en una store remota redirige a su URL"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Audio completo", content = @Content(mediaType = "audio/mpeg")),
+            @ApiResponse(responseCode = "206", description = "Rango del audio", content = @Content(mediaType = "audio/mpeg")),
+            @ApiResponse(responseCode = "302", description = "La media está en una store remota"),
+            @ApiResponse(responseCode = "304", description = "El cliente ya tiene esta versión del archivo"),
+            @ApiResponse(responseCode = "404", description = "Episodio o archivo no encontrado"),
+            @ApiResponse(responseCode = "416", description = "Rango no satisfacible")
+    })
+    @GetMapping("/{episodeId}/audio")
+    public void streamAudio(
+            @Parameter(description = "ID del episodio") @PathVariable("episodeId") Long episodeId,
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser principal,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        audioStreamingService.stream(episodeId, principal != null ? principal.getId() : null, request, response);
+    }
+
+//* ===================================================================================================================
+
+    @Operation(
+            summary = "Métricas del contador de reproducciones",
+            description = "Devuelve el estado del contador write-behind: reproducciones pendientes de volcar, retraso y tamaño del último volcado. Solo administradores"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Métricas recuperadas",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = PlayCounterMetricsDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "No autorizado"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/plays/metrics")
+    public ResponseEntity<PlayCounterMetricsDTO> getPlayCounterMetrics() {
+        return ResponseEntity.ok(playCounterService.getMetrics());
+    }
+
+//* ===================================================================================================================
+
+    @Operation(
+            summary = "Métricas de la ingesta del historial",
+            description = "Devuelve el estado de la cola de eventos de reproducción: eventos encolados, escritos, batches y escrituras directas por cola llena. Solo administradores"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Métricas recuperadas",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = PlayIngestionMetricsDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "No autorizado"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/plays/ingestion")
+    public ResponseEntity<PlayIngestionMetricsDTO> getPlayIngestionMetrics() {
+        return ResponseEntity.ok(playEventIngestionService.getMetrics());
+    }
+
+//* ===================================================================================================================
+
+    @Operation(
+            summary = "Episodios en tendencia",
+            description = "Ranking de episodios por reproducciones recientes con decaimiento exponencial: una reproducción de hace una ventana (HOUR, DAY o WEEK) vale la mitad que una de ahora. Se resuelve en memoria, global o por categoría"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Ranking recuperado",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = TrendingEpisodeDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Ventana, categoría o límite inválidos")
+    })
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingEpisodeDTO>> getTrending(
+            @Parameter(description = "Vida media del decaimiento") @RequestParam(defaultValue = "DAY") TrendingWindow window,
+            @Parameter(description = "Categoría del podcast (opcional)") @RequestParam(required = false) Category category,
+            @Parameter(description = "Cantidad de episodios (máximo 50)") @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(trendingService.getTrending(window, category, limit));
+    }
+
+//* ===================================================================================================================
+
+    @Operation(
+            summary = "Reconstruir el ranking de tendencias",
+            description = "Vuelve a armar el ranking en memoria a partir del historial de reproducciones. Solo administradores"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Ranking reconstruido"),
+            @ApiResponse(responseCode = "401", description = "No autorizado"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/trending/rebuild")
+    public ResponseEntity<String> rebuildTrending() {
+        long plays = trendingService.rebuild();
+        return ResponseEntity.ok("Ranking de tendencias reconstruido con " + plays + " reproducciones");
+    }
+
+//* ===================================================================================================================
+
+    @Operation(
+            summary = "Episodios similares",
+            description = "Episodios que suelen escuchar los mismos usuarios, por similitud coseno entre sus oyentes. " +
+                          "Se leen de la tabla de vecinos precalculada, que se reconstruye periódicamente"
     )
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
-                    description = "Lista de comentarios encontrada",
+                    description = "Episodios similares recuperados (vacío si todavía no tiene vecinos)",
                     content = @Content(
                             mediaType = "application/json",
-                            schema = @Schema(implementation = CommentaryDTO.class)
+                            schema = @Schema(implementation = RecommendedEpisodeDTO.class)
                     )
             ),
+            @ApiResponse(responseCode = "400", description = "Límite inválido"),
             @ApiResponse(responseCode = "404", description = "Episodio no encontrado")
     })
+    @GetMapping("/{episodeId}/similar")
+    public ResponseEntity<List<RecommendedEpisodeDTO>> getSimilar(
+            @Parameter(description = "ID del episodio") @PathVariable("episodeId") Long episodeId,
+            @Parameter(description = "Cantidad de episodios (máximo 50)") @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(recommendationService.getSimilar(episodeId, limit));
+    }
+
+//* ===================================================================================================================
+
+    @Operation(
+            summary = "Reconstruir los episodios similares",
+            description = "Recalcula los vecinos de cada episodio a partir del historial de reproducciones y los favoritos. Solo administradores"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Vecinos reconstruidos"),
+            @ApiResponse(responseCode = "401", description = "No autorizado"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/similar/rebuild")
+    public ResponseEntity<String> rebuildSimilar() {
+        RecommendationService.Rebuild rebuild = recommendationService.rebuild();
+        return ResponseEntity.ok("Vecinos reconstruidos: " + rebuild.pairs() + " pares entre " + rebuild.episodes() +
+                " episodios a partir de " + rebuild.interactions() + " interacciones en " + rebuild.millis() + " ms");
+    }
+
+//* ===================================================================================================================
+
+    @Operation(
+            summary = "Obtener comentarios de un episodio",
+            description = "Recupera los comentarios de un episodio paginados por cursor, con el nickname y la foto del autor. " +
+                         "Para pedir la página siguiente se envía el 'nextCursor' recibido como parámetro 'after'"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Página de comentarios encontrada",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Límite o cursor inválidos"),
+            @ApiResponse(responseCode = "404", description = "Episodio no encontrado o sin comentarios")
+    })
     @PreAuthorize("isAuthenticated")
     @GetMapping("/{episodeId}/commentaries")
-    public ResponseEntity<List<CommentaryDTO>> getComments(
-            @Parameter(description = "ID del episodio") @PathVariable("episodeId") Long episodeId) {
-        List<Commentary> comments = episodeService.getComments(episodeId);
-        return ResponseEntity.ok(comments.stream().map(Commentary::toDTO).toList());
+    public ResponseEntity<CursorPageDTO<CommentaryDTO>> getComments(
+            @Parameter(description = "ID del episodio") @PathVariable("episodeId") Long episodeId,
+
+            @Parameter(description = "Orden: NEWEST (más nuevos primero) u OLDEST")
+            @RequestParam(defaultValue = "NEWEST") CommentOrder order,
+
+            @Parameter(description = "Cantidad máxima de comentarios por página (1-" + EpisodeService.MAX_COMMENTS_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "" + EpisodeService.DEFAULT_COMMENTS_PAGE_SIZE) int limit,
+
+            @Parameter(description = "Cursor opaco devuelto como 'nextCursor' en la página anterior")
+            @RequestParam(required = false) String after) {
+        return ResponseEntity.ok(episodeService.getComments(episodeId, order, limit, after));
     }
 
 //* ===================================================================================================================
@@ -310,6 +514,34 @@ public class EpisodeController {
         return ResponseEntity.ok("Comment added successfully");
     }
 
+//* ===================================================================================================================
+
+    @Operation(
+            summary = "Eliminar comentario",
+            description = "Elimina un comentario de un episodio. Solo disponible para el autor del comentario y administradores"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Comentario eliminado correctamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(type = "string", example = "Comment deleted successfully")
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "No autorizado"),
+            @ApiResponse(responseCode = "404", description = "Comentario no encontrado en el episodio")
+    })
+    @PreAuthorize("isAuthenticated()")
+    @DeleteMapping("/{episodeId}/commentaries/{commentId}")
+    public ResponseEntity<String> deleteComment(
+            @Parameter(description = "ID del episodio") @PathVariable("episodeId") Long episodeId,
+            @Parameter(description = "ID del comentario") @PathVariable("commentId") Integer commentId,
+            @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
+        episodeService.deleteComment(episodeId, commentId, userDetails);
+        return ResponseEntity.ok("Comment deleted successfully");
+    }
+
 //* ===================================================================================================================
 
     @Operation(
@@ -0,0 +1,52 @@
+package podcast.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import podcast.model.entities.dto.ErrorLogMetricsDTO;
+import podcast.model.services.ErrorLogService;
+
+@RestController
+@RequestMapping(path = "podcastUTN/v1/errors")
+@Tag(name = "Errores", description = "Estado de la auditoría asíncrona de errores")
+public class ErrorLogController {
+
+    private final ErrorLogService errorLogService;
+
+    public ErrorLogController(ErrorLogService errorLogService) {
+        this.errorLogService = errorLogService;
+    }
+
+//* ===================================================================================================================
+
+    @Operation(
+        summary = "Métricas de la auditoría de errores",
+        description = "Devuelve el estado del buffer de errores: encolados, muestreados y descartados con el buffer lleno, " +
+                     "y lo que el escritor llevó a la BD. Solo administradores"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Métricas recuperadas",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ErrorLogMetricsDTO.class)
+            )
+        ),
+        @ApiResponse(responseCode = "401", description = "No autorizado"),
+        @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/metrics")
+    public ResponseEntity<ErrorLogMetricsDTO> getMetrics() {
+        return ResponseEntity.ok(errorLogService.getMetrics());
+    }
+}
@@ -4,7 +4,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.HandlerMapping;
 import podcast.model.services.ErrorLogService;
 
 @RestControllerAdvice
@@ -20,12 +23,19 @@ public class GlobalExceptionHandler {
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public String handleAllExceptions(Exception ex, WebRequest request) {
         logger.error("Error en endpoint {}: {}", request.getDescription(false), ex.getMessage(), ex);
-        errorLogService.audit(
-                request.getDescription(false),
-                ex.getMessage(),
-                ex.toString()
-        );
+        errorLogService.audit(endpoint(request), ex);
         return "Ocurrió un error interno. El equipo ha sido notificado." +
                 " De igual manera fue controlado y no afecta el funcionamiento de la aplicación.";
     }
+
+    // Se audita el patrón de la ruta (ej: GET /podcastUTN/v1/episodes/{episodeId}) para que el mismo
+    // error en distintos ids caiga en el mismo grupo; sin handler resuelto se usa la URI
+    private static String endpoint(WebRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        String path = pattern != null ? pattern.toString() : request.getDescription(false);
+        if (request instanceof ServletWebRequest servletRequest) {
+            return servletRequest.getRequest().getMethod() + " " + path;
+        }
+        return path;
+    }
 }
\ No newline at end of file
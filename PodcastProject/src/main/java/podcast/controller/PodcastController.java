@@ -10,7 +10,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -19,16 +22,22 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import podcast.model.entities.Podcast;
+import podcast.model.entities.dto.CursorPageDTO;
+import podcast.model.entities.dto.FacetPageDTO;
 import podcast.model.entities.dto.PodcastDTO;
 import podcast.model.entities.dto.PodcastUpdateDTO;
+import podcast.model.entities.enums.CatalogSort;
 import podcast.model.entities.enums.Category;
 import podcast.model.exceptions.AlreadyCreatedException;
 import podcast.model.exceptions.NullUserException;
 import podcast.model.exceptions.PodcastNotFoundException;
 import podcast.model.exceptions.UnauthorizedException;
+import podcast.model.services.CategoryIndexService;
+import podcast.model.services.FeedService;
 import podcast.model.services.PodcastService;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping(path = "podcastUTN/v1/podcasts")
@@ -41,6 +50,14 @@ public class PodcastController {
     @Autowired
     private PodcastService podcastService;
 
+    @Autowired
+    private CategoryIndexService categoryIndexService;
+
+    @Autowired
+    private FeedService feedService;
+
+    private static final MediaType RSS = MediaType.parseMediaType("application/rss+xml;charset=UTF-8");
+
 //* ===================================================================================================================
 
     @ExceptionHandler(PodcastNotFoundException.class)
@@ -78,19 +95,25 @@ public class PodcastController {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
 //* ===================================================================================================================
 
     @Operation(
         summary = "Obtener todos los podcasts",
-        description = "Recupera una lista de podcasts con opciones de filtrado por título, creador, categoría y ordenamiento por vistas"
+        description = "Recupera el catálogo de podcasts paginado por cursor, con filtros opcionales por título, creador y categoría. " +
+                     "El campo 'nextCursor' de la respuesta se envía en el parámetro 'after' para obtener la página siguiente"
     )
     @ApiResponses({
         @ApiResponse(
             responseCode = "200",
-            description = "Lista de podcasts encontrada exitosamente",
+            description = "Página de podcasts encontrada exitosamente",
             content = @Content(
                 mediaType = "application/json",
-                schema = @Schema(type = "array", implementation = PodcastDTO.class)
+                schema = @Schema(implementation = CursorPageDTO.class)
             )
         ),
         @ApiResponse(
@@ -103,7 +126,7 @@ public class PodcastController {
         )
     })
     @GetMapping
-    public ResponseEntity<List<PodcastDTO>> getAll(
+    public ResponseEntity<CursorPageDTO<PodcastDTO>> getAll(
             @Parameter(description = "Filtrar por título del podcast (búsqueda parcial)")
             @RequestParam(required = false) String title,
             
@@ -113,14 +136,70 @@ public class PodcastController {
             @Parameter(description = "Filtrar por categoría del podcast (ej: NOTICIAS, DEPORTES, TECNOLOGIA)")
             @RequestParam(required = false) String category,
             
-            @Parameter(description = "Ordenar resultados por número de vistas (true = descendente)")
-            @RequestParam(required = false) Boolean orderByViews
+            @Parameter(description = "Ordenar resultados por número de vistas (true = descendente). Equivale a sort=VIEWS")
+            @RequestParam(required = false) Boolean orderByViews,
+
+            @Parameter(description = "Orden del catálogo: ID (ascendente), VIEWS o RATING (descendente)")
+            @RequestParam(required = false) CatalogSort sort,
+
+            @Parameter(description = "Cantidad máxima de podcasts por página (1-" + PodcastService.MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "" + PodcastService.DEFAULT_PAGE_SIZE) int limit,
+
+            @Parameter(description = "Cursor opaco devuelto como 'nextCursor' en la página anterior")
+            @RequestParam(required = false) String after
     ) {
         Category categoryEnum = (category != null) ? Category.valueOf(category) : null;
-        List<PodcastDTO> podcasts = podcastService.getAllFiltered(title, userId, categoryEnum, orderByViews);
+        CatalogSort order = (sort == null && Boolean.TRUE.equals(orderByViews)) ? CatalogSort.VIEWS : sort;
+        CursorPageDTO<PodcastDTO> podcasts = podcastService.getAllFiltered(title, userId, categoryEnum, order, limit, after);
         return ResponseEntity.ok(podcasts);
     }
 
+//* ===================================================================================================================
+
+    @Operation(
+        summary = "Navegar el catálogo por categorías",
+        description = "Filtra los podcasts activos combinando categorías: 'all' exige todas, 'any' al menos una y 'none' excluye. " +
+                     "Devuelve la página pedida (ordenada por ID), el total y cuántos resultados tiene cada categoría. " +
+                     "Los parámetros aceptan varias categorías separadas por coma (ej: all=TECNOLOGIA,CIENCIA)"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Página de podcasts con conteos por categoría",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = FacetPageDTO.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Categoría, límite o cursor inválido",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(type = "string", example = "Invalid value for parameter 'all': INVALID_CATEGORY")
+            )
+        )
+    })
+    @GetMapping("/facets")
+    public ResponseEntity<FacetPageDTO> browseByCategories(
+            @Parameter(description = "Categorías que el podcast debe tener todas (AND)")
+            @RequestParam(required = false) List<Category> all,
+
+            @Parameter(description = "Categorías de las que el podcast debe tener al menos una (OR)")
+            @RequestParam(required = false) List<Category> any,
+
+            @Parameter(description = "Categorías que el podcast no debe tener (NOT)")
+            @RequestParam(required = false) List<Category> none,
+
+            @Parameter(description = "Cantidad máxima de podcasts por página (1-" + PodcastService.MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "" + PodcastService.DEFAULT_PAGE_SIZE) int limit,
+
+            @Parameter(description = "Cursor opaco devuelto como 'nextCursor' en la página anterior")
+            @RequestParam(required = false) String after
+    ) {
+        return ResponseEntity.ok(categoryIndexService.browse(all, any, none, limit, after));
+    }
+
 //* ===================================================================================================================
 
     @Operation(
@@ -152,6 +231,42 @@ public class PodcastController {
         return ResponseEntity.ok(podcastService.getPodcastById(podcastId));
     }
 
+//* ===================================================================================================================
+
+    @Operation(
+        summary = "Feed RSS del podcast",
+        description = "Feed RSS 2.0 con etiquetas de iTunes para apps de podcasts. Se sirve desde memoria y solo se " +
+                      "regenera cuando cambian el podcast o sus episodios. Con If-None-Match devuelve 304 si no cambió"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Feed del podcast", content = @Content(mediaType = "application/rss+xml")),
+        @ApiResponse(responseCode = "304", description = "El cliente ya tiene esta versión del feed"),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Podcast no encontrado",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(type = "string", example = "Podcast with ID 123 not found")
+            )
+        )
+    })
+    @GetMapping(value = "/{podcastId}/feed.xml", produces = "application/rss+xml")
+    public ResponseEntity<byte[]> getFeed(
+            @Parameter(description = "ID del podcast", required = true, example = "1")
+            @PathVariable("podcastId") Long podcastId,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        FeedService.Feed feed = feedService.getFeed(podcastId);
+        CacheControl cacheControl = CacheControl.maxAge(feedService.getMaxAgeSeconds(), TimeUnit.SECONDS).cachePublic();
+        if (feed.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(feed.etag()).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(feed.etag())
+                .cacheControl(cacheControl)
+                .contentType(RSS)
+                .body(feed.body());
+    }
+
 //* ===================================================================================================================
 
 
@@ -182,8 +297,7 @@ public class PodcastController {
     @GetMapping("/myPodcasts")
     public ResponseEntity<List<PodcastDTO>> getMyPodcasts(
             @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
-        List<Podcast> podcasts = podcastService.getByUsername(userDetails.getUsername());
-        return ResponseEntity.ok(podcasts.stream().map(Podcast::toDTO).toList());
+        return ResponseEntity.ok(podcastService.getByUsername(userDetails.getUsername()));
     }
 
     @Operation(
@@ -302,7 +416,7 @@ public class PodcastController {
             @Parameter(description = "ID del podcast a eliminar", required = true, example = "1")
             @PathVariable("podcastId") Long podcastId,
             @AuthenticationPrincipal UserDetails userDetails) {
-        podcastService.deleteById(podcastId, userDetails.getUsername());
+        podcastService.deleteById(podcastId, userDetails);
         return ResponseEntity.ok("Podcast deleted successfully");
     }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package podcast.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import podcast.model.entities.dto.SearchPageDTO;
+import podcast.model.entities.enums.SearchDocumentType;
+import podcast.model.services.SearchService;
+
+@RestController
+@RequestMapping(path = "podcastUTN/v1/search")
+@Tag(name = "Búsqueda", description = "Búsqueda full-text sobre títulos y descripciones de podcasts y episodios")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+//* ===================================================================================================================
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<String> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        String errorMessage = "Invalid value for parameter '" + ex.getName() + "': " + ex.getValue();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorMessage);
+    }
+
+//* ===================================================================================================================
+
+    @Operation(
+        summary = "Buscar podcasts y episodios",
+        description = "Busca en títulos y descripciones ignorando mayúsculas y tildes, con ranking BM25. " +
+                     "La última palabra de la consulta se completa por prefijo (ej: 'entrev' encuentra 'entrevista'); " +
+                     "cualquier palabra terminada en '*' también se busca por prefijo"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Página de resultados ordenada por relevancia",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = SearchPageDTO.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Consulta vacía o parámetros de paginación inválidos",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(type = "string", example = "The search query cannot be blank")
+            )
+        )
+    })
+    @GetMapping
+    public ResponseEntity<SearchPageDTO> search(
+            @Parameter(description = "Texto a buscar", required = true, example = "entrevista tecnologia")
+            @RequestParam String q,
+
+            @Parameter(description = "Restringir a PODCAST o EPISODE (por defecto ambos)")
+            @RequestParam(required = false) SearchDocumentType type,
+
+            @Parameter(description = "Número de página, empezando en 0")
+            @RequestParam(defaultValue = "0") int page,
+
+            @Parameter(description = "Resultados por página (1-" + SearchService.MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "" + SearchService.DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(searchService.search(q, type, page, size));
+    }
+}
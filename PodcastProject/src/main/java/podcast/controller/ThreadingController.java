@@ -0,0 +1,53 @@
+package podcast.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import podcast.cfg.VirtualThreadDiagnostics;
+import podcast.model.entities.dto.ThreadingMetricsDTO;
+
+@RestController
+@RequestMapping(path = "podcastUTN/v1/threads")
+@Tag(name = "Hilos", description = "Modo de ejecución (hilos de plataforma o virtuales) y su diagnóstico")
+public class ThreadingController {
+
+    private final VirtualThreadDiagnostics virtualThreadDiagnostics;
+
+    public ThreadingController(VirtualThreadDiagnostics virtualThreadDiagnostics) {
+        this.virtualThreadDiagnostics = virtualThreadDiagnostics;
+    }
+
+//* ===================================================================================================================
+
+    @Operation(
+        summary = "Métricas del modo de hilos",
+        description = "Indica si los requests y jobs corren en hilos virtuales, el uso del pool de conexiones y, " +
+                     "en modo virtual, los eventos de hilos fijados (pinned) agrupados por el frame que los causa. " +
+                     "Solo administradores"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Métricas recuperadas",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ThreadingMetricsDTO.class)
+            )
+        ),
+        @ApiResponse(responseCode = "401", description = "No autorizado"),
+        @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/metrics")
+    public ResponseEntity<ThreadingMetricsDTO> getMetrics() {
+        return ResponseEntity.ok(virtualThreadDiagnostics.getMetrics());
+    }
+}
@@ -20,11 +20,14 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import podcast.cfg.JwtUtil;
+import podcast.cfg.AuthenticatedUser;
 import podcast.model.entities.User;
 import podcast.model.entities.dto.*;
 import podcast.model.exceptions.*;
 import podcast.model.services.EpisodeHistoryService;
+import podcast.model.services.InboxService;
 import podcast.model.services.RatingService;
+import podcast.model.services.RecommendationService;
 import podcast.model.services.UserDetailsServiceImpl;
 import podcast.model.services.UserService;
 
@@ -43,6 +46,8 @@ public class UserController {
     private final UserService userService;
     private final UserDetailsServiceImpl userDetailsService;
     private final RatingService ratingService;
+    private final RecommendationService recommendationService;
+    private final InboxService inboxService;
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
 
@@ -53,7 +58,9 @@ public class UserController {
             UserDetailsServiceImpl userDetailsService,
             AuthenticationManager authenticationManager,
             JwtUtil jwtUtil,
-            RatingService ratingService
+            RatingService ratingService,
+            RecommendationService recommendationService,
+            InboxService inboxService
     ) {
         this.episodeHistoryService = episodeHistoryService;
         this.userService = userService;
@@ -61,6 +68,8 @@ public class UserController {
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
         this.ratingService = ratingService;
+        this.recommendationService = recommendationService;
+        this.inboxService = inboxService;
     }
 
 //* ===================================================================================================================
@@ -258,11 +267,68 @@ public class UserController {
     @PreAuthorize("isAuthenticated()")
     @GetMapping("/myHistory")
     public ResponseEntity<List<EpisodeHistoryDTO>> getMyHistory(
-            @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
-        List<EpisodeHistoryDTO> history = episodeHistoryService.getHistoryByUsername(userDetails.getUsername());
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser principal) {
+        List<EpisodeHistoryDTO> history = episodeHistoryService.getHistoryByUserId(principal.getId());
         return ResponseEntity.ok(history);
     }
 
+//* ===================================================================================================================
+
+    @Operation(
+        summary = "Obtener recomendaciones",
+        description = "Episodios parecidos a los últimos que escuchó el usuario autenticado y que todavía no escuchó, " +
+                      "según la tabla de episodios similares"
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Recomendaciones recuperadas (vacío si todavía no hay historial)",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(type = "array", implementation = RecommendedEpisodeDTO.class)
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Límite inválido"),
+        @ApiResponse(responseCode = "401", description = "No autorizado - Token JWT faltante o inválido")
+    })
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/myRecommendations")
+    public ResponseEntity<List<RecommendedEpisodeDTO>> getMyRecommendations(
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser principal,
+            @Parameter(description = "Cantidad de episodios (máximo 50)") @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(recommendationService.getRecommendations(principal.getId(), limit));
+    }
+
+//* ===================================================================================================================
+
+    @Operation(
+        summary = "Obtener novedades",
+        description = "Episodios nuevos de los podcasts favoritos del usuario autenticado, del más reciente al más viejo, " +
+                      "paginados por cursor. Para pedir la página siguiente se envía el 'nextCursor' recibido como parámetro 'after'"
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Página de novedades recuperada",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = CursorPageDTO.class)
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Límite o cursor inválidos"),
+        @ApiResponse(responseCode = "401", description = "No autorizado - Token JWT faltante o inválido")
+    })
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/myFeed")
+    public ResponseEntity<CursorPageDTO<InboxEpisodeDTO>> getMyFeed(
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser principal,
+            @Parameter(description = "Cantidad de episodios por página (máximo 100)") @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Cursor de la página anterior ('nextCursor')") @RequestParam(required = false) String after) {
+        return ResponseEntity.ok(inboxService.getFeed(principal.getId(), limit, after));
+    }
+
 //* ===================================================================================================================
 
     @Operation(
@@ -405,8 +471,8 @@ public class UserController {
             content = @Content(schema = @Schema(implementation = RatingRequestDTO.class))
         )
         @RequestBody RatingRequestDTO ratingRequest,
-        @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
-        ratingService.rateEpisode(episodeId, userDetails.getUsername(), ratingRequest.getScore());
+        @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser principal) {
+        ratingService.rateEpisode(episodeId, principal.getId(), ratingRequest.getScore());
         return ResponseEntity.ok("Episodio calificado correctamente");
     }
 
@@ -17,7 +17,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Entity
 @Builder
-@Table(name = "Commentaries")
+// El índice cubre el filtro por episodio y el orden (createdAt, id) de la paginación por keyset
+@Table(name = "Commentaries", indexes = {
+        @Index(name = "idx_commentaries_episode_created", columnList = "episode_id, createdAt, id")
+})
 
 public class Commentary {
 @Id
@@ -8,6 +8,10 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import podcast.cfg.HibernateCacheConfig;
 import podcast.model.entities.enums.Role;
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -38,7 +42,10 @@ public class Credential {
     @Size(min = 8, message = "La contraseña debe tener al menos 8 caracteres")
     private String password;
 
+    // EAGER: los roles de una lista de usuarios se cargan de a lotes y no con un SELECT por usuario
     @ElementCollection(targetClass = Role.class, fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USER_ROLES)
     @Builder.Default
     private Set<Role> roles = new HashSet<>();
 
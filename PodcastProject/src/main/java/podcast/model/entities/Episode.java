@@ -7,6 +7,7 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import podcast.model.entities.dto.EpisodeDTO;
 import podcast.model.entities.dto.UpdateEpisodeDTO;
 import podcast.model.entities.helpers.DurationConverter;
@@ -24,7 +25,13 @@ import java.util.List;
 @Entity
 @ToString
 @Builder
-@Table(name = "Episodes")
+// Feed de novedades: los episodios que no se reparten a los inboxes se leen por podcast (ver InboxService)
+@Table(name = "Episodes", indexes = {
+        @Index(name = "idx_episodes_podcast_fanout_published", columnList = "podcast_id, fanout_skipped, publication_date"),
+        @Index(name = "idx_episodes_fanout_cursor", columnList = "fanout_cursor")
+})
+// El historial y los favoritos referencian muchos episodios: se cargan de a lotes
+@BatchSize(size = 100)
 
 public class Episode {
     @Id
@@ -47,11 +54,53 @@ public class Episode {
     @PositiveOrZero
     private Integer views = 0;
 
+    // Agregados de ratings mantenidos por RatingService (promedio = ratingSum / ratingCount)
+    @Column(name = "rating_sum", nullable = false)
+    @JsonIgnore
+    @Builder.Default
+    private Long ratingSum = 0L;
+
+    @Column(name = "rating_count", nullable = false)
+    @JsonIgnore
+    @Builder.Default
+    private Long ratingCount = 0L;
+
+    // Cantidad de comentarios mantenida por EpisodeService (ver IEpisodeRepository.addCommentCount)
+    @Column(name = "comment_count", nullable = false)
+    @JsonIgnore
+    @Builder.Default
+    private Long commentCount = 0L;
+
+    // true si al publicarse el podcast tenía demasiados seguidores para repartirlo a sus inboxes:
+    // el feed de cada seguidor lo lee directo del podcast
+    @Column(name = "fanout_skipped", nullable = false)
+    @JsonIgnore
+    @Builder.Default
+    private Boolean fanoutSkipped = false;
+
+    // Reparto a los inboxes pendiente: último user_id ya entregado (0 = ninguno), null = no queda nada por
+    // repartir. Lo avanza InboxService por JDBC junto con cada lote, por eso JPA no lo actualiza nunca
+    @Column(name = "fanout_cursor", updatable = false)
+    @JsonIgnore
+    private Long fanoutCursor;
+
     @PrePersist
     protected void onCreate() {
+        if (this.fanoutSkipped == null) {
+            this.fanoutSkipped = false;
+        }
         this.publicationDate = LocalDateTime.now();
         this.createdAt = LocalDateTime.now();
         this.views = 0;
+        this.ratingSum = 0L;
+        this.ratingCount = 0L;
+        this.commentCount = 0L;
+    }
+
+    // null si el episodio todavía no tiene ratings
+    @JsonIgnore
+    public Double getAverageRating() {
+        return ratingCount != null && ratingCount > 0 ? (double) ratingSum / ratingCount : null;
     }
 
     private String imageUrl;
@@ -80,16 +129,20 @@ public class Episode {
     @JsonIgnoreProperties("episodes")
     private Podcast podcast;
 
+    // Nunca se serializa ni se imprime: el conteo sale de commentCount sin inicializar la colección
     @OneToMany(mappedBy = "episode", cascade = CascadeType.ALL, orphanRemoval = true)
-    @JsonIgnoreProperties("episode")
+    @JsonIgnore
+    @ToString.Exclude
     private List<Commentary> commentaries;
 
     @JsonProperty("commentaries")
     public Integer getCommentariesCount() {
-        return commentaries != null ? commentaries.size() : 0;
+        return commentCount != null ? commentCount.intValue() : 0;
     }
 
     @OneToMany(mappedBy = "episode", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
+    @ToString.Exclude
     private List<Rating> ratings = new ArrayList<>();
 
     public EpisodeDTO toDTO() {
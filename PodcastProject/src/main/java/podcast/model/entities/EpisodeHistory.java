@@ -13,7 +13,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Entity
 @Builder
-@Table(name = "EpisodeHistory")
+// Comentar exige haber escuchado el episodio: esa búsqueda es por (user_id, episode_id)
+@Table(name = "EpisodeHistory", indexes = {
+        @Index(name = "idx_episode_history_user_episode", columnList = "user_id, episode_id")
+})
 public class EpisodeHistory {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,37 @@
+package podcast.model.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Vecinos precalculados de cada episodio (ver RecommendationService): una fila por par, con la
+// posición dentro de la lista del episodio. Se reescribe entera en cada reconstrucción.
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "episode_similarities", indexes = {
+        @Index(name = "idx_episode_similarities_episode_rank", columnList = "episode_id, neighbor_rank")
+})
+public class EpisodeSimilarity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "episode_id", nullable = false)
+    private Integer episodeId;
+
+    @Column(name = "similar_episode_id", nullable = false)
+    private Integer similarEpisodeId;
+
+    // 0 es el más parecido
+    @Column(name = "neighbor_rank", nullable = false)
+    private Integer rank;
+
+    // Coseno con shrinkage entre los vectores de oyentes de ambos episodios
+    @Column(nullable = false)
+    private Double score;
+}
@@ -6,18 +6,37 @@ import lombok.Data;
 
 import java.time.LocalDateTime;
 
+// Un grupo de errores iguales (mismo endpoint, tipo de excepción y frame de origen):
+// las repeticiones suman en occurrences y mueven last_seen en lugar de agregar filas
 @Entity
 @Data
-@Table(name = "error_logs")
+@Table(name = "error_logs", indexes = {
+        @Index(name = "uk_error_logs_fingerprint", columnList = "fingerprint", unique = true)
+})
 
 public class ErrorLog {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // SHA-256 de endpoint, tipo de excepción y frame de origen
+    @Column(length = 64)
+    private String fingerprint;
+
     private String endpoint;
+    private String exceptionType;
+
+    // Mensaje y traza de la primera ocurrencia (el mensaje se actualiza con la última)
+    @Column(length = 1000)
     private String errorMessage;
+
+    @Column(length = 4000)
     private String stackTrace;
-    private LocalDateTime timestamp;
+
+    @Column(nullable = false)
+    private Long occurrences = 0L;
+
+    private LocalDateTime firstSeen;
+    private LocalDateTime lastSeen;
 
 }
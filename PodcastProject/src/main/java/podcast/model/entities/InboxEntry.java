@@ -0,0 +1,39 @@
+package podcast.model.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Episodio nuevo de un podcast favorito, copiado al inbox de cada seguidor al publicarse (ver
+// InboxService). Sin FK: se escriben de a miles por episodio y se borran junto con el episodio,
+// el favorito o el usuario.
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "user_inbox",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_inbox_user_episode", columnNames = {"user_id", "episode_id"}),
+        indexes = @Index(name = "idx_user_inbox_user_published", columnList = "user_id, published_at, episode_id"))
+public class InboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "episode_id", nullable = false)
+    private Integer episodeId;
+
+    @Column(name = "podcast_id", nullable = false)
+    private Long podcastId;
+
+    // Fecha de publicación del episodio: el orden del feed
+    @Column(name = "published_at", nullable = false)
+    private LocalDateTime publishedAt;
+}
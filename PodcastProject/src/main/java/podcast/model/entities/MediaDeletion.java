@@ -0,0 +1,55 @@
+package podcast.model.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import podcast.model.entities.enums.MediaDeletionStatus;
+
+import java.time.LocalDateTime;
+
+// Outbox de archivos a borrar del MediaStore: la fila se escribe en la misma transacción que borra
+// el episodio y MediaDeletionService la despacha después, fuera de la transacción y con reintentos
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "media_deletions", indexes = {
+        @Index(name = "idx_media_deletions_due", columnList = "status, next_attempt_at")
+})
+public class MediaDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 1000)
+    private String url;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private MediaDeletionStatus status = MediaDeletionStatus.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        if (this.nextAttemptAt == null) {
+            this.nextAttemptAt = this.createdAt;
+        }
+    }
+}
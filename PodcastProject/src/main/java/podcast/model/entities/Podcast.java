@@ -7,6 +7,10 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import podcast.cfg.HibernateCacheConfig;
 import podcast.model.entities.dto.PodcastUpdateDTO;
 import podcast.model.entities.enums.Category;
 import podcast.model.entities.dto.PodcastDTO;
@@ -21,7 +25,9 @@ import java.util.List;
 @ToString
 @Builder
 @Table(name = "Podcasts")
-
+// Los episodios de un listado que apuntan a podcasts distintos los traen de a lotes
+@BatchSize(size = 100)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.PODCASTS)
 public class Podcast {
 
     @Id
@@ -49,8 +55,6 @@ public class Podcast {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
-    private Double averageRating;
-
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
@@ -69,6 +73,8 @@ public class Podcast {
     private List<Episode> episodes;
 
     @ElementCollection(targetClass = Category.class)
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.PODCAST_CATEGORIES)
     @CollectionTable(name = "CategoriesXPodcast", joinColumns = @JoinColumn(name = "podcast_id"))
     @Enumerated(EnumType.STRING)
     @Column(name = "category")
@@ -80,45 +86,22 @@ public class Podcast {
     private List<User> favoritedBy;
 
 
-    Long calcularViewsPromedio() {
-        if (episodes == null || episodes.isEmpty()) {
-            return 0L;
-        }
-        long totalViews = episodes.stream()
-                .mapToLong(Episode::getViews)
-                .sum();
-        return totalViews / episodes.size();
-    }
-
-    public void updateAverageRating() {
-        if (episodes == null || episodes.isEmpty()) {
-            this.averageRating = 0.0;
-            return;
-        }
-        double sum = 0.0;
-        int count = 0;
-        for (Episode episode : episodes) {
-            if (episode.getRatings() != null && !episode.getRatings().isEmpty()) {
-                double avg = episode.getRatings().stream()
-                        .mapToLong(Rating::getScore)
-                        .average()
-                        .orElse(0.0);
-                sum += avg;
-                count++;
-            }
-        }
-        this.averageRating = count > 0 ? sum / count : 0.0;
+    // Los agregados salen de podcast_stats para no inicializar la colección de episodios
+    public PodcastDTO toDTO(PodcastStats stats) {
+        return toDTO(stats, this.getCategories());
     }
 
-    public PodcastDTO toDTO() {
+    // Variante con las categorías ya resueltas (por ej. desde el índice de categorías)
+    public PodcastDTO toDTO(PodcastStats stats, List<Category> categories) {
         return new PodcastDTO(this.getId(),
                 this.getTitle(),
                 this.getDescription(),
-                this.getCategories(),
+                categories,
                 this.getImageUrl(),
-                calcularViewsPromedio(),
-                this.getAverageRating(),
-                this.getCreatedAt());
+                stats != null ? stats.getAverageViews() : 0L,
+                stats != null ? stats.getAverageRating() : 0.0,
+                this.getCreatedAt(),
+                stats != null ? stats.getEpisodeCount() : 0);
     }
 
     public PodcastUpdateDTO toUpdateDTO() {
@@ -0,0 +1,65 @@
+package podcast.model.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Read model desnormalizado con los agregados que expone PodcastDTO.
+// Se mantiene de forma incremental desde PodcastStatsService para no recorrer episodios ni ratings al listar.
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "podcast_stats", indexes = {
+        @Index(name = "idx_podcast_stats_views", columnList = "average_views, podcast_id"),
+        @Index(name = "idx_podcast_stats_rating", columnList = "average_rating, podcast_id")
+})
+public class PodcastStats {
+
+    @Id
+    @Column(name = "podcast_id")
+    private Long podcastId;
+
+    @Column(name = "episode_count", nullable = false)
+    @Builder.Default
+    private Integer episodeCount = 0;
+
+    @Column(name = "total_views", nullable = false)
+    @Builder.Default
+    private Long totalViews = 0L;
+
+    // totalViews / episodeCount, guardado para poder ordenar el catálogo por índice
+    @Column(name = "average_views", nullable = false)
+    @Builder.Default
+    private Long averageViews = 0L;
+
+    // Promedio de los promedios de cada episodio con ratings: ratingAverageSum / ratedEpisodes
+    @Column(name = "rating_average_sum", nullable = false)
+    @Builder.Default
+    private Double ratingAverageSum = 0.0;
+
+    @Column(name = "rated_episodes", nullable = false)
+    @Builder.Default
+    private Integer ratedEpisodes = 0;
+
+    @Column(name = "average_rating", nullable = false)
+    @Builder.Default
+    private Double averageRating = 0.0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public static PodcastStats empty(Long podcastId) {
+        return PodcastStats.builder().podcastId(podcastId).build();
+    }
+}
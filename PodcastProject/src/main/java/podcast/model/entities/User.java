@@ -9,7 +9,10 @@ import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
+import podcast.cfg.HibernateCacheConfig;
 import org.springframework.security.core.userdetails.UserDetails;
 import podcast.model.entities.dto.UserDTO;
 import java.util.Collection;
@@ -23,6 +26,7 @@ import java.util.List;
 @Entity
 @ToString
 @Table(name = "Users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USERS)
 public class User implements UserDetails {
 
     // ── Atributos Obligatorios ───────────────────────────────────────────────────────
@@ -78,7 +82,9 @@ public class User implements UserDetails {
             name = "Favorites",
             joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "podcast_id"),
-            uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "podcast_id"})
+            uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "podcast_id"}),
+            // Seguidores de un podcast en orden, para repartir cada episodio nuevo (ver InboxService)
+            indexes = @Index(name = "idx_favorites_podcast_user", columnList = "podcast_id, user_id")
     )
     private List<Podcast> favorites;
 
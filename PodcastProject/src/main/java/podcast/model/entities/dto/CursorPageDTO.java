@@ -0,0 +1,20 @@
+package podcast.model.entities.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CursorPageDTO<T> {
+    private List<T> items;
+    // Cursor opaco para pedir la siguiente página (null si no hay más resultados)
+    private String nextCursor;
+}
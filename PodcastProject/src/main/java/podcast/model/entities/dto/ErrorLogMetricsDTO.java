@@ -0,0 +1,26 @@
+package podcast.model.entities.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ErrorLogMetricsDTO {
+    // Errores esperando en el buffer y su capacidad
+    private int buffered;
+    private int capacity;
+    private long accepted;
+    // Errores no encolados por muestreo con el buffer casi lleno (se contabilizan en el peso del muestreado)
+    private long sampled;
+    // Errores perdidos porque el buffer estaba lleno
+    private long dropped;
+    // Ocurrencias que llegaron a la BD y filas nuevas o actualizadas por el escritor
+    private long written;
+    private long upserts;
+    private long batches;
+    private long failed;
+}
@@ -0,0 +1,26 @@
+package podcast.model.entities.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import podcast.model.entities.enums.Category;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FacetPageDTO {
+    private List<PodcastDTO> items;
+    // Cursor opaco para pedir la siguiente página (null si no hay más resultados)
+    private String nextCursor;
+    // Total de podcasts que cumplen el filtro (todas las páginas)
+    private int total;
+    // Cuántos de esos podcasts tiene cada categoría
+    private Map<Category, Integer> facets;
+}
@@ -0,0 +1,20 @@
+package podcast.model.entities.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class InboxEpisodeDTO {
+    private Long episodeId;
+    private String title;
+    private Long podcastId;
+    private String podcastTitle;
+    private LocalDateTime publishedAt;
+}
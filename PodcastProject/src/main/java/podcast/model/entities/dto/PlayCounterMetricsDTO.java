@@ -0,0 +1,22 @@
+package podcast.model.entities.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlayCounterMetricsDTO {
+    private long pendingPlays;
+    private int trackedEpisodes;
+    // Antigüedad (ms) de la reproducción más vieja que todavía no se volcó a la BD
+    private long lagMs;
+    private int lastFlushEpisodes;
+    private long lastFlushPlays;
+    private long lastFlushDurationMs;
+    private long lastFlushAt;
+    private long totalFlushedPlays;
+}
@@ -0,0 +1,21 @@
+package podcast.model.entities.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlayIngestionMetricsDTO {
+    // Eventos esperando en la cola
+    private int queued;
+    private long enqueued;
+    private long written;
+    private long batches;
+    // Eventos escritos en el hilo del request porque la cola estaba llena
+    private long directWrites;
+    private long failed;
+}
@@ -30,4 +30,5 @@ public class PodcastDTO {
     private Long averageViews;
     private Double averageRating;
     private LocalDateTime createdAt;
+    private Integer episodeCount;
 }
\ No newline at end of file
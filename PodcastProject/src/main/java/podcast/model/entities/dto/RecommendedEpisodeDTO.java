@@ -0,0 +1,19 @@
+package podcast.model.entities.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecommendedEpisodeDTO {
+    private Long episodeId;
+    private String title;
+    private Long podcastId;
+    private String podcastTitle;
+    // Similitud con el episodio pedido, o suma de similitudes con el historial del usuario
+    private double score;
+}
@@ -0,0 +1,21 @@
+package podcast.model.entities.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchPageDTO {
+    private String query;
+    private int page;
+    private int size;
+    // Total de coincidencias (todas las páginas)
+    private int total;
+    private List<SearchResultDTO> results;
+}
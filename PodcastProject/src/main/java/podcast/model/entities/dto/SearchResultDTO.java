@@ -0,0 +1,20 @@
+package podcast.model.entities.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import podcast.model.entities.enums.SearchDocumentType;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchResultDTO {
+    private SearchDocumentType type;
+    private Long id;
+    private String title;
+    // Comienzo de la descripción, recortado para el listado
+    private String snippet;
+    private double score;
+}
@@ -0,0 +1,26 @@
+package podcast.model.entities.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ThreadingMetricsDTO {
+    // true si Tomcat, el executor y el scheduler corren en hilos virtuales (spring.threads.virtual.enabled)
+    private boolean virtualThreads;
+    // Pool de conexiones: con hilos virtuales es el límite real de concurrencia contra la BD
+    private int poolMaximum;
+    private int poolActive;
+    private int poolIdle;
+    // Hilos esperando una conexión libre
+    private int poolPending;
+    // Eventos jdk.VirtualThreadPinned por encima del umbral y los frames que más los causan
+    private long pinnedEvents;
+    private Map<String, Long> pinnedByFrame;
+}
@@ -0,0 +1,21 @@
+package podcast.model.entities.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TrendingEpisodeDTO {
+    private Long episodeId;
+    private String title;
+    private Long podcastId;
+    private String podcastTitle;
+    // Reproducciones decaídas según la ventana pedida
+    private double score;
+    // Cota de sobreestimación heredada al entrar al top-K (0 si se contó desde su primera reproducción)
+    private double maxError;
+}
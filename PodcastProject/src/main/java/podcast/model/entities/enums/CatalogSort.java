@@ -0,0 +1,8 @@
+package podcast.model.entities.enums;
+
+// Ordenamientos soportados por el catálogo paginado de podcasts
+public enum CatalogSort {
+    ID,
+    VIEWS,
+    RATING
+}
@@ -0,0 +1,7 @@
+package podcast.model.entities.enums;
+
+// Orden de los comentarios de un episodio: más nuevos o más viejos primero
+public enum CommentOrder {
+    NEWEST,
+    OLDEST
+}
@@ -0,0 +1,8 @@
+package podcast.model.entities.enums;
+
+// Estado de un borrado de media en el outbox: los exitosos se eliminan de la tabla
+public enum MediaDeletionStatus {
+    PENDING,
+    // Agotó los reintentos: queda para revisión manual
+    FAILED
+}
@@ -0,0 +1,6 @@
+package podcast.model.entities.enums;
+
+public enum SearchDocumentType {
+    PODCAST,
+    EPISODE
+}
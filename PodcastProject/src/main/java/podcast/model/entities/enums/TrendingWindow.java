@@ -0,0 +1,21 @@
+package podcast.model.entities.enums;
+
+import java.time.Duration;
+
+// Ventanas del ranking de tendencias: cada una es la vida media del decaimiento,
+// una reproducción de hace una ventana vale la mitad que una de ahora
+public enum TrendingWindow {
+    HOUR(Duration.ofHours(1)),
+    DAY(Duration.ofDays(1)),
+    WEEK(Duration.ofDays(7));
+
+    private final Duration halfLife;
+
+    TrendingWindow(Duration halfLife) {
+        this.halfLife = halfLife;
+    }
+
+    public Duration getHalfLife() {
+        return halfLife;
+    }
+}
@@ -0,0 +1,54 @@
+package podcast.model.entities.helpers;
+
+// Rango de bytes pedido en un header Range (extremos inclusive), ya acotado al tamaño del archivo.
+public record ByteRange(long start, long end) {
+
+    private static final String UNIT = "bytes=";
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    public String contentRange(long size) {
+        return "bytes " + start + "-" + end + "/" + size;
+    }
+
+    // Soporta "a-b", "a-" y "-n" (los últimos n bytes). Devuelve null si no hay que aplicar rango:
+    // sin header, con sintaxis inválida o con varios rangos (se responde el archivo completo, que el
+    // RFC 9110 permite). Lanza IllegalArgumentException si el rango no es satisfacible (416).
+    public static ByteRange parse(String header, long size) {
+        if (header == null || !header.regionMatches(true, 0, UNIT, 0, UNIT.length())) {
+            return null;
+        }
+        String spec = header.substring(UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (spec.indexOf(',') >= 0 || dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix < 0) {
+                    return null;
+                }
+                if (suffix == 0 || size == 0) {
+                    throw new IllegalArgumentException("Unsatisfiable range: " + header);
+                }
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (start < 0 || end < start) {
+                return null;
+            }
+            if (start >= size) {
+                throw new IllegalArgumentException("Unsatisfiable range: " + header);
+            }
+            return new ByteRange(start, Math.min(end, size - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
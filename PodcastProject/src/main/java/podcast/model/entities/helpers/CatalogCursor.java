@@ -0,0 +1,31 @@
+package podcast.model.entities.helpers;
+
+import podcast.model.entities.enums.CatalogSort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Cursor opaco para la paginación por keyset del catálogo: codifica el orden usado,
+// el valor de la columna de orden y el id del último elemento entregado.
+public record CatalogCursor(CatalogSort sort, Double value, Long id) {
+
+    public String encode() {
+        String raw = sort.name() + ":" + (value != null ? value : "") + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CatalogCursor decode(String cursor, CatalogSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", -1);
+            CatalogSort sort = CatalogSort.valueOf(parts[0]);
+            if (parts.length != 3 || sort != expectedSort) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            Double value = parts[1].isEmpty() ? null : Double.valueOf(parts[1]);
+            return new CatalogCursor(sort, value, Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package podcast.model.entities.helpers;
+
+import podcast.model.entities.enums.CommentOrder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Cursor opaco para paginar comentarios por keyset: el orden pedido y el (createdAt, id)
+// del último comentario entregado. El id desempata comentarios creados en el mismo instante.
+public record CommentCursor(CommentOrder order, LocalDateTime createdAt, Integer id) {
+
+    // La fecha ISO lleva ':' así que los campos se separan con '|'
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = order.name() + SEPARATOR + createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CommentCursor decode(String cursor, CommentOrder expectedOrder) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            CommentOrder order = CommentOrder.valueOf(parts[0]);
+            if (parts.length != 3 || order != expectedOrder) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new CommentCursor(order, LocalDateTime.parse(parts[1]), Integer.valueOf(parts[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package podcast.model.entities.helpers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Cursor opaco del feed de novedades: (publishedAt, episodeId) del último episodio entregado.
+// El id desempata episodios publicados en el mismo instante.
+public record InboxCursor(LocalDateTime publishedAt, Integer episodeId) {
+
+    // La fecha ISO lleva ':' así que los campos se separan con '|'
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = publishedAt + SEPARATOR + episodeId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static InboxCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new InboxCursor(LocalDateTime.parse(parts[0]), Integer.valueOf(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
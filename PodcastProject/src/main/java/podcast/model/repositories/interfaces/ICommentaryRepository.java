@@ -1,9 +1,46 @@
 package podcast.model.repositories.interfaces;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import podcast.model.entities.Commentary;
+import podcast.model.entities.dto.CommentaryDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public interface ICommentaryRepository extends JpaRepository<Commentary, Long> {
+
+    // ── Comentarios de un episodio paginados por keyset (createdAt, id) ──────────────
+    // Recorren idx_commentaries_episode_created y traen el autor en la misma sentencia como
+    // proyección: ni se carga la colección del episodio ni se hace un SELECT por usuario.
+
+    @Query("""
+            SELECT new podcast.model.entities.dto.CommentaryDTO(c.id, c.content, u.nickname, u.profilePicture, c.createdAt)
+            FROM Commentary c JOIN c.user u
+            WHERE c.episode.id = :episodeId
+              AND (:afterId IS NULL OR c.createdAt < :afterCreatedAt
+                   OR (c.createdAt = :afterCreatedAt AND c.id < :afterId))
+            ORDER BY c.createdAt DESC, c.id DESC
+            """)
+    List<CommentaryDTO> findPageNewestFirst(@Param("episodeId") Integer episodeId,
+                                            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                            @Param("afterId") Integer afterId,
+                                            Pageable window);
+
+    @Query("""
+            SELECT new podcast.model.entities.dto.CommentaryDTO(c.id, c.content, u.nickname, u.profilePicture, c.createdAt)
+            FROM Commentary c JOIN c.user u
+            WHERE c.episode.id = :episodeId
+              AND (:afterId IS NULL OR c.createdAt > :afterCreatedAt
+                   OR (c.createdAt = :afterCreatedAt AND c.id > :afterId))
+            ORDER BY c.createdAt ASC, c.id ASC
+            """)
+    List<CommentaryDTO> findPageOldestFirst(@Param("episodeId") Integer episodeId,
+                                            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                            @Param("afterId") Integer afterId,
+                                            Pageable window);
 }
@@ -7,11 +7,13 @@ import org.springframework.stereotype.Repository;
 import podcast.model.entities.EpisodeHistory;
 
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface IEpisodeHistoryRepository extends JpaRepository<EpisodeHistory, Long> {
-    Optional<EpisodeHistory> findFirstByEpisode_IdAndUser_Id(Long episodeId, Long userId);
+    // Consulta explícita sobre las FK: el método derivado (findFirstByEpisode_IdAndUser_Id) generaba
+    // joins a episodes y users y la base no usaba idx_episode_history_user_episode
+    @Query("SELECT COUNT(eh) > 0 FROM EpisodeHistory eh WHERE eh.episode.id = :episodeId AND eh.user.id = :userId")
+    boolean hasListened(@Param("episodeId") Long episodeId, @Param("userId") Long userId);
 
     @Query("SELECT eh FROM EpisodeHistory eh WHERE eh.user.id = :userId")
     List<EpisodeHistory> findEpisodesByUserId(@Param("userId") Long userId);
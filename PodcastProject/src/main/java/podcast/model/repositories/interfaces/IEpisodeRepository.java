@@ -1,12 +1,17 @@
 package podcast.model.repositories.interfaces;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import podcast.model.entities.Episode;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface IEpisodeRepository extends JpaRepository<Episode, Long> {
@@ -16,9 +21,62 @@ public interface IEpisodeRepository extends JpaRepository<Episode, Long> {
     void deleteByTitleIgnoreCase(String title);
     List<Episode> findAllByOrderByViewsDesc();        //LISTA UNA CANTIDAD DETERMINADA List<Episode> findTop15ByOrderByViewsDesc();
 
-    @Query(
-            value = "SELECT AVG(rating) FROM episode_history WHERE episode_id = :episodeId",
-            nativeQuery = true
-    )
-    Double findAverageRatingByEpisodeId(@Param("episodeId") Long episodeId);
+    @Query("SELECT CAST(e.id AS Long) FROM Episode e WHERE e.podcast.id = :podcastId")
+    List<Long> findIdsByPodcastId(@Param("podcastId") Long podcastId);
+
+    // Los UPDATE nativos declaran la tabla que tocan: sin eso Hibernate no sabe qué regiones de la
+    // caché de segundo nivel quedan viejas y las vacía todas en cada rating o comentario
+
+    // ── Agregados de rating ──────────────────────────────────────────────────────────
+
+    interface RatingAggregate {
+        Long getRatingSum();
+        Long getRatingCount();
+        Long getPodcastId();
+    }
+
+    @Query(value = "SELECT rating_sum AS ratingSum, rating_count AS ratingCount, podcast_id AS podcastId FROM episodes WHERE id = :episodeId",
+            nativeQuery = true)
+    Optional<RatingAggregate> findRatingAggregate(@Param("episodeId") Long episodeId);
+
+    // Bloquea la fila del episodio: dos ratings concurrentes sobre el mismo episodio se serializan
+    // y cada uno calcula su delta sobre el promedio que dejó el anterior
+    @Query(value = "SELECT rating_sum AS ratingSum, rating_count AS ratingCount, podcast_id AS podcastId FROM episodes WHERE id = :episodeId FOR UPDATE",
+            nativeQuery = true)
+    Optional<RatingAggregate> lockRatingAggregate(@Param("episodeId") Long episodeId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "episodes"))
+    @Query(value = "UPDATE episodes SET rating_sum = rating_sum + :sumDelta, rating_count = rating_count + :countDelta WHERE id = :episodeId",
+            nativeQuery = true)
+    int addRating(@Param("episodeId") Long episodeId, @Param("sumDelta") long sumDelta, @Param("countDelta") long countDelta);
+
+    // Recalcula los agregados de todos los episodios desde la tabla de ratings
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "episodes"))
+    @Query(value = """
+            UPDATE episodes e SET
+                rating_sum = COALESCE((SELECT SUM(r.score) FROM ratings r WHERE r.episode_id = e.id), 0),
+                rating_count = (SELECT COUNT(*) FROM ratings r WHERE r.episode_id = e.id)
+            """, nativeQuery = true)
+    int rebuildRatingAggregates();
+
+    @Query("SELECT COALESCE(SUM(e.ratingCount), 0) FROM Episode e")
+    long sumRatingCounts();
+
+    // ── Contador de comentarios ──────────────────────────────────────────────────────
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "episodes"))
+    @Query(value = "UPDATE episodes SET comment_count = comment_count + :delta WHERE id = :episodeId", nativeQuery = true)
+    int addCommentCount(@Param("episodeId") Long episodeId, @Param("delta") long delta);
+
+    // Corrige solo los episodios cuyo contador no coincide con la tabla de comentarios; devuelve cuántos
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "episodes"))
+    @Query(value = """
+            UPDATE episodes e SET comment_count = (SELECT COUNT(*) FROM commentaries c WHERE c.episode_id = e.id)
+            WHERE e.comment_count <> (SELECT COUNT(*) FROM commentaries c WHERE c.episode_id = e.id)
+            """, nativeQuery = true)
+    int reconcileCommentCounts();
 }
@@ -0,0 +1,59 @@
+package podcast.model.repositories.interfaces;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import podcast.model.entities.EpisodeSimilarity;
+import podcast.model.entities.dto.RecommendedEpisodeDTO;
+
+import java.util.List;
+
+@Repository
+public interface IEpisodeSimilarityRepository extends JpaRepository<EpisodeSimilarity, Long> {
+
+    // Recorre idx_episode_similarities_episode_rank y trae título y podcast en la misma sentencia.
+    // Los vecinos borrados o de podcasts desactivados se descartan acá hasta la próxima reconstrucción.
+    @Query("""
+            SELECT new podcast.model.entities.dto.RecommendedEpisodeDTO(CAST(e.id AS Long), e.title, p.id, p.title, s.score)
+            FROM EpisodeSimilarity s, Episode e JOIN e.podcast p
+            WHERE s.episodeId = :episodeId AND e.id = s.similarEpisodeId AND p.isActive = true
+            ORDER BY s.rank ASC
+            """)
+    List<RecommendedEpisodeDTO> findSimilar(@Param("episodeId") Integer episodeId, Pageable window);
+
+    // Fila de recomendación para un usuario
+    interface RecommendationRow {
+        Long getEpisodeId();
+        String getTitle();
+        Long getPodcastId();
+        String getPodcastTitle();
+        Double getScore();
+    }
+
+    // Suma, para cada candidato, su similitud con los últimos :seeds episodios distintos que escuchó el
+    // usuario, sin repetir los que ya escuchó. Una sola sentencia: las semillas salen de
+    // idx_episode_history_user_episode y los vecinos de idx_episode_similarities_episode_rank.
+    @Query(value = """
+            SELECT e.id AS episodeId, e.title AS title, p.id AS podcastId, p.title AS podcastTitle, r.score AS score
+            FROM (SELECT s.similar_episode_id AS episode_id, SUM(s.score) AS score
+                  FROM episode_similarities s
+                  JOIN (SELECT h.episode_id, MAX(h.listened_at) AS last_listened
+                        FROM episode_history h WHERE h.user_id = :userId
+                        GROUP BY h.episode_id
+                        ORDER BY last_listened DESC
+                        LIMIT :seeds) seeds ON seeds.episode_id = s.episode_id
+                  GROUP BY s.similar_episode_id) r
+            JOIN episodes e ON e.id = r.episode_id
+            JOIN podcasts p ON p.id = e.podcast_id
+            WHERE p.is_active = TRUE
+              AND NOT EXISTS (SELECT 1 FROM episode_history h
+                              WHERE h.user_id = :userId AND h.episode_id = r.episode_id)
+            ORDER BY r.score DESC, e.id ASC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<RecommendationRow> findRecommendations(@Param("userId") Long userId,
+                                                @Param("seeds") int seeds,
+                                                @Param("limit") int limit);
+}
@@ -0,0 +1,71 @@
+package podcast.model.repositories.interfaces;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import podcast.model.entities.InboxEntry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface IInboxRepository extends JpaRepository<InboxEntry, Long> {
+
+    // Fila del feed de novedades
+    interface FeedRow {
+        Integer getEpisodeId();
+        String getTitle();
+        Long getPodcastId();
+        String getPodcastTitle();
+        LocalDateTime getPublishedAt();
+    }
+
+    // Una página del feed por keyset (published_at, episode_id), en una sola sentencia que une:
+    // - el inbox del usuario, recorriendo idx_user_inbox_user_published hacia atrás;
+    // - los episodios no repartidos (fanout_skipped) de sus podcasts favoritos, por
+    //   idx_episodes_podcast_fanout_published para cada favorito.
+    // Cada rama corta en :limit antes de unirse, así el costo no crece con la antigüedad del inbox.
+    @Query(value = """
+            SELECT x.episode_id AS episodeId, x.title AS title, x.podcast_id AS podcastId,
+                   x.podcast_title AS podcastTitle, x.published_at AS publishedAt
+            FROM ((SELECT i.episode_id, e.title, p.id AS podcast_id, p.title AS podcast_title, i.published_at
+                   FROM user_inbox i
+                   JOIN episodes e ON e.id = i.episode_id
+                   JOIN podcasts p ON p.id = i.podcast_id
+                   WHERE i.user_id = :userId AND p.is_active = TRUE
+                     AND (i.published_at < :afterPublishedAt
+                          OR (i.published_at = :afterPublishedAt AND i.episode_id < :afterId))
+                   ORDER BY i.published_at DESC, i.episode_id DESC
+                   LIMIT :limit)
+                  UNION ALL
+                  (SELECT e.id, e.title, p.id, p.title, e.publication_date
+                   FROM favorites f
+                   JOIN podcasts p ON p.id = f.podcast_id
+                   JOIN episodes e ON e.podcast_id = f.podcast_id AND e.fanout_skipped = TRUE
+                   WHERE f.user_id = :userId AND p.is_active = TRUE
+                     AND (e.publication_date < :afterPublishedAt
+                          OR (e.publication_date = :afterPublishedAt AND e.id < :afterId))
+                   ORDER BY e.publication_date DESC, e.id DESC
+                   LIMIT :limit)) x
+            ORDER BY x.published_at DESC, x.episode_id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<FeedRow> findFeedPage(@Param("userId") Long userId,
+                               @Param("afterPublishedAt") LocalDateTime afterPublishedAt,
+                               @Param("afterId") Integer afterId,
+                               @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM InboxEntry i WHERE i.episodeId = :episodeId")
+    int deleteByEpisode(@Param("episodeId") Integer episodeId);
+
+    @Modifying
+    @Query("DELETE FROM InboxEntry i WHERE i.userId = :userId AND i.podcastId = :podcastId")
+    int deleteByUserAndPodcast(@Param("userId") Long userId, @Param("podcastId") Long podcastId);
+
+    @Modifying
+    @Query("DELETE FROM InboxEntry i WHERE i.userId = :userId")
+    int deleteByUser(@Param("userId") Long userId);
+}
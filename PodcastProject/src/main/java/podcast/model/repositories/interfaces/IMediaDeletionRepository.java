@@ -0,0 +1,26 @@
+package podcast.model.repositories.interfaces;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import podcast.model.entities.MediaDeletion;
+import podcast.model.entities.enums.MediaDeletionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface IMediaDeletionRepository extends JpaRepository<MediaDeletion, Long> {
+
+    // Pendientes cuyo próximo intento ya venció, los más atrasados primero (usa idx_media_deletions_due)
+    @Query("""
+            SELECT d FROM MediaDeletion d
+            WHERE d.status = podcast.model.entities.enums.MediaDeletionStatus.PENDING AND d.nextAttemptAt <= :now
+            ORDER BY d.nextAttemptAt ASC
+            """)
+    List<MediaDeletion> findDue(@Param("now") LocalDateTime now, Pageable window);
+
+    long countByStatus(MediaDeletionStatus status);
+}
@@ -1,15 +1,108 @@
 package podcast.model.repositories.interfaces;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import podcast.cfg.HibernateCacheConfig;
 import podcast.model.entities.Podcast;
+import podcast.model.entities.PodcastStats;
 import podcast.model.entities.enums.Category;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface IPodcastRepository extends JpaRepository<Podcast, Long> {
-    List<Podcast> findByUser_IdOrTitleIgnoreCaseOrCategories(Integer userId, String title, Category category);
+    boolean existsByTitleIgnoreCase(String title);
+    // Cacheada: guarda solo los ids y los podcasts salen de la región "podcasts". Se invalida con
+    // cualquier escritura sobre podcasts o users
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.PODCASTS_BY_OWNER)
+    })
     List<Podcast> findByUser_Credential_Username(String username);
     boolean existsByUserId(Long id);
+
+    // El feed RSS lista las categorías y el autor: se traen en la misma consulta que el podcast
+    // (los roles porque la colección del usuario es eager)
+    @Query("SELECT p FROM Podcast p LEFT JOIN FETCH p.categories JOIN FETCH p.user u " +
+            "LEFT JOIN FETCH u.credential.roles WHERE p.id = :id")
+    Optional<Podcast> findByIdWithCategories(@Param("id") Long id);
+
+    // Lecturas planas para armar el índice de categorías al iniciar
+    @Query("SELECT p.id, p.isActive FROM Podcast p")
+    List<Object[]> findAllActiveStates();
+
+    @Query("SELECT p.id, c FROM Podcast p JOIN p.categories c")
+    List<Object[]> findAllCategoryPairs();
+
+    // ── Catálogo paginado por keyset (filtros resueltos en SQL) ──────────────────────
+    // Los agregados se leen de podcast_stats, así que listar no toca episodios ni ratings.
+    // Los órdenes por vistas/rating usan JOIN directo para aprovechar los índices de podcast_stats
+    // (todo podcast tiene su fila: se crea al guardar el podcast y se completa al iniciar).
+
+    // Fila del catálogo: el podcast junto a sus estadísticas (de donde sale el valor del cursor)
+    interface CatalogRow {
+        Podcast getPodcast();
+        PodcastStats getStats();
+    }
+
+    @Query("""
+            SELECT p AS podcast, s AS stats
+            FROM Podcast p LEFT JOIN PodcastStats s ON s.podcastId = p.id
+            WHERE p.isActive = true
+              AND (:title IS NULL OR LOWER(p.title) LIKE LOWER(CONCAT('%', :title, '%')))
+              AND (:userId IS NULL OR p.user.id = :userId)
+              AND (:category IS NULL OR :category MEMBER OF p.categories)
+              AND (:afterId IS NULL OR p.id > :afterId)
+            ORDER BY p.id ASC
+            """)
+    List<CatalogRow> findCatalogOrderById(@Param("title") String title,
+                                          @Param("userId") Long userId,
+                                          @Param("category") Category category,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+
+    @Query("""
+            SELECT p AS podcast, s AS stats
+            FROM Podcast p JOIN PodcastStats s ON s.podcastId = p.id
+            WHERE p.isActive = true
+              AND (:title IS NULL OR LOWER(p.title) LIKE LOWER(CONCAT('%', :title, '%')))
+              AND (:userId IS NULL OR p.user.id = :userId)
+              AND (:category IS NULL OR :category MEMBER OF p.categories)
+              AND (:afterId IS NULL
+                   OR s.averageViews < :afterValue
+                   OR (s.averageViews = :afterValue AND p.id < :afterId))
+            ORDER BY s.averageViews DESC, p.id DESC
+            """)
+    List<CatalogRow> findCatalogOrderByViews(@Param("title") String title,
+                                             @Param("userId") Long userId,
+                                             @Param("category") Category category,
+                                             @Param("afterValue") Long afterValue,
+                                             @Param("afterId") Long afterId,
+                                             Pageable pageable);
+
+    @Query("""
+            SELECT p AS podcast, s AS stats
+            FROM Podcast p JOIN PodcastStats s ON s.podcastId = p.id
+            WHERE p.isActive = true
+              AND (:title IS NULL OR LOWER(p.title) LIKE LOWER(CONCAT('%', :title, '%')))
+              AND (:userId IS NULL OR p.user.id = :userId)
+              AND (:category IS NULL OR :category MEMBER OF p.categories)
+              AND (:afterId IS NULL
+                   OR s.averageRating < :afterValue
+                   OR (s.averageRating = :afterValue AND p.id < :afterId))
+            ORDER BY s.averageRating DESC, p.id DESC
+            """)
+    List<CatalogRow> findCatalogOrderByRating(@Param("title") String title,
+                                              @Param("userId") Long userId,
+                                              @Param("category") Category category,
+                                              @Param("afterValue") Double afterValue,
+                                              @Param("afterId") Long afterId,
+                                              Pageable pageable);
 }
@@ -0,0 +1,64 @@
+package podcast.model.repositories.interfaces;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import podcast.model.entities.PodcastStats;
+
+import java.util.List;
+
+@Repository
+public interface IPodcastStatsRepository extends JpaRepository<PodcastStats, Long> {
+
+    // Los contadores se actualizan con UPDATE atómicos para no perder incrementos concurrentes.
+    // averageViews se recalcula en una sentencia aparte porque MySQL y H2 difieren en si un
+    // SET ve los valores nuevos o viejos de las columnas asignadas en la misma sentencia.
+
+    @Modifying
+    @Query("UPDATE PodcastStats s SET s.episodeCount = s.episodeCount + :episodes, s.totalViews = s.totalViews + :views WHERE s.podcastId = :podcastId")
+    int addCounts(@Param("podcastId") Long podcastId, @Param("episodes") int episodes, @Param("views") long views);
+
+    @Modifying
+    @Query("UPDATE PodcastStats s SET s.averageViews = CASE WHEN s.episodeCount > 0 THEN s.totalViews / s.episodeCount ELSE 0 END WHERE s.podcastId = :podcastId")
+    int refreshAverageViews(@Param("podcastId") Long podcastId);
+
+    // Igual que con las vistas: primero el delta atómico y después el promedio en otra sentencia
+    @Modifying
+    @Query("UPDATE PodcastStats s SET s.ratingAverageSum = s.ratingAverageSum + :averageDelta, s.ratedEpisodes = s.ratedEpisodes + :ratedEpisodes WHERE s.podcastId = :podcastId")
+    int addRatingAverage(@Param("podcastId") Long podcastId, @Param("averageDelta") double averageDelta, @Param("ratedEpisodes") int ratedEpisodes);
+
+    @Modifying
+    @Query("UPDATE PodcastStats s SET s.averageRating = CASE WHEN s.ratedEpisodes > 0 THEN s.ratingAverageSum / s.ratedEpisodes ELSE 0.0 END WHERE s.podcastId = :podcastId")
+    int refreshAverageRating(@Param("podcastId") Long podcastId);
+
+    // Recalcula los agregados de rating de todos los podcasts a partir de los de cada episodio
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "podcast_stats"))
+    @Query(value = """
+            UPDATE podcast_stats s SET
+                rating_average_sum = COALESCE((SELECT SUM(e.rating_sum * 1.0 / e.rating_count) FROM episodes e
+                                               WHERE e.podcast_id = s.podcast_id AND e.rating_count > 0), 0),
+                rated_episodes = (SELECT COUNT(*) FROM episodes e WHERE e.podcast_id = s.podcast_id AND e.rating_count > 0)
+            """, nativeQuery = true)
+    int rebuildRatingAverages();
+
+    @Modifying
+    @Query("UPDATE PodcastStats s SET s.averageRating = CASE WHEN s.ratedEpisodes > 0 THEN s.ratingAverageSum / s.ratedEpisodes ELSE 0.0 END")
+    int refreshAllAverageRatings();
+
+    // Agregados de los podcasts que todavía no tienen fila de estadísticas (bases previas al read model)
+    @Query("""
+            SELECT p.id, COUNT(e), COALESCE(SUM(e.views), 0),
+                   COALESCE(SUM(CASE WHEN e.ratingCount > 0 THEN e.ratingSum * 1.0 / e.ratingCount ELSE 0.0 END), 0.0),
+                   COALESCE(SUM(CASE WHEN e.ratingCount > 0 THEN 1 ELSE 0 END), 0)
+            FROM Podcast p LEFT JOIN p.episodes e
+            WHERE NOT EXISTS (SELECT 1 FROM PodcastStats s WHERE s.podcastId = p.id)
+            GROUP BY p.id
+            """)
+    List<Object[]> aggregateMissing();
+}
@@ -0,0 +1,134 @@
+package podcast.model.search;
+
+import podcast.model.entities.enums.Category;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice de bitmaps para filtrar el catálogo por categorías sin tocar la tabla CategoriesXPodcast:
+// un BitSet de ids de podcast por cada Category más uno con los podcasts activos.
+// Las combinaciones AND/OR/NOT son operaciones de bits y los conteos por faceta, cardinalidades.
+public class CategoryBitmapIndex {
+
+    // Resultado de un filtro: los ids que cumplen y cuántos de ellos tiene cada categoría
+    public record Selection(BitSet ids, Map<Category, Integer> facets) {
+        public int total() {
+            return ids.cardinality();
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final EnumMap<Category, BitSet> byCategory = new EnumMap<>(Category.class);
+    private final BitSet active = new BitSet();
+
+    public CategoryBitmapIndex() {
+        for (Category category : Category.values()) {
+            byCategory.put(category, new BitSet());
+        }
+    }
+
+    // ── Escrituras ───────────────────────────────────────────────────────────────────
+
+    // Alta o reemplazo de las categorías y el estado de un podcast
+    public void put(long podcastId, Collection<Category> categories, boolean isActive) {
+        int bit = toBit(podcastId);
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<Category, BitSet> entry : byCategory.entrySet()) {
+                entry.getValue().set(bit, categories != null && categories.contains(entry.getKey()));
+            }
+            active.set(bit, isActive);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void setActive(long podcastId, boolean isActive) {
+        int bit = toBit(podcastId);
+        lock.writeLock().lock();
+        try {
+            active.set(bit, isActive);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            byCategory.values().forEach(BitSet::clear);
+            active.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ── Lecturas ─────────────────────────────────────────────────────────────────────
+
+    // Podcasts activos que tienen todas las categorías de allOf, al menos una de anyOf (si no está vacío)
+    // y ninguna de noneOf. Los conteos por faceta se calculan sobre ese mismo resultado.
+    public Selection select(Set<Category> allOf, Set<Category> anyOf, Set<Category> noneOf) {
+        lock.readLock().lock();
+        try {
+            BitSet result = (BitSet) active.clone();
+            for (Category category : allOf) {
+                result.and(byCategory.get(category));
+            }
+            if (!anyOf.isEmpty()) {
+                BitSet union = new BitSet();
+                for (Category category : anyOf) {
+                    union.or(byCategory.get(category));
+                }
+                result.and(union);
+            }
+            for (Category category : noneOf) {
+                result.andNot(byCategory.get(category));
+            }
+            EnumMap<Category, Integer> facets = new EnumMap<>(Category.class);
+            BitSet scratch = new BitSet();
+            for (Map.Entry<Category, BitSet> entry : byCategory.entrySet()) {
+                scratch.clear();
+                scratch.or(result);
+                scratch.and(entry.getValue());
+                facets.put(entry.getKey(), scratch.cardinality());
+            }
+            return new Selection(result, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Si el podcast está activo y, cuando se pide una categoría, si pertenece a ella
+    public boolean matches(long podcastId, Category category) {
+        int bit = toBit(podcastId);
+        lock.readLock().lock();
+        try {
+            return active.get(bit) && (category == null || byCategory.get(category).get(bit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Category> categoriesOf(long podcastId) {
+        int bit = toBit(podcastId);
+        lock.readLock().lock();
+        try {
+            List<Category> categories = new ArrayList<>();
+            for (Map.Entry<Category, BitSet> entry : byCategory.entrySet()) {
+                if (entry.getValue().get(bit)) {
+                    categories.add(entry.getKey());
+                }
+            }
+            return categories;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int toBit(long podcastId) {
+        if (podcastId < 0 || podcastId > Integer.MAX_VALUE - 1) {
+            throw new IllegalArgumentException("Podcast id out of range for the category index: " + podcastId);
+        }
+        return (int) podcastId;
+    }
+}
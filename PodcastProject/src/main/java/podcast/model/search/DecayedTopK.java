@@ -0,0 +1,193 @@
+package podcast.model.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Heavy hitters con decaimiento exponencial: Space-Saving (Metwally et al.) sobre un min-heap indexado
+// de tamaño fijo. Cuando no hay lugar, el elemento nuevo reemplaza al de menor puntaje y hereda ese
+// puntaje como error máximo, así el top-K nunca subestima a un episodio que de verdad es tendencia.
+//
+// El decaimiento es "forward decay": cada evento pesa e^(λ·(t - landmark)) en lugar de restarle peso a
+// todos los contadores con el paso del tiempo. El orden relativo no cambia con el reloj, por lo que
+// registrar un evento es O(log k) y solo al consultar se lleva el puntaje a "ahora". Cuando los pesos
+// crecen demasiado se corre el landmark y se reescalan los k contadores de una vez.
+public class DecayedTopK {
+
+    // Puntaje decaído al momento de la consulta; el valor real está entre score - maxError y score
+    public record Entry(long id, double score, double maxError) {}
+
+    // Margen antes de reescalar: e^50 ≈ 5e21 deja lugar de sobra en un double
+    private static final double MAX_EXPONENT = 50.0;
+
+    private final int capacity;
+    private final double lambda;
+    private long landmark;
+
+    // Min-heap por puntaje: la raíz es el candidato a desalojar
+    private final long[] ids;
+    private final double[] counts;
+    private final double[] errors;
+    private final Map<Long, Integer> positions;
+    private int size;
+
+    // halfLifeMs: tiempo tras el cual una reproducción vale la mitad
+    public DecayedTopK(int capacity, long halfLifeMs, long landmark) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (halfLifeMs < 1) {
+            throw new IllegalArgumentException("halfLifeMs must be positive");
+        }
+        this.capacity = capacity;
+        this.lambda = Math.log(2) / halfLifeMs;
+        this.landmark = landmark;
+        this.ids = new long[capacity];
+        this.counts = new double[capacity];
+        this.errors = new double[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    // ── Escrituras ───────────────────────────────────────────────────────────────────
+
+    public synchronized void add(long id, long timestampMs) {
+        double exponent = lambda * (timestampMs - landmark);
+        if (exponent > MAX_EXPONENT) {
+            rescale(timestampMs);
+            exponent = 0;
+        }
+        double weight = Math.exp(exponent);
+
+        Integer position = positions.get(id);
+        if (position != null) {
+            counts[position] += weight;
+            siftDown(position);
+        } else if (size < capacity) {
+            ids[size] = id;
+            counts[size] = weight;
+            errors[size] = 0;
+            positions.put(id, size);
+            siftUp(size++);
+        } else {
+            // Reemplaza al mínimo: el nuevo hereda su puntaje como cota del error
+            positions.remove(ids[0]);
+            double min = counts[0];
+            ids[0] = id;
+            counts[0] = min + weight;
+            errors[0] = min;
+            positions.put(id, 0);
+            siftDown(0);
+        }
+    }
+
+    public synchronized void remove(long id) {
+        Integer position = positions.remove(id);
+        if (position == null) {
+            return;
+        }
+        int last = --size;
+        if (position != last) {
+            move(last, position);
+            siftDown(position);
+            siftUp(position);
+        }
+    }
+
+    public synchronized void clear() {
+        positions.clear();
+        size = 0;
+    }
+
+    // ── Lecturas ─────────────────────────────────────────────────────────────────────
+
+    // Los n mayores puntajes llevados al instante nowMs, de mayor a menor
+    public synchronized List<Entry> top(int n, long nowMs) {
+        int count = Math.min(n, size);
+        if (count <= 0) {
+            return List.of();
+        }
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(counts[b], counts[a]));
+
+        double decay = Math.exp(-lambda * (nowMs - landmark));
+        List<Entry> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int slot = order[i];
+            result.add(new Entry(ids[slot], counts[slot] * decay, errors[slot] * decay));
+        }
+        return result;
+    }
+
+    public synchronized boolean contains(long id) {
+        return positions.containsKey(id);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // ── Internos ─────────────────────────────────────────────────────────────────────
+
+    private void rescale(long newLandmark) {
+        double factor = Math.exp(-lambda * (newLandmark - landmark));
+        for (int i = 0; i < size; i++) {
+            counts[i] *= factor;
+            errors[i] *= factor;
+        }
+        landmark = newLandmark;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (counts[parent] <= counts[index]) {
+                return;
+            }
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int right = left + 1;
+            int smallest = right < size && counts[right] < counts[left] ? right : left;
+            if (counts[index] <= counts[smallest]) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long id = ids[a];
+        double count = counts[a];
+        double error = errors[a];
+        move(b, a);
+        ids[b] = id;
+        counts[b] = count;
+        errors[b] = error;
+        positions.put(id, b);
+    }
+
+    private void move(int from, int to) {
+        ids[to] = ids[from];
+        counts[to] = counts[from];
+        errors[to] = errors[from];
+        positions.put(ids[to], to);
+    }
+}
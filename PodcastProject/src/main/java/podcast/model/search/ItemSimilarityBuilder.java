@@ -0,0 +1,403 @@
+package podcast.model.search;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Vecinos más parecidos de cada episodio por similitud coseno entre sus vectores de oyentes
+// (filtrado colaborativo ítem-ítem). Cada usuario es un vector disperso de episodios: pesa 1 el
+// episodio reproducido y favoriteWeight el que solo conoce por tener el podcast en favoritos.
+//
+// Las interacciones se acumulan empaquetadas en un long[] (usuario, episodio, tipo) y al construir
+// se ordenan una vez: eso agrupa por usuario, deja los duplicados juntos y da la matriz dispersa por
+// filas (CSR) sin mapas intermedios. Los productos punto salen de recorrer, por cada usuario, los
+// pares de episodios que escuchó; ese trabajo se reparte con fork/join por rangos de usuarios y cada
+// tarea suma en su propio LongFloatHashMap. Para acotar la memoria los episodios se procesan por
+// bloques: solo se acumulan los pares cuyo primer episodio cae en el bloque, y el tamaño del bloque
+// sale de una cota de cuántos pares distintos puede generar (blockEntries).
+//
+// El coseno lleva un término de shrinkage en el denominador: dos episodios que escuchó un único
+// usuario tienen coseno 1, y sin corrección llenarían los vecinos de casualidades.
+public final class ItemSimilarityBuilder {
+
+    // Un long por interacción: usuario en los 32 bits altos, episodio y tipo (0 = reproducción,
+    // 1 = favorito) en los bajos. Al ordenar, la reproducción queda antes que el favorito del mismo par.
+    private static final long MAX_USER_ID = Integer.MAX_VALUE;
+    private static final long MAX_ITEM_ID = (1L << 30) - 1;
+    private static final int PLAY = 0;
+    private static final int FAVORITE = 1;
+
+    @FunctionalInterface
+    public interface NeighborConsumer {
+        void accept(long itemId, int rank, long neighborId, float score);
+    }
+
+    // neighborIndex y scores tienen neighbors celdas por episodio, ordenadas de mayor a menor puntaje;
+    // las que sobran quedan en -1
+    public record Result(long[] itemIds, int neighbors, int[] neighborIndex, float[] scores,
+                         int users, long interactions) {
+
+        public int items() {
+            return itemIds.length;
+        }
+
+        public long pairs() {
+            return Arrays.stream(neighborIndex).filter(index -> index >= 0).count();
+        }
+
+        public void forEach(NeighborConsumer consumer) {
+            for (int item = 0; item < itemIds.length; item++) {
+                for (int rank = 0; rank < neighbors; rank++) {
+                    int cell = item * neighbors + rank;
+                    if (neighborIndex[cell] < 0) {
+                        break;
+                    }
+                    consumer.accept(itemIds[item], rank, itemIds[neighborIndex[cell]], scores[cell]);
+                }
+            }
+        }
+    }
+
+    private final int neighbors;
+    private final int maxItemsPerUser;
+    private final float favoriteWeight;
+    private final float shrinkage;
+    private final long blockEntries;
+
+    private long[] entries = new long[1024];
+    private int size;
+
+    public ItemSimilarityBuilder(int neighbors, int maxItemsPerUser, float favoriteWeight, float shrinkage, long blockEntries) {
+        if (neighbors < 1 || maxItemsPerUser < 2 || blockEntries < 1) {
+            throw new IllegalArgumentException("neighbors, maxItemsPerUser and blockEntries must be positive");
+        }
+        this.neighbors = neighbors;
+        this.maxItemsPerUser = maxItemsPerUser;
+        this.favoriteWeight = favoriteWeight;
+        this.shrinkage = shrinkage;
+        this.blockEntries = blockEntries;
+    }
+
+    public void addPlay(long userId, long itemId) {
+        add(userId, itemId, PLAY);
+    }
+
+    public void addFavorite(long userId, long itemId) {
+        add(userId, itemId, FAVORITE);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void add(long userId, long itemId, int type) {
+        if (userId < 0 || userId > MAX_USER_ID || itemId < 0 || itemId > MAX_ITEM_ID) {
+            throw new IllegalArgumentException("user or item id out of range: " + userId + ", " + itemId);
+        }
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size + (size >> 1));
+        }
+        entries[size++] = userId << 32 | itemId << 1 | type;
+    }
+
+    // ── Construcción ─────────────────────────────────────────────────────────────────
+
+    public Result build(ForkJoinPool pool) {
+        long interactions = size;
+        Arrays.parallelSort(entries, 0, size);
+        int kept = deduplicateAndCap();
+
+        // Diccionario de episodios: posición en el arreglo ordenado = índice denso
+        int[] itemIdsSorted = new int[kept];
+        for (int i = 0; i < kept; i++) {
+            itemIdsSorted[i] = itemOf(entries[i]);
+        }
+        Arrays.sort(itemIdsSorted);
+        int items = 0;
+        for (int i = 0; i < kept; i++) {
+            if (items == 0 || itemIdsSorted[i] != itemIdsSorted[items - 1]) {
+                itemIdsSorted[items++] = itemIdsSorted[i];
+            }
+        }
+        int[] dictionary = Arrays.copyOf(itemIdsSorted, items);
+
+        // Matriz por filas: columnas = índice << 1 | tipo, en el mismo orden que los ids
+        int users = 0;
+        for (int i = 0; i < kept; i++) {
+            if (i == 0 || userOf(entries[i]) != userOf(entries[i - 1])) {
+                users++;
+            }
+        }
+        int[] rowStart = new int[users + 1];
+        int[] columns = new int[kept];
+        int row = -1;
+        for (int i = 0; i < kept; i++) {
+            if (i == 0 || userOf(entries[i]) != userOf(entries[i - 1])) {
+                rowStart[++row] = i;
+            }
+            columns[i] = Arrays.binarySearch(dictionary, itemOf(entries[i])) << 1 | (int) (entries[i] & 1);
+        }
+        rowStart[users] = kept;
+        entries = new long[1024];
+        size = 0;
+
+        // Normas de cada episodio y cota de cuántos vecinos distintos puede tener
+        double[] squares = new double[items];
+        long[] pairBound = new long[items];
+        for (int u = 0; u < users; u++) {
+            int length = rowStart[u + 1] - rowStart[u];
+            for (int i = rowStart[u]; i < rowStart[u + 1]; i++) {
+                float weight = weight(columns[i]);
+                squares[columns[i] >>> 1] += weight * weight;
+                pairBound[columns[i] >>> 1] += length - 1;
+            }
+        }
+        float[] norms = new float[items];
+        for (int i = 0; i < items; i++) {
+            norms[i] = (float) Math.sqrt(squares[i]);
+        }
+
+        int[] neighborIndex = new int[items * neighbors];
+        float[] scores = new float[items * neighbors];
+        Arrays.fill(neighborIndex, -1);
+        int leafUsers = Math.max(64, users / (pool.getParallelism() * 8));
+        int from = 0;
+        while (from < items) {
+            int to = from;
+            long budget = 0;
+            do {
+                budget += Math.min(pairBound[to], items - 1);
+                to++;
+            } while (to < items && budget + Math.min(pairBound[to], items - 1) <= blockEntries);
+
+            LongFloatHashMap dots = pool.invoke(new DotProducts(rowStart, columns, from, to, 0, users, leafUsers));
+            selectNeighbors(dots, from, to, norms, neighborIndex, scores);
+            from = to;
+        }
+
+        long[] itemIds = new long[items];
+        for (int i = 0; i < items; i++) {
+            itemIds[i] = dictionary[i];
+        }
+        return new Result(itemIds, neighbors, neighborIndex, scores, users, interactions);
+    }
+
+    // Compacta entries[0, size) ya ordenado: un par (usuario, episodio) por vez, prefiriendo la
+    // reproducción, y a lo sumo maxItemsPerUser episodios por usuario. Devuelve cuántos quedan.
+    private int deduplicateAndCap() {
+        int write = 0;
+        int read = 0;
+        while (read < size) {
+            long user = userOf(entries[read]);
+            int groupStart = write;
+            int plays = 0;
+            for (; read < size && userOf(entries[read]) == user; read++) {
+                if (write > groupStart && itemOf(entries[write - 1]) == itemOf(entries[read])) {
+                    continue;
+                }
+                if ((entries[read] & 1) == PLAY) {
+                    plays++;
+                }
+                entries[write++] = entries[read];
+            }
+            write = groupStart + cap(groupStart, write - groupStart, plays);
+        }
+        return write;
+    }
+
+    // Usuarios con más episodios que el tope (bots, cuentas compartidas) harían trabajo cuadrático y
+    // dominarían los vecinos. Se conservan primero las reproducciones y se toma una muestra pareja a
+    // lo largo de los ids, en lugar de quedarse con los más viejos.
+    private int cap(int start, int length, int plays) {
+        if (length <= maxItemsPerUser) {
+            return length;
+        }
+        int keepPlays = Math.min(plays, maxItemsPerUser);
+        int keepFavorites = maxItemsPerUser - keepPlays;
+        int favorites = length - plays;
+        int write = start;
+        int playSeen = 0;
+        int favoriteSeen = 0;
+        for (int i = start; i < start + length; i++) {
+            boolean keep = (entries[i] & 1) == PLAY
+                    ? sampled(playSeen++, plays, keepPlays)
+                    : sampled(favoriteSeen++, favorites, keepFavorites);
+            if (keep) {
+                entries[write++] = entries[i];
+            }
+        }
+        return write - start;
+    }
+
+    // Verdadero para exactamente keep de los total índices, espaciados de forma pareja
+    private static boolean sampled(int index, int total, int keep) {
+        return (long) (index + 1) * keep / total > (long) index * keep / total;
+    }
+
+    private void selectNeighbors(LongFloatHashMap dots, int from, int to, float[] norms,
+                                 int[] neighborIndex, float[] scores) {
+        int[] heapSize = new int[to - from];
+        for (int slot = 0; slot < dots.capacity(); slot++) {
+            if (!dots.isOccupied(slot)) {
+                continue;
+            }
+            long key = dots.keyAt(slot);
+            int item = from + (int) (key >>> 32);
+            int neighbor = (int) key;
+            float score = dots.valueAt(slot) / (norms[item] * norms[neighbor] + shrinkage);
+            offer(item * neighbors, heapSize, item - from, neighbor, score, neighborIndex, scores);
+        }
+        for (int item = from; item < to; item++) {
+            sortDescending(item * neighbors, heapSize[item - from], neighborIndex, scores);
+        }
+    }
+
+    // Min-heap de tamaño neighbors en las celdas del episodio: la raíz es el vecino a desplazar. Los
+    // empates se resuelven por índice, así el resultado no depende del orden en que llegan los pares.
+    private void offer(int base, int[] heapSize, int row, int neighbor, float score, int[] neighborIndex, float[] scores) {
+        int count = heapSize[row];
+        if (count < neighbors) {
+            int i = count;
+            heapSize[row] = count + 1;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!worse(score, neighbor, scores[base + parent], neighborIndex[base + parent])) {
+                    break;
+                }
+                neighborIndex[base + i] = neighborIndex[base + parent];
+                scores[base + i] = scores[base + parent];
+                i = parent;
+            }
+            neighborIndex[base + i] = neighbor;
+            scores[base + i] = score;
+            return;
+        }
+        if (!worse(scores[base], neighborIndex[base], score, neighbor)) {
+            return;
+        }
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= count) {
+                break;
+            }
+            if (child + 1 < count && worse(scores[base + child + 1], neighborIndex[base + child + 1],
+                    scores[base + child], neighborIndex[base + child])) {
+                child++;
+            }
+            if (!worse(scores[base + child], neighborIndex[base + child], score, neighbor)) {
+                break;
+            }
+            neighborIndex[base + i] = neighborIndex[base + child];
+            scores[base + i] = scores[base + child];
+            i = child;
+        }
+        neighborIndex[base + i] = neighbor;
+        scores[base + i] = score;
+    }
+
+    private static boolean worse(float score, int index, float otherScore, int otherIndex) {
+        return score < otherScore || (score == otherScore && index > otherIndex);
+    }
+
+    // Inserción: neighbors es chico y el heap ya está casi ordenado al revés
+    private static void sortDescending(int base, int count, int[] neighborIndex, float[] scores) {
+        for (int i = base + 1; i < base + count; i++) {
+            int index = neighborIndex[i];
+            float score = scores[i];
+            int j = i - 1;
+            while (j >= base && worse(scores[j], neighborIndex[j], score, index)) {
+                neighborIndex[j + 1] = neighborIndex[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            neighborIndex[j + 1] = index;
+            scores[j + 1] = score;
+        }
+    }
+
+    private float weight(int column) {
+        return (column & 1) == PLAY ? 1f : favoriteWeight;
+    }
+
+    private static long userOf(long entry) {
+        return entry >>> 32;
+    }
+
+    private static int itemOf(long entry) {
+        return (int) (entry & 0xffffffffL) >>> 1;
+    }
+
+    // Productos punto entre los episodios del bloque [from, to) y todos los demás, sobre los usuarios
+    // [userFrom, userTo). Clave = (episodio - from) << 32 | vecino.
+    private final class DotProducts extends RecursiveTask<LongFloatHashMap> {
+
+        private final int[] rowStart;
+        private final int[] columns;
+        private final int from;
+        private final int to;
+        private final int userFrom;
+        private final int userTo;
+        private final int leafUsers;
+
+        DotProducts(int[] rowStart, int[] columns, int from, int to, int userFrom, int userTo, int leafUsers) {
+            this.rowStart = rowStart;
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.userFrom = userFrom;
+            this.userTo = userTo;
+            this.leafUsers = leafUsers;
+        }
+
+        @Override
+        protected LongFloatHashMap compute() {
+            if (userTo - userFrom > leafUsers) {
+                int middle = (userFrom + userTo) >>> 1;
+                DotProducts left = new DotProducts(rowStart, columns, from, to, userFrom, middle, leafUsers);
+                left.fork();
+                LongFloatHashMap right = new DotProducts(rowStart, columns, from, to, middle, userTo, leafUsers).compute();
+                LongFloatHashMap merged = left.join();
+                // Se vuelca el chico en el grande
+                if (merged.size() < right.size()) {
+                    right.addAll(merged);
+                    return right;
+                }
+                merged.addAll(right);
+                return merged;
+            }
+
+            LongFloatHashMap dots = new LongFloatHashMap(1024);
+            for (int u = userFrom; u < userTo; u++) {
+                int start = rowStart[u];
+                int end = rowStart[u + 1];
+                int blockStart = lowerBound(start, end, from << 1);
+                int blockEnd = lowerBound(blockStart, end, to << 1);
+                for (int a = blockStart; a < blockEnd; a++) {
+                    int item = columns[a] >>> 1;
+                    float weight = weight(columns[a]);
+                    long row = (long) (item - from) << 32;
+                    for (int b = start; b < end; b++) {
+                        if (b != a) {
+                            dots.addTo(row | (columns[b] >>> 1), weight * weight(columns[b]));
+                        }
+                    }
+                }
+            }
+            return dots;
+        }
+
+        // Primera columna de [start, end) mayor o igual a value
+        private int lowerBound(int start, int end, int value) {
+            while (start < end) {
+                int middle = (start + end) >>> 1;
+                if (columns[middle] < value) {
+                    start = middle + 1;
+                } else {
+                    end = middle;
+                }
+            }
+            return start;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package podcast.model.search;
+
+import java.util.Arrays;
+
+// Mapa long -> float con direccionamiento abierto (sondeo lineal) sobre dos arreglos primitivos.
+// Un HashMap<Long, Float> gasta unos 80 bytes por entrada entre nodos y boxing; acá son 12 bytes
+// más el margen de carga. Las claves tienen que ser no negativas: -1 marca la celda vacía.
+public final class LongFloatHashMap {
+
+    private static final long EMPTY = -1L;
+    private static final float MAX_LOAD = 0.6f;
+
+    private long[] keys;
+    private float[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public LongFloatHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) Math.ceil(expectedSize / MAX_LOAD)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new float[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * MAX_LOAD);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public float get(long key) {
+        int slot = slot(key);
+        return keys[slot] == key ? values[slot] : 0f;
+    }
+
+    public void addTo(long key, float delta) {
+        if (key < 0) {
+            throw new IllegalArgumentException("keys must not be negative");
+        }
+        int slot = slot(key);
+        if (keys[slot] == key) {
+            values[slot] += delta;
+            return;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size > resizeAt) {
+            rehash();
+        }
+    }
+
+    // Suma todas las entradas de other en este mapa
+    public void addAll(LongFloatHashMap other) {
+        for (int slot = 0; slot < other.keys.length; slot++) {
+            if (other.keys[slot] != EMPTY) {
+                addTo(other.keys[slot], other.values[slot]);
+            }
+        }
+    }
+
+    // Recorrido sin boxing: las celdas van de 0 a capacity() - 1 y solo las ocupadas tienen clave
+    public int capacity() {
+        return keys.length;
+    }
+
+    public boolean isOccupied(int slot) {
+        return keys[slot] != EMPTY;
+    }
+
+    public long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    public float valueAt(int slot) {
+        return values[slot];
+    }
+
+    // Celda de la clave, o la celda vacía donde iría
+    private int slot(long key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        float[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    // Finalizador de MurmurHash3: las claves empaquetadas (fila << 32 | columna) comparten los bits
+    // altos y sin mezclar se amontonarían en pocas celdas
+    private static int mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
@@ -0,0 +1,362 @@
+package podcast.model.search;
+
+import podcast.model.entities.enums.SearchDocumentType;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice invertido en memoria sobre títulos y descripciones, con ranking BM25.
+// - Los términos del título pesan TITLE_WEIGHT veces más que los de la descripción.
+// - El último término de la consulta (o cualquiera terminado en '*') se expande por prefijo.
+// - Actualizar un documento lo da de baja y lo vuelve a agregar con un id interno nuevo; las bajas quedan
+//   como tombstones en las posting lists hasta que hay más documentos borrados que vivos y se compacta.
+// Lecturas concurrentes con un ReadWriteLock: las búsquedas no se bloquean entre sí.
+public class SearchIndex {
+
+    public record Document(SearchDocumentType type, long id, String title, String description) {
+    }
+
+    public record Hit(Document document, double score) {
+    }
+
+    public record Result(List<Hit> hits, int total) {
+    }
+
+    private record Key(SearchDocumentType type, long id) {
+    }
+
+    private record QueryTerm(String term, boolean prefix) {
+    }
+
+    // Parámetros estándar de BM25
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    static final int TITLE_WEIGHT = 3;
+    // Una coincidencia por prefijo ("entrev" → "entrevista") puntúa menos que una exacta
+    private static final double PREFIX_WEIGHT = 0.7;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_DELETED_TO_COMPACT = 1024;
+
+    private static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::score).reversed()
+            .thenComparing(hit -> hit.document().type())
+            .thenComparingLong(hit -> hit.document().id());
+
+    private static final class PostingList {
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;      // incluye documentos borrados
+        private int liveCount; // document frequency real
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+            liveCount++;
+        }
+    }
+
+    // Acumulador de puntajes id interno → score con direccionamiento abierto: evita el boxing de un
+    // HashMap<Integer, Double>, que dominaba el costo de los términos muy frecuentes
+    private static final class ScoreAccumulator {
+        private int[] keys;
+        private double[] values;
+        private int size;
+
+        ScoreAccumulator(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+            keys = new int[capacity];
+            values = new double[capacity];
+            Arrays.fill(keys, -1);
+        }
+
+        void add(int key, double value) {
+            int mask = keys.length - 1;
+            int slot = (key * 0x9E3779B9) & mask;
+            while (keys[slot] != -1 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == -1) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size * 2 > keys.length) {
+                    grow();
+                }
+                return;
+            }
+            values[slot] += value;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            double[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new double[oldKeys.length * 2];
+            Arrays.fill(keys, -1);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != -1) {
+                    add(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+    }
+
+    private final TextAnalyzer analyzer;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // TreeMap para poder recorrer los términos que empiezan con un prefijo
+    private final TreeMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<Key, Integer> docIds = new HashMap<>();
+    private final List<Document> docs = new ArrayList<>(); // posición = id interno, null = borrado
+    private int[] docLengths = new int[1024];
+    private long totalLength;
+    private int liveDocs;
+    private int deletedDocs;
+
+    public SearchIndex(TextAnalyzer analyzer) {
+        this.analyzer = analyzer;
+    }
+
+    // ── Escrituras ───────────────────────────────────────────────────────────────────
+
+    // Alta o reemplazo del documento
+    public void index(Document document) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(new Key(document.type(), document.id()));
+            addInternal(document);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(SearchDocumentType type, long id) {
+        lock.writeLock().lock();
+        try {
+            boolean removed = removeInternal(new Key(type, id));
+            compactIfNeeded();
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(SearchDocumentType type, long id) {
+        lock.readLock().lock();
+        try {
+            return docIds.containsKey(new Key(type, id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docIds.clear();
+            docs.clear();
+            totalLength = 0;
+            liveDocs = 0;
+            deletedDocs = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addInternal(Document document) {
+        int docId = docs.size();
+        docs.add(document);
+        docIds.put(new Key(document.type(), document.id()), docId);
+
+        Map<String, Integer> frequencies = termFrequencies(document);
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new PostingList()).add(docId, entry.getValue());
+            length += entry.getValue();
+        }
+        if (docId == docLengths.length) {
+            docLengths = Arrays.copyOf(docLengths, docLengths.length * 2);
+        }
+        docLengths[docId] = length;
+        totalLength += length;
+        liveDocs++;
+    }
+
+    private boolean removeInternal(Key key) {
+        Integer docId = docIds.remove(key);
+        if (docId == null) {
+            return false;
+        }
+        Document document = docs.set(docId, null);
+        for (String term : termFrequencies(document).keySet()) {
+            PostingList list = postings.get(term);
+            if (list != null && --list.liveCount == 0) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= docLengths[docId];
+        liveDocs--;
+        deletedDocs++;
+        return true;
+    }
+
+    // Reconstruye el índice con ids internos consecutivos cuando los tombstones superan a los vivos
+    private void compactIfNeeded() {
+        if (deletedDocs < MIN_DELETED_TO_COMPACT || deletedDocs <= liveDocs) {
+            return;
+        }
+        List<Document> live = docs.stream().filter(Objects::nonNull).toList();
+        postings.clear();
+        docIds.clear();
+        docs.clear();
+        totalLength = 0;
+        liveDocs = 0;
+        deletedDocs = 0;
+        live.forEach(this::addInternal);
+    }
+
+    private Map<String, Integer> termFrequencies(Document document) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : analyzer.tokenize(document.title())) {
+            frequencies.merge(token, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String token : analyzer.tokenize(document.description())) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    // ── Búsqueda ─────────────────────────────────────────────────────────────────────
+
+    // type null = podcasts y episodios. Devuelve la página pedida y el total de coincidencias.
+    public Result search(String query, SearchDocumentType type, int offset, int limit) {
+        if (offset < 0 || limit < 1 || offset > Integer.MAX_VALUE - limit) {
+            throw new IllegalArgumentException("Invalid offset/limit: " + offset + "/" + limit);
+        }
+        List<QueryTerm> terms = parse(query);
+        if (terms.isEmpty()) {
+            return new Result(List.of(), 0);
+        }
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0) {
+                return new Result(List.of(), 0);
+            }
+            ScoreAccumulator scores = new ScoreAccumulator(expectedMatches(terms));
+            double avgLength = (double) totalLength / liveDocs;
+            for (QueryTerm queryTerm : terms) {
+                if (!queryTerm.prefix() || queryTerm.term().length() < MIN_PREFIX_LENGTH) {
+                    accumulate(postings.get(queryTerm.term()), 1.0, type, avgLength, scores);
+                    continue;
+                }
+                int expansions = 0;
+                for (Map.Entry<String, PostingList> entry
+                        : postings.subMap(queryTerm.term(), true, queryTerm.term() + Character.MAX_VALUE, true).entrySet()) {
+                    double weight = entry.getKey().equals(queryTerm.term()) ? 1.0 : PREFIX_WEIGHT;
+                    accumulate(entry.getValue(), weight, type, avgLength, scores);
+                    if (++expansions >= MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+                }
+            }
+            return topHits(scores, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void accumulate(PostingList list, double weight, SearchDocumentType type, double avgLength,
+                            ScoreAccumulator scores) {
+        if (list == null) {
+            return;
+        }
+        double idf = Math.log(1 + (liveDocs - list.liveCount + 0.5) / (list.liveCount + 0.5));
+        for (int i = 0; i < list.size; i++) {
+            int doc = list.docs[i];
+            Document document = docs.get(doc);
+            if (document == null || (type != null && document.type() != type)) {
+                continue;
+            }
+            int tf = list.freqs[i];
+            double norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+            scores.add(doc, weight * idf * tf * (K1 + 1) / (tf + norm));
+        }
+    }
+
+    // Heap acotado a offset + limit: no se ordena el conjunto completo de coincidencias
+    private Result topHits(ScoreAccumulator scores, int offset, int limit) {
+        int wanted = offset + limit;
+        PriorityQueue<Hit> heap = new PriorityQueue<>(Math.max(1, Math.min(wanted, scores.size)), RANKING.reversed());
+        for (int slot = 0; slot < scores.keys.length; slot++) {
+            int doc = scores.keys[slot];
+            if (doc == -1) {
+                continue;
+            }
+            double score = scores.values[slot];
+            // Descarte barato antes de crear el Hit: la mayoría de las coincidencias no entra al top
+            if (heap.size() >= wanted && score < heap.peek().score()) {
+                continue;
+            }
+            Hit hit = new Hit(docs.get(doc), score);
+            if (heap.size() < wanted) {
+                heap.add(hit);
+            } else if (RANKING.compare(hit, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(hit);
+            }
+        }
+        List<Hit> ranked = new ArrayList<>(heap);
+        ranked.sort(RANKING);
+        List<Hit> page = offset >= ranked.size() ? List.of() : ranked.subList(offset, ranked.size());
+        return new Result(page, scores.size);
+    }
+
+    // Cota para dimensionar el acumulador: la posting list más larga entre los términos exactos
+    private int expectedMatches(List<QueryTerm> terms) {
+        int expected = 16;
+        for (QueryTerm term : terms) {
+            PostingList list = postings.get(term.term());
+            if (list != null) {
+                expected = Math.max(expected, list.liveCount);
+            }
+        }
+        return expected;
+    }
+
+    private List<QueryTerm> parse(String query) {
+        List<QueryTerm> terms = new ArrayList<>();
+        if (query == null || query.isBlank()) {
+            return terms;
+        }
+        // Búsqueda "mientras se escribe": si la consulta no termina en espacio, la última palabra es un prefijo
+        boolean lastIsPartial = !Character.isWhitespace(query.charAt(query.length() - 1));
+        String[] chunks = query.trim().split("\\s+");
+        for (int i = 0; i < chunks.length; i++) {
+            String chunk = chunks[i];
+            boolean explicitPrefix = chunk.endsWith("*");
+            List<String> tokens = analyzer.tokenize(chunk.replace("*", ""));
+            for (int j = 0; j < tokens.size(); j++) {
+                boolean last = j == tokens.size() - 1;
+                boolean prefix = last && (explicitPrefix || (lastIsPartial && i == chunks.length - 1));
+                terms.add(new QueryTerm(tokens.get(j), prefix));
+            }
+        }
+        return terms;
+    }
+}
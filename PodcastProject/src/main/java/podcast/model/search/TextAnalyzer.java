@@ -0,0 +1,58 @@
+package podcast.model.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Tokeniza texto en español: minúsculas, sin tildes ni diéresis ("Canción" → "cancion", "ñandú" → "nandu"),
+// corta en todo lo que no sea letra o dígito y descarta stopwords y tokens de una sola letra.
+public class TextAnalyzer {
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "al", "algo", "como", "con", "de", "del", "el", "en", "es", "esta", "este", "la", "las",
+            "lo", "los", "mas", "mi", "no", "o", "para", "pero", "por", "que", "se", "si", "sin", "sobre",
+            "su", "sus", "te", "tu", "u", "un", "una", "uno", "unos", "unas", "y", "ya");
+
+    public List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addToken(tokens, folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Forma normalizada de un texto, sin tokenizar (se usa también para los prefijos de búsqueda)
+    public String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private void addToken(List<String> tokens, String token) {
+        if (token.length() == 1 && !Character.isDigit(token.charAt(0))) {
+            return;
+        }
+        if (!STOPWORDS.contains(token)) {
+            tokens.add(token);
+        }
+    }
+}
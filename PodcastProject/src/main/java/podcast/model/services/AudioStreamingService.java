@@ -0,0 +1,200 @@
+package podcast.model.services;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import podcast.model.entities.Episode;
+import podcast.model.entities.helpers.ByteRange;
+import podcast.model.exceptions.EpisodeNotFoundException;
+import podcast.model.repositories.interfaces.IEpisodeRepository;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+
+// Sirve el audio de los episodios cuya media está en disco (LocalMediaStore), con soporte de rangos
+// para que los reproductores puedan saltar sin bajar el archivo entero, y validación por ETag /
+// Last-Modified. Si la store es remota se redirige a la URL del episodio.
+//
+// Los bytes no pasan por el heap: con Tomcat se delega en sendfile (el conector escribe el archivo al
+// socket al terminar el request) y si no está disponible se usa FileChannel.transferTo.
+@Service
+public class AudioStreamingService {
+
+    // Atributos con los que Tomcat toma el envío del archivo (ver DefaultServlet)
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Archivo a servir con los validadores ya calculados
+    record AudioFile(Path path, long size, long lastModified, String etag, String contentType) {
+    }
+
+    private final IEpisodeRepository episodeRepository;
+    private final MediaStore mediaStore;
+    private final EpisodeHistoryService episodeHistoryService;
+    private final boolean sendfile;
+
+    public AudioStreamingService(IEpisodeRepository episodeRepository, MediaStore mediaStore,
+                                 EpisodeHistoryService episodeHistoryService,
+                                 @Value("${podcast.media.local.sendfile:true}") boolean sendfile) {
+        this.episodeRepository = episodeRepository;
+        this.mediaStore = mediaStore;
+        this.episodeHistoryService = episodeHistoryService;
+        this.sendfile = sendfile;
+    }
+
+    // true si el audio del episodio lo sirve la app (/audio) en lugar de la store remota
+    public boolean servesLocally(Long episodeId) {
+        return mediaStore.localFile(findEpisode(episodeId).getAudioPath()).isPresent();
+    }
+
+    public void stream(Long episodeId, Long userId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Episode episode = findEpisode(episodeId);
+        Optional<Path> local = mediaStore.localFile(episode.getAudioPath());
+        if (local.isEmpty()) {
+            if (userId != null && !"HEAD".equals(request.getMethod())) {
+                episodeHistoryService.registerPlay(episodeId, userId);
+            }
+            response.sendRedirect(episode.getAudioPath());
+            return;
+        }
+        AudioFile file = describe(episodeId, local.get());
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, file.etag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, file.lastModified());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        if (notModified(request, file)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        ByteRange range;
+        try {
+            range = rangeApplies(request, file) ? ByteRange.parse(request.getHeader(HttpHeaders.RANGE), file.size()) : null;
+        } catch (IllegalArgumentException e) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + file.size());
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+        long start = range != null ? range.start() : 0;
+        long length = range != null ? range.length() : file.size();
+        if (range != null) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, range.contentRange(file.size()));
+        } else {
+            response.setStatus(HttpServletResponse.SC_OK);
+        }
+        response.setContentType(file.contentType());
+        response.setContentLengthLong(length);
+
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        // Cuenta como reproducción solo el pedido que arranca desde el principio: los saltos del
+        // reproductor llegan como rangos posteriores y no son plays nuevos. Sin usuario (apps que bajan el
+        // enclosure del feed) no hay historial donde registrarla
+        if (start == 0 && userId != null) {
+            episodeHistoryService.registerPlay(episodeId, userId);
+        }
+        transfer(file, start, length, request, response);
+    }
+
+    private Episode findEpisode(Long episodeId) {
+        return episodeRepository.findById(episodeId).orElseThrow(() ->
+                new EpisodeNotFoundException("Episode with ID " + episodeId + " not found"));
+    }
+
+    private static AudioFile describe(Long episodeId, Path path) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            throw new EpisodeNotFoundException("Audio file for episode " + episodeId + " not found");
+        }
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        // ETag fuerte: cambia si el archivo se reemplaza (otro tamaño o fecha)
+        String etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+        String contentType = MediaTypeFactory.getMediaType(path.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+        return new AudioFile(path, size, lastModified, etag, contentType);
+    }
+
+    // If-None-Match tiene prioridad sobre If-Modified-Since (RFC 9110 13.2.2)
+    private static boolean notModified(HttpServletRequest request, AudioFile file) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.equals("*") || candidate.equals(file.etag()) || candidate.equals("W/" + file.etag())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        // Las fechas HTTP tienen resolución de segundos
+        return ifModifiedSince >= 0 && file.lastModified() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    // Con If-Range el rango solo vale si el archivo sigue siendo el mismo; si cambió va completo
+    private static boolean rangeApplies(HttpServletRequest request, AudioFile file) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.trim().equals(file.etag());
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && file.lastModified() / 1000 == date / 1000;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private void transfer(AudioFile file, long start, long length, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        if (sendfile && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.path().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    // El archivo se achicó mientras se enviaba: el cliente verá la respuesta cortada
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+            response.flushBuffer();
+        }
+    }
+}
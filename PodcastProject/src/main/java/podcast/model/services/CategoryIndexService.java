@@ -0,0 +1,120 @@
+package podcast.model.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import podcast.model.entities.Podcast;
+import podcast.model.entities.dto.FacetPageDTO;
+import podcast.model.entities.dto.PodcastDTO;
+import podcast.model.entities.enums.CatalogSort;
+import podcast.model.entities.enums.Category;
+import podcast.model.entities.helpers.CatalogCursor;
+import podcast.model.repositories.interfaces.IPodcastRepository;
+import podcast.model.search.CategoryBitmapIndex;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Navegación por facetas del catálogo (AND/OR/NOT de categorías con conteos) resuelta con el
+// CategoryBitmapIndex: ni el filtro ni las categorías de cada resultado leen CategoriesXPodcast.
+// PodcastService le avisa de altas, cambios y desactivaciones; al arrancar se arma desde la base.
+@Service
+public class CategoryIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryIndexService.class);
+
+    private final IPodcastRepository podcastRepository;
+    private final PodcastStatsService podcastStatsService;
+    private final CategoryBitmapIndex index = new CategoryBitmapIndex();
+
+    public CategoryIndexService(IPodcastRepository podcastRepository, PodcastStatsService podcastStatsService) {
+        this.podcastRepository = podcastRepository;
+        this.podcastStatsService = podcastStatsService;
+    }
+
+    // ── Lecturas ─────────────────────────────────────────────────────────────────────
+
+    public FacetPageDTO browse(List<Category> allOf, List<Category> anyOf, List<Category> noneOf,
+                               int limit, String after) {
+        if (limit < 1 || limit > PodcastService.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + PodcastService.MAX_PAGE_SIZE);
+        }
+        long afterId = after != null ? CatalogCursor.decode(after, CatalogSort.ID).id() : -1L;
+        // El id del cursor es un índice del BitSet: fuera de rango no viene de una página nuestra
+        if (after != null && (afterId < 0 || afterId >= Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("Invalid cursor: " + after);
+        }
+        CategoryBitmapIndex.Selection selection = index.select(toSet(allOf), toSet(anyOf), toSet(noneOf));
+
+        // Los bits ya están ordenados por id: la página es recorrer desde el cursor (uno extra para saber si hay más)
+        List<Long> ids = new ArrayList<>(limit + 1);
+        BitSet matches = selection.ids();
+        for (int bit = matches.nextSetBit((int) (afterId + 1)); bit >= 0 && ids.size() <= limit; bit = matches.nextSetBit(bit + 1)) {
+            ids.add((long) bit);
+        }
+        boolean hasMore = ids.size() > limit;
+        List<Long> pageIds = hasMore ? ids.subList(0, limit) : ids;
+
+        Map<Long, Podcast> podcastsById = podcastRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Podcast::getId, Function.identity()));
+        List<Podcast> podcasts = pageIds.stream().map(podcastsById::get).filter(Objects::nonNull).toList();
+        List<PodcastDTO> items = podcastStatsService.toDTOs(podcasts, podcast -> index.categoriesOf(podcast.getId()));
+
+        return FacetPageDTO.builder()
+                .items(items)
+                .nextCursor(hasMore ? new CatalogCursor(CatalogSort.ID, null, pageIds.get(pageIds.size() - 1)).encode() : null)
+                .total(selection.total())
+                .facets(selection.facets())
+                .build();
+    }
+
+    public List<Category> categoriesOf(Long podcastId) {
+        return index.categoriesOf(podcastId);
+    }
+
+    public boolean matches(Long podcastId, Category category) {
+        return index.matches(podcastId, category);
+    }
+
+    // ── Mantenimiento incremental ────────────────────────────────────────────────────
+
+    public void indexPodcast(Podcast podcast) {
+        Long id = podcast.getId();
+        List<Category> categories = podcast.getCategories() != null ? List.copyOf(podcast.getCategories()) : List.of();
+        boolean active = Boolean.TRUE.equals(podcast.getIsActive());
+        AfterCommit.run(() -> index.put(id, categories, active));
+    }
+
+    public void deactivate(Long podcastId) {
+        AfterCommit.run(() -> index.setActive(podcastId, false));
+    }
+
+    // Dos lecturas planas (estado y pares podcast-categoría) en lugar de inicializar cada colección
+    // Antes que el ranking de tendencias, que toma de acá las categorías de cada podcast
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(2)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<Long, EnumSet<Category>> categories = new HashMap<>();
+        for (Object[] row : podcastRepository.findAllCategoryPairs()) {
+            categories.computeIfAbsent((Long) row[0], id -> EnumSet.noneOf(Category.class)).add((Category) row[1]);
+        }
+        List<Object[]> states = podcastRepository.findAllActiveStates();
+        index.clear();
+        for (Object[] row : states) {
+            Long id = (Long) row[0];
+            index.put(id, categories.getOrDefault(id, EnumSet.noneOf(Category.class)), Boolean.TRUE.equals(row[1]));
+        }
+        logger.info("Índice de categorías armado: {} podcasts en {} ms", states.size(), System.currentTimeMillis() - start);
+    }
+
+    private static Set<Category> toSet(List<Category> categories) {
+        return categories == null || categories.isEmpty() ? EnumSet.noneOf(Category.class) : EnumSet.copyOf(categories);
+    }
+}
@@ -1,13 +1,19 @@
 package podcast.model.services;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
 
 @Service
-public class CloudinaryService {
+@ConditionalOnProperty(name = "podcast.media.store", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryService implements MediaStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CloudinaryService.class);
 
     private final Cloudinary cloudinary;
 
@@ -23,25 +29,26 @@ public class CloudinaryService {
         ));
     }
 
-    public void deleteFile(String url) {
+    // "not found" cuenta como éxito: el archivo ya no está, que es lo que se buscaba
+    @Override
+    public void delete(String url) throws Exception {
         if (url == null || url.isBlank()) {
             return;
         }
+        String resourceType = extractResourceType(url);
+        String publicId = extractPublicId(url);
+        if (publicId.isBlank()) {
+            logger.warn("URL sin public id de Cloudinary, no se borra: {}", url);
+            return;
+        }
 
-        try {
-            String resourceType = extractResourceType(url);
-            String publicId = extractPublicId(url);
-
-            System.out.println("Cloudinary delete → type=" + resourceType + " id=" + publicId);
-
-            if (!publicId.isBlank()) {
-                Map options = ObjectUtils.asMap("resource_type", resourceType, "invalidate", true);
-                Map result = cloudinary.uploader().destroy(publicId, options);
-                System.out.println("Cloudinary delete result: " + result);
-            }
-        } catch (Exception e) {
-            System.err.println("Error deleting file from Cloudinary: " + e.getMessage());
+        Map options = ObjectUtils.asMap("resource_type", resourceType, "invalidate", true);
+        Map result = cloudinary.uploader().destroy(publicId, options);
+        Object status = result.get("result");
+        if (!"ok".equals(status) && !"not found".equals(status)) {
+            throw new IllegalStateException("Cloudinary delete of " + publicId + " returned " + result);
         }
+        logger.info("Cloudinary delete → type={} id={} result={}", resourceType, publicId, status);
     }
 
     private String extractResourceType(String url) {
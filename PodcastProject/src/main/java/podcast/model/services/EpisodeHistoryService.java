@@ -2,16 +2,14 @@ package podcast.model.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import podcast.model.entities.Episode;
 import podcast.model.entities.EpisodeHistory;
-import podcast.model.entities.User;
 import podcast.model.entities.dto.EpisodeDTO;
 import podcast.model.entities.dto.EpisodeHistoryDTO;
 import podcast.model.exceptions.EpisodeNotFoundException;
-import podcast.model.exceptions.UserNotFoundException;
 import podcast.model.repositories.interfaces.IEpisodeHistoryRepository;
 import podcast.model.repositories.interfaces.IEpisodeRepository;
-import podcast.model.repositories.interfaces.IUserRepository;
 
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
@@ -23,21 +21,27 @@ public class EpisodeHistoryService {
 
     private final IEpisodeHistoryRepository episodeHistoryRepository;
     private final IEpisodeRepository episodeRepository;
-    private final IUserRepository userRepository;
+    private final PlayCounterService playCounterService;
+    private final PlayEventIngestionService playEventIngestionService;
+    private final TrendingService trendingService;
 
     @Autowired
-    public EpisodeHistoryService(IEpisodeHistoryRepository episodeHistoryRepository, IEpisodeRepository episodeRepository, IUserRepository userRepository) {
+    public EpisodeHistoryService(IEpisodeHistoryRepository episodeHistoryRepository, IEpisodeRepository episodeRepository,
+                                 PlayCounterService playCounterService,
+                                 PlayEventIngestionService playEventIngestionService, TrendingService trendingService) {
         this.episodeHistoryRepository = episodeHistoryRepository;
         this.episodeRepository = episodeRepository;
-        this.userRepository = userRepository;
+        this.playCounterService = playCounterService;
+        this.playEventIngestionService = playEventIngestionService;
+        this.trendingService = trendingService;
     }
 
-    public List<EpisodeHistoryDTO> getHistoryByUsername(String username) {
-        User user = userRepository.findByCredentialUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("User not found with username: " + username));
-        List<EpisodeHistory> history = episodeHistoryRepository.findEpisodesByUserId(user.getId());
+    // El id llega desde el principal autenticado (claims del JWT): no hace falta buscar al usuario
+    @Transactional(readOnly = true)
+    public List<EpisodeHistoryDTO> getHistoryByUserId(Long userId) {
+        List<EpisodeHistory> history = episodeHistoryRepository.findEpisodesByUserId(userId);
         if (history.isEmpty()) {
-            throw new EpisodeNotFoundException("No episode history found for user: " + username);
+            throw new EpisodeNotFoundException("No episode history found for user ID: " + userId);
         }
         // Filtra por episodio único usando el id del episodio
         Map<Integer, EpisodeHistory> episodiosUnicos = new LinkedHashMap<>();
@@ -50,19 +54,16 @@ public class EpisodeHistoryService {
         return episodiosUnicos.values().stream().map(EpisodeHistory::toDTO).toList();
     }
 
-    public void registerPlay(Long episodeId, String username) {
-        User user = userRepository.findByCredentialUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("User not found with username: " + username));
-
+    public void registerPlay(Long episodeId, Long userId) {
         Episode episode = episodeRepository.findById(episodeId)
                 .orElseThrow(() -> new EpisodeNotFoundException("Episode not found for ID: " + episodeId));
 
-        episodeHistoryRepository.save(EpisodeHistory.builder()
-                .episode(episode)
-                .user(user)
-                .build());
-        episode.setViews(episode.getViews() + 1);
-        episodeRepository.save(episode);
+        // El historial se inserta en batch desde un hilo aparte (ver PlayEventIngestionService)
+        playEventIngestionService.submit(userId, episodeId);
+        // Las vistas se acumulan en memoria y se vuelcan a la BD en batch (ver PlayCounterService)
+        playCounterService.recordPlay(episodeId, episode.getPodcast().getId());
+        // El ranking de tendencias se actualiza en memoria (ver TrendingService)
+        trendingService.recordPlay(episode);
     }
 
     public void deleteByEpisodeId(Long episodeId) {
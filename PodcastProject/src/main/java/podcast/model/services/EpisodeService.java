@@ -1,31 +1,52 @@
 package podcast.model.services;
 
-import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import podcast.model.entities.Commentary;
 import podcast.model.entities.Episode;
 import podcast.model.entities.Podcast;
 import podcast.model.entities.User;
+import podcast.model.entities.dto.CommentaryDTO;
+import podcast.model.entities.dto.CursorPageDTO;
 import podcast.model.entities.dto.EpisodeDTO;
 import podcast.model.entities.dto.UpdateEpisodeDTO;
+import podcast.model.entities.enums.CommentOrder;
 import podcast.model.entities.enums.Role;
+import podcast.model.entities.helpers.CommentCursor;
 import podcast.model.exceptions.*;
 import podcast.model.repositories.interfaces.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 public class EpisodeService {
 
+    private static final Logger logger = LoggerFactory.getLogger(EpisodeService.class);
+
+    public static final int DEFAULT_COMMENTS_PAGE_SIZE = 20;
+    public static final int MAX_COMMENTS_PAGE_SIZE = 100;
+
 private final IEpisodeRepository episodeRepository;
 private final IPodcastRepository podcastRepository;
 private final IEpisodeHistoryRepository episodeHistoryRepository;
 private final IUserRepository userRepository;
 private final ICommentaryRepository commentaryRepository;
-private final CloudinaryService cloudinaryService;
+private final MediaDeletionService mediaDeletionService;
+private final PodcastStatsService podcastStatsService;
+private final PlayCounterService playCounterService;
+private final SearchService searchService;
+private final TrendingService trendingService;
+private final FeedService feedService;
+private final InboxService inboxService;
 
     @Autowired
     public EpisodeService(IEpisodeRepository episodeRepository,
@@ -33,13 +54,25 @@ private final CloudinaryService cloudinaryService;
                           IEpisodeHistoryRepository episodeHistoryRepository,
                           IUserRepository userRepository,
                           ICommentaryRepository commentaryRepository,
-                          CloudinaryService cloudinaryService) {
+                          MediaDeletionService mediaDeletionService,
+                          PodcastStatsService podcastStatsService,
+                          PlayCounterService playCounterService,
+                          SearchService searchService,
+                          TrendingService trendingService,
+                          FeedService feedService,
+                          InboxService inboxService) {
         this.episodeRepository = episodeRepository;
         this.podcastRepository = podcastRepository;
         this.episodeHistoryRepository = episodeHistoryRepository;
         this.userRepository = userRepository;
         this.commentaryRepository = commentaryRepository;
-        this.cloudinaryService = cloudinaryService;
+        this.mediaDeletionService = mediaDeletionService;
+        this.podcastStatsService = podcastStatsService;
+        this.playCounterService = playCounterService;
+        this.searchService = searchService;
+        this.trendingService = trendingService;
+        this.feedService = feedService;
+        this.inboxService = inboxService;
     }
 
     // SAVE
@@ -74,12 +107,18 @@ private final CloudinaryService cloudinaryService;
                     }
                 });
 
+        // Decide si se reparte a los inboxes de los seguidores (y lo marca) antes de persistirlo
+        inboxService.publish(episode);
         episodeRepository.save(episode);
         existingPodcast.getEpisodes().add(episode);
         podcastRepository.save(existingPodcast);
+        podcastStatsService.onEpisodeAdded(podcastId);
+        searchService.indexEpisode(episode);
+        feedService.invalidate(podcastId);
     }
 
     // UPDATE
+    @Transactional
     public EpisodeDTO updateEpisode(Long episodeId, @Valid UpdateEpisodeDTO updates, UserDetails userDetails) {
         // Buscar el episodio por ID
         Episode episode = episodeRepository.findById(episodeId)
@@ -105,6 +144,10 @@ private final CloudinaryService cloudinaryService;
             flag = true;
         }
         if (updates.getImageUrl() != null && !updates.getImageUrl().isBlank()) {
+            // La imagen reemplazada deja de estar referenciada: se borra como en deleteById
+            if (!updates.getImageUrl().equals(episode.getImageUrl())) {
+                mediaDeletionService.enqueue(episode.getImageUrl());
+            }
             episode.setImageUrl(updates.getImageUrl());
             flag = true;
         }
@@ -114,6 +157,8 @@ private final CloudinaryService cloudinaryService;
 
         // Guardar los cambios en el repositorio
         episodeRepository.save(episode);
+        searchService.indexEpisode(episode);
+        feedService.invalidate(episode.getPodcast().getId());
 
         EpisodeDTO episodeDTO = episode.toDTO();
 
@@ -129,34 +174,40 @@ private final CloudinaryService cloudinaryService;
 
         // Validaciones...
 
-        // Cloudinary
-        System.out.println("Episode imageUrl: " + episode.getImageUrl());
-        System.out.println("Episode audioPath: " + episode.getAudioPath());
-        cloudinaryService.deleteFile(episode.getImageUrl());
-        cloudinaryService.deleteFile(episode.getAudioPath());
+        // Los archivos se borran del MediaStore después del commit, desde el outbox (ver MediaDeletionService)
+        mediaDeletionService.enqueue(episode.getImageUrl(), episode.getAudioPath());
 
         episodeHistoryRepository.deleteByEpisodeId(episodeId);
+        inboxService.removeEpisode(episodeId);
 
         // DELETE de BD
-        System.out.println("⚠️ DELETING EPISODE FROM DATABASE...");
         podcast.getEpisodes().remove(episode);
         podcastRepository.save(podcast);
         episodeRepository.delete(episode);
-        System.out.println("✓ EPISODE DELETED FROM DATABASE");
+        // Las reproducciones aún no volcadas nunca llegaron a podcast_stats, así que solo se descartan
+        playCounterService.discard(episodeId);
+        podcastStatsService.onEpisodeDeleted(podcast.getId(), episode.getViews(), episode.getAverageRating());
+        searchService.removeEpisode(episodeId);
+        trendingService.removeEpisode(episodeId);
+        feedService.invalidate(podcast.getId());
+        logger.info("Episodio {} eliminado por {}", episodeId, username);
     }
     // MOSTRAR - GETS
 
+    @Transactional(readOnly = true)
     public Episode getEpisodeById(Long episodeId) {
         return episodeRepository.findById(episodeId).orElseThrow(() ->
                 new EpisodeNotFoundException("Episode with ID " + episodeId + " not found"));
     }
 
+    @Transactional(readOnly = true)
     public String getAudioUrl(Long episodeId) {
         Episode episode = episodeRepository.findById(episodeId).orElseThrow(() ->
                 new EpisodeNotFoundException("Episode with ID " + episodeId + " not found"));
         return episode.getAudioPath();
     }
 
+    @Transactional(readOnly = true)
     public List<Episode> getAllFiltered(String title, Long podcastId) {
         List<Episode> filtered;
 
@@ -175,6 +226,8 @@ private final CloudinaryService cloudinaryService;
         }
         return filtered;
     }
+    // El comentario y el contador del episodio se escriben en la misma transacción
+    @Transactional
     public void commentEpisode(Long episodeId, String comment, String username) {
         if (comment == null || comment.isBlank()) {
             throw new IllegalArgumentException("Comment cannot be null or blank");
@@ -183,8 +236,9 @@ private final CloudinaryService cloudinaryService;
         User user = userRepository.findByCredentialUsername(username)
                 .orElseThrow(() -> new UserNotFoundException("User not found with username: " + username));
 
-        episodeHistoryRepository.findFirstByEpisode_IdAndUser_Id(episodeId, (user.getId()))
-                .orElseThrow(() -> new EpisodeNotFoundException("Episode not viewed for: " + episodeId + " and user ID: " + username));
+        if (!episodeHistoryRepository.hasListened(episodeId, user.getId())) {
+            throw new EpisodeNotFoundException("Episode not viewed for: " + episodeId + " and user ID: " + username);
+        }
 
         Episode episode = episodeRepository.findById(episodeId)
                 .orElseThrow(() -> new EpisodeNotFoundException("Episode not found for ID: " + episodeId));
@@ -196,22 +250,82 @@ private final CloudinaryService cloudinaryService;
                 .build();
 
         commentaryRepository.save(commentary);
+        episodeRepository.addCommentCount(episodeId, 1);
+    }
+
+    @Transactional
+    public void deleteComment(Long episodeId, Integer commentId, UserDetails userDetails) {
+        Commentary commentary = commentaryRepository.findById(commentId.longValue())
+                .filter(c -> c.getEpisode().getId().longValue() == episodeId)
+                .orElseThrow(() -> new CommentaryNotFoundException("Comment " + commentId + " not found for episode ID: " + episodeId));
+
+        // Solo el autor o un administrador pueden borrar el comentario
+        if (!commentary.getUser().getCredential().getUsername().equals(userDetails.getUsername())
+                && !userDetails.getAuthorities().contains(Role.ROLE_ADMIN)) {
+            throw new UnauthorizedException("Comment " + commentId + " does not belong to " + userDetails.getUsername());
+        }
+        commentaryRepository.delete(commentary);
+        episodeRepository.addCommentCount(episodeId, -1);
     }
 
+    // Repara contadores que se hayan desviado (escrituras por fuera del servicio, bases previas a la columna).
+    // La primera corrida, al arrancar, completa los contadores de los episodios existentes.
+    @Scheduled(fixedDelayString = "${podcast.comments.reconcile-interval-ms:3600000}")
+    @Transactional
+    public int reconcileCommentCounts() {
+        int repaired = episodeRepository.reconcileCommentCounts();
+        if (repaired > 0) {
+            logger.warn("Contador de comentarios corregido en {} episodios", repaired);
+        }
+        return repaired;
+    }
 
+
+    // Vistas acumuladas de siempre; para lo que se está escuchando ahora ver TrendingService
+    @Transactional(readOnly = true)
     public List<Episode> getEpisodesByMostViews() {
-        if (episodeRepository.findAll().isEmpty()) {
+        List<Episode> episodes = episodeRepository.findAllByOrderByViewsDesc();
+        if (episodes.isEmpty()) {
             throw new IllegalArgumentException("No episodes found");
         }
-        return episodeRepository.findAllByOrderByViewsDesc();
+        return episodes;
     }
 
-    public List<Commentary> getComments(Long episodeId) {
-    Episode episode = episodeRepository.findById(episodeId)
-            .orElseThrow(() -> new EpisodeNotFoundException("Episode not found for ID: " + episodeId));
-        if (episode.getCommentaries().isEmpty()) {
+    // Página de comentarios por keyset: el costo no depende de cuántos comentarios tenga el episodio
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CommentaryDTO> getComments(Long episodeId, CommentOrder order, int limit, String after) {
+        CommentOrder direction = order != null ? order : CommentOrder.NEWEST;
+        if (limit < 1 || limit > MAX_COMMENTS_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_COMMENTS_PAGE_SIZE);
+        }
+        CommentCursor cursor = after != null ? CommentCursor.decode(after, direction) : null;
+        LocalDateTime afterCreatedAt = cursor != null ? cursor.createdAt() : null;
+        Integer afterId = cursor != null ? cursor.id() : null;
+
+        // Se pide un elemento extra para saber si existe una página siguiente
+        Pageable window = PageRequest.of(0, limit + 1);
+        List<CommentaryDTO> rows = switch (direction) {
+            case NEWEST -> commentaryRepository.findPageNewestFirst(episodeId.intValue(), afterCreatedAt, afterId, window);
+            case OLDEST -> commentaryRepository.findPageOldestFirst(episodeId.intValue(), afterCreatedAt, afterId, window);
+        };
+
+        if (rows.isEmpty() && cursor == null) {
+            if (!episodeRepository.existsById(episodeId)) {
+                throw new EpisodeNotFoundException("Episode not found for ID: " + episodeId);
+            }
             throw new CommentaryNotFoundException("No comments found for episode ID: " + episodeId);
         }
-        return episode.getCommentaries();
+
+        boolean hasMore = rows.size() > limit;
+        List<CommentaryDTO> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            CommentaryDTO last = page.get(page.size() - 1);
+            nextCursor = new CommentCursor(direction, last.getCreatedAt(), last.getId()).encode();
+        }
+        return CursorPageDTO.<CommentaryDTO>builder()
+                .items(page)
+                .nextCursor(nextCursor)
+                .build();
     }
 }
@@ -1,25 +1,261 @@
 package podcast.model.services;
 
-import podcast.model.entities.ErrorLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import podcast.model.repositories.interfaces.IErrorLogRepository;
+import podcast.model.entities.dto.ErrorLogMetricsDTO;
 
-import java.time.LocalDateTime;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
+// Auditoría asíncrona de errores: el request solo encola el error en un RingBuffer (sin locks ni BD)
+// y un hilo escritor agrupa lo acumulado por huella (endpoint + tipo de excepción + frame de origen).
+// Cada grupo es una fila de error_logs: las repeticiones suman occurrences y actualizan last_seen,
+// así una ráfaga de errores iguales durante un incidente se convierte en un UPDATE por lote.
+//
+// Con el buffer por encima de sample-threshold se encola uno de cada sample-rate errores con ese peso
+// (las ocurrencias siguen aproximadamente bien); con el buffer lleno el error se descarta y se cuenta.
 @Service
 public class ErrorLogService {
-    private final IErrorLogRepository repository;
 
-    public ErrorLogService(IErrorLogRepository repository) {
-        this.repository = repository;
+    private static final Logger logger = LoggerFactory.getLogger(ErrorLogService.class);
+
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+    private static final int MAX_STACK_TRACE_LENGTH = 4000;
+    private static final int STACK_TRACE_FRAMES = 20;
+    // Los frames del propio código identifican mejor el origen que los de Spring o Hibernate
+    private static final String APPLICATION_PACKAGE = "podcast.";
+
+    private static final String UPDATE_SQL =
+            "UPDATE error_logs SET occurrences = occurrences + ?, last_seen = ?, error_message = ? WHERE fingerprint = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO error_logs (fingerprint, endpoint, exception_type, error_message, stack_trace, occurrences, first_seen, last_seen) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Peso: cuántas ocurrencias representa (más de 1 si se encoló por muestreo)
+    record ErrorEvent(String endpoint, Throwable error, long timestampMs, int weight) {
+    }
+
+    // Ocurrencias de una huella acumuladas en un lote
+    private static final class ErrorGroup {
+        final String fingerprint;
+        final ErrorEvent first;
+        ErrorEvent last;
+        long occurrences;
+
+        ErrorGroup(String fingerprint, ErrorEvent first) {
+            this.fingerprint = fingerprint;
+            this.first = first;
+            this.last = first;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RingBuffer<ErrorEvent> buffer;
+    private final int batchSize;
+    private final long lingerMs;
+    private final int sampleThreshold;
+    private final int sampleRate;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong sampled = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong upserts = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public ErrorLogService(JdbcTemplate jdbcTemplate,
+                           @Value("${podcast.errors.buffer-capacity:4096}") int bufferCapacity,
+                           @Value("${podcast.errors.batch-size:500}") int batchSize,
+                           @Value("${podcast.errors.linger-ms:500}") long lingerMs,
+                           @Value("${podcast.errors.sample-threshold:0.5}") double sampleThreshold,
+                           @Value("${podcast.errors.sample-rate:10}") int sampleRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new RingBuffer<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.sampleThreshold = (int) (buffer.capacity() * sampleThreshold);
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "error-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Deja de aceptar errores y espera a que el escritor vuelque lo pendiente
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join();
+    }
+
+    // Se llama desde el hilo del request: nunca bloquea ni toca la BD
+    public void audit(String endpoint, Throwable error) {
+        int weight = 1;
+        if (buffer.size() >= sampleThreshold) {
+            if (ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+                sampled.incrementAndGet();
+                return;
+            }
+            weight = sampleRate;
+        }
+        if (buffer.offer(new ErrorEvent(endpoint, error, System.currentTimeMillis(), weight))) {
+            accepted.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(lingerMs));
+            }
+        }
+        // Lo que quedó encolado al apagar
+        while (drain() > 0) {
+            // sigue hasta vaciar el buffer
+        }
+    }
+
+    // Vacía hasta batch-size errores del buffer y los escribe agrupados; devuelve cuántos tomó
+    int drain() {
+        Map<String, ErrorGroup> groups = new LinkedHashMap<>();
+        int taken = 0;
+        ErrorEvent event;
+        while (taken < batchSize && (event = buffer.poll()) != null) {
+            taken++;
+            ErrorEvent current = event;
+            ErrorGroup group = groups.computeIfAbsent(fingerprint(event), fp -> new ErrorGroup(fp, current));
+            group.last = event;
+            group.occurrences += event.weight();
+        }
+        if (!groups.isEmpty()) {
+            write(groups.values());
+        }
+        return taken;
+    }
+
+    private void write(Collection<ErrorGroup> groups) {
+        try {
+            // Primero se suman las repeticiones a los grupos existentes; los que no existen se insertan
+            List<ErrorGroup> batch = new ArrayList<>(groups);
+            int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, batch.stream().map(group -> new Object[]{
+                    group.occurrences, toTimestamp(group.last.timestampMs()), message(group.last.error()), group.fingerprint
+            }).toList());
+
+            List<Object[]> inserts = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                if (updated[i] == 0) {
+                    ErrorGroup group = batch.get(i);
+                    inserts.add(new Object[]{
+                            group.fingerprint,
+                            truncate(group.first.endpoint(), 255),
+                            group.first.error().getClass().getName(),
+                            message(group.first.error()),
+                            stackTrace(group.first.error()),
+                            group.occurrences,
+                            toTimestamp(group.first.timestampMs()),
+                            toTimestamp(group.last.timestampMs())
+                    });
+                }
+            }
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+            }
+            batches.incrementAndGet();
+            upserts.addAndGet(batch.size());
+            written.addAndGet(batch.stream().mapToLong(group -> group.occurrences).sum());
+        } catch (RuntimeException e) {
+            // No se reintenta: reintentar durante un incidente de BD solo agrega carga
+            failed.addAndGet(groups.stream().mapToLong(group -> group.occurrences).sum());
+            logger.error("Error escribiendo {} grupos de errores", groups.size(), e);
+        }
+    }
+
+    public ErrorLogMetricsDTO getMetrics() {
+        return ErrorLogMetricsDTO.builder()
+                .buffered(buffer.size())
+                .capacity(buffer.capacity())
+                .accepted(accepted.get())
+                .sampled(sampled.get())
+                .dropped(dropped.get())
+                .written(written.get())
+                .upserts(upserts.get())
+                .batches(batches.get())
+                .failed(failed.get())
+                .build();
+    }
+
+    // ── Huella y formato ─────────────────────────────────────────────────────────────
+
+    static String fingerprint(String endpoint, Throwable error) {
+        StackTraceElement origin = originFrame(error);
+        String raw = endpoint + "|" + error.getClass().getName() + "|" + (origin != null ? origin : "");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String fingerprint(ErrorEvent event) {
+        return fingerprint(event.endpoint(), event.error());
+    }
+
+    // Primer frame del código de la aplicación o, si no hay, el primero de la traza
+    private static StackTraceElement originFrame(Throwable error) {
+        StackTraceElement[] frames = error.getStackTrace();
+        for (StackTraceElement frame : frames) {
+            if (frame.getClassName().startsWith(APPLICATION_PACKAGE)) {
+                return frame;
+            }
+        }
+        return frames.length > 0 ? frames[0] : null;
+    }
+
+    private static String message(Throwable error) {
+        return truncate(error.getMessage() != null ? error.getMessage() : error.toString(), MAX_MESSAGE_LENGTH);
+    }
+
+    private static String stackTrace(Throwable error) {
+        StringBuilder trace = new StringBuilder(error.toString());
+        StackTraceElement[] frames = error.getStackTrace();
+        for (int i = 0; i < Math.min(frames.length, STACK_TRACE_FRAMES); i++) {
+            trace.append("\n\tat ").append(frames[i]);
+        }
+        return truncate(trace.toString(), MAX_STACK_TRACE_LENGTH);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
     }
 
-    public void audit(String endpoint, String errorMessage, String stackTrace) {
-        ErrorLog Log = new ErrorLog();
-        Log.setEndpoint(endpoint);
-        Log.setErrorMessage(errorMessage);
-        Log.setStackTrace(stackTrace);
-        Log.setTimestamp(LocalDateTime.now());
-        repository.save(Log);
+    private static Timestamp toTimestamp(long epochMs) {
+        return new Timestamp(epochMs);
     }
 }
@@ -0,0 +1,300 @@
+package podcast.model.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import podcast.model.entities.Episode;
+import podcast.model.entities.Podcast;
+import podcast.model.entities.enums.Category;
+import podcast.model.exceptions.PodcastNotFoundException;
+import podcast.model.repositories.interfaces.IEpisodeRepository;
+import podcast.model.repositories.interfaces.IPodcastRepository;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Feed RSS 2.0 de cada podcast, con las etiquetas de iTunes que leen las apps de podcasts.
+// Se renderiza una vez y se sirve desde memoria hasta que cambian el podcast o sus episodios
+// (EpisodeService y PodcastService llaman a invalidate). Así, las apps que lo consultan cada pocos
+// minutos no tocan la base, y con If-None-Match tampoco reciben el cuerpo.
+@Service
+public class FeedService {
+
+    private static final String ITUNES_NS = "http://www.itunes.com/dtds/podcast-1.0.dtd";
+    private static final String ATOM_NS = "http://www.w3.org/2005/Atom";
+
+    // Categorías de Apple Podcasts (texto exacto del catálogo de iTunes)
+    private static final Map<Category, String> ITUNES_CATEGORIES = new EnumMap<>(Map.ofEntries(
+            Map.entry(Category.TECNOLOGIA, "Technology"),
+            Map.entry(Category.NEGOCIOS, "Business"),
+            Map.entry(Category.ENTRETENIMIENTO, "TV & Film"),
+            Map.entry(Category.DEPORTES, "Sports"),
+            Map.entry(Category.EDUCACION, "Education"),
+            Map.entry(Category.SALUD, "Health & Fitness"),
+            Map.entry(Category.ARTE, "Arts"),
+            Map.entry(Category.OCIO, "Leisure"),
+            Map.entry(Category.ECONOMIA, "Business"),
+            Map.entry(Category.CIENCIA, "Science"),
+            Map.entry(Category.POLITICA, "News"),
+            Map.entry(Category.SOCIEDAD, "Society & Culture"),
+            Map.entry(Category.CULTURA, "Society & Culture"),
+            Map.entry(Category.HISTORIA, "History"),
+            Map.entry(Category.VIAJES, "Society & Culture"),
+            Map.entry(Category.FICCION, "Fiction"),
+            Map.entry(Category.COMEDIA, "Comedy"),
+            Map.entry(Category.MUSICA, "Music"),
+            Map.entry(Category.RELIGION, "Religion & Spirituality"),
+            Map.entry(Category.FILOSOFIA, "Society & Culture")));
+
+    public record Feed(byte[] body, String etag) {
+
+        // Misma comparación que AudioStreamingService: lista de etiquetas, "*" o la forma débil
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.equals("*") || candidate.equals(etag) || candidate.equals("W/" + etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // Entrada de la caché. Sin feed = render en curso: invalidate la saca igual que a un feed, y un render
+    // cuya entrada ya no está leyó la base antes del cambio y no se guarda. Se compara por identidad.
+    private static final class Slot {
+        final Feed feed;
+
+        Slot(Feed feed) {
+            this.feed = feed;
+        }
+    }
+
+    private final IPodcastRepository podcastRepository;
+    private final IEpisodeRepository episodeRepository;
+    private final MediaStore mediaStore;
+    // Sin readOnly a propósito: ReplicaRoutingDataSource la manda a la primaria. El feed queda en caché
+    // hasta la próxima invalidación, así que no se puede renderizar desde una réplica atrasada
+    private final TransactionTemplate primaryTransaction;
+    private final String baseUrl;
+    private final String language;
+    private final int maxFeeds;
+    private final long maxAgeSeconds;
+
+    private final ConcurrentHashMap<Long, Slot> feeds = new ConcurrentHashMap<>();
+
+    public FeedService(IPodcastRepository podcastRepository, IEpisodeRepository episodeRepository,
+                       MediaStore mediaStore, PlatformTransactionManager transactionManager,
+                       @Value("${podcast.feed.base-url:http://localhost:8080/podcastUTN/v1}") String baseUrl,
+                       @Value("${podcast.feed.language:es}") String language,
+                       @Value("${podcast.feed.cache-size:5000}") int maxFeeds,
+                       @Value("${podcast.feed.max-age-seconds:300}") long maxAgeSeconds) {
+        this.podcastRepository = podcastRepository;
+        this.episodeRepository = episodeRepository;
+        this.mediaStore = mediaStore;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.baseUrl = baseUrl;
+        this.language = language;
+        this.maxFeeds = maxFeeds;
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    public long getMaxAgeSeconds() {
+        return maxAgeSeconds;
+    }
+
+    public Feed getFeed(Long podcastId) {
+        Slot slot = feeds.get(podcastId);
+        if (slot != null && slot.feed != null) {
+            return slot.feed;
+        }
+        if (slot == null) {
+            if (feeds.size() >= maxFeeds) {
+                // Llena: se descarta un feed cualquiera, que se vuelve a renderizar si lo piden
+                feeds.keySet().stream().findAny().ifPresent(feeds::remove);
+            }
+            Slot rendering = new Slot(null);
+            Slot current = feeds.putIfAbsent(podcastId, rendering);
+            slot = current != null ? current : rendering;
+            if (slot.feed != null) {
+                return slot.feed;
+            }
+        }
+        Feed rendered;
+        try {
+            rendered = primaryTransaction.execute(status -> render(podcastId));
+        } catch (RuntimeException e) {
+            feeds.remove(podcastId, slot);
+            throw e;
+        }
+        feeds.replace(podcastId, slot, new Slot(rendered));
+        return rendered;
+    }
+
+    // Llamar al crear, modificar o borrar el podcast o cualquiera de sus episodios
+    public void invalidate(Long podcastId) {
+        AfterCommit.run(() -> feeds.remove(podcastId));
+    }
+
+    public int size() {
+        return (int) feeds.values().stream().filter(slot -> slot.feed != null).count();
+    }
+
+    // ── Render ──────────────────────────────────────────────────────────────────────
+
+    private Feed render(Long podcastId) {
+        Podcast podcast = podcastRepository.findByIdWithCategories(podcastId)
+                .filter(p -> Boolean.TRUE.equals(p.getIsActive()))
+                .orElseThrow(() -> new PodcastNotFoundException("Podcast with ID " + podcastId + " not found"));
+        List<Episode> episodes = new ArrayList<>(episodeRepository.findByPodcast_Id(podcastId));
+        episodes.sort(Comparator.comparing(Episode::getPublicationDate, Comparator.nullsLast(Comparator.reverseOrder())));
+        byte[] body = write(podcast, episodes);
+        return new Feed(body, etagOf(body));
+    }
+
+    private byte[] write(Podcast podcast, List<Episode> episodes) {
+        String podcastUrl = baseUrl + "/podcasts/" + podcast.getId();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2048 + 1024 * episodes.size());
+        try {
+            XMLStreamWriter xml = XMLOutputFactory.newFactory().createXMLStreamWriter(out, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeStartElement("rss");
+            xml.writeAttribute("version", "2.0");
+            xml.writeNamespace("itunes", ITUNES_NS);
+            xml.writeNamespace("atom", ATOM_NS);
+            xml.writeStartElement("channel");
+
+            element(xml, "title", podcast.getTitle());
+            element(xml, "link", podcastUrl);
+            xml.writeEmptyElement("atom", "link", ATOM_NS);
+            xml.writeAttribute("href", podcastUrl + "/feed.xml");
+            xml.writeAttribute("rel", "self");
+            xml.writeAttribute("type", "application/rss+xml");
+            element(xml, "description", podcast.getDescription());
+            element(xml, "language", language);
+            LocalDateTime lastBuild = lastChange(podcast, episodes);
+            if (lastBuild != null) {
+                element(xml, "lastBuildDate", rfc822(lastBuild));
+            }
+            if (podcast.getImageUrl() != null) {
+                xml.writeEmptyElement("itunes", "image", ITUNES_NS);
+                xml.writeAttribute("href", podcast.getImageUrl());
+            }
+            Set<String> categories = new LinkedHashSet<>();
+            for (Category category : podcast.getCategories()) {
+                categories.add(ITUNES_CATEGORIES.get(category));
+            }
+            for (String category : categories) {
+                xml.writeEmptyElement("itunes", "category", ITUNES_NS);
+                xml.writeAttribute("text", category);
+            }
+            itunesElement(xml, "explicit", "false");
+
+            for (Episode episode : episodes) {
+                writeItem(xml, podcast, episode);
+            }
+
+            xml.writeEndElement();
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Could not render the feed of podcast " + podcast.getId(), e);
+        }
+        return out.toByteArray();
+    }
+
+    private void writeItem(XMLStreamWriter xml, Podcast podcast, Episode episode) throws XMLStreamException {
+        xml.writeStartElement("item");
+        element(xml, "title", episode.getTitle());
+        element(xml, "description", episode.getDescription());
+        if (episode.getPublicationDate() != null) {
+            element(xml, "pubDate", rfc822(episode.getPublicationDate()));
+        }
+        if (episode.getAudioPath() != null) {
+            xml.writeEmptyElement("enclosure");
+            xml.writeAttribute("url", enclosureUrl(episode));
+            // El tamaño del archivo no se guarda; las apps aceptan 0 cuando no se conoce
+            xml.writeAttribute("length", "0");
+            xml.writeAttribute("type", MediaTypeFactory.getMediaType(episode.getAudioPath())
+                    .orElse(MediaType.parseMediaType("audio/mpeg")).toString());
+        }
+        xml.writeStartElement("guid");
+        xml.writeAttribute("isPermaLink", "false");
+        xml.writeCharacters("podcast-" + podcast.getId() + "-episode-" + episode.getId());
+        xml.writeEndElement();
+        if (episode.getDuration() != null) {
+            itunesElement(xml, "duration", Long.toString(episode.getDuration().toSeconds()));
+        }
+        if (episode.getSeason() != null) {
+            itunesElement(xml, "season", episode.getSeason().toString());
+        }
+        if (episode.getChapter() != null) {
+            itunesElement(xml, "episode", episode.getChapter().toString());
+        }
+        if (episode.getImageUrl() != null) {
+            xml.writeEmptyElement("itunes", "image", ITUNES_NS);
+            xml.writeAttribute("href", episode.getImageUrl());
+        }
+        xml.writeEndElement();
+    }
+
+    // RSS exige una URL absoluta. Con media en disco audioPath es una ruta relativa a la store: las apps
+    // bajan el audio del endpoint de streaming
+    private String enclosureUrl(Episode episode) {
+        if (mediaStore.localFile(episode.getAudioPath()).isPresent()) {
+            return baseUrl + "/episodes/" + episode.getId() + "/audio";
+        }
+        return episode.getAudioPath();
+    }
+
+    // Fecha estable (no la del render): el mismo contenido produce los mismos bytes y el mismo ETag
+    private static LocalDateTime lastChange(Podcast podcast, List<Episode> episodes) {
+        LocalDateTime last = podcast.getUpdatedAt() != null ? podcast.getUpdatedAt() : podcast.getCreatedAt();
+        if (!episodes.isEmpty() && episodes.get(0).getPublicationDate() != null
+                && (last == null || episodes.get(0).getPublicationDate().isAfter(last))) {
+            last = episodes.get(0).getPublicationDate();
+        }
+        return last;
+    }
+
+    private static void element(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(text != null ? text : "");
+        xml.writeEndElement();
+    }
+
+    private static void itunesElement(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        xml.writeStartElement("itunes", name, ITUNES_NS);
+        xml.writeCharacters(text);
+        xml.writeEndElement();
+    }
+
+    private static String rfc822(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+    }
+
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package podcast.model.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import podcast.model.entities.Episode;
+import podcast.model.entities.dto.CursorPageDTO;
+import podcast.model.entities.dto.InboxEpisodeDTO;
+import podcast.model.entities.helpers.InboxCursor;
+import podcast.model.repositories.interfaces.IInboxRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Feed de novedades de los podcasts favoritos. Al publicarse un episodio se copia al inbox
+// (user_inbox) de cada seguidor, de a lotes y después del commit, así leer el feed es un rango
+// del índice del usuario. Los podcasts con más de max-fanout-followers seguidores no se reparten
+// (sería escribir millones de filas por episodio): el episodio queda marcado fanout_skipped y la
+// consulta del feed lo trae directo de los favoritos del usuario (modelo híbrido push/pull).
+//
+// El reparto es durable: el episodio se guarda con fanout_cursor en la transacción que lo publica y
+// cada lote avanza el cursor en su misma transacción. Si el reparto se corta (error, reinicio) el
+// ciclo programado lo retoma desde el último lote confirmado.
+@Service
+public class InboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InboxService.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Cursor de la primera página: cualquier episodio es anterior
+    private static final InboxCursor FIRST_PAGE = new InboxCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Integer.MAX_VALUE);
+
+    private static final String COUNT_FOLLOWERS_SQL = "SELECT COUNT(*) FROM favorites WHERE podcast_id = ?";
+    private static final String PENDING_SQL = "SELECT id FROM episodes WHERE fanout_cursor IS NOT NULL ORDER BY id";
+    private static final String PROGRESS_SQL = "SELECT podcast_id, publication_date, fanout_cursor FROM episodes WHERE id = ?";
+    private static final String FOLLOWERS_SQL =
+            "SELECT user_id FROM favorites WHERE podcast_id = ? AND user_id > ? ORDER BY user_id LIMIT ?";
+    // Solo avanza desde el valor leído: si otro hilo o nodo ya repartió el lote (o se borró el episodio) no toca nada
+    private static final String ADVANCE_SQL = "UPDATE episodes SET fanout_cursor = ? WHERE id = ? AND fanout_cursor = ?";
+    // Reintentar un lote no duplica: se saltea a quien ya lo tiene (uk_user_inbox_user_episode)
+    private static final String INSERT_SQL =
+            "INSERT INTO user_inbox (user_id, episode_id, podcast_id, published_at) " +
+            "SELECT f.user_id, ?, f.podcast_id, ? FROM favorites f " +
+            "WHERE f.podcast_id = ? AND f.user_id > ? AND f.user_id <= ? " +
+            "AND NOT EXISTS (SELECT 1 FROM user_inbox i WHERE i.user_id = f.user_id AND i.episode_id = ?)";
+
+    // Lo que hace falta para seguir repartiendo un episodio
+    private record Progress(Long podcastId, Timestamp publishedAt, Long cursor) {}
+
+    private final IInboxRepository inboxRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long maxFanoutFollowers;
+
+    // Un reparto a la vez y en orden de publicación; el request que publica no espera. Lo que quede en la
+    // cola al apagar sigue marcado en fanout_cursor y lo retoma resumePending
+    private final ExecutorService fanoutExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "inbox-fanout"));
+
+    public InboxService(IInboxRepository inboxRepository, JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${podcast.inbox.batch-size:1000}") int batchSize,
+                        @Value("${podcast.inbox.max-fanout-followers:10000}") long maxFanoutFollowers) {
+        this.inboxRepository = inboxRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxFanoutFollowers = maxFanoutFollowers;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanoutExecutor.shutdownNow();
+    }
+
+    // ── Publicación ──────────────────────────────────────────────────────────────────
+
+    // Llamar desde la transacción que guarda el episodio, antes de persistirlo: decide si se reparte
+    // y lo marca. El reparto arranca recién cuando confirma la transacción.
+    public void publish(Episode episode) {
+        Long podcastId = episode.getPodcast().getId();
+        Long followers = jdbcTemplate.queryForObject(COUNT_FOLLOWERS_SQL, Long.class, podcastId);
+        boolean skip = followers != null && followers > maxFanoutFollowers;
+        episode.setFanoutSkipped(skip);
+        if (skip || followers == null || followers == 0) {
+            return;
+        }
+        episode.setFanoutCursor(0L);
+        AfterCommit.run(() -> fanoutExecutor.execute(() -> resume(episode.getId())));
+    }
+
+    // Retoma los repartos que quedaron a medias; también corre al arrancar
+    @Scheduled(fixedDelayString = "${podcast.inbox.resume-interval-ms:60000}")
+    public void resumePending() {
+        for (Integer episodeId : jdbcTemplate.queryForList(PENDING_SQL, Integer.class)) {
+            resume(episodeId);
+        }
+    }
+
+    // Reparte el episodio desde su fanout_cursor. Devuelve cuántas filas insertó; un error queda en el
+    // log y el reparto sigue pendiente para el próximo ciclo.
+    public long resume(Integer episodeId) {
+        try {
+            return fanOut(episodeId);
+        } catch (RuntimeException e) {
+            logger.error("Reparto del episodio {} a los inboxes interrumpido, se retoma en el próximo ciclo", episodeId, e);
+            return 0;
+        }
+    }
+
+    // Recorre los seguidores por keyset sobre idx_favorites_podcast_user y escribe un lote por
+    // transacción, junto con el avance del cursor
+    private long fanOut(Integer episodeId) {
+        // Sin fila: el episodio se borró; sin cursor: ya se repartió
+        Progress progress = jdbcTemplate.query(PROGRESS_SQL,
+                (rs, row) -> new Progress(rs.getLong(1), rs.getTimestamp(2), rs.getObject(3, Long.class)), episodeId)
+                .stream().findFirst().orElse(null);
+        if (progress == null || progress.cursor() == null) {
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        Long podcastId = progress.podcastId();
+        Timestamp published = progress.publishedAt();
+        long afterUserId = progress.cursor();
+        long delivered = 0;
+        while (true) {
+            List<Long> followers = jdbcTemplate.queryForList(FOLLOWERS_SQL, Long.class, podcastId, afterUserId, batchSize);
+            // El último lote deja el cursor en null: no queda nada pendiente
+            Long lastUserId = followers.isEmpty() ? afterUserId : followers.get(followers.size() - 1);
+            Long next = followers.size() < batchSize ? null : lastUserId;
+            long from = afterUserId;
+            Integer inserted = transactionTemplate.execute(status -> {
+                if (jdbcTemplate.update(ADVANCE_SQL, next, episodeId, from) == 0) {
+                    return null;
+                }
+                return jdbcTemplate.update(INSERT_SQL, episodeId, published, podcastId, from, lastUserId, episodeId);
+            });
+            if (inserted == null) {
+                break;
+            }
+            delivered += inserted;
+            if (next == null) {
+                break;
+            }
+            afterUserId = next;
+        }
+        logger.debug("Episodio {} repartido a {} inboxes en {} ms", episodeId, delivered, System.currentTimeMillis() - start);
+        return delivered;
+    }
+
+    // ── Lecturas ─────────────────────────────────────────────────────────────────────
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<InboxEpisodeDTO> getFeed(Long userId, int limit, String after) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        InboxCursor cursor = after != null ? InboxCursor.decode(after) : FIRST_PAGE;
+
+        // Se pide un elemento extra para saber si existe una página siguiente
+        List<IInboxRepository.FeedRow> rows = inboxRepository.findFeedPage(userId, cursor.publishedAt(), cursor.episodeId(), limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<InboxEpisodeDTO> page = new ArrayList<>(Math.min(rows.size(), limit));
+        for (IInboxRepository.FeedRow row : hasMore ? rows.subList(0, limit) : rows) {
+            page.add(InboxEpisodeDTO.builder()
+                    .episodeId(row.getEpisodeId().longValue())
+                    .title(row.getTitle())
+                    .podcastId(row.getPodcastId())
+                    .podcastTitle(row.getPodcastTitle())
+                    .publishedAt(row.getPublishedAt())
+                    .build());
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            InboxEpisodeDTO last = page.get(page.size() - 1);
+            nextCursor = new InboxCursor(last.getPublishedAt(), last.getEpisodeId().intValue()).encode();
+        }
+        return CursorPageDTO.<InboxEpisodeDTO>builder()
+                .items(page)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // ── Bajas ────────────────────────────────────────────────────────────────────────
+
+    @Transactional
+    public void removeEpisode(Long episodeId) {
+        inboxRepository.deleteByEpisode(episodeId.intValue());
+    }
+
+    @Transactional
+    public void removeFavorite(Long userId, Long podcastId) {
+        inboxRepository.deleteByUserAndPodcast(userId, podcastId);
+    }
+
+    @Transactional
+    public void removeUser(Long userId) {
+        inboxRepository.deleteByUser(userId);
+    }
+}
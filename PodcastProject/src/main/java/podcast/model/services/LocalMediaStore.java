@@ -0,0 +1,51 @@
+package podcast.model.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+// Media en el sistema de archivos, para instalaciones propias y tests: la URL guardada en el episodio
+// es la ruta relativa a podcast.media.local.root (ej. "audio/42.mp3") y el audio lo sirve la propia app
+// (ver AudioStreamingService). URLs absolutas (http://...) son de otra store y no se tocan.
+@Service
+@ConditionalOnProperty(name = "podcast.media.store", havingValue = "local")
+public class LocalMediaStore implements MediaStore {
+
+    private final Path root;
+
+    public LocalMediaStore(@Value("${podcast.media.local.root:./media}") String root) throws IOException {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        Files.createDirectories(this.root);
+    }
+
+    @Override
+    public void delete(String url) throws IOException {
+        Optional<Path> file = localFile(url);
+        if (file.isPresent()) {
+            Files.deleteIfExists(file.get());
+        }
+    }
+
+    @Override
+    public Optional<Path> localFile(String url) {
+        if (url == null || url.isBlank() || url.contains("://")) {
+            return Optional.empty();
+        }
+        String relative = url.startsWith("/") ? url.substring(1) : url;
+        Path file = root.resolve(relative).normalize();
+        // "../" no puede sacar la ruta fuera del directorio de la store
+        if (!file.startsWith(root) || file.equals(root)) {
+            throw new IllegalArgumentException("Invalid media path: " + url);
+        }
+        return Optional.of(file);
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+}
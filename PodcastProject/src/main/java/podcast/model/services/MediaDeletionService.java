@@ -0,0 +1,214 @@
+package podcast.model.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import podcast.model.entities.MediaDeletion;
+import podcast.model.entities.enums.MediaDeletionStatus;
+import podcast.model.repositories.interfaces.IMediaDeletionRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Outbox de borrados de media: quien borra un episodio solo inserta filas en media_deletions dentro
+// de su transacción, y el despachador llama al MediaStore después, con una cantidad acotada de
+// llamadas en paralelo. Un fallo reprograma la fila con backoff exponencial (con jitter) hasta
+// max-attempts; ahí queda en FAILED. Los borrados exitosos se eliminan de la tabla.
+// El MediaStore tiene que ser idempotente: si la app cae entre el borrado remoto y el de la fila,
+// el archivo se vuelve a borrar en el próximo ciclo.
+@Service
+public class MediaDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MediaDeletionService.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final IMediaDeletionRepository mediaDeletionRepository;
+    private final MediaStore mediaStore;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long callTimeoutMs;
+
+    private final ExecutorService workers;
+    // Despachos pedidos al confirmar un borrado: a lo sumo uno esperando detrás del que corre
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> new Thread(r, "media-deletion-dispatcher"));
+    private final AtomicBoolean dispatchRequested = new AtomicBoolean();
+    // Un solo despacho a la vez; lock y no synchronized porque se espera a la BD y al MediaStore
+    // y con hilos virtuales un monitor tomado durante I/O fija el hilo portador
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+
+    public MediaDeletionService(IMediaDeletionRepository mediaDeletionRepository, MediaStore mediaStore,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${podcast.media.outbox.concurrency:4}") int concurrency,
+                                @Value("${podcast.media.outbox.batch-size:50}") int batchSize,
+                                @Value("${podcast.media.outbox.max-attempts:8}") int maxAttempts,
+                                @Value("${podcast.media.outbox.initial-backoff-ms:1000}") long initialBackoffMs,
+                                @Value("${podcast.media.outbox.max-backoff-ms:600000}") long maxBackoffMs,
+                                @Value("${podcast.media.outbox.call-timeout-ms:30000}") long callTimeoutMs,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.mediaDeletionRepository = mediaDeletionRepository;
+        this.mediaStore = mediaStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.callTimeoutMs = callTimeoutMs;
+        // Con hilos virtuales el pool fijo sigue acotando las llamadas en paralelo al MediaStore,
+        // pero una llamada HTTP bloqueada ya no retiene un hilo del sistema
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("media-deletion-worker-", 0).factory()
+                : r -> new Thread(r, "media-deletion-worker");
+        this.workers = Executors.newFixedThreadPool(concurrency, threadFactory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    // Se une a la transacción del llamador: si ésta hace rollback tampoco queda nada en el outbox
+    @Transactional
+    public void enqueue(String... urls) {
+        boolean added = false;
+        for (String url : urls) {
+            if (url != null && !url.isBlank()) {
+                mediaDeletionRepository.save(MediaDeletion.builder().url(url).build());
+                added = true;
+            }
+        }
+        if (added) {
+            // No hace falta esperar al próximo ciclo: se despacha apenas confirma la transacción
+            AfterCommit.run(this::requestDispatch);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${podcast.media.outbox.poll-interval-ms:10000}")
+    public void scheduledDispatch() {
+        dispatch();
+    }
+
+    private void requestDispatch() {
+        if (dispatchRequested.compareAndSet(false, true)) {
+            dispatcher.execute(() -> {
+                dispatchRequested.set(false);
+                dispatch();
+            });
+        }
+    }
+
+    // Procesa por lotes todo lo vencido; devuelve cuántas filas intentó
+    public int dispatch() {
+        dispatchLock.lock();
+        try {
+            return dispatchDue();
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    private int dispatchDue() {
+        int processed = 0;
+        List<MediaDeletion> due;
+        do {
+            due = mediaDeletionRepository.findDue(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (due.isEmpty()) {
+                break;
+            }
+            List<Throwable> outcomes = deleteAll(due);
+            List<MediaDeletion> batch = due;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < batch.size(); i++) {
+                    record(batch.get(i), outcomes.get(i));
+                }
+            });
+            processed += due.size();
+        } while (due.size() == batchSize);
+        return processed;
+    }
+
+    // Llama al MediaStore en paralelo; null = borrado, si no la causa del fallo
+    private List<Throwable> deleteAll(List<MediaDeletion> deletions) {
+        List<Callable<Throwable>> calls = new ArrayList<>(deletions.size());
+        for (MediaDeletion deletion : deletions) {
+            calls.add(() -> {
+                try {
+                    mediaStore.delete(deletion.getUrl());
+                    return null;
+                } catch (Exception e) {
+                    return e;
+                }
+            });
+        }
+        List<Throwable> outcomes = new ArrayList<>(deletions.size());
+        try {
+            for (Future<Throwable> future : workers.invokeAll(calls, callTimeoutMs, TimeUnit.MILLISECONDS)) {
+                outcomes.add(outcome(future));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            while (outcomes.size() < deletions.size()) {
+                outcomes.add(e);
+            }
+        }
+        return outcomes;
+    }
+
+    private static Throwable outcome(Future<Throwable> future) {
+        if (future.isCancelled()) {
+            return new TimeoutException("Media store call timed out");
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
+        }
+    }
+
+    private void record(MediaDeletion deletion, Throwable failure) {
+        if (failure == null) {
+            mediaDeletionRepository.deleteById(deletion.getId());
+            return;
+        }
+        int attempts = deletion.getAttempts() + 1;
+        deletion.setAttempts(attempts);
+        deletion.setLastError(truncate(failure.toString()));
+        if (attempts >= maxAttempts) {
+            deletion.setStatus(MediaDeletionStatus.FAILED);
+            logger.error("Borrado de media abandonado tras {} intentos: {} ({})", attempts, deletion.getUrl(), failure.toString());
+        } else {
+            deletion.setNextAttemptAt(LocalDateTime.now().plusNanos(backoffMs(attempts) * 1_000_000));
+            logger.warn("Borrado de media falló (intento {}), se reintenta: {} ({})", attempts, deletion.getUrl(), failure.toString());
+        }
+        mediaDeletionRepository.save(deletion);
+    }
+
+    // initial * 2^(intentos-1) con tope, y la mitad al azar para que los reintentos no se sincronicen
+    long backoffMs(int attempts) {
+        long exponential = initialBackoffMs << Math.min(attempts - 1, 30);
+        long delay = exponential <= 0 ? maxBackoffMs : Math.min(exponential, maxBackoffMs);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private static String truncate(String value) {
+        return value.length() > MAX_ERROR_LENGTH ? value.substring(0, MAX_ERROR_LENGTH) : value;
+    }
+}
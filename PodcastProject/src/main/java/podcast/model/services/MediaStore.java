@@ -0,0 +1,20 @@
+package podcast.model.services;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+// Almacenamiento de los archivos de audio e imagen de los episodios. La implementación activa se
+// elige con podcast.media.store (Cloudinary por defecto, "local" para servir desde disco); en los
+// tests se reemplaza por una en memoria.
+public interface MediaStore {
+
+    // Borra el archivo referenciado por la URL. Debe ser idempotente: borrar algo que ya no existe
+    // no es un error. Cualquier excepción se toma como fallo transitorio y el borrado se reintenta.
+    void delete(String url) throws Exception;
+
+    // Archivo en disco detrás de la URL, si esta store sirve los bytes ella misma.
+    // Vacío = el archivo vive en un servicio externo y el cliente lo pide directo ahí.
+    default Optional<Path> localFile(String url) {
+        return Optional.empty();
+    }
+}
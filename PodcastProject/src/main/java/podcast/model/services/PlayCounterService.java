@@ -0,0 +1,208 @@
+package podcast.model.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import podcast.model.entities.dto.PlayCounterMetricsDTO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Contador write-behind de reproducciones: cada play suma en un LongAdder por episodio (sin tocar la BD)
+// y un job periódico vuelca los deltas acumulados con UPDATE ... SET views = views + ? en batch.
+@Service
+public class PlayCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlayCounterService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PodcastStatsService podcastStatsService;
+
+    private final ConcurrentHashMap<Long, PendingPlays> pending = new ConcurrentHashMap<>();
+    // Contadores que quedaron sin deltas en el volcado anterior y se sacaron de pending. Un hilo que ya
+    // tenía la referencia puede sumar en ellos justo después: se vuelven a leer en el volcado siguiente
+    // (un intervalo de gracia) y recién ahí se olvidan. Así el mapa no guarda un contador por cada
+    // episodio reproducido alguna vez.
+    private final ConcurrentHashMap<Long, PendingPlays> retired = new ConcurrentHashMap<>();
+    // Lock y no synchronized: el volcado espera a la BD y con hilos virtuales un monitor tomado
+    // durante I/O deja fijo (pinned) al hilo portador
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Métricas del último volcado y del retraso acumulado
+    private final AtomicLong oldestPendingAt = new AtomicLong(0);
+    private final AtomicLong totalFlushed = new AtomicLong(0);
+    private volatile int lastFlushEpisodes;
+    private volatile long lastFlushPlays;
+    private volatile long lastFlushAt;
+    private volatile long lastFlushDurationMs;
+
+    public PlayCounterService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              PodcastStatsService podcastStatsService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.podcastStatsService = podcastStatsService;
+    }
+
+    // Los adders nunca se reinician: el flusher guarda cuánto ya volcó y solo escribe la diferencia,
+    // así un incremento concurrente con el volcado se cuenta en el siguiente y nunca se pierde.
+    private static final class PendingPlays {
+        final Long podcastId;
+        final LongAdder plays = new LongAdder();
+        // Lo escribe solo el flusher, pero se lee desde los hilos de los requests
+        volatile long flushed;
+
+        PendingPlays(Long podcastId) {
+            this.podcastId = podcastId;
+        }
+    }
+
+    public void recordPlay(Long episodeId, Long podcastId) {
+        pending.computeIfAbsent(episodeId, id -> new PendingPlays(podcastId)).plays.increment();
+        oldestPendingAt.compareAndSet(0, System.currentTimeMillis());
+    }
+
+    // Reproducciones registradas en memoria que todavía no llegaron a la BD
+    public long pendingPlays(Long episodeId) {
+        return unflushed(pending.get(episodeId)) + unflushed(retired.get(episodeId));
+    }
+
+    private static long unflushed(PendingPlays counter) {
+        return counter != null ? counter.plays.sum() - counter.flushed : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${podcast.plays.flush-interval-ms:5000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        long start = System.currentTimeMillis();
+        oldestPendingAt.set(0);
+
+        List<Object[]> episodeDeltas = new ArrayList<>();
+        List<PendingPlays> counters = new ArrayList<>();
+        Map<Long, PendingPlays> idle = new HashMap<>();
+        for (Map<Long, PendingPlays> source : List.of(pending, retired)) {
+            for (Map.Entry<Long, PendingPlays> entry : source.entrySet()) {
+                PendingPlays counter = entry.getValue();
+                long delta = counter.plays.sum() - counter.flushed;
+                if (delta > 0) {
+                    episodeDeltas.add(new Object[]{delta, entry.getKey()});
+                    counters.add(counter);
+                } else if (source == pending) {
+                    idle.put(entry.getKey(), counter);
+                }
+            }
+        }
+        if (episodeDeltas.isEmpty()) {
+            retireIdle(idle);
+            return;
+        }
+
+        int[] updated;
+        try {
+            // Episodios y podcast_stats se actualizan en la misma transacción para no duplicar en un reintento
+            updated = transactionTemplate.execute(status -> {
+                int[] rows = jdbcTemplate.batchUpdate("UPDATE episodes SET views = views + ? WHERE id = ?", episodeDeltas);
+                // Un episodio ya borrado (su contador se recreó en carrera con el borrado) no suma al podcast.
+                // Con rewriteBatchedStatements el driver puede no informar filas (SUCCESS_NO_INFO): cuenta como tocada
+                Map<Long, Long> podcastDeltas = new HashMap<>();
+                for (int i = 0; i < rows.length; i++) {
+                    if (rows[i] != 0) {
+                        podcastDeltas.merge(counters.get(i).podcastId, (Long) episodeDeltas.get(i)[0], Long::sum);
+                    }
+                }
+                podcastDeltas.forEach(podcastStatsService::onPlays);
+                return rows;
+            });
+        } catch (RuntimeException e) {
+            // Los deltas no se marcan como volcados: se reintentan en el próximo ciclo
+            oldestPendingAt.compareAndSet(0, start);
+            logger.error("Error volcando {} contadores de reproducciones", episodeDeltas.size(), e);
+            return;
+        }
+
+        // Los deltas de episodios borrados también se marcan: no hay dónde volcarlos y así se retiran
+        long plays = 0;
+        for (int i = 0; i < counters.size(); i++) {
+            long delta = (Long) episodeDeltas.get(i)[0];
+            counters.get(i).flushed += delta;
+            if (updated[i] != 0) {
+                plays += delta;
+            }
+        }
+        retireIdle(idle);
+        totalFlushed.addAndGet(plays);
+        lastFlushEpisodes = episodeDeltas.size();
+        lastFlushPlays = plays;
+        lastFlushAt = System.currentTimeMillis();
+        lastFlushDurationMs = lastFlushAt - start;
+    }
+
+    // Los retirados del ciclo anterior ya se volcaron arriba; los inactivos de este ciclo pasan a
+    // retirados. remove(key, value) no saca un contador que otro hilo acaba de volver a crear.
+    private void retireIdle(Map<Long, PendingPlays> idle) {
+        retired.clear();
+        idle.forEach((episodeId, counter) -> {
+            if (pending.remove(episodeId, counter)) {
+                retired.put(episodeId, counter);
+            }
+        });
+    }
+
+    // Descarta las reproducciones pendientes de un episodio que se está eliminando. Recién al confirmar
+    // el borrado: si hace rollback las reproducciones siguen valiendo
+    public void discard(Long episodeId) {
+        AfterCommit.run(() -> {
+            flushLock.lock();
+            try {
+                pending.remove(episodeId);
+                retired.remove(episodeId);
+            } finally {
+                flushLock.unlock();
+            }
+        });
+    }
+
+    public PlayCounterMetricsDTO getMetrics() {
+        long oldest = oldestPendingAt.get();
+        long pendingTotal = pending.values().stream().mapToLong(PlayCounterService::unflushed).sum()
+                + retired.values().stream().mapToLong(PlayCounterService::unflushed).sum();
+        return PlayCounterMetricsDTO.builder()
+                .pendingPlays(pendingTotal)
+                .trackedEpisodes(pending.size())
+                .lagMs(oldest == 0 ? 0 : System.currentTimeMillis() - oldest)
+                .lastFlushEpisodes(lastFlushEpisodes)
+                .lastFlushPlays(lastFlushPlays)
+                .lastFlushDurationMs(lastFlushDurationMs)
+                .lastFlushAt(lastFlushAt)
+                .totalFlushedPlays(totalFlushed.get())
+                .build();
+    }
+}
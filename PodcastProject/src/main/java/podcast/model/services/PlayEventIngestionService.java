@@ -0,0 +1,204 @@
+package podcast.model.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import podcast.model.entities.dto.PlayIngestionMetricsDTO;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Ingesta asíncrona del historial de reproducciones: /play solo encola el evento y un hilo
+// escritor lo inserta en batch (JDBC) al juntar batch-size eventos o al vencer linger-ms.
+// Con MySQL conviene agregar rewriteBatchedStatements=true a la URL para que el batch
+// se envíe como un único INSERT multi-fila.
+//
+// Un evento puede quedar huérfano si se borra su episodio o usuario mientras está en la cola. Si un
+// batch falla se reintenta por mitades hasta aislar las filas rechazadas, así solo se pierden ésas.
+@Service
+public class PlayEventIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlayEventIngestionService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO episode_history (listened_at, user_id, episode_id) VALUES (?, ?, ?)";
+
+    public record PlayEvent(Long userId, Long episodeId, LocalDateTime listenedAt) {
+    }
+
+    // Marca de fin que se encola al apagar para que el escritor termine después de lo ya encolado
+    private static final PlayEvent SHUTDOWN = new PlayEvent(null, null, null);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PlayEvent> queue;
+    private final int batchSize;
+    private final long lingerMs;
+    private final long offerTimeoutMs;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong directWrites = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    // Eventos de la cola ya procesados (escritos o fallidos), para esperar a que se vacíe
+    private final AtomicLong drained = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public PlayEventIngestionService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                     @Value("${podcast.history.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${podcast.history.batch-size:500}") int batchSize,
+                                     @Value("${podcast.history.linger-ms:200}") long lingerMs,
+                                     @Value("${podcast.history.offer-timeout-ms:50}") long offerTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Cada batch es atómico (un reintento no duplica filas) e independiente de la transacción del
+        // request en las escrituras directas
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "play-history-writer");
+        writer.start();
+    }
+
+    // Deja de aceptar eventos y espera a que el escritor vacíe la cola
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        queue.put(SHUTDOWN);
+        writer.join();
+    }
+
+    public void submit(Long userId, Long episodeId) {
+        PlayEvent event = new PlayEvent(userId, episodeId, LocalDateTime.now());
+        boolean accepted = false;
+        if (running) {
+            try {
+                // Backpressure: si la cola está llena el request espera un poco antes de rendirse
+                accepted = queue.offer(event, offerTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (accepted) {
+            enqueued.incrementAndGet();
+        } else {
+            // Cola saturada o apagándose: se escribe en el hilo del request para no perder el evento
+            directWrites.incrementAndGet();
+            write(List.of(event));
+        }
+    }
+
+    private void drainLoop() {
+        List<PlayEvent> batch = new ArrayList<>(batchSize);
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                PlayEvent first = queue.take();
+                stopping = first == SHUTDOWN;
+                if (!stopping) {
+                    batch.add(first);
+                }
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (!stopping && batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PlayEvent next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    stopping = next == SHUTDOWN;
+                    if (!stopping) {
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopping = true;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                drained.addAndGet(batch.size());
+                batch.clear();
+            }
+        }
+        // Eventos que entraron en carrera con el apagado
+        queue.drainTo(batch);
+        batch.remove(SHUTDOWN);
+        if (!batch.isEmpty()) {
+            write(batch);
+            drained.addAndGet(batch.size());
+        }
+    }
+
+    // Espera a que los eventos encolados hasta ahora lleguen a episode_history (la cola es FIFO).
+    // Devuelve false si se venció el plazo.
+    public boolean awaitDrained(long timeoutMs) throws InterruptedException {
+        long target = enqueued.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (drained.get() < target) {
+            if (!writer.isAlive() || System.nanoTime() >= deadline) {
+                return drained.get() >= target;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    private void write(List<PlayEvent> events) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, events.stream()
+                    .map(e -> new Object[]{Timestamp.valueOf(e.listenedAt()), e.userId(), e.episodeId()})
+                    .toList()));
+            written.addAndGet(events.size());
+            batches.incrementAndGet();
+        } catch (RuntimeException e) {
+            if (events.size() == 1) {
+                failed.incrementAndGet();
+                PlayEvent event = events.get(0);
+                logger.warn("Evento de historial descartado (usuario {}, episodio {}): {}",
+                        event.userId(), event.episodeId(), e.getMessage());
+                return;
+            }
+            // El batch se deshizo entero: se reintenta por mitades
+            int half = events.size() / 2;
+            write(events.subList(0, half));
+            write(events.subList(half, events.size()));
+        }
+    }
+
+    public PlayIngestionMetricsDTO getMetrics() {
+        return PlayIngestionMetricsDTO.builder()
+                .queued(queue.size())
+                .enqueued(enqueued.get())
+                .written(written.get())
+                .batches(batches.get())
+                .directWrites(directWrites.get())
+                .failed(failed.get())
+                .build();
+    }
+}
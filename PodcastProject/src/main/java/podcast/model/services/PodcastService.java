@@ -1,41 +1,61 @@
 package podcast.model.services;
 
 import jakarta.validation.Valid;
+import podcast.cfg.PrincipalCache;
 import org.springframework.security.core.userdetails.UserDetails;
 import podcast.model.entities.dto.PodcastUpdateDTO;
 import podcast.model.entities.enums.Role;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import podcast.model.entities.Podcast;
+import podcast.model.entities.PodcastStats;
 import podcast.model.entities.User;
+import podcast.model.entities.dto.CursorPageDTO;
 import podcast.model.entities.dto.PodcastDTO;
+import podcast.model.entities.enums.CatalogSort;
 import podcast.model.entities.enums.Category;
+import podcast.model.entities.helpers.CatalogCursor;
 import podcast.model.exceptions.*;
 import podcast.model.repositories.interfaces.IPodcastRepository;
 import podcast.model.repositories.interfaces.IUserRepository;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class PodcastService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final IPodcastRepository podcastRepository;
     private final IUserRepository userRepository;
+    private final PodcastStatsService podcastStatsService;
+    private final PrincipalCache principalCache;
+    private final SearchService searchService;
+    private final CategoryIndexService categoryIndexService;
+    private final FeedService feedService;
 
     @Autowired
-    public PodcastService(IPodcastRepository podcastRepository, IUserRepository userRepository) {
+    public PodcastService(IPodcastRepository podcastRepository, IUserRepository userRepository,
+                          PodcastStatsService podcastStatsService, PrincipalCache principalCache,
+                          SearchService searchService, CategoryIndexService categoryIndexService,
+                          FeedService feedService) {
         this.podcastRepository = podcastRepository;
         this.userRepository = userRepository;
+        this.podcastStatsService = podcastStatsService;
+        this.principalCache = principalCache;
+        this.searchService = searchService;
+        this.categoryIndexService = categoryIndexService;
+        this.feedService = feedService;
     }
 
     public void save(Podcast podcast) {
-        podcastRepository.findAll().stream()
-                .filter(podcastpvt -> podcastpvt.getTitle().equals(podcast.getTitle()))
-                .findFirst()
-                .ifPresent(podcastpvt -> {
-                    throw new AlreadyCreatedException("Podcast with name " + podcast.getTitle() + " already exists");
-                });
+        if (podcastRepository.existsByTitleIgnoreCase(podcast.getTitle())) {
+            throw new AlreadyCreatedException("Podcast with name " + podcast.getTitle() + " already exists");
+        }
         if (podcast.getUser() == null || podcast.getUser().getId() == null) {
             throw new NullUserException("Podcast must have a valid user");
         }
@@ -46,40 +66,66 @@ public class PodcastService {
             user.getCredential().setRoles(new java.util.HashSet<>());
         }
 
-        user.getCredential().getRoles().add(Role.ROLE_CREATOR);
+        boolean granted = user.getCredential().getRoles().add(Role.ROLE_CREATOR);
         userRepository.save(user);
+        if (granted) {
+            // Los tokens ya emitidos no tienen ROLE_CREATOR en sus claims
+            principalCache.invalidate(user.getUsername());
+        }
         podcastRepository.save(podcast);
+        podcastStatsService.onPodcastCreated(podcast.getId());
+        searchService.indexPodcast(podcast);
+        categoryIndexService.indexPodcast(podcast);
     }
 
-    public List<PodcastDTO> getAllFiltered(String title, Integer userId, Category category, Boolean orderByViews) {
-        List<Podcast> filtered;
-
-        if (title == null && userId == null && category == null) {
-            filtered = podcastRepository.findAll();
-        } else {
-            filtered = podcastRepository.findByUser_IdOrTitleIgnoreCaseOrCategories(userId, title, category);
-            if (filtered.isEmpty()) {
-                filtered = podcastRepository.findAll();
-            }
+    @Transactional(readOnly = true)
+    public CursorPageDTO<PodcastDTO> getAllFiltered(String title, Integer userId, Category category,
+                                                    CatalogSort sort, int limit, String after) {
+        CatalogSort order = sort != null ? sort : CatalogSort.ID;
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
         }
-
-        // Filtrar podcasts inactivos
-        List<Podcast> activeFiltered = filtered.stream()
-                .filter(p -> Boolean.TRUE.equals(p.getIsActive()))
-                .toList();
-
-        if (activeFiltered.isEmpty()) {
+        CatalogCursor cursor = after != null ? CatalogCursor.decode(after, order) : null;
+        Long afterId = cursor != null ? cursor.id() : null;
+        Double afterValue = cursor != null ? cursor.value() : null;
+        String titleFilter = (title != null && !title.isBlank()) ? title : null;
+        Long userFilter = userId != null ? userId.longValue() : null;
+
+        // Se pide un elemento extra para saber si existe una página siguiente
+        Pageable window = PageRequest.of(0, limit + 1);
+        List<IPodcastRepository.CatalogRow> rows = switch (order) {
+            case ID -> podcastRepository.findCatalogOrderById(titleFilter, userFilter, category, afterId, window);
+            case VIEWS -> podcastRepository.findCatalogOrderByViews(titleFilter, userFilter, category,
+                    afterValue != null ? afterValue.longValue() : null, afterId, window);
+            case RATING -> podcastRepository.findCatalogOrderByRating(titleFilter, userFilter, category, afterValue, afterId, window);
+        };
+
+        if (rows.isEmpty() && cursor == null) {
             throw new PodcastNotFoundException("No podcasts found");
         }
-        List<PodcastDTO> filteredDTO = new ArrayList<>(activeFiltered.stream()
-                .map(Podcast::toDTO)
-                .toList());
-        if (orderByViews != null && orderByViews) {
-            filteredDTO.sort((p1, p2) -> Long.compare(p2.getAverageViews(), p1.getAverageViews()));
+
+        boolean hasMore = rows.size() > limit;
+        List<IPodcastRepository.CatalogRow> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            IPodcastRepository.CatalogRow last = page.get(page.size() - 1);
+            nextCursor = new CatalogCursor(order, sortValue(order, last.getStats()), last.getPodcast().getId()).encode();
         }
-        return filteredDTO;
+        return CursorPageDTO.<PodcastDTO>builder()
+                .items(page.stream().map(row -> row.getPodcast().toDTO(row.getStats())).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private Double sortValue(CatalogSort order, PodcastStats stats) {
+        return switch (order) {
+            case ID -> null;
+            case VIEWS -> stats.getAverageViews().doubleValue();
+            case RATING -> stats.getAverageRating();
+        };
     }
 
+    @Transactional(readOnly = true)
     public Podcast getPodcastById(Long podcastId) {
         Podcast podcast = podcastRepository.findById(podcastId).orElseThrow( () ->
                 new PodcastNotFoundException("Podcast with ID " + podcastId + " not found"));
@@ -90,7 +136,8 @@ public class PodcastService {
         return podcast;
     }
 
-    public List<Podcast> getByUsername(String username) {
+    @Transactional(readOnly = true)
+    public List<PodcastDTO> getByUsername(String username) {
         List<Podcast> podcasts = podcastRepository.findByUser_Credential_Username(username);
         // Filtrar inactivos
         List<Podcast> activePodcasts = podcasts.stream()
@@ -99,24 +146,24 @@ public class PodcastService {
         if (activePodcasts.isEmpty()) {
             throw new PodcastNotFoundException("No podcasts found for user " + username);
         }
-        return activePodcasts;
+        return podcastStatsService.toDTOs(activePodcasts);
     }
 
 
-    public void deleteById(Long podcastId, String username) {
+    public void deleteById(Long podcastId, UserDetails userDetails) {
         Podcast podcast = podcastRepository.findById(podcastId)
                 .orElseThrow(() -> new PodcastNotFoundException("Podcast with ID " + podcastId + " not found"));
-        if (!podcastRepository.existsById(podcastId)) {
-            throw new PodcastNotFoundException("Podcast with ID " + podcastId + " not found");
-        }
-        User user = userRepository.findByCredentialUsername(username).orElseThrow( () ->
-                new UserNotFoundException("User with username " + username + " not found"));
+        String username = userDetails.getUsername();
 
-        if (!podcast.getUser().getCredential().getUsername().equals(username) && !user.getCredential().getRoles().contains(Role.ROLE_ADMIN)) {
+        // Los roles vienen del principal autenticado, sin volver a buscar al usuario
+        if (!podcast.getUser().getCredential().getUsername().equals(username) && !userDetails.getAuthorities().contains(Role.ROLE_ADMIN)) {
             throw new UnauthorizedException("Podcast with ID " + podcastId + " does not belong to YOU" + username + "and you are not an admin");
         }
         podcast.setIsActive(false);
         podcastRepository.save(podcast);
+        searchService.removePodcast(podcastId);
+        categoryIndexService.deactivate(podcastId);
+        feedService.invalidate(podcastId);
     }
 
     public PodcastUpdateDTO updatePodcast(Long podcastId, @Valid PodcastUpdateDTO updates, UserDetails userDetails) {
@@ -142,6 +189,9 @@ public class PodcastService {
             podcast.getCategories().addAll(updates.getCategories());
         }
         podcastRepository.save(podcast);
+        searchService.indexPodcast(podcast);
+        categoryIndexService.indexPodcast(podcast);
+        feedService.invalidate(podcastId);
         return podcast.toUpdateDTO();
     }
 }
@@ -0,0 +1,138 @@
+package podcast.model.services;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import podcast.model.entities.Podcast;
+import podcast.model.entities.PodcastStats;
+import podcast.model.entities.dto.PodcastDTO;
+import podcast.model.entities.enums.Category;
+import podcast.model.repositories.interfaces.IPodcastStatsRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Mantiene la tabla podcast_stats (episodios, vistas promedio y rating promedio por podcast)
+// con actualizaciones O(1) en cada escritura, y arma los PodcastDTO a partir de ella.
+@Service
+public class PodcastStatsService {
+
+    private final IPodcastStatsRepository statsRepository;
+
+    public PodcastStatsService(IPodcastStatsRepository statsRepository) {
+        this.statsRepository = statsRepository;
+    }
+
+    // ── Escrituras incrementales ─────────────────────────────────────────────────────
+
+    @Transactional
+    public void onPodcastCreated(Long podcastId) {
+        if (!statsRepository.existsById(podcastId)) {
+            statsRepository.save(PodcastStats.empty(podcastId));
+        }
+    }
+
+    @Transactional
+    public void onEpisodeAdded(Long podcastId) {
+        applyDelta(podcastId, 1, 0);
+    }
+
+    // episodeAverageRating es null si el episodio borrado no tenía ratings
+    @Transactional
+    public void onEpisodeDeleted(Long podcastId, long episodeViews, Double episodeAverageRating) {
+        applyDelta(podcastId, -1, -episodeViews);
+        if (episodeAverageRating != null) {
+            statsRepository.addRatingAverage(podcastId, -episodeAverageRating, -1);
+            statsRepository.refreshAverageRating(podcastId);
+        }
+    }
+
+    @Transactional
+    public void onPlays(Long podcastId, long plays) {
+        applyDelta(podcastId, 0, plays);
+    }
+
+    // El promedio del podcast es el promedio de los promedios de sus episodios con ratings:
+    // alcanza con reemplazar el aporte viejo del episodio por el nuevo (oldAverage null = primer rating)
+    @Transactional
+    public void onEpisodeRatingChanged(Long podcastId, Double oldEpisodeAverage, double newEpisodeAverage) {
+        double delta = newEpisodeAverage - (oldEpisodeAverage != null ? oldEpisodeAverage : 0.0);
+        int ratedEpisodes = oldEpisodeAverage == null ? 1 : 0;
+        if (statsRepository.addRatingAverage(podcastId, delta, ratedEpisodes) == 0) {
+            statsRepository.save(PodcastStats.builder()
+                    .podcastId(podcastId)
+                    .ratingAverageSum(newEpisodeAverage)
+                    .ratedEpisodes(1)
+                    .averageRating(newEpisodeAverage)
+                    .build());
+            return;
+        }
+        statsRepository.refreshAverageRating(podcastId);
+    }
+
+    private void applyDelta(Long podcastId, int episodes, long views) {
+        if (statsRepository.addCounts(podcastId, episodes, views) == 0) {
+            // Podcast sin fila todavía: se crea con el delta como valor inicial
+            statsRepository.save(PodcastStats.builder()
+                    .podcastId(podcastId)
+                    .episodeCount(Math.max(episodes, 0))
+                    .totalViews(Math.max(views, 0))
+                    .build());
+        }
+        statsRepository.refreshAverageViews(podcastId);
+    }
+
+    // Completa las filas faltantes de podcasts creados antes de existir el read model
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    @Transactional
+    public void backfillMissing() {
+        for (Object[] row : statsRepository.aggregateMissing()) {
+            int episodes = ((Number) row[1]).intValue();
+            long views = ((Number) row[2]).longValue();
+            double ratingAverageSum = ((Number) row[3]).doubleValue();
+            int ratedEpisodes = ((Number) row[4]).intValue();
+            statsRepository.save(PodcastStats.builder()
+                    .podcastId((Long) row[0])
+                    .episodeCount(episodes)
+                    .totalViews(views)
+                    .averageViews(episodes > 0 ? views / episodes : 0L)
+                    .ratingAverageSum(ratingAverageSum)
+                    .ratedEpisodes(ratedEpisodes)
+                    .averageRating(ratedEpisodes > 0 ? ratingAverageSum / ratedEpisodes : 0.0)
+                    .build());
+        }
+    }
+
+    // Recalcula los agregados de rating de todos los podcasts desde los de cada episodio
+    @Transactional
+    public void rebuildRatingAverages() {
+        statsRepository.rebuildRatingAverages();
+        statsRepository.refreshAllAverageRatings();
+    }
+
+    // ── Lecturas ─────────────────────────────────────────────────────────────────────
+
+    public PodcastDTO toDTO(Podcast podcast) {
+        PodcastStats stats = statsRepository.findById(podcast.getId()).orElse(null);
+        return podcast.toDTO(stats);
+    }
+
+    // Un solo SELECT ... WHERE podcast_id IN (...) para toda la lista
+    public List<PodcastDTO> toDTOs(List<Podcast> podcasts) {
+        return toDTOs(podcasts, Podcast::getCategories);
+    }
+
+    public List<PodcastDTO> toDTOs(List<Podcast> podcasts, Function<Podcast, List<Category>> categories) {
+        Map<Long, PodcastStats> statsById = statsRepository.findAllById(podcasts.stream().map(Podcast::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(PodcastStats::getPodcastId, Function.identity()));
+        return podcasts.stream()
+                .map(p -> p.toDTO(statsById.get(p.getId()), categories.apply(p)))
+                .toList();
+    }
+}
@@ -1,72 +1,103 @@
 package podcast.model.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
-import podcast.model.entities.Episode;
-import podcast.model.entities.Podcast;
+import org.springframework.transaction.annotation.Transactional;
 import podcast.model.entities.Rating;
-import podcast.model.entities.User;
 import podcast.model.exceptions.EpisodeNotFoundException;
-import podcast.model.exceptions.UserNotFoundException;
 import podcast.model.repositories.interfaces.IEpisodeRepository;
-import podcast.model.repositories.interfaces.IPodcastRepository;
 import podcast.model.repositories.interfaces.IRatingRepository;
 import podcast.model.repositories.interfaces.IUserRepository;
 
 import java.util.Optional;
 
+// Los promedios se sirven desde agregados (suma/cantidad por episodio y suma de promedios por podcast)
+// que se actualizan en O(1) en cada rating: nunca se recorren los episodios ni los ratings del podcast.
 @Service
 public class RatingService {
 
+    private static final long MIN_SCORE = 1;
+    private static final long MAX_SCORE = 10;
+
     private final IRatingRepository ratingRepository;
     private final IEpisodeRepository episodeRepository;
     private final IUserRepository userRepository;
-    private final IPodcastRepository podcastRepository;
+    private final PodcastStatsService podcastStatsService;
 
     @Autowired
     public RatingService(IRatingRepository ratingRepository,
                          IEpisodeRepository episodeRepository,
                          IUserRepository userRepository,
-                         IPodcastRepository podcastRepository) {
+                         PodcastStatsService podcastStatsService) {
         this.ratingRepository = ratingRepository;
         this.episodeRepository = episodeRepository;
         this.userRepository = userRepository;
-        this.podcastRepository = podcastRepository;
+        this.podcastStatsService = podcastStatsService;
     }
 
-    public void rateEpisode(Long episodeId, String username, Long score) {
-        User user = userRepository.findByCredentialUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado con username: " + username));
-        Episode episode = episodeRepository.findById(episodeId)
+    // El userId viene del principal autenticado. Cantidad fija de sentencias sin importar el tamaño del podcast:
+    // lock del episodio, búsqueda del rating previo, insert/update del rating y los UPDATE de los agregados.
+    @Transactional
+    public void rateEpisode(Long episodeId, Long userId, Long score) {
+        if (score == null || score < MIN_SCORE || score > MAX_SCORE) {
+            throw new IllegalArgumentException("Puntaje fuera de rango: debe estar entre " + MIN_SCORE + " y " + MAX_SCORE);
+        }
+        IEpisodeRepository.RatingAggregate aggregate = episodeRepository.lockRatingAggregate(episodeId)
                 .orElseThrow(() -> new EpisodeNotFoundException("Episodio no encontrado con id: " + episodeId));
 
-        Optional<Rating> existing = ratingRepository.findByUserAndEpisode(user, episode);
-        Rating rating;
+        Optional<Rating> existing = ratingRepository.findByUser_IdAndEpisode_Id(userId, episodeId.intValue());
+        long sumDelta;
+        long countDelta;
         if (existing.isPresent()) {
-            rating = existing.get();
+            // Re-rating: sólo cambia la suma, con el puntaje anterior como delta
+            Rating rating = existing.get();
+            sumDelta = score - rating.getScore();
+            countDelta = 0;
             rating.setScore(score);
+            ratingRepository.save(rating);
         } else {
-            rating = Rating.builder()
-                    .user(user)
-                    .episode(episode)
+            sumDelta = score;
+            countDelta = 1;
+            ratingRepository.save(Rating.builder()
+                    .user(userRepository.getReferenceById(userId))
+                    .episode(episodeRepository.getReferenceById(episodeId))
                     .score(score)
-                    .build();
+                    .build());
+        }
+        if (sumDelta == 0 && countDelta == 0) {
+            return; // Mismo puntaje que antes: los agregados no cambian
         }
-        ratingRepository.save(rating);
+        episodeRepository.addRating(episodeId, sumDelta, countDelta);
 
-        // Actualiza el promedio del podcast
-        Podcast podcast = episode.getPodcast();
-        podcast.updateAverageRating();
-        podcastRepository.save(podcast);
+        long oldCount = aggregate.getRatingCount();
+        long newCount = oldCount + countDelta;
+        Double oldAverage = oldCount > 0 ? (double) aggregate.getRatingSum() / oldCount : null;
+        double newAverage = (double) (aggregate.getRatingSum() + sumDelta) / newCount;
+        podcastStatsService.onEpisodeRatingChanged(aggregate.getPodcastId(), oldAverage, newAverage);
     }
 
     public Double getAverageRating(Long episodeId) {
-        Episode episode = episodeRepository.findById(episodeId)
+        IEpisodeRepository.RatingAggregate aggregate = episodeRepository.findRatingAggregate(episodeId)
                 .orElseThrow(() -> new EpisodeNotFoundException("Episodio no encontrado con id: " + episodeId));
-        Double ratingFounded = ratingRepository.findAverageScoreByEpisode(episode);
-        if ( ratingFounded == null || ratingFounded.isNaN() || ratingFounded == 0) {
+        if (aggregate.getRatingCount() == 0) {
             throw new EpisodeNotFoundException("No ratings found for episode with id: " + episodeId);
         }
-        return ratingRepository.findAverageScoreByEpisode(episode);
+        return (double) aggregate.getRatingSum() / aggregate.getRatingCount();
+    }
+
+    // Bases previas a los agregados: si no cuadran con la tabla de ratings se recalculan una vez.
+    // Corre después de PodcastStatsService.backfillMissing para que todas las filas de stats existan.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    @Transactional
+    public void reconcileAggregates() {
+        if (ratingRepository.count() == episodeRepository.sumRatingCounts()) {
+            return;
+        }
+        episodeRepository.rebuildRatingAggregates();
+        podcastStatsService.rebuildRatingAverages();
     }
 }
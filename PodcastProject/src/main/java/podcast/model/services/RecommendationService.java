@@ -0,0 +1,187 @@
+package podcast.model.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import podcast.model.entities.dto.RecommendedEpisodeDTO;
+import podcast.model.exceptions.EpisodeNotFoundException;
+import podcast.model.repositories.interfaces.IEpisodeRepository;
+import podcast.model.repositories.interfaces.IEpisodeSimilarityRepository;
+import podcast.model.search.ItemSimilarityBuilder;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Recomendaciones ítem-ítem: un proceso offline (programado o a pedido de un administrador) lee todo
+// el historial de reproducciones y los favoritos, calcula con ItemSimilarityBuilder los vecinos más
+// parecidos de cada episodio y los guarda en episode_similarities. Las consultas solo leen esa tabla:
+// "similares a este episodio" es un rango del índice, y "para vos" suma las similitudes con los
+// últimos episodios que escuchó el usuario en una sola sentencia.
+@Service
+public class RecommendationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationService.class);
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    private static final String HISTORY_SQL = "SELECT user_id, episode_id FROM episode_history";
+    // Un favorito cuenta como interés (más débil) en cada episodio del podcast
+    private static final String FAVORITES_SQL =
+            "SELECT f.user_id, e.id FROM favorites f JOIN episodes e ON e.podcast_id = f.podcast_id";
+    private static final String DELETE_SQL = "DELETE FROM episode_similarities";
+    private static final String INSERT_SQL =
+            "INSERT INTO episode_similarities (episode_id, similar_episode_id, neighbor_rank, score) VALUES (?, ?, ?, ?)";
+
+    public record Rebuild(int users, long interactions, int episodes, long pairs, long millis) {}
+
+    private final IEpisodeSimilarityRepository similarityRepository;
+    private final IEpisodeRepository episodeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int neighbors;
+    private final int maxItemsPerUser;
+    private final float favoriteWeight;
+    private final float shrinkage;
+    private final long blockEntries;
+    private final int parallelism;
+    private final int seedEpisodes;
+    private final int batchSize;
+    private final int fetchSize;
+
+    // Una reconstrucción a la vez (la programada y la del administrador pueden coincidir)
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public RecommendationService(IEpisodeSimilarityRepository similarityRepository, IEpisodeRepository episodeRepository,
+                                 JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 @Value("${podcast.recommendations.neighbors:20}") int neighbors,
+                                 @Value("${podcast.recommendations.max-items-per-user:300}") int maxItemsPerUser,
+                                 @Value("${podcast.recommendations.favorite-weight:0.5}") float favoriteWeight,
+                                 @Value("${podcast.recommendations.shrinkage:5}") float shrinkage,
+                                 @Value("${podcast.recommendations.block-entries:1000000}") long blockEntries,
+                                 @Value("${podcast.recommendations.parallelism:0}") int parallelism,
+                                 @Value("${podcast.recommendations.seed-episodes:50}") int seedEpisodes,
+                                 @Value("${podcast.recommendations.batch-size:1000}") int batchSize,
+                                 @Value("${podcast.recommendations.fetch-size:10000}") int fetchSize) {
+        this.similarityRepository = similarityRepository;
+        this.episodeRepository = episodeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.neighbors = neighbors;
+        this.maxItemsPerUser = maxItemsPerUser;
+        this.favoriteWeight = favoriteWeight;
+        this.shrinkage = shrinkage;
+        this.blockEntries = blockEntries;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.seedEpisodes = seedEpisodes;
+        this.batchSize = batchSize;
+        this.fetchSize = fetchSize;
+    }
+
+    // ── Lecturas ─────────────────────────────────────────────────────────────────────
+
+    public List<RecommendedEpisodeDTO> getSimilar(Long episodeId, int limit) {
+        validateLimit(limit);
+        List<RecommendedEpisodeDTO> similar = similarityRepository.findSimilar(episodeId.intValue(), PageRequest.of(0, limit));
+        // Sin vecinos puede ser un episodio nuevo o uno que no existe: solo en ese caso se pregunta
+        if (similar.isEmpty() && !episodeRepository.existsById(episodeId)) {
+            throw new EpisodeNotFoundException("Episode with ID " + episodeId + " not found");
+        }
+        return similar;
+    }
+
+    // Vacía si el usuario todavía no escuchó nada o si sus episodios no tienen vecinos
+    public List<RecommendedEpisodeDTO> getRecommendations(Long userId, int limit) {
+        validateLimit(limit);
+        List<RecommendedEpisodeDTO> result = new ArrayList<>(limit);
+        for (IEpisodeSimilarityRepository.RecommendationRow row : similarityRepository.findRecommendations(userId, seedEpisodes, limit)) {
+            result.add(RecommendedEpisodeDTO.builder()
+                    .episodeId(row.getEpisodeId())
+                    .title(row.getTitle())
+                    .podcastId(row.getPodcastId())
+                    .podcastTitle(row.getPodcastTitle())
+                    .score(row.getScore())
+                    .build());
+        }
+        return result;
+    }
+
+    private static void validateLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+
+    // ── Reconstrucción ───────────────────────────────────────────────────────────────
+
+    @Scheduled(cron = "${podcast.recommendations.rebuild-cron:0 30 4 * * *}")
+    public Rebuild rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            ItemSimilarityBuilder builder = new ItemSimilarityBuilder(neighbors, maxItemsPerUser, favoriteWeight, shrinkage, blockEntries);
+            stream(HISTORY_SQL, (userId, episodeId) -> builder.addPlay(userId, episodeId));
+            stream(FAVORITES_SQL, (userId, episodeId) -> builder.addFavorite(userId, episodeId));
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            ItemSimilarityBuilder.Result result;
+            try {
+                result = builder.build(pool);
+            } finally {
+                pool.shutdown();
+            }
+            long computed = System.currentTimeMillis();
+
+            // Se reemplaza la tabla entera en una transacción: las lecturas ven los vecinos viejos o los nuevos
+            long[] pairs = {0};
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(DELETE_SQL);
+                List<Object[]> batch = new ArrayList<>(batchSize);
+                result.forEach((episodeId, rank, similarId, score) -> {
+                    batch.add(new Object[]{episodeId, similarId, rank, (double) score});
+                    if (batch.size() == batchSize) {
+                        pairs[0] += batch.size();
+                        jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                        batch.clear();
+                    }
+                });
+                if (!batch.isEmpty()) {
+                    pairs[0] += batch.size();
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                }
+            });
+
+            long end = System.currentTimeMillis();
+            logger.info("Similitudes entre episodios reconstruidas: {} interacciones de {} usuarios, {} episodios, {} pares; cálculo {} ms, escritura {} ms",
+                    result.interactions(), result.users(), result.items(), pairs[0], computed - start, end - computed);
+            return new Rebuild(result.users(), result.interactions(), result.items(), pairs[0], end - start);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @FunctionalInterface
+    private interface PairConsumer {
+        void accept(long userId, long episodeId);
+    }
+
+    // Lectura por cursor: el historial completo no entra en memoria como filas de JDBC. En MySQL el
+    // fetch size solo se respeta con useCursorFetch=true en la URL; sin eso el driver trae todo junto.
+    private void stream(String sql, PairConsumer consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getLong(2)));
+    }
+}
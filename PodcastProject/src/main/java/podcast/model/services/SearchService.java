@@ -0,0 +1,172 @@
+package podcast.model.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import podcast.model.entities.Episode;
+import podcast.model.entities.Podcast;
+import podcast.model.entities.dto.SearchPageDTO;
+import podcast.model.entities.dto.SearchResultDTO;
+import podcast.model.entities.enums.SearchDocumentType;
+import podcast.model.repositories.interfaces.IEpisodeRepository;
+import podcast.model.repositories.interfaces.IPodcastRepository;
+import podcast.model.search.SearchIndex;
+import podcast.model.search.TextAnalyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Búsqueda full-text sobre podcasts activos y sus episodios. El índice vive en memoria:
+// se arma completo al arrancar y después se mantiene con las altas, cambios y bajas de
+// PodcastService y EpisodeService (aplicadas recién cuando la transacción confirma).
+@Service
+public class SearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    // Paginación profunda acotada: el heap de SearchIndex guarda offset + size resultados
+    public static final int MAX_RESULTS = 10_000;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int SNIPPET_LENGTH = 160;
+
+    private final IPodcastRepository podcastRepository;
+    private final IEpisodeRepository episodeRepository;
+    private final SearchIndex index = new SearchIndex(new TextAnalyzer());
+
+    public SearchService(IPodcastRepository podcastRepository, IEpisodeRepository episodeRepository) {
+        this.podcastRepository = podcastRepository;
+        this.episodeRepository = episodeRepository;
+    }
+
+    // ── Búsqueda ─────────────────────────────────────────────────────────────────────
+
+    public SearchPageDTO search(String query, SearchDocumentType type, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("The search query cannot be blank");
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("page must be greater than or equal to 0");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if ((long) page * size + size > MAX_RESULTS) {
+            throw new IllegalArgumentException("only the first " + MAX_RESULTS + " results can be paged");
+        }
+        SearchIndex.Result result = index.search(query, type, page * size, size);
+        List<SearchResultDTO> results = result.hits().stream()
+                .map(hit -> SearchResultDTO.builder()
+                        .type(hit.document().type())
+                        .id(hit.document().id())
+                        .title(hit.document().title())
+                        .snippet(snippet(hit.document().description()))
+                        .score(hit.score())
+                        .build())
+                .toList();
+        return SearchPageDTO.builder()
+                .query(query)
+                .page(page)
+                .size(size)
+                .total(result.total())
+                .results(results)
+                .build();
+    }
+
+    // ── Mantenimiento incremental ────────────────────────────────────────────────────
+
+    public void indexPodcast(Podcast podcast) {
+        if (!Boolean.TRUE.equals(podcast.getIsActive())) {
+            removePodcast(podcast.getId());
+            return;
+        }
+        List<SearchIndex.Document> documents = new ArrayList<>();
+        documents.add(new SearchIndex.Document(SearchDocumentType.PODCAST, podcast.getId(),
+                podcast.getTitle(), podcast.getDescription()));
+        // Si el podcast no estaba en el índice se está creando o reactivando: removePodcast había sacado sus episodios
+        if (!index.contains(SearchDocumentType.PODCAST, podcast.getId())) {
+            episodeRepository.findByPodcast_Id(podcast.getId()).forEach(episode -> documents.add(document(episode)));
+        }
+        AfterCommit.run(() -> documents.forEach(index::index));
+    }
+
+    // Al desactivar un podcast también salen del índice sus episodios
+    public void removePodcast(Long podcastId) {
+        List<Long> episodeIds = episodeRepository.findIdsByPodcastId(podcastId);
+        AfterCommit.run(() -> {
+            index.remove(SearchDocumentType.PODCAST, podcastId);
+            episodeIds.forEach(id -> index.remove(SearchDocumentType.EPISODE, id));
+        });
+    }
+
+    // Los episodios de un podcast desactivado no se indexan, igual que en rebuild
+    public void indexEpisode(Episode episode) {
+        if (!Boolean.TRUE.equals(episode.getPodcast().getIsActive())) {
+            removeEpisode(episode.getId().longValue());
+            return;
+        }
+        SearchIndex.Document document = document(episode);
+        AfterCommit.run(() -> index.index(document));
+    }
+
+    public void removeEpisode(Long episodeId) {
+        AfterCommit.run(() -> index.remove(SearchDocumentType.EPISODE, episodeId));
+    }
+
+    // Arma el índice completo recorriendo las tablas por lotes
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        index.clear();
+        Slice<Podcast> podcasts = podcastRepository.findAll(PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id")));
+        while (true) {
+            for (Podcast podcast : podcasts) {
+                if (Boolean.TRUE.equals(podcast.getIsActive())) {
+                    index.index(new SearchIndex.Document(SearchDocumentType.PODCAST, podcast.getId(),
+                            podcast.getTitle(), podcast.getDescription()));
+                }
+            }
+            if (!podcasts.hasNext()) {
+                break;
+            }
+            podcasts = podcastRepository.findAll(podcasts.nextPageable());
+        }
+        Slice<Episode> episodes = episodeRepository.findAll(PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id")));
+        while (true) {
+            for (Episode episode : episodes) {
+                if (Boolean.TRUE.equals(episode.getPodcast().getIsActive())) {
+                    index.index(document(episode));
+                }
+            }
+            if (!episodes.hasNext()) {
+                break;
+            }
+            episodes = episodeRepository.findAll(episodes.nextPageable());
+        }
+        logger.info("Índice de búsqueda armado: {} documentos en {} ms", index.size(), System.currentTimeMillis() - start);
+    }
+
+    public int indexedDocuments() {
+        return index.size();
+    }
+
+    private static SearchIndex.Document document(Episode episode) {
+        return new SearchIndex.Document(SearchDocumentType.EPISODE, episode.getId(),
+                episode.getTitle(), episode.getDescription());
+    }
+
+    private static String snippet(String description) {
+        if (description == null || description.length() <= SNIPPET_LENGTH) {
+            return description;
+        }
+        return description.substring(0, SNIPPET_LENGTH).stripTrailing() + "…";
+    }
+}
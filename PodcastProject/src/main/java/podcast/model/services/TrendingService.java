@@ -0,0 +1,248 @@
+package podcast.model.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import podcast.model.entities.Episode;
+import podcast.model.entities.dto.TrendingEpisodeDTO;
+import podcast.model.entities.enums.Category;
+import podcast.model.entities.enums.TrendingWindow;
+import podcast.model.search.DecayedTopK;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Ranking de episodios en tendencia: cada reproducción alimenta un DecayedTopK global y uno por
+// categoría del podcast, para cada TrendingWindow. La consulta se resuelve en memoria (sin BD) y
+// el estado se puede reconstruir desde episode_history, al arrancar o a pedido de un administrador.
+@Service
+public class TrendingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingService.class);
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    // Más allá de 8 vidas medias de la ventana más larga una reproducción pesa menos de 1/256
+    private static final int REBUILD_HALF_LIVES = 8;
+
+    private static final String REBUILD_SQL =
+            "SELECT h.episode_id, e.title, e.podcast_id, p.title, h.listened_at " +
+            "FROM episode_history h " +
+            "JOIN episodes e ON e.id = h.episode_id " +
+            "JOIN podcasts p ON p.id = e.podcast_id " +
+            "WHERE h.listened_at >= ? AND h.listened_at < ? ORDER BY h.listened_at";
+
+    // Lo necesario para armar la respuesta sin ir a la BD
+    private record EpisodeRef(String title, Long podcastId, String podcastTitle) {}
+
+    // Rankings que se están armando: el historial aporta las reproducciones anteriores a cutoff y
+    // las reproducciones en vivo desde cutoff se suman también acá, así no se pierden al publicarlos
+    private record Rebuilding(Leaderboards target, long cutoff) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CategoryIndexService categoryIndexService;
+    private final PlayEventIngestionService playEventIngestionService;
+    private final int globalCapacity;
+    private final int categoryCapacity;
+    private final long drainTimeoutMs;
+
+    // Se reemplaza entero al reconstruir: las consultas nunca ven un ranking a medio armar
+    private volatile Leaderboards leaderboards;
+    private volatile Rebuilding rebuilding;
+    private final ConcurrentHashMap<Long, EpisodeRef> episodes = new ConcurrentHashMap<>();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public TrendingService(JdbcTemplate jdbcTemplate, CategoryIndexService categoryIndexService,
+                           PlayEventIngestionService playEventIngestionService,
+                           @Value("${podcast.trending.capacity:500}") int globalCapacity,
+                           @Value("${podcast.trending.category-capacity:100}") int categoryCapacity,
+                           @Value("${podcast.trending.rebuild-drain-timeout-ms:5000}") long drainTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.categoryIndexService = categoryIndexService;
+        this.playEventIngestionService = playEventIngestionService;
+        this.globalCapacity = globalCapacity;
+        this.categoryCapacity = categoryCapacity;
+        this.drainTimeoutMs = drainTimeoutMs;
+        this.leaderboards = new Leaderboards(globalCapacity, categoryCapacity, System.currentTimeMillis());
+    }
+
+    // Un juego completo de rankings: global y por categoría para cada ventana
+    private static final class Leaderboards {
+        final EnumMap<TrendingWindow, DecayedTopK> global = new EnumMap<>(TrendingWindow.class);
+        final EnumMap<TrendingWindow, EnumMap<Category, DecayedTopK>> byCategory = new EnumMap<>(TrendingWindow.class);
+
+        Leaderboards(int globalCapacity, int categoryCapacity, long landmark) {
+            for (TrendingWindow window : TrendingWindow.values()) {
+                long halfLife = window.getHalfLife().toMillis();
+                global.put(window, new DecayedTopK(globalCapacity, halfLife, landmark));
+                EnumMap<Category, DecayedTopK> perCategory = new EnumMap<>(Category.class);
+                for (Category category : Category.values()) {
+                    perCategory.put(category, new DecayedTopK(categoryCapacity, halfLife, landmark));
+                }
+                byCategory.put(window, perCategory);
+            }
+        }
+
+        void add(long episodeId, Collection<Category> categories, long timestampMs) {
+            for (TrendingWindow window : TrendingWindow.values()) {
+                global.get(window).add(episodeId, timestampMs);
+                EnumMap<Category, DecayedTopK> perCategory = byCategory.get(window);
+                for (Category category : categories) {
+                    perCategory.get(category).add(episodeId, timestampMs);
+                }
+            }
+        }
+
+        void remove(long episodeId) {
+            global.values().forEach(topK -> topK.remove(episodeId));
+            byCategory.values().forEach(perCategory -> perCategory.values().forEach(topK -> topK.remove(episodeId)));
+        }
+
+        boolean tracks(long episodeId) {
+            for (TrendingWindow window : TrendingWindow.values()) {
+                if (global.get(window).contains(episodeId)) {
+                    return true;
+                }
+                for (DecayedTopK topK : byCategory.get(window).values()) {
+                    if (topK.contains(episodeId)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    // ── Lecturas ─────────────────────────────────────────────────────────────────────
+
+    public List<TrendingEpisodeDTO> getTrending(TrendingWindow window, Category category, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        Leaderboards current = leaderboards;
+        DecayedTopK topK = category == null ? current.global.get(window) : current.byCategory.get(window).get(category);
+
+        // Se piden todos los candidatos y se descartan los de podcasts desactivados o que cambiaron de categoría
+        List<TrendingEpisodeDTO> result = new ArrayList<>(limit);
+        for (DecayedTopK.Entry entry : topK.top(topK.capacity(), System.currentTimeMillis())) {
+            EpisodeRef ref = episodes.get(entry.id());
+            if (ref == null || !categoryIndexService.matches(ref.podcastId(), category)) {
+                continue;
+            }
+            result.add(TrendingEpisodeDTO.builder()
+                    .episodeId(entry.id())
+                    .title(ref.title())
+                    .podcastId(ref.podcastId())
+                    .podcastTitle(ref.podcastTitle())
+                    .score(entry.score())
+                    .maxError(entry.maxError())
+                    .build());
+            if (result.size() == limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    // ── Escrituras ───────────────────────────────────────────────────────────────────
+
+    public void recordPlay(Episode episode) {
+        Long podcastId = episode.getPodcast().getId();
+        List<Category> categories = categoryIndexService.categoriesOf(podcastId);
+        long now = System.currentTimeMillis();
+        // rebuilding antes que leaderboards: rebuild publica los rankings nuevos antes de soltar rebuilding
+        Rebuilding pending = rebuilding;
+        Leaderboards current = leaderboards;
+        record(episode.getId().longValue(), episode.getTitle(), podcastId, episode.getPodcast().getTitle(),
+                categories, now, current);
+        if (pending != null && pending.target() != current && now >= pending.cutoff()) {
+            pending.target().add(episode.getId().longValue(), categories, now);
+        }
+    }
+
+    public void removeEpisode(Long episodeId) {
+        AfterCommit.run(() -> {
+            leaderboards.remove(episodeId);
+            Rebuilding pending = rebuilding;
+            if (pending != null) {
+                pending.target().remove(episodeId);
+            }
+            episodes.remove(episodeId);
+        });
+    }
+
+    // Repite las reproducciones del historial reciente sobre rankings nuevos y los publica de una vez.
+    // Devuelve cuántas reproducciones se procesaron.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(3)
+    public long rebuild() {
+        rebuildLock.lock();
+        try {
+            return rebuildLeaderboards();
+        } finally {
+            rebuilding = null;
+            rebuildLock.unlock();
+        }
+    }
+
+    private long rebuildLeaderboards() {
+        long start = System.currentTimeMillis();
+        long horizon = start - TrendingWindow.WEEK.getHalfLife().toMillis() * REBUILD_HALF_LIVES;
+        Leaderboards rebuilt = new Leaderboards(globalCapacity, categoryCapacity, horizon);
+        rebuilding = new Rebuilding(rebuilt, start);
+
+        // Las reproducciones anteriores a start que siguen en la cola de ingesta todavía no están en el historial
+        try {
+            if (!playEventIngestionService.awaitDrained(drainTimeoutMs)) {
+                logger.warn("La cola de historial no se vació en {} ms: el ranking puede omitir reproducciones recientes", drainTimeoutMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Map<Long, List<Category>> categoriesByPodcast = new HashMap<>();
+        long[] plays = {0};
+        jdbcTemplate.query(REBUILD_SQL, rs -> {
+            Long podcastId = rs.getLong(3);
+            List<Category> categories = categoriesByPodcast.computeIfAbsent(podcastId, categoryIndexService::categoriesOf);
+            record(rs.getLong(1), rs.getString(2), podcastId, rs.getString(4), categories,
+                    rs.getTimestamp(5).getTime(), rebuilt);
+            plays[0]++;
+        }, new Timestamp(horizon), new Timestamp(start));
+
+        leaderboards = rebuilt;
+        rebuilding = null;
+        episodes.keySet().removeIf(id -> !rebuilt.tracks(id));
+        logger.info("Ranking de tendencias reconstruido: {} reproducciones en {} ms", plays[0], System.currentTimeMillis() - start);
+        return plays[0];
+    }
+
+    private void record(long episodeId, String title, Long podcastId, String podcastTitle,
+                        Collection<Category> categories, long timestampMs, Leaderboards target) {
+        // La referencia se refresca en cada reproducción, así un cambio de título se ve en la siguiente
+        episodes.put(episodeId, new EpisodeRef(title, podcastId, podcastTitle));
+        target.add(episodeId, categories, timestampMs);
+        if (episodes.size() > maxTrackedEpisodes()) {
+            // Limpia las referencias de episodios que ya salieron de todos los rankings, el publicado
+            // y el que se está reconstruyendo
+            episodes.keySet().removeIf(id -> !isTracked(id));
+        }
+    }
+
+    private boolean isTracked(long episodeId) {
+        Rebuilding pending = rebuilding;
+        return leaderboards.tracks(episodeId) || (pending != null && pending.target().tracks(episodeId));
+    }
+
+    private int maxTrackedEpisodes() {
+        return 2 * TrendingWindow.values().length * (globalCapacity + categoryCapacity * Category.values().length);
+    }
+}
@@ -3,6 +3,8 @@
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import podcast.cfg.PrincipalCache;
 import podcast.model.entities.Podcast;
 import podcast.model.entities.User;
 import podcast.model.entities.dto.PodcastDTO;
@@ -26,14 +28,21 @@ public class UserService {
     private final IUserRepository userRepository;
     private final org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
     private final IPodcastRepository podcastRepository;
+    private final PodcastStatsService podcastStatsService;
+    private final PrincipalCache principalCache;
+    private final InboxService inboxService;
 
     // ── Constructor ──────────────────────────────────────────────────────────────────
 
     @Autowired
-    public UserService(IUserRepository userRepository, PasswordEncoder passwordEncoder, IPodcastRepository podcastRepository) {
+    public UserService(IUserRepository userRepository, PasswordEncoder passwordEncoder, IPodcastRepository podcastRepository,
+                       PodcastStatsService podcastStatsService, PrincipalCache principalCache, InboxService inboxService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.podcastRepository = podcastRepository;
+        this.podcastStatsService = podcastStatsService;
+        this.principalCache = principalCache;
+        this.inboxService = inboxService;
     }
 
     // ── Logica De Negocio ────────────────────────────────────────────────────────────
@@ -41,11 +50,13 @@ public class UserService {
 
     // ── Get ──────────────────────────────────────────────────────────────────────────
 
+    @Transactional(readOnly = true)
     public User getAuthenticatedUser(String username) {
         return userRepository.findByCredentialUsername(username)
                 .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado con username: " + username));
     }
 
+    @Transactional(readOnly = true)
     public List<UserDTO> getAllUsersAsDTO() {
         return userRepository.findAll()
                 .stream()
@@ -53,21 +64,24 @@ public class UserService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
     public UserDTO getUserByIdAsDTO(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado con id: " + id));
         return user.toDTO();
     }
 
+    @Transactional(readOnly = true)
     public User getUserWithCredentialsById(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado con id: " + id));
     }
 
+    @Transactional(readOnly = true)
     public List<PodcastDTO> getFavoritesByUsername(String username) {
         User user = userRepository.findByCredentialUsername(username)
                 .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado con username: " + username));
-        return user.getFavorites().stream().map(Podcast::toDTO).toList();
+        return podcastStatsService.toDTOs(user.getFavorites());
     }
 
     // ── Post ─────────────────────────────────────────────────────────────────────────
@@ -92,6 +106,7 @@ public class UserService {
         userRepository.save(user);
     }
 
+    @Transactional(readOnly = true)
     public boolean existsByUsername(String username) {
         return userRepository.existsByCredentialUsername(username);
     }
@@ -126,14 +141,21 @@ public class UserService {
         if (updates.getBio() != null && !updates.getBio().isBlank()) {
             existingUser.setBio(updates.getBio());
         }
+        boolean credentialChanged = false;
         if (updates.getEmail() != null && !updates.getEmail().isBlank()) {
             existingUser.getCredential().setEmail(updates.getEmail());
+            credentialChanged = true;
         }
         if (updates.getPassword() != null && !updates.getPassword().isBlank()) {
             existingUser.getCredential().setPassword(passwordEncoder.encode(updates.getPassword()));
+            credentialChanged = true;
         }
 
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        if (credentialChanged) {
+            principalCache.invalidate(username);
+        }
+        return saved;
     }
 
     // ── Delete ───────────────────────────────────────────────────────────────────────
@@ -147,7 +169,9 @@ public class UserService {
             throw new IllegalArgumentException("No se puede eliminar el usuario porque es dueño de uno o más podcasts.");
         }
 
+        inboxService.removeUser(user.getId());
         userRepository.delete(user);
+        principalCache.invalidate(username);
     }
 
     public void removePodcastFromFavorites(String username, Long podcastId) {
@@ -162,6 +186,7 @@ public class UserService {
 
         user.getFavorites().remove(podcast);
         userRepository.save(user);
+        inboxService.removeFavorite(user.getId(), podcastId);
     }
 
     public void deleteUserById(Long userId) {
@@ -173,6 +198,8 @@ public class UserService {
             throw new IllegalArgumentException("No se puede eliminar el usuario porque es dueño de uno o más podcasts.");
         }
 
+        inboxService.removeUser(user.getId());
         userRepository.delete(user);
+        principalCache.invalidate(user.getUsername());
     }
 }
\ No newline at end of file
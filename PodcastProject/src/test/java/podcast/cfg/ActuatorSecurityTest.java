@@ -0,0 +1,47 @@
+package podcast.cfg;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import podcast.model.entities.enums.Role;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Los tests desactivan el registro de Prometheus salvo con @AutoConfigureObservability
+@SpringBootTest(properties = {
+        "podcast.media.store=local",
+        "podcast.media.local.root=target/actuator-media",
+        "podcast.metrics.scrape-token=token-de-scraping"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class ActuatorSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void healthEsPublicoYLasMetricasSoloConElTokenDeScraping() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer otro-token"))
+                .andExpect(status().isUnauthorized());
+
+        // Ni siquiera un administrador con su JWT de login: vence a la hora
+        AuthenticatedUser admin = new AuthenticatedUser(2L, "admin", EnumSet.of(Role.ROLE_USER, Role.ROLE_ADMIN));
+        int withLogin = mockMvc.perform(get("/actuator/prometheus").with(user(admin))).andReturn().getResponse().getStatus();
+        assertTrue(withLogin == 401 || withLogin == 403, "el JWT de login respondió " + withLogin);
+
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer token-de-scraping"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,69 @@
+package podcast.cfg;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class DatasetGeneratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    @Test
+    void generaUnDatasetConAgregadosConsistentes() {
+        DatasetGenerator generator = new DatasetGenerator(jdbcTemplate, new BCryptPasswordEncoder(4),
+                200, 20, 5, 5_000, 800, 300, 15, 1.0, 97, 7, "Secret123!");
+
+        DatasetGenerator.Summary summary = generator.generate();
+
+        assertEquals(200, count("SELECT COUNT(*) FROM users"));
+        assertEquals(20, count("SELECT COUNT(*) FROM podcasts"));
+        assertEquals(summary.episodes(), count("SELECT COUNT(*) FROM episodes"));
+        assertEquals(5_000, count("SELECT COUNT(*) FROM episode_history"));
+        assertEquals(summary.ratings(), count("SELECT COUNT(*) FROM ratings"));
+        assertEquals(800, summary.ratings());
+        assertEquals(300, count("SELECT COUNT(*) FROM commentaries"));
+        assertEquals(summary.favorites(), count("SELECT COUNT(*) FROM favorites"));
+
+        // Los agregados de los episodios coinciden con las filas
+        assertEquals(5_000, count("SELECT SUM(views) FROM episodes"));
+        assertEquals(800, count("SELECT SUM(rating_count) FROM episodes"));
+        assertEquals(count("SELECT SUM(score) FROM ratings"), count("SELECT SUM(rating_sum) FROM episodes"));
+        assertEquals(300, count("SELECT SUM(comment_count) FROM episodes"));
+
+        // Un rating por par usuario-episodio, y solo sobre episodios que el usuario escuchó
+        assertEquals(0, count("SELECT COUNT(*) FROM (SELECT user_id, episode_id FROM ratings GROUP BY user_id, episode_id HAVING COUNT(*) > 1) d"));
+        assertEquals(0, count("SELECT COUNT(*) FROM ratings r WHERE NOT EXISTS " +
+                "(SELECT 1 FROM episode_history h WHERE h.user_id = r.user_id AND h.episode_id = r.episode_id)"));
+
+        // Sesgo: el episodio más escuchado concentra mucho más que el promedio
+        long top = count("SELECT MAX(views) FROM episodes");
+        assertTrue(top > 10 * (5_000 / summary.episodes()), "top " + top);
+        assertTrue(count("SELECT MAX(c) FROM (SELECT COUNT(*) c FROM favorites GROUP BY user_id) f") <= 15);
+    }
+
+    @Test
+    void elMuestreoZipfConcentraLaMasaEnLosPrimerosRangos() {
+        ZipfSampler sampler = new ZipfSampler(1000, 1.0);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] hits = new int[1000];
+        for (int i = 0; i < 100_000; i++) {
+            hits[sampler.sample(random)]++;
+        }
+        // P(rango 0) = 1 / H(1000) ≈ 0.134
+        assertEquals(0.134, hits[0] / 100_000.0, 0.01);
+        assertTrue(hits[0] > 1.8 * hits[1]);
+        assertTrue(hits[999] < 10);
+    }
+}
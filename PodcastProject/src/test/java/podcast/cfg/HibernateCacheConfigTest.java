@@ -0,0 +1,177 @@
+package podcast.cfg;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import podcast.model.entities.Credential;
+import podcast.model.entities.Podcast;
+import podcast.model.entities.User;
+import podcast.model.entities.enums.Category;
+import podcast.model.entities.enums.Role;
+import podcast.model.repositories.interfaces.IEpisodeRepository;
+import podcast.model.repositories.interfaces.IPodcastRepository;
+import podcast.model.repositories.interfaces.IUserRepository;
+
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin transacción del test: cada operación confirma la suya, como en un request, y recién ahí
+// la caché de segundo nivel queda cargada para la siguiente
+@DataJpaTest(properties = "podcast.l2cache.podcasts.max-entries=500")
+@Import({HibernateCacheConfig.class, MetricsConfig.class, JwtUtil.class, PrincipalCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HibernateCacheConfigTest {
+
+    @Autowired
+    private IPodcastRepository podcastRepository;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private IEpisodeRepository episodeRepository;
+
+    @Autowired
+    private CacheManager hibernateCacheManager;
+
+    @Autowired
+    private MeterBinder secondLevelCacheMetrics;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+
+    private List<String> statementsOf(Supplier<?> action) {
+        StatementCounter.startCapture();
+        try {
+            inTransaction(action);
+        } finally {
+            return StatementCounter.stopCapture();
+        }
+    }
+
+    private User saveUser(String username) {
+        return userRepository.save(User.builder()
+                .name("Nombre")
+                .lastName("Apellido")
+                .nickname(username)
+                .credential(Credential.builder()
+                        .username(username)
+                        .email(username + "@example.com")
+                        .password("Secret123!")
+                        .roles(new HashSet<>(Set.of(Role.ROLE_USER, Role.ROLE_CREATOR)))
+                        .build())
+                .build());
+    }
+
+    private Podcast savePodcast(User owner, String title) {
+        return podcastRepository.save(Podcast.builder()
+                .title(title)
+                .description("Descripción de " + title)
+                .isActive(true)
+                .categories(new ArrayList<>(List.of(Category.TECNOLOGIA, Category.CIENCIA)))
+                .user(owner)
+                .build());
+    }
+
+    // Lo que lee PodcastService.getPodcastById para armar el DTO
+    private int readPodcast(Long id) {
+        Podcast podcast = podcastRepository.findById(id).orElseThrow();
+        return podcast.getCategories().size() + podcast.getUser().getCredential().getRoles().size();
+    }
+
+    @Test
+    void unPodcastLeidoDosVecesSeSirveDesdeLaCacheConCategoriasDuenoYRoles() {
+        Podcast podcast = savePodcast(saveUser("cache_duenio"), "Podcast cacheado");
+
+        assertEquals(4, inTransaction(() -> readPodcast(podcast.getId())));
+
+        assertEquals(List.of(), statementsOf(() -> readPodcast(podcast.getId())));
+    }
+
+    @Test
+    void losUpdatesNativosDeEpisodiosNoVacianLasRegionesDePodcasts() {
+        Podcast podcast = savePodcast(saveUser("cache_nativo"), "Podcast con comentarios");
+        inTransaction(() -> readPodcast(podcast.getId()));
+
+        inTransaction(() -> episodeRepository.addCommentCount(-1L, 1));
+        inTransaction(() -> episodeRepository.addRating(-1L, 5, 1));
+
+        assertEquals(List.of(), statementsOf(() -> readPodcast(podcast.getId())));
+    }
+
+    @Test
+    void laConsultaPorDuenoSeCacheaYSeInvalidaAlCrearOtroPodcast() {
+        User owner = saveUser("cache_consulta");
+        savePodcast(owner, "Primer podcast del dueño");
+        assertEquals(1, inTransaction(() -> podcastRepository.findByUser_Credential_Username("cache_consulta").size()));
+
+        assertEquals(List.of(), statementsOf(() -> podcastRepository.findByUser_Credential_Username("cache_consulta")));
+
+        savePodcast(owner, "Segundo podcast del dueño");
+        assertEquals(2, inTransaction(() -> podcastRepository.findByUser_Credential_Username("cache_consulta").size()));
+    }
+
+    @Test
+    void unaModificacionSeVeEnLaLecturaSiguiente() {
+        Podcast podcast = savePodcast(saveUser("cache_update"), "Título viejo");
+        inTransaction(() -> readPodcast(podcast.getId()));
+
+        inTransaction(() -> {
+            Podcast managed = podcastRepository.findById(podcast.getId()).orElseThrow();
+            managed.setTitle("Título nuevo");
+            managed.getCategories().remove(Category.CIENCIA);
+            return managed;
+        });
+
+        Podcast reloaded = inTransaction(() -> {
+            Podcast found = podcastRepository.findById(podcast.getId()).orElseThrow();
+            found.getCategories().size();
+            return found;
+        });
+        assertEquals("Título nuevo", reloaded.getTitle());
+        assertEquals(List.of(Category.TECNOLOGIA), reloaded.getCategories());
+    }
+
+    @Test
+    void cadaRegionTieneLimiteTtlYMetricas() {
+        CaffeineConfiguration<?, ?> podcasts = hibernateCacheManager.getCache(HibernateCacheConfig.PODCASTS)
+                .getConfiguration(CaffeineConfiguration.class);
+        CaffeineConfiguration<?, ?> users = hibernateCacheManager.getCache(HibernateCacheConfig.USERS)
+                .getConfiguration(CaffeineConfiguration.class);
+        assertEquals(OptionalLong.of(500), podcasts.getMaximumSize());
+        assertEquals(OptionalLong.of(10_000), users.getMaximumSize());
+        assertEquals(OptionalLong.of(TimeUnit.MINUTES.toNanos(10)), users.getExpireAfterWrite());
+
+        Podcast podcast = savePodcast(saveUser("cache_metricas"), "Podcast medido");
+        inTransaction(() -> readPodcast(podcast.getId()));
+        inTransaction(() -> readPodcast(podcast.getId()));
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        secondLevelCacheMetrics.bindTo(registry);
+        for (String region : HibernateCacheConfig.REGIONS) {
+            assertNotNull(registry.find("cache.evictions").tag("cache", region).meter(), region);
+        }
+        assertTrue(registry.get("cache.gets").tags("cache", HibernateCacheConfig.PODCASTS, "result", "hit")
+                .functionCounter().count() >= 1);
+    }
+}
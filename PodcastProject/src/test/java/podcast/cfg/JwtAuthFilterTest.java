@@ -0,0 +1,151 @@
+package podcast.cfg;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import podcast.model.entities.Credential;
+import podcast.model.entities.User;
+import podcast.model.entities.enums.Role;
+import podcast.model.services.UserDetailsServiceImpl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthFilterTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil(100);
+    private final PrincipalCache principalCache = new PrincipalCache(60_000, 100);
+    private final UserDetailsServiceImpl userDetailsService = mock(UserDetailsServiceImpl.class);
+    private final JwtAuthFilter filter = new JwtAuthFilter();
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "jwtService", jwtUtil);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "principalCache", principalCache);
+
+        Credential credential = Credential.builder()
+                .email("felipe@mail.com").username("felipe").password("secreta123")
+                .build();
+        credential.getRoles().add(Role.ROLE_USER);
+        user = new User("Felipe", "Perez", "felipe", credential);
+        user.setId(7L);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticatesFromClaimsWithoutQueryingTheDatabase() throws Exception {
+        String token = jwtUtil.generateToken(user);
+
+        AuthenticatedUser first = authenticate(token);
+        AuthenticatedUser second = authenticate(token);
+
+        assertEquals(7L, first.getId());
+        assertEquals("felipe", first.getUsername());
+        assertTrue(first.getAuthorities().contains(Role.ROLE_USER));
+        assertSame(first, second);
+        assertEquals(1, principalCache.getHits());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void reloadsPrincipalWhenRolesChangedAfterTokenWasIssued() throws Exception {
+        String token = jwtUtil.generateToken(user);
+        authenticate(token);
+
+        // PodcastService.save le otorga ROLE_CREATOR e invalida el principal
+        user.getCredential().getRoles().add(Role.ROLE_CREATOR);
+        principalCache.invalidate("felipe");
+        when(userDetailsService.loadUserByUsername("felipe")).thenReturn(user);
+
+        AuthenticatedUser reloaded = authenticate(token);
+        authenticate(token);
+
+        assertTrue(reloaded.getAuthorities().contains(Role.ROLE_CREATOR));
+        verify(userDetailsService, times(1)).loadUserByUsername("felipe");
+    }
+
+    @Test
+    void reloadsPrincipalWithoutRolesWhenTheyWereAllRevoked() throws Exception {
+        String token = jwtUtil.generateToken(user);
+        authenticate(token);
+
+        user.getCredential().getRoles().clear();
+        principalCache.invalidate("felipe");
+        when(userDetailsService.loadUserByUsername("felipe")).thenReturn(user);
+
+        AuthenticatedUser reloaded = authenticate(token);
+
+        assertEquals(7L, reloaded.getId());
+        assertTrue(reloaded.getAuthorities().isEmpty());
+    }
+
+    @Test
+    void doesNotCacheAPrincipalResolvedBeforeAConcurrentInvalidation() throws Exception {
+        String token = jwtUtil.generateToken(user);
+        principalCache.invalidate("felipe");
+        // Mientras este request lee el usuario, otro le cambia los roles e invalida
+        when(userDetailsService.loadUserByUsername("felipe")).thenAnswer(invocation -> {
+            principalCache.invalidate("felipe");
+            return user;
+        });
+
+        authenticate(token);
+        authenticate(token);
+
+        assertEquals(0, principalCache.size());
+        verify(userDetailsService, times(2)).loadUserByUsername("felipe");
+    }
+
+    @Test
+    void invalidatesAgainWhenTheTransactionCommits() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            principalCache.invalidate("felipe");
+            Thread.sleep(2); // Las entradas del mismo milisegundo que la invalidación se descartan
+            // Un request que leyó la base antes del commit todavía ve los roles viejos
+            principalCache.put(AuthenticatedUser.from(user), principalCache.generation());
+            assertNotNull(principalCache.get("felipe"));
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+
+            assertNull(principalCache.get("felipe"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void invalidTokenLeavesRequestAnonymous() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer no.es.un.jwt");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private AuthenticatedUser authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        return (AuthenticatedUser) authentication.getPrincipal();
+    }
+}
@@ -0,0 +1,71 @@
+package podcast.cfg;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.impl.DefaultClaims;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import podcast.model.entities.enums.Role;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private final UserDetails user = User.withUsername("felipe").password("x").authorities(Role.ROLE_USER).build();
+
+    @Test
+    void verify_cachesTokenAfterFirstParse() {
+        JwtUtil jwtUtil = new JwtUtil(100);
+        String token = jwtUtil.generateToken(user);
+
+        Claims first = jwtUtil.verify(token);
+        Claims second = jwtUtil.verify(token);
+
+        assertEquals("felipe", first.getSubject());
+        assertSame(first, second);
+        assertEquals(1, jwtUtil.getVerifiedTokens().getHits());
+        assertTrue(jwtUtil.isTokenValid(token, user));
+    }
+
+    @Test
+    void verify_rejectsTamperedToken() {
+        JwtUtil jwtUtil = new JwtUtil(100);
+        String token = jwtUtil.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+        assertFalse(jwtUtil.isTokenValid(tampered, user));
+        assertEquals(0, jwtUtil.getVerifiedTokens().size()); // Sólo se cachean tokens válidos
+    }
+
+    @Test
+    void cache_boundsSizeAndDropsExpiredEntries() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        cache.put("a", claimsExpiringIn(60_000));
+        cache.put("b", claimsExpiringIn(60_000));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("b"));
+
+        // Caffeine elige a quién desalojar por frecuencia de uso, no por orden estricto de acceso
+        cache.put("c", claimsExpiringIn(60_000));
+        assertEquals(2, cache.size());
+
+        cache.put("viejo", claimsExpiringIn(-1_000));
+        assertNull(cache.get("viejo"));
+        assertTrue(cache.size() <= 2);
+
+        cache.clear();
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    private static Claims claimsExpiringIn(long millis) {
+        DefaultClaims claims = (DefaultClaims) Jwts.claims();
+        claims.setExpiration(new Date(System.currentTimeMillis() + millis));
+        return claims;
+    }
+}
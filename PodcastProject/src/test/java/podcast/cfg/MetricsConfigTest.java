@@ -0,0 +1,81 @@
+package podcast.cfg;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import podcast.model.repositories.interfaces.IPodcastRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({MetricsConfig.class, JwtUtil.class, PrincipalCache.class})
+class MetricsConfigTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private IPodcastRepository podcastRepository;
+
+    @Autowired
+    private MetricsConfig metricsConfig;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Test
+    void cuentaLasSentenciasDeHibernatePorRequestYEndpoint() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StatementCountFilter filter = new StatementCountFilter(registry);
+        // Dos consultas en el "handler" del request
+        HttpServlet handler = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/podcastUTN/v1/podcasts/{podcastId}");
+                podcastRepository.findAll();
+                em.getEntityManager().createQuery("SELECT COUNT(p) FROM Podcast p").getSingleResult();
+            }
+        };
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/podcastUTN/v1/podcasts/" + i);
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(handler));
+        }
+
+        DistributionSummary statements = registry.get(StatementCountFilter.METRIC)
+                .tags("method", "GET", "uri", "/podcastUTN/v1/podcasts/{podcastId}")
+                .summary();
+        assertEquals(3, statements.count());
+        assertEquals(6, statements.totalAmount());
+    }
+
+    @Test
+    void publicaAciertosYFallosDeLasCaches() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        metricsConfig.cacheMetrics(jwtUtil, principalCache).bindTo(registry);
+
+        principalCache.get("nadie");
+        principalCache.put(new AuthenticatedUser(1L, "ana", java.util.Set.of()), principalCache.generation());
+        principalCache.get("ana");
+        principalCache.get("ana");
+
+        assertEquals(2, registry.get("cache.gets").tags("cache", "principals", "result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tags("cache", "principals", "result", "miss").functionCounter().count());
+        assertEquals(1, registry.get("cache.size").tags("cache", "principals").gauge().value());
+        assertNotNull(registry.find("cache.gets").tags("cache", "verified-tokens", "result", "hit").functionCounter());
+    }
+}
@@ -0,0 +1,45 @@
+package podcast.cfg;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Presupuesto de sentencias SQL por llamada de MockMvc, sobre el StatementCounter que registra
+// MetricsConfig. MockMvc ejecuta el request en el hilo del test, así que lo capturado es exactamente
+// lo que Hibernate preparó para ese request (lo que corre en otros hilos, como los flush en batch,
+// queda afuera):
+//
+//     mockMvc.perform(get("/podcastUTN/v1/podcasts").with(QueryCount.counting()))
+//            .andExpect(QueryCount.atMost(3));
+public final class QueryCount {
+
+    private QueryCount() {
+    }
+
+    // Empieza a capturar justo antes de que el request entre a la cadena de filtros
+    public static RequestPostProcessor counting() {
+        return request -> {
+            StatementCounter.startCapture();
+            return request;
+        };
+    }
+
+    // Falla listando las sentencias si el request preparó más de max
+    public static ResultMatcher atMost(int max) {
+        return result -> {
+            List<String> statements = StatementCounter.stopCapture();
+            if (statements.size() > max) {
+                StringBuilder message = new StringBuilder()
+                        .append(result.getRequest().getMethod()).append(' ').append(result.getRequest().getRequestURI())
+                        .append(": ").append(statements.size()).append(" sentencias SQL, máximo ").append(max);
+                for (int i = 0; i < statements.size(); i++) {
+                    message.append("\n  ").append(i + 1).append(". ").append(statements.get(i));
+                }
+                fail(message.toString());
+            }
+        };
+    }
+}
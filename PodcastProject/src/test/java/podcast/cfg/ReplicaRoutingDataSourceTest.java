@@ -0,0 +1,136 @@
+package podcast.cfg;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Dos bases H2 en memoria hacen de primaria y réplica; cada una tiene una fila distinta
+// para saber de cuál se leyó.
+class ReplicaRoutingDataSourceTest {
+
+    private static final long STICKY_WINDOW_MS = 300;
+
+    // Réplica que se puede "apagar" para simular una caída
+    static class SwitchableDataSource extends DelegatingDataSource {
+        volatile boolean down;
+
+        SwitchableDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("replica down");
+            }
+            return super.getConnection();
+        }
+    }
+
+    private SwitchableDataSource replica;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    private static DataSource h2(String name, String origin) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP TABLE IF EXISTS origin");
+        jdbc.execute("CREATE TABLE origin (name VARCHAR(20))");
+        jdbc.update("INSERT INTO origin VALUES (?)", origin);
+        return dataSource;
+    }
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("routing-primary", "primary");
+        replica = new SwitchableDataSource(h2("routing-replica", "replica"));
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica), STICKY_WINDOW_MS, 0, 1);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private String origin(TransactionTemplate template) {
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM origin", String.class));
+    }
+
+    private static void login(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    @Test
+    void lasLecturasReadOnlyVanALaReplicaYElRestoALaPrimaria() {
+        assertEquals("replica", origin(readOnly));
+        assertEquals("primary", origin(readWrite));
+        assertEquals("primary", jdbcTemplate.queryForObject("SELECT name FROM origin", String.class));
+        assertEquals(1, routing.getReplicaReads());
+    }
+
+    @Test
+    void quienEscribeLeeDeLaPrimariaDuranteLaVentana() throws Exception {
+        login("ana");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE origin SET name = name"));
+        assertEquals("primary", origin(readOnly));
+
+        // Otro usuario no queda afectado por la escritura de ana
+        login("beto");
+        assertEquals("replica", origin(readOnly));
+
+        Thread.sleep(STICKY_WINDOW_MS + 100);
+        login("ana");
+        assertEquals("replica", origin(readOnly));
+        assertEquals(1, routing.getStickyReads());
+    }
+
+    @Test
+    void unaEscrituraConRollbackNoActivaLaVentana() {
+        login("ana");
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE origin SET name = name");
+            status.setRollbackOnly();
+        });
+        assertEquals("replica", origin(readOnly));
+    }
+
+    @Test
+    void unaReplicaCaidaSaleDeLaRotacionHastaQueVuelve() {
+        replica.down = true;
+        routing.checkReplicas();
+        assertEquals(0, routing.healthyReplicas());
+        assertEquals("primary", origin(readOnly));
+        assertEquals(1, routing.getFallbackReads());
+
+        replica.down = false;
+        routing.checkReplicas();
+        assertEquals("replica", origin(readOnly));
+    }
+}
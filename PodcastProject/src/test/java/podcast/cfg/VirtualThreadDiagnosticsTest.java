@@ -0,0 +1,54 @@
+package podcast.cfg;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import podcast.model.entities.dto.ThreadingMetricsDTO;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class VirtualThreadDiagnosticsTest {
+
+    private final VirtualThreadDiagnostics diagnostics =
+            new VirtualThreadDiagnostics(mock(DataSource.class), true, true, 10);
+
+    @AfterEach
+    void tearDown() {
+        diagnostics.stop();
+    }
+
+    private static final Object MONITOR = new Object();
+
+    // Dormir dentro de un synchronized fija el hilo virtual a su portador en Java 21
+    private static void sleepHoldingMonitor() {
+        synchronized (MONITOR) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Test
+    void cuentaLosHilosFijadosPorElFrameQueTieneElMonitor() throws Exception {
+        diagnostics.start();
+
+        ThreadingMetricsDTO metrics = diagnostics.getMetrics();
+        for (int attempt = 0; attempt < 50 && metrics.getPinnedEvents() == 0; attempt++) {
+            Thread.ofVirtual().start(VirtualThreadDiagnosticsTest::sleepHoldingMonitor).join();
+            Thread.sleep(200);
+            metrics = diagnostics.getMetrics();
+        }
+
+        assertTrue(metrics.isVirtualThreads());
+        assertTrue(metrics.getPinnedEvents() > 0);
+        assertTrue(metrics.getPinnedByFrame().keySet().stream()
+                .anyMatch(frame -> frame.startsWith(VirtualThreadDiagnosticsTest.class.getName() + ".sleepHoldingMonitor")),
+                metrics.getPinnedByFrame().toString());
+        // Sin pool Hikari no hay métricas de conexiones
+        assertEquals(-1, metrics.getPoolMaximum());
+    }
+}
@@ -13,6 +13,7 @@ package podcast.controller;
     import podcast.model.entities.User;
     import podcast.model.entities.dto.PodcastDTO;
     import podcast.model.entities.enums.Category;
+    import podcast.model.services.FeedService;
     import podcast.model.services.PodcastService;
     import podcast.model.services.UserService;
 
@@ -35,6 +36,9 @@ package podcast.controller;
         @Mock
         private UserService userService;
 
+        @Mock
+        private FeedService feedService;
+
         @InjectMocks
         private PodcastController podcastController;
 
@@ -70,4 +74,28 @@ package podcast.controller;
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                     .andExpect(jsonPath("$.title").value("Test Podcast"));
         }
+
+        @Test
+        void getFeedDeberiaRetornarElRssConEtag() throws Exception {
+            when(feedService.getFeed(1L)).thenReturn(new FeedService.Feed("<rss/>".getBytes(), "\"v1\""));
+            when(feedService.getMaxAgeSeconds()).thenReturn(300L);
+
+            mockMvc.perform(get("/podcastUTN/v1/podcasts/1/feed.xml"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/rss+xml;charset=UTF-8"))
+                    .andExpect(header().string("ETag", "\"v1\""))
+                    .andExpect(header().string("Cache-Control", "max-age=300, public"))
+                    .andExpect(content().string("<rss/>"));
+        }
+
+        @Test
+        void getFeedDeberiaRetornar304SiElClienteTieneLaMismaVersion() throws Exception {
+            when(feedService.getFeed(1L)).thenReturn(new FeedService.Feed("<rss/>".getBytes(), "\"v1\""));
+            when(feedService.getMaxAgeSeconds()).thenReturn(300L);
+
+            mockMvc.perform(get("/podcastUTN/v1/podcasts/1/feed.xml").header("If-None-Match", "\"v1\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", "\"v1\""))
+                    .andExpect(content().bytes(new byte[0]));
+        }
     }
\ No newline at end of file
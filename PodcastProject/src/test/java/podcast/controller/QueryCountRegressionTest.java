@@ -0,0 +1,272 @@
+package podcast.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import podcast.cfg.AuthenticatedUser;
+import podcast.cfg.QueryCount;
+import podcast.model.entities.Credential;
+import podcast.model.entities.Episode;
+import podcast.model.entities.Podcast;
+import podcast.model.entities.User;
+import podcast.model.entities.enums.Category;
+import podcast.model.entities.enums.Role;
+import podcast.model.services.EpisodeService;
+import podcast.model.services.PodcastService;
+import podcast.model.services.RatingService;
+import podcast.model.services.RecommendationService;
+import podcast.model.services.TrendingService;
+import podcast.model.services.UserService;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Presupuesto de sentencias SQL para cada GET de la API contra un dataset sembrado en H2.
+// El dataset tiene varias filas en cada colección que se serializa (podcasts, episodios, comentarios,
+// favoritos, historial), así que un N+1 supera el presupuesto y rompe el build. Los presupuestos no
+// dependen del tamaño del dataset: si un endpoint necesita más sentencias, hay que revisar el acceso
+// a datos antes de subir el número.
+@SpringBootTest(properties = {
+        "podcast.media.store=local",
+        "podcast.media.local.root=target/query-count-media"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryCountRegressionTest {
+
+    private static final int PODCASTS = 4;
+    private static final int EPISODES_PER_PODCAST = 3;
+    private static final String API = "/podcastUTN/v1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PodcastService podcastService;
+
+    @Autowired
+    private EpisodeService episodeService;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    private AuthenticatedUser owner;
+    private Long podcastId;
+    private Long episodeId;
+
+    record Endpoint(String uri, int maxStatements, Object... uriVariables) {
+
+        // El patrón de la URI sin query string, como lo registra Spring MVC
+        String pattern() {
+            int query = uri.indexOf('?');
+            return query < 0 ? uri : uri.substring(0, query);
+        }
+
+        @Override
+        public String toString() {
+            return "GET " + uri;
+        }
+    }
+
+    @BeforeAll
+    void seed() {
+        // En una transacción, como la tendría el request con open-in-view
+        List<Episode> episodes = new TransactionTemplate(transactionManager).execute(status -> seedCatalog());
+        trendingService.rebuild();
+        recommendationService.rebuild();
+
+        podcastId = episodes.get(0).getPodcast().getId();
+        episodeId = episodes.get(0).getId().longValue();
+    }
+
+    private List<Episode> seedCatalog() {
+        User creator = register("creador");
+        List<User> listeners = List.of(register("oyente1"), register("oyente2"), register("oyente3"));
+
+        List<Episode> episodes = new ArrayList<>();
+        for (int p = 1; p <= PODCASTS; p++) {
+            Podcast podcast = Podcast.builder()
+                    .title("Podcast " + p)
+                    .description("Descripción del podcast " + p)
+                    .isActive(true)
+                    .categories(new ArrayList<>(List.of(Category.TECNOLOGIA, Category.CIENCIA)))
+                    .user(User.builder().id(creator.getId()).build())
+                    .episodes(new ArrayList<>())
+                    .favoritedBy(new ArrayList<>())
+                    .build();
+            podcastService.save(podcast);
+            // Seguidores antes de publicar: cada episodio se reparte a sus inboxes (/users/myFeed)
+            userService.addPodcastToFavorites(creator.getUsername(), podcast.getId());
+            for (User listener : listeners) {
+                userService.addPodcastToFavorites(listener.getUsername(), podcast.getId());
+            }
+            for (int e = 1; e <= EPISODES_PER_PODCAST; e++) {
+                Episode episode = Episode.builder()
+                        .title("Episodio " + p + "-" + e)
+                        .description("Descripción del episodio " + e)
+                        .publicationDate(LocalDateTime.now().minusDays(10 - e))
+                        .season(1)
+                        .chapter(e)
+                        .audioPath("https://cdn.example.com/" + p + "-" + e + ".mp3")
+                        .duration(Duration.ofMinutes(42))
+                        .views(0)
+                        .ratingSum(0L)
+                        .ratingCount(0L)
+                        .commentCount(0L)
+                        .podcast(Podcast.builder().id(podcast.getId()).build())
+                        .build();
+                episodeService.save(episode);
+                episodes.add(episode);
+            }
+        }
+
+        LocalDateTime listenedAt = LocalDateTime.now().minusHours(1);
+        for (Episode episode : episodes) {
+            Long id = episode.getId().longValue();
+            for (User listener : listeners) {
+                // Solo se puede comentar o calificar lo que ya se escuchó
+                insertHistory(listener.getId(), id, listenedAt);
+                episodeService.commentEpisode(id, "Comentario de " + listener.getUsername(), listener.getUsername());
+                ratingService.rateEpisode(id, listener.getId(), 4L);
+            }
+            insertHistory(creator.getId(), id, listenedAt);
+        }
+
+        owner = new AuthenticatedUser(creator.getId(), creator.getUsername(),
+                EnumSet.of(Role.ROLE_USER, Role.ROLE_CREATOR, Role.ROLE_ADMIN));
+        return episodes;
+    }
+
+    private User register(String username) {
+        User user = User.builder()
+                .name("Nombre")
+                .lastName("Apellido")
+                .nickname(username)
+                .credential(Credential.builder()
+                        .username(username)
+                        .email(username + "@example.com")
+                        .password("Secret123!")
+                        .roles(new HashSet<>())
+                        .build())
+                .favorites(new ArrayList<>())
+                .build();
+        userService.save(user);
+        return user;
+    }
+
+    private void insertHistory(Long userId, Long episodeId, LocalDateTime listenedAt) {
+        jdbcTemplate.update("INSERT INTO episode_history (user_id, episode_id, listened_at) VALUES (?, ?, ?)",
+                userId, episodeId, Timestamp.valueOf(listenedAt));
+    }
+
+    Stream<Endpoint> endpoints() {
+        Long userId = owner.getId();
+        return Stream.of(
+                new Endpoint(API + "/episodes", 2),
+                new Endpoint(API + "/episodes?podcastId={podcastId}", 2, podcastId),
+                new Endpoint(API + "/episodes/{episodeId}", 4, episodeId),
+                new Endpoint(API + "/episodes/{episodeId}/play", 1, episodeId),
+                new Endpoint(API + "/episodes/{episodeId}/audio", 1, episodeId),
+                new Endpoint(API + "/episodes/plays/metrics", 0),
+                new Endpoint(API + "/episodes/plays/ingestion", 0),
+                new Endpoint(API + "/episodes/trending", 0),
+                new Endpoint(API + "/episodes/trending?category=TECNOLOGIA", 0),
+                new Endpoint(API + "/episodes/{episodeId}/similar", 1, episodeId),
+                new Endpoint(API + "/episodes/{episodeId}/commentaries", 1, episodeId),
+                new Endpoint(API + "/episodes/{episodeId}/average", 1, episodeId),
+                new Endpoint(API + "/errors/metrics", 0),
+                new Endpoint(API + "/podcasts", 3),
+                new Endpoint(API + "/podcasts?category=TECNOLOGIA", 3),
+                new Endpoint(API + "/podcasts/facets?all=TECNOLOGIA,CIENCIA", 3),
+                new Endpoint(API + "/podcasts/{podcastId}", 5, podcastId),
+                // Primer pedido: renderiza (podcast + episodios); los siguientes salen de memoria
+                new Endpoint(API + "/podcasts/{podcastId}/feed.xml", 2, podcastId),
+                new Endpoint(API + "/podcasts/myPodcasts", 4),
+                new Endpoint(API + "/search?q=episodio", 0),
+                new Endpoint(API + "/threads/metrics", 0),
+                new Endpoint(API + "/users", 2),
+                new Endpoint(API + "/users/{userId}", 1, userId),
+                new Endpoint(API + "/users/credential/{userId}", 2, userId),
+                new Endpoint(API + "/users/myProfile", 3),
+                new Endpoint(API + "/users/myHistory", 3),
+                new Endpoint(API + "/users/myRecommendations", 1),
+                new Endpoint(API + "/users/myFeed", 1),
+                new Endpoint(API + "/users/myFavorites", 5)
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("endpoints")
+    void cadaGetSeMantieneDentroDeSuPresupuestoDeSentencias(Endpoint endpoint) throws Exception {
+        // Con la caché de segundo nivel tibia las cargas lazy de podcasts, usuarios, categorías y roles
+        // no cuestan sentencias y un N+1 sobre ellos pasaría el presupuesto: se mide siempre en frío
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        mockMvc.perform(get(endpoint.uri(), endpoint.uriVariables()).with(user(owner)).with(QueryCount.counting()))
+                .andExpect(result -> assertTrue(result.getResponse().getStatus() < 400,
+                        endpoint + " respondió " + result.getResponse().getStatus()))
+                .andExpect(QueryCount.atMost(endpoint.maxStatements()));
+    }
+
+    // Un GET nuevo sin presupuesto rompe el build: hay que agregarlo a endpoints()
+    @Test
+    void todosLosGetDeLaApiTienenPresupuesto() {
+        Set<String> covered = new TreeSet<>();
+        endpoints().forEach(endpoint -> covered.add(endpoint.pattern()));
+
+        Set<String> mapped = new TreeSet<>();
+        for (RequestMappingInfo info : handlerMapping.getHandlerMethods().keySet()) {
+            if (info.getMethodsCondition().getMethods().contains(RequestMethod.GET)) {
+                info.getPatternValues().stream()
+                        .filter(pattern -> pattern.startsWith(API))
+                        .forEach(mapped::add);
+            }
+        }
+
+        assertEquals(mapped, covered);
+    }
+}
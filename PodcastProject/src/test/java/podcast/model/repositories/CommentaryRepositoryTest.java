@@ -0,0 +1,111 @@
+package podcast.model.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import podcast.model.entities.*;
+import podcast.model.entities.dto.CommentaryDTO;
+import podcast.model.entities.enums.Category;
+import podcast.model.entities.enums.CommentOrder;
+import podcast.model.entities.helpers.CommentCursor;
+import podcast.model.repositories.interfaces.ICommentaryRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class CommentaryRepositoryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private ICommentaryRepository commentaryRepository;
+
+    private User ana;
+    private Episode episode;
+    private final List<Integer> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ana = em.persist(new User("Ana", "Perez", "ana_p", new Credential("ana@test.com", "ana_p", "password123")));
+        Podcast podcast = em.persist(Podcast.builder()
+                .title("Podcast")
+                .description("Descripción")
+                .isActive(true)
+                .categories(new ArrayList<>(List.of(Category.TECNOLOGIA)))
+                .user(ana)
+                .build());
+        episode = em.persist(Episode.builder()
+                .title("Episodio")
+                .description("Episodio de prueba")
+                .season(1)
+                .chapter(1)
+                .audioPath("audio.mp3")
+                .duration(Duration.ofMinutes(10))
+                .podcast(podcast)
+                .build());
+        // Los comentarios 2 y 3 comparten instante: el id desempata
+        int[] minutes = {0, 1, 1, 2, 3};
+        for (int i = 0; i < minutes.length; i++) {
+            Commentary commentary = em.persist(Commentary.builder()
+                    .content("Comentario " + i)
+                    .user(ana)
+                    .episode(episode)
+                    .build());
+            commentary.setCreatedAt(BASE.plusMinutes(minutes[i]));
+            ids.add(commentary.getId());
+        }
+        em.flush();
+        em.clear();
+    }
+
+    private List<Integer> readAll(CommentOrder order, int pageSize) {
+        List<Integer> seen = new ArrayList<>();
+        CommentCursor cursor = null;
+        while (true) {
+            LocalDateTime afterCreatedAt = cursor != null ? cursor.createdAt() : null;
+            Integer afterId = cursor != null ? cursor.id() : null;
+            List<CommentaryDTO> page = order == CommentOrder.NEWEST
+                    ? commentaryRepository.findPageNewestFirst(episode.getId(), afterCreatedAt, afterId, PageRequest.of(0, pageSize))
+                    : commentaryRepository.findPageOldestFirst(episode.getId(), afterCreatedAt, afterId, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                return seen;
+            }
+            page.forEach(comment -> seen.add(comment.getId()));
+            CommentaryDTO last = page.get(page.size() - 1);
+            // Ida y vuelta por el cursor opaco, como lo haría un cliente
+            cursor = CommentCursor.decode(new CommentCursor(order, last.getCreatedAt(), last.getId()).encode(), order);
+        }
+    }
+
+    @Test
+    void paginasPorCursorRecorrenTodosLosComentariosSinRepetirNiSaltear() {
+        assertEquals(List.of(ids.get(4), ids.get(3), ids.get(2), ids.get(1), ids.get(0)), readAll(CommentOrder.NEWEST, 2));
+        assertEquals(ids, readAll(CommentOrder.OLDEST, 2));
+    }
+
+    @Test
+    void laProyeccionTraeElAutorEnLaMismaConsulta() {
+        CommentaryDTO newest = commentaryRepository.findPageNewestFirst(episode.getId(), null, null, PageRequest.of(0, 1)).get(0);
+        assertEquals("ana_p", newest.getUserName());
+        assertEquals("Comentario 4", newest.getContent());
+        assertEquals(BASE.plusMinutes(3), newest.getCreatedAt());
+    }
+
+    @Test
+    void cursorDeOtroOrdenEsInvalido() {
+        String cursor = new CommentCursor(CommentOrder.NEWEST, BASE, 1).encode();
+        assertThrows(IllegalArgumentException.class, () -> CommentCursor.decode(cursor, CommentOrder.OLDEST));
+        assertThrows(IllegalArgumentException.class, () -> CommentCursor.decode("basura", CommentOrder.NEWEST));
+    }
+}
@@ -0,0 +1,99 @@
+package podcast.model.repositories;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import podcast.model.entities.*;
+import podcast.model.entities.enums.Category;
+import podcast.model.repositories.interfaces.IEpisodeRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class EpisodeCommentCountTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private IEpisodeRepository episodeRepository;
+
+    private User ana;
+    private Episode episode;
+
+    @BeforeEach
+    void setUp() {
+        ana = em.persist(new User("Ana", "Perez", "ana_p", new Credential("ana@test.com", "ana_p", "password123")));
+        Podcast podcast = em.persist(Podcast.builder()
+                .title("Podcast")
+                .description("Descripción")
+                .isActive(true)
+                .categories(new ArrayList<>(List.of(Category.TECNOLOGIA)))
+                .user(ana)
+                .build());
+        episode = em.persist(Episode.builder()
+                .title("Episodio")
+                .description("Episodio de prueba")
+                .season(1)
+                .chapter(1)
+                .audioPath("audio.mp3")
+                .duration(Duration.ofMinutes(10))
+                .podcast(podcast)
+                .build());
+    }
+
+    private void comment(String content) {
+        em.persist(Commentary.builder().content(content).user(ana).episode(episode).build());
+    }
+
+    private Episode reload() {
+        em.flush();
+        em.clear();
+        return em.find(Episode.class, episode.getId());
+    }
+
+    @Test
+    void addCommentCountSumaYRestaSobreLaColumna() {
+        Long id = episode.getId().longValue();
+        em.flush();
+        episodeRepository.addCommentCount(id, 1);
+        episodeRepository.addCommentCount(id, 1);
+        episodeRepository.addCommentCount(id, -1);
+
+        assertEquals(1L, reload().getCommentCount());
+    }
+
+    @Test
+    void reconcileCorrigeSoloLosContadoresDesviados() {
+        // Comentarios escritos sin pasar por el servicio: el contador queda en 0
+        comment("Primero");
+        comment("Segundo");
+        em.flush();
+
+        assertEquals(1, episodeRepository.reconcileCommentCounts());
+        assertEquals(2L, reload().getCommentCount());
+        assertEquals(0, episodeRepository.reconcileCommentCounts());
+    }
+
+    @Test
+    void serializarElEpisodioNoInicializaLosComentarios() throws Exception {
+        comment("Primero");
+        em.flush();
+        episodeRepository.reconcileCommentCounts();
+        Episode loaded = reload();
+
+        JsonNode json = new ObjectMapper().findAndRegisterModules().valueToTree(loaded);
+
+        assertEquals(1, json.get("commentaries").asInt());
+        assertFalse(Hibernate.isInitialized(loaded.getCommentaries()));
+    }
+}
@@ -0,0 +1,103 @@
+package podcast.model.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import podcast.model.entities.Credential;
+import podcast.model.entities.Podcast;
+import podcast.model.entities.PodcastStats;
+import podcast.model.entities.User;
+import podcast.model.entities.enums.Category;
+import podcast.model.repositories.interfaces.IPodcastRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class PodcastCatalogRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private IPodcastRepository podcastRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = em.persist(new User("Ana", "Perez", "ana_p",
+                new Credential("ana@test.com", "ana_p", "password123")));
+    }
+
+    private Podcast persistPodcast(String title, Category category, boolean active, Double rating, long averageViews) {
+        Podcast podcast = em.persist(Podcast.builder()
+                .title(title)
+                .description("Descripción de " + title)
+                .isActive(active)
+                .categories(new ArrayList<>(List.of(category)))
+                .user(owner)
+                .build());
+        em.persist(PodcastStats.builder()
+                .podcastId(podcast.getId())
+                .episodeCount(2)
+                .totalViews(averageViews * 2)
+                .averageViews(averageViews)
+                .averageRating(rating != null ? rating : 0.0)
+                .build());
+        em.flush();
+        return podcast;
+    }
+
+    @Test
+    void catalogoPorIdDeberiaPaginarSinRepetirYFiltrarInactivos() {
+        Podcast a = persistPodcast("Alpha", Category.TECNOLOGIA, true, null, 0);
+        persistPodcast("Beta", Category.TECNOLOGIA, false, null, 0);
+        Podcast c = persistPodcast("Gamma", Category.DEPORTES, true, null, 0);
+        Podcast d = persistPodcast("Delta", Category.TECNOLOGIA, true, null, 0);
+
+        List<IPodcastRepository.CatalogRow> first = podcastRepository.findCatalogOrderById(null, null, null, null, PageRequest.of(0, 2));
+        assertEquals(List.of(a.getId(), c.getId()), ids(first));
+
+        List<IPodcastRepository.CatalogRow> second = podcastRepository.findCatalogOrderById(null, null, null, c.getId(), PageRequest.of(0, 2));
+        assertEquals(List.of(d.getId()), ids(second));
+
+        List<IPodcastRepository.CatalogRow> tech = podcastRepository.findCatalogOrderById("ta", owner.getId(), Category.TECNOLOGIA, null, PageRequest.of(0, 10));
+        assertEquals(List.of(d.getId()), ids(tech));
+    }
+
+    @Test
+    void catalogoPorVistasDeberiaOrdenarPorPromedioYContinuarDesdeElCursor() {
+        Podcast low = persistPodcast("Low", Category.ARTE, true, null, 2);
+        Podcast high = persistPodcast("High", Category.ARTE, true, null, 15);
+        Podcast tie = persistPodcast("Tie", Category.ARTE, true, null, 2);
+
+        List<IPodcastRepository.CatalogRow> first = podcastRepository.findCatalogOrderByViews(null, null, null, null, null, PageRequest.of(0, 2));
+        assertEquals(List.of(high.getId(), tie.getId()), ids(first));
+        assertEquals(15L, first.get(0).getStats().getAverageViews());
+
+        IPodcastRepository.CatalogRow last = first.get(1);
+        List<IPodcastRepository.CatalogRow> second = podcastRepository.findCatalogOrderByViews(null, null, null,
+                last.getStats().getAverageViews(), last.getPodcast().getId(), PageRequest.of(0, 2));
+        assertEquals(List.of(low.getId()), ids(second));
+    }
+
+    @Test
+    void catalogoPorRatingDeberiaOrdenarDescendente() {
+        Podcast none = persistPodcast("None", Category.CIENCIA, true, null, 0);
+        Podcast best = persistPodcast("Best", Category.CIENCIA, true, 9.5, 0);
+        Podcast mid = persistPodcast("Mid", Category.CIENCIA, true, 6.0, 0);
+
+        List<IPodcastRepository.CatalogRow> rows = podcastRepository.findCatalogOrderByRating(null, null, Category.CIENCIA, null, null, PageRequest.of(0, 10));
+        assertEquals(List.of(best.getId(), mid.getId(), none.getId()), ids(rows));
+    }
+
+    private static List<Long> ids(List<IPodcastRepository.CatalogRow> rows) {
+        return rows.stream().map(r -> r.getPodcast().getId()).toList();
+    }
+}
@@ -0,0 +1,58 @@
+package podcast.model.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import podcast.model.entities.enums.Category;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static podcast.model.entities.enums.Category.*;
+
+class CategoryBitmapIndexTest {
+
+    private CategoryBitmapIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CategoryBitmapIndex();
+        index.put(1, List.of(TECNOLOGIA, CIENCIA), true);
+        index.put(2, List.of(TECNOLOGIA, NEGOCIOS), true);
+        index.put(3, List.of(CIENCIA, HISTORIA), true);
+        index.put(4, List.of(TECNOLOGIA, CIENCIA), false); // inactivo: nunca aparece
+    }
+
+    private static List<Integer> ids(CategoryBitmapIndex.Selection selection) {
+        return selection.ids().stream().boxed().toList();
+    }
+
+    @Test
+    void select_combinesAndOrNotOverActivePodcasts() {
+        assertEquals(List.of(1), ids(index.select(Set.of(TECNOLOGIA, CIENCIA), Set.of(), Set.of())));
+        assertEquals(List.of(2, 3), ids(index.select(Set.of(), Set.of(NEGOCIOS, HISTORIA), Set.of())));
+        assertEquals(List.of(2), ids(index.select(Set.of(TECNOLOGIA), Set.of(), Set.of(CIENCIA))));
+        assertEquals(List.of(1, 2, 3), ids(index.select(Set.of(), Set.of(), Set.of())));
+    }
+
+    @Test
+    void select_countsFacetsOfTheFilteredSet() {
+        CategoryBitmapIndex.Selection selection = index.select(Set.of(), Set.of(TECNOLOGIA, HISTORIA), Set.of());
+
+        assertEquals(3, selection.total());
+        assertEquals(2, selection.facets().get(TECNOLOGIA));
+        assertEquals(2, selection.facets().get(CIENCIA));
+        assertEquals(1, selection.facets().get(NEGOCIOS));
+        assertEquals(0, selection.facets().get(DEPORTES));
+    }
+
+    @Test
+    void put_replacesCategoriesAndSetActiveHidesPodcast() {
+        index.put(2, List.of(DEPORTES), true);
+        index.setActive(3, false);
+
+        assertEquals(List.of(DEPORTES), index.categoriesOf(2));
+        assertEquals(List.of(1), ids(index.select(Set.of(), Set.of(TECNOLOGIA, HISTORIA), Set.of())));
+        assertEquals(List.of(2), ids(index.select(Set.of(DEPORTES), Set.of(), Set.of())));
+    }
+}
@@ -0,0 +1,89 @@
+package podcast.model.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecayedTopKTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    private static List<Long> ids(List<DecayedTopK.Entry> entries) {
+        return entries.stream().map(DecayedTopK.Entry::id).toList();
+    }
+
+    @Test
+    void top_ranksByPlaysWhenTheyHappenTogether() {
+        DecayedTopK topK = new DecayedTopK(10, HOUR, 0);
+        for (int i = 0; i < 5; i++) topK.add(1, 0);
+        for (int i = 0; i < 3; i++) topK.add(2, 0);
+        topK.add(3, 0);
+
+        List<DecayedTopK.Entry> top = topK.top(2, 0);
+        assertEquals(List.of(1L, 2L), ids(top));
+        assertEquals(5.0, top.get(0).score(), 1e-9);
+        assertEquals(0.0, top.get(0).maxError(), 1e-9);
+    }
+
+    @Test
+    void top_decaysOlderPlaysByHalfLife() {
+        DecayedTopK topK = new DecayedTopK(10, HOUR, 0);
+        for (int i = 0; i < 3; i++) topK.add(1, 0);      // 3 plays hace dos vidas medias: valen 0.75
+        topK.add(2, 2 * HOUR);                            // 1 play ahora
+
+        List<DecayedTopK.Entry> top = topK.top(2, 2 * HOUR);
+        assertEquals(List.of(2L, 1L), ids(top));
+        assertEquals(0.75, top.get(1).score(), 1e-9);
+    }
+
+    @Test
+    void add_rescalesWithoutChangingScores() {
+        DecayedTopK topK = new DecayedTopK(10, 1000, 0);
+        topK.add(1, 0);
+        // Muy lejos del landmark: fuerza el reescalado de los contadores
+        long later = 200_000;
+        topK.add(2, later);
+        topK.add(2, later);
+
+        List<DecayedTopK.Entry> top = topK.top(2, later);
+        assertEquals(List.of(2L, 1L), ids(top));
+        assertEquals(2.0, top.get(0).score(), 1e-9);
+        assertEquals(0.0, top.get(1).score(), 1e-9);
+    }
+
+    @Test
+    void add_keepsHeavyHittersWhenFull() {
+        DecayedTopK topK = new DecayedTopK(20, HOUR, 0);
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            // 3 episodios se llevan la mitad de las reproducciones, el resto es ruido sobre 5000 ids
+            long id = random.nextBoolean() ? 1 + random.nextInt(3) : 100 + random.nextInt(5000);
+            topK.add(id, 0);
+        }
+
+        assertEquals(20, topK.size());
+        List<DecayedTopK.Entry> top = topK.top(3, 0);
+        assertEquals(List.of(1L, 2L, 3L), ids(top).stream().sorted().toList());
+        for (DecayedTopK.Entry entry : top) {
+            assertTrue(entry.score() - entry.maxError() <= 10_000.0 / 3 * 1.2);
+            assertTrue(entry.score() >= 10_000.0 / 3 * 0.8);
+        }
+    }
+
+    @Test
+    void remove_dropsTheEpisodeAndKeepsTheHeapConsistent() {
+        DecayedTopK topK = new DecayedTopK(10, HOUR, 0);
+        for (long id = 1; id <= 6; id++) {
+            for (int i = 0; i < id; i++) topK.add(id, 0);
+        }
+        topK.remove(6);
+        topK.remove(2);
+        topK.add(1, 0);
+
+        assertFalse(topK.contains(6));
+        assertEquals(List.of(5L, 4L, 3L, 1L), ids(topK.top(10, 0)));
+    }
+}
@@ -0,0 +1,135 @@
+package podcast.model.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSimilarityBuilderTest {
+
+    private static final long A = 10, B = 20, C = 30, D = 40, E = 50;
+
+    private record Neighbor(long item, int rank, long neighbor, float score) {}
+
+    private static List<Neighbor> neighbors(ItemSimilarityBuilder.Result result) {
+        List<Neighbor> neighbors = new ArrayList<>();
+        result.forEach((item, rank, neighbor, score) -> neighbors.add(new Neighbor(item, rank, neighbor, score)));
+        return neighbors;
+    }
+
+    private static List<Neighbor> neighborsOf(ItemSimilarityBuilder.Result result, long item) {
+        return neighbors(result).stream().filter(n -> n.item() == item).toList();
+    }
+
+    @Test
+    void losEpisodiosEscuchadosPorLosMismosUsuariosQuedanPrimero() {
+        ItemSimilarityBuilder builder = new ItemSimilarityBuilder(5, 100, 0.5f, 0f, 1_000);
+        for (long user = 1; user <= 4; user++) {
+            builder.addPlay(user, A);
+            builder.addPlay(user, B);
+        }
+        for (long user = 5; user <= 6; user++) {
+            builder.addPlay(user, A);
+            builder.addPlay(user, C);
+        }
+
+        ItemSimilarityBuilder.Result result = builder.build(ForkJoinPool.commonPool());
+
+        List<Neighbor> ofA = neighborsOf(result, A);
+        assertEquals(List.of(B, C), ofA.stream().map(Neighbor::neighbor).toList());
+        // coseno: 4 / (√6 · 2) y 2 / (√6 · √2)
+        assertEquals(4 / (Math.sqrt(6) * 2), ofA.get(0).score(), 1e-6);
+        assertEquals(2 / (Math.sqrt(6) * Math.sqrt(2)), ofA.get(1).score(), 1e-6);
+        assertEquals(List.of(A), neighborsOf(result, C).stream().map(Neighbor::neighbor).toList());
+        assertEquals(6, result.users());
+        assertEquals(4, result.pairs());
+    }
+
+    @Test
+    void unaReproduccionRepetidaCuentaUnaVezYPesaMasQueElFavorito() {
+        ItemSimilarityBuilder builder = new ItemSimilarityBuilder(5, 100, 0.5f, 0f, 1_000);
+        builder.addPlay(1, A);
+        builder.addPlay(1, A);
+        builder.addFavorite(1, A);
+        builder.addPlay(1, B);
+        builder.addFavorite(2, A);
+        builder.addFavorite(2, B);
+        builder.addPlay(3, A);
+
+        ItemSimilarityBuilder.Result result = builder.build(ForkJoinPool.commonPool());
+
+        // A = (1, 0.5, 1), B = (1, 0.5, 0)
+        double expected = 1.25 / (Math.sqrt(2.25) * Math.sqrt(1.25));
+        assertEquals(expected, neighborsOf(result, A).get(0).score(), 1e-6);
+        assertEquals(7, result.interactions());
+    }
+
+    @Test
+    void elTopePorUsuarioConservaPrimeroLasReproducciones() {
+        ItemSimilarityBuilder builder = new ItemSimilarityBuilder(5, 2, 0.5f, 0f, 1_000);
+        builder.addFavorite(1, C);
+        builder.addPlay(1, A);
+        builder.addFavorite(1, D);
+        builder.addPlay(1, B);
+        builder.addFavorite(1, E);
+
+        ItemSimilarityBuilder.Result result = builder.build(ForkJoinPool.commonPool());
+
+        assertArrayEquals(new long[]{A, B}, result.itemIds());
+        assertEquals(List.of(new Neighbor(A, 0, B, 1f), new Neighbor(B, 0, A, 1f)), neighbors(result));
+    }
+
+    @Test
+    void elShrinkageBajaLosParesConPocosOyentesEnComun() {
+        ItemSimilarityBuilder builder = new ItemSimilarityBuilder(5, 100, 0.5f, 5f, 1_000);
+        // A-B: un único oyente en común; A-C: diez, pero C es mucho más popular y sin shrinkage
+        // el coseno A-B (0,30) le ganaría al A-C (0,29)
+        builder.addPlay(0, A);
+        builder.addPlay(0, B);
+        for (long user = 1; user <= 10; user++) {
+            builder.addPlay(user, A);
+            builder.addPlay(user, C);
+        }
+        for (long user = 11; user <= 109; user++) {
+            builder.addPlay(user, C);
+        }
+
+        ItemSimilarityBuilder.Result result = builder.build(ForkJoinPool.commonPool());
+
+        assertEquals(List.of(C, B), neighborsOf(result, A).stream().map(Neighbor::neighbor).toList());
+    }
+
+    @Test
+    void bloquesChicosYVariosHilosDanElMismoResultadoQueUnaPasada() {
+        SplittableRandom random = new SplittableRandom(7);
+        ItemSimilarityBuilder single = new ItemSimilarityBuilder(10, 50, 1f, 2f, Long.MAX_VALUE);
+        ItemSimilarityBuilder blocked = new ItemSimilarityBuilder(10, 50, 1f, 2f, 200);
+        for (int event = 0; event < 20_000; event++) {
+            long user = random.nextInt(500);
+            // Episodios populares más probables, así hay pares repetidos entre usuarios
+            long item = (long) Math.sqrt(random.nextInt(300 * 300));
+            single.addPlay(user, item);
+            blocked.addPlay(user, item);
+        }
+
+        ItemSimilarityBuilder.Result expected = single.build(new ForkJoinPool(1));
+        ItemSimilarityBuilder.Result actual = blocked.build(new ForkJoinPool(4));
+
+        assertArrayEquals(expected.itemIds(), actual.itemIds());
+        assertArrayEquals(expected.neighborIndex(), actual.neighborIndex());
+        assertArrayEquals(expected.scores(), actual.scores());
+        assertTrue(expected.pairs() > 0);
+    }
+
+    @Test
+    void rechazaIdsFueraDeRango() {
+        ItemSimilarityBuilder builder = new ItemSimilarityBuilder(5, 100, 0.5f, 0f, 1_000);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.addPlay(-1, A));
+        assertThrows(IllegalArgumentException.class, () -> builder.addPlay(1, 1L << 31));
+    }
+}
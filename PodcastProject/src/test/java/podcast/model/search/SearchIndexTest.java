@@ -0,0 +1,94 @@
+package podcast.model.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import podcast.model.entities.enums.SearchDocumentType;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchIndexTest {
+
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex(new TextAnalyzer());
+        index.index(podcast(1, "Tecnología al Día", "Noticias de tecnología, ciencia y programación"));
+        index.index(podcast(2, "Fútbol y Pasión", "Análisis de los partidos del fin de semana"));
+        index.index(episode(10, "Entrevista con una programadora", "Hablamos de tecnología y carrera"));
+        index.index(episode(11, "Resumen de la fecha", "Goles, polémicas y el campeón"));
+    }
+
+    private static SearchIndex.Document podcast(long id, String title, String description) {
+        return new SearchIndex.Document(SearchDocumentType.PODCAST, id, title, description);
+    }
+
+    private static SearchIndex.Document episode(long id, String title, String description) {
+        return new SearchIndex.Document(SearchDocumentType.EPISODE, id, title, description);
+    }
+
+    private static List<Long> ids(SearchIndex.Result result) {
+        return result.hits().stream().map(hit -> hit.document().id()).toList();
+    }
+
+    @Test
+    void analyzer_foldsAccentsAndDropsStopwords() {
+        assertEquals(List.of("cancion", "nandu", "pinguino", "2024"),
+                new TextAnalyzer().tokenize("La Canción del ÑANDÚ y el pingüino, 2024"));
+    }
+
+    @Test
+    void search_ignoresAccentsAndRanksTitleMatchesFirst() {
+        SearchIndex.Result result = index.search("tecnologia ", null, 0, 10);
+
+        assertEquals(2, result.total());
+        assertEquals(List.of(1L, 10L), ids(result)); // en el título pesa más que en la descripción
+    }
+
+    @Test
+    void search_expandsLastTermAndStarredTermsByPrefix() {
+        assertEquals(List.of(10L), ids(index.search("entrev", null, 0, 10)));
+        assertEquals(List.of(), ids(index.search("entrev ", null, 0, 10)));
+        assertEquals(List.of(2L), ids(index.search("pasi* ", null, 0, 10)));
+    }
+
+    @Test
+    void search_filtersByTypeAndPaginates() {
+        SearchIndex.Result episodes = index.search("tecnologia", SearchDocumentType.EPISODE, 0, 10);
+        assertEquals(List.of(10L), ids(episodes));
+
+        SearchIndex.Result secondPage = index.search("tecnologia futbol goles", null, 1, 2);
+        assertEquals(4, secondPage.total());
+        assertEquals(2, secondPage.hits().size());
+    }
+
+    @Test
+    void index_replacesAndRemovesDocuments() {
+        index.index(podcast(2, "Básquet y Pasión", "La NBA explicada"));
+        assertEquals(List.of(), ids(index.search("futbol ", null, 0, 10)));
+        assertEquals(List.of(2L), ids(index.search("basquet ", null, 0, 10)));
+
+        assertTrue(index.remove(SearchDocumentType.EPISODE, 10));
+        assertFalse(index.remove(SearchDocumentType.EPISODE, 10));
+        assertEquals(List.of(), ids(index.search("entrevista", null, 0, 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void index_compactsAfterManyUpdatesWithoutLosingDocuments() {
+        for (int i = 0; i < 3000; i++) {
+            index.index(episode(11, "Resumen de la fecha " + i, "Goles, polémicas y el campeón"));
+        }
+        assertEquals(4, index.size());
+        assertEquals(List.of(11L), ids(index.search("2999 ", null, 0, 10)));
+        assertEquals(List.of(), ids(index.search("1500 ", null, 0, 10)));
+    }
+
+    @Test
+    void search_rejectsOffsetsThatWouldOverflow() {
+        assertThrows(IllegalArgumentException.class, () -> index.search("tecnologia", null, Integer.MAX_VALUE - 10, 50));
+        assertThrows(IllegalArgumentException.class, () -> index.search("tecnologia", null, -1, 10));
+    }
+}
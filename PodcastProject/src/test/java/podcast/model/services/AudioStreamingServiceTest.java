@@ -0,0 +1,147 @@
+package podcast.model.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import podcast.model.entities.Episode;
+import podcast.model.repositories.interfaces.IEpisodeRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AudioStreamingServiceTest {
+
+    private static final long EPISODE_ID = 7L;
+    private static final long USER_ID = 3L;
+
+    @TempDir
+    Path root;
+
+    private final IEpisodeRepository episodeRepository = mock(IEpisodeRepository.class);
+    private final EpisodeHistoryService episodeHistoryService = mock(EpisodeHistoryService.class);
+    private final Episode episode = new Episode();
+
+    private AudioStreamingService service;
+    private byte[] audio;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        audio = new byte[100_000];
+        for (int i = 0; i < audio.length; i++) {
+            audio[i] = (byte) i;
+        }
+        Files.createDirectories(root.resolve("audio"));
+        Files.write(root.resolve("audio/7.mp3"), audio);
+        episode.setAudioPath("audio/7.mp3");
+        when(episodeRepository.findById(EPISODE_ID)).thenReturn(Optional.of(episode));
+        service = new AudioStreamingService(episodeRepository, new LocalMediaStore(root.toString()), episodeHistoryService, true);
+    }
+
+    private MockHttpServletResponse get(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.stream(EPISODE_ID, USER_ID, request, response);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String range) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/podcastUTN/v1/episodes/7/audio");
+        if (range != null) {
+            request.addHeader(HttpHeaders.RANGE, range);
+        }
+        return request;
+    }
+
+    @Test
+    void sinRangeDevuelveElArchivoCompletoYRegistraLaReproduccion() throws Exception {
+        MockHttpServletResponse response = get(request(null));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("audio/mpeg", response.getContentType());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertNotNull(response.getHeader(HttpHeaders.ETAG));
+        assertArrayEquals(audio, response.getContentAsByteArray());
+        verify(episodeHistoryService).registerPlay(EPISODE_ID, USER_ID);
+    }
+
+    @Test
+    void losRangosDevuelven206YSoloElPrimeroCuentaComoPlay() throws Exception {
+        MockHttpServletResponse first = get(request("bytes=0-99"));
+        assertEquals(206, first.getStatus());
+        assertEquals("bytes 0-99/100000", first.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(audio, 0, 100), first.getContentAsByteArray());
+
+        MockHttpServletResponse seek = get(request("bytes=50000-"));
+        assertEquals(206, seek.getStatus());
+        assertEquals(50_000, seek.getContentLengthLong());
+        assertArrayEquals(Arrays.copyOfRange(audio, 50_000, 100_000), seek.getContentAsByteArray());
+
+        MockHttpServletResponse suffix = get(request("bytes=-10"));
+        assertEquals("bytes 99990-99999/100000", suffix.getHeader(HttpHeaders.CONTENT_RANGE));
+
+        verify(episodeHistoryService, times(1)).registerPlay(EPISODE_ID, USER_ID);
+    }
+
+    @Test
+    void sinUsuarioSirveElAudioSinRegistrarHistorial() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.stream(EPISODE_ID, null, request(null), response);
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(audio, response.getContentAsByteArray());
+        verifyNoInteractions(episodeHistoryService);
+    }
+
+    @Test
+    void validadoresYRangosInvalidos() throws Exception {
+        String etag = get(request(null)).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest conditional = request(null);
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse notModified = get(conditional);
+        assertEquals(304, notModified.getStatus());
+        assertEquals(0, notModified.getContentAsByteArray().length);
+
+        MockHttpServletResponse unsatisfiable = get(request("bytes=100000-"));
+        assertEquals(416, unsatisfiable.getStatus());
+        assertEquals("bytes */100000", unsatisfiable.getHeader(HttpHeaders.CONTENT_RANGE));
+
+        // Varios rangos o If-Range de otra versión: el archivo va completo
+        assertEquals(200, get(request("bytes=0-1,5-6")).getStatus());
+        MockHttpServletRequest stale = request("bytes=10-20");
+        stale.addHeader(HttpHeaders.IF_RANGE, "\"otra-version\"");
+        assertEquals(200, get(stale).getStatus());
+    }
+
+    @Test
+    void conSendfileDelegaElEnvioEnTomcat() throws Exception {
+        MockHttpServletRequest request = request("bytes=1000-1999");
+        request.setAttribute(AudioStreamingService.SENDFILE_SUPPORT, Boolean.TRUE);
+        MockHttpServletResponse response = get(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(root.resolve("audio/7.mp3").toAbsolutePath().normalize().toString(),
+                request.getAttribute(AudioStreamingService.SENDFILE_FILENAME));
+        assertEquals(1000L, request.getAttribute(AudioStreamingService.SENDFILE_START));
+        assertEquals(2000L, request.getAttribute(AudioStreamingService.SENDFILE_END));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void mediaRemotaRedirigeYRutasFueraDeLaStoreSeRechazan() throws Exception {
+        episode.setAudioPath("https://res.cloudinary.com/demo/video/upload/ep7.mp3");
+        MockHttpServletResponse response = get(request(null));
+        assertEquals(302, response.getStatus());
+        assertEquals("https://res.cloudinary.com/demo/video/upload/ep7.mp3", response.getRedirectedUrl());
+
+        episode.setAudioPath("../../etc/passwd");
+        assertThrows(IllegalArgumentException.class, () -> get(request(null)));
+    }
+}
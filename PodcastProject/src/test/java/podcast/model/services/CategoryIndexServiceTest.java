@@ -0,0 +1,30 @@
+package podcast.model.services;
+
+import org.junit.jupiter.api.Test;
+import podcast.model.entities.enums.CatalogSort;
+import podcast.model.entities.helpers.CatalogCursor;
+import podcast.model.repositories.interfaces.IPodcastRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class CategoryIndexServiceTest {
+
+    private final CategoryIndexService categoryIndexService =
+            new CategoryIndexService(mock(IPodcastRepository.class), mock(PodcastStatsService.class));
+
+    private void assertInvalidCursor(long id) {
+        String cursor = new CatalogCursor(CatalogSort.ID, null, id).encode();
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> categoryIndexService.browse(null, null, null, 10, cursor));
+        assertTrue(ex.getMessage().startsWith("Invalid cursor"));
+    }
+
+    @Test
+    void rechazaCursoresConIdsFueraDelRangoDelIndice() {
+        assertInvalidCursor(-5);
+        assertInvalidCursor(1L << 31);
+        // Antes daba la vuelta a 0 y volvía a la primera página
+        assertInvalidCursor(Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,90 @@
+package podcast.model.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import podcast.model.entities.dto.ErrorLogMetricsDTO;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ErrorLogServiceTest {
+
+    private static final String ENDPOINT = "GET /podcastUTN/v1/episodes/{episodeId}";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Sin start(): el test vacía el buffer con drain() en su propio hilo y transacción
+    private ErrorLogService service(int capacity, int sampleRate) {
+        return new ErrorLogService(jdbcTemplate, capacity, 500, 10, 0.5, sampleRate);
+    }
+
+    // Mismo sitio de creación = mismo frame de origen
+    private static RuntimeException failure(String message) {
+        return new IllegalStateException(message);
+    }
+
+    private List<Map<String, Object>> rows() {
+        return jdbcTemplate.queryForList("SELECT endpoint, exception_type, error_message, occurrences, first_seen, last_seen FROM error_logs ORDER BY id");
+    }
+
+    @Test
+    void erroresRepetidosSeAgrupanEnUnaFilaConContador() {
+        ErrorLogService errors = service(64, 10);
+        errors.audit(ENDPOINT, failure("primero"));
+        errors.audit(ENDPOINT, failure("segundo"));
+        errors.audit("POST /podcastUTN/v1/episodes", failure("otro endpoint"));
+        assertEquals(3, errors.drain());
+
+        errors.audit(ENDPOINT, failure("tercero"));
+        errors.drain();
+
+        List<Map<String, Object>> rows = rows();
+        assertEquals(2, rows.size());
+        assertEquals(ENDPOINT, rows.get(0).get("ENDPOINT"));
+        assertEquals(IllegalStateException.class.getName(), rows.get(0).get("EXCEPTION_TYPE"));
+        assertEquals(3L, ((Number) rows.get(0).get("OCCURRENCES")).longValue());
+        // El mensaje queda con la última ocurrencia y last_seen avanza
+        assertEquals("tercero", rows.get(0).get("ERROR_MESSAGE"));
+        assertFalse(((Timestamp) rows.get(0).get("LAST_SEEN")).before((Timestamp) rows.get(0).get("FIRST_SEEN")));
+        assertEquals(1L, ((Number) rows.get(1).get("OCCURRENCES")).longValue());
+
+        ErrorLogMetricsDTO metrics = errors.getMetrics();
+        assertEquals(4, metrics.getAccepted());
+        assertEquals(4, metrics.getWritten());
+        assertEquals(2, metrics.getBatches());
+    }
+
+    @Test
+    void distintoTipoOFrameEsOtroGrupo() {
+        RuntimeException other = new IllegalArgumentException("x");
+        assertEquals(ErrorLogService.fingerprint(ENDPOINT, failure("a")), ErrorLogService.fingerprint(ENDPOINT, failure("b")));
+        assertNotEquals(ErrorLogService.fingerprint(ENDPOINT, failure("a")), ErrorLogService.fingerprint(ENDPOINT, other));
+        assertNotEquals(ErrorLogService.fingerprint(ENDPOINT, failure("a")), ErrorLogService.fingerprint("GET /otro", failure("a")));
+    }
+
+    @Test
+    void conElBufferSaturadoMuestreaYDescartaSinBloquear() {
+        ErrorLogService errors = service(16, 4);
+        for (int i = 0; i < 1000; i++) {
+            errors.audit(ENDPOINT, failure("ráfaga"));
+        }
+
+        ErrorLogMetricsDTO metrics = errors.getMetrics();
+        assertEquals(1000, metrics.getAccepted() + metrics.getSampled() + metrics.getDropped());
+        assertTrue(metrics.getSampled() > 0);
+        assertTrue(metrics.getDropped() > 0);
+        assertEquals(16, metrics.getBuffered());
+
+        // Los muestreados llevan su peso: una sola fila con más ocurrencias que eventos encolados
+        errors.drain();
+        assertEquals(1, rows().size());
+        assertTrue(((Number) rows().get(0).get("OCCURRENCES")).longValue() > metrics.getAccepted());
+    }
+}
@@ -0,0 +1,220 @@
+package podcast.model.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import podcast.cfg.JwtUtil;
+import podcast.cfg.MetricsConfig;
+import podcast.cfg.PrincipalCache;
+import podcast.cfg.StatementCounter;
+import podcast.model.entities.Credential;
+import podcast.model.entities.Episode;
+import podcast.model.entities.Podcast;
+import podcast.model.entities.User;
+import podcast.model.entities.enums.Category;
+import podcast.model.exceptions.PodcastNotFoundException;
+import podcast.model.repositories.interfaces.IEpisodeRepository;
+import podcast.model.repositories.interfaces.IPodcastRepository;
+import podcast.model.repositories.interfaces.IUserRepository;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+// Sin transacción del test: la invalidación corre al confirmar, como en los servicios
+@DataJpaTest(properties = {
+        "podcast.media.store=local",
+        "podcast.media.local.root=target/feed-media",
+        "podcast.feed.base-url=https://podcasts.example.com/podcastUTN/v1"
+})
+@Import({FeedService.class, LocalMediaStore.class, MetricsConfig.class, JwtUtil.class, PrincipalCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FeedServiceTest {
+
+    private static final String ITUNES_NS = "http://www.itunes.com/dtds/podcast-1.0.dtd";
+
+    @Autowired
+    private FeedService feedService;
+
+    @Autowired
+    private IPodcastRepository podcastRepository;
+
+    @MockitoSpyBean
+    private IEpisodeRepository episodeRepository;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Podcast savePodcast(String owner, String title, boolean active) {
+        User user = userRepository.save(User.builder()
+                .name("Nombre")
+                .lastName("Apellido")
+                .nickname(owner)
+                .credential(Credential.builder()
+                        .username(owner)
+                        .email(owner + "@example.com")
+                        .password("Secret123!")
+                        .roles(new HashSet<>())
+                        .build())
+                .build());
+        return podcastRepository.save(Podcast.builder()
+                .title(title)
+                .description("Charlas sobre software & datos")
+                .ImageUrl("https://cdn.example.com/p.png")
+                .isActive(active)
+                .categories(new ArrayList<>(List.of(Category.TECNOLOGIA, Category.SOCIEDAD, Category.CULTURA)))
+                .user(user)
+                .build());
+    }
+
+    private Episode saveEpisode(Podcast podcast, String title, int chapter) {
+        return saveEpisode(podcast, title, chapter, "https://cdn.example.com/" + title.replace(' ', '-') + ".mp3");
+    }
+
+    private Episode saveEpisode(Podcast podcast, String title, int chapter, String audioPath) {
+        return episodeRepository.save(Episode.builder()
+                .title(title)
+                .description("Descripción de " + title)
+                .season(2)
+                .chapter(chapter)
+                .audioPath(audioPath)
+                .duration(Duration.ofMinutes(42))
+                .podcast(podcast)
+                .build());
+    }
+
+    private static Document parse(byte[] body) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory.newDocumentBuilder().parse(new ByteArrayInputStream(body));
+    }
+
+    private static String text(Element parent, String name) {
+        return parent.getElementsByTagName(name).item(0).getTextContent();
+    }
+
+    private static String itunes(Element parent, String name) {
+        return parent.getElementsByTagNameNS(ITUNES_NS, name).item(0).getTextContent();
+    }
+
+    @Test
+    void renderizaUnRss2ConEtiquetasDeItunes() throws Exception {
+        Podcast podcast = savePodcast("feed_rss", "Podcast <del> feed", true);
+        saveEpisode(podcast, "Feed uno", 1);
+        saveEpisode(podcast, "Feed dos", 2);
+
+        Document feed = parse(feedService.getFeed(podcast.getId()).body());
+
+        Element rss = feed.getDocumentElement();
+        assertEquals("rss", rss.getTagName());
+        assertEquals("2.0", rss.getAttribute("version"));
+        Element channel = (Element) rss.getElementsByTagName("channel").item(0);
+        assertEquals("Podcast <del> feed", text(channel, "title"));
+        assertEquals("Charlas sobre software & datos", text(channel, "description"));
+        NodeList categories = channel.getElementsByTagNameNS(ITUNES_NS, "category");
+        assertEquals(2, categories.getLength());
+        assertEquals("Technology", ((Element) categories.item(0)).getAttribute("text"));
+        assertEquals("Society & Culture", ((Element) categories.item(1)).getAttribute("text"));
+
+        NodeList items = channel.getElementsByTagName("item");
+        assertEquals(2, items.getLength());
+        Element item = (Element) items.item(0);
+        assertEquals("Feed dos", text(item, "title"));
+        assertEquals("2520", itunes(item, "duration"));
+        assertEquals("2", itunes(item, "season"));
+        assertEquals("2", itunes(item, "episode"));
+        Element enclosure = (Element) item.getElementsByTagName("enclosure").item(0);
+        assertEquals("https://cdn.example.com/Feed-dos.mp3", enclosure.getAttribute("url"));
+        assertEquals("audio/mpeg", enclosure.getAttribute("type"));
+        assertFalse(text(item, "pubDate").isBlank());
+    }
+
+    @Test
+    void elAudioEnDiscoSePublicaConLaUrlAbsolutaDelStreaming() throws Exception {
+        Podcast podcast = savePodcast("feed_local", "Podcast en disco", true);
+        Episode episode = saveEpisode(podcast, "Local uno", 1, "audio/local-uno.mp3");
+
+        Document feed = parse(feedService.getFeed(podcast.getId()).body());
+
+        Element enclosure = (Element) feed.getElementsByTagName("enclosure").item(0);
+        assertEquals("https://podcasts.example.com/podcastUTN/v1/episodes/" + episode.getId() + "/audio",
+                enclosure.getAttribute("url"));
+    }
+
+    @Test
+    void lasConsultasSiguientesNoTocanLaBaseHastaQueCambianLosEpisodios() throws Exception {
+        Podcast podcast = savePodcast("feed_cache", "Podcast cacheado", true);
+        saveEpisode(podcast, "Cache uno", 1);
+        FeedService.Feed first = feedService.getFeed(podcast.getId());
+
+        StatementCounter.startCapture();
+        FeedService.Feed second = feedService.getFeed(podcast.getId());
+        assertEquals(List.of(), StatementCounter.stopCapture());
+        assertSame(first, second);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            saveEpisode(podcast, "Cache dos", 2);
+            feedService.invalidate(podcast.getId());
+        });
+
+        FeedService.Feed third = feedService.getFeed(podcast.getId());
+        assertNotEquals(first.etag(), third.etag());
+        assertEquals(2, parse(third.body()).getElementsByTagName("item").getLength());
+    }
+
+    @Test
+    void seRenderizaDesdeLaPrimariaYNoDesdeUnaReplica() {
+        Podcast podcast = savePodcast("feed_primaria", "Podcast primaria", true);
+        AtomicReference<Boolean> readOnly = new AtomicReference<>();
+        doAnswer(invocation -> {
+            readOnly.set(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return List.of();
+        }).when(episodeRepository).findByPodcast_Id(any());
+
+        feedService.getFeed(podcast.getId());
+
+        // ReplicaRoutingDataSource solo manda a las réplicas las transacciones de solo lectura
+        assertEquals(Boolean.FALSE, readOnly.get());
+    }
+
+    @Test
+    void unPodcastInactivoNoTieneFeed() {
+        Podcast podcast = savePodcast("feed_inactivo", "Podcast dado de baja", false);
+        int cached = feedService.size();
+
+        assertThrows(PodcastNotFoundException.class, () -> feedService.getFeed(podcast.getId()));
+        assertEquals(cached, feedService.size());
+    }
+
+    @Test
+    void ifNoneMatchAceptaListasComodinYEtiquetaDebil() {
+        FeedService.Feed feed = new FeedService.Feed(new byte[0], "\"abc\"");
+
+        assertTrue(feed.matches("\"abc\""));
+        assertTrue(feed.matches("\"zzz\", W/\"abc\""));
+        assertTrue(feed.matches("*"));
+        assertFalse(feed.matches("\"zzz\""));
+        assertFalse(feed.matches(null));
+    }
+}
@@ -0,0 +1,222 @@
+package podcast.model.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import podcast.cfg.JwtUtil;
+import podcast.cfg.MetricsConfig;
+import podcast.cfg.PrincipalCache;
+import podcast.cfg.StatementCounter;
+import podcast.model.entities.Credential;
+import podcast.model.entities.Episode;
+import podcast.model.entities.Podcast;
+import podcast.model.entities.User;
+import podcast.model.entities.dto.CursorPageDTO;
+import podcast.model.entities.dto.InboxEpisodeDTO;
+import podcast.model.entities.enums.Category;
+import podcast.model.repositories.interfaces.IEpisodeRepository;
+import podcast.model.repositories.interfaces.IPodcastRepository;
+import podcast.model.repositories.interfaces.IUserRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin transacción del test: el reparto arranca al confirmar, como en EpisodeService.save
+@DataJpaTest(properties = {"podcast.inbox.batch-size=2", "podcast.inbox.max-fanout-followers=3"})
+@Import({InboxService.class, MetricsConfig.class, JwtUtil.class, PrincipalCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InboxServiceTest {
+
+    @Autowired
+    private InboxService inboxService;
+
+    @Autowired
+    private IPodcastRepository podcastRepository;
+
+    @Autowired
+    private IEpisodeRepository episodeRepository;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User saveUser(String username) {
+        return userRepository.save(User.builder()
+                .name("Nombre")
+                .lastName("Apellido")
+                .nickname(username)
+                .credential(Credential.builder()
+                        .username(username)
+                        .email(username + "@example.com")
+                        .password("Secret123!")
+                        .roles(new HashSet<>())
+                        .build())
+                .build());
+    }
+
+    private Podcast savePodcast(User owner, String title, User... followers) {
+        Podcast podcast = podcastRepository.save(Podcast.builder()
+                .title(title)
+                .description("Descripción de " + title)
+                .isActive(true)
+                .categories(new ArrayList<>(List.of(Category.TECNOLOGIA)))
+                .user(owner)
+                .build());
+        for (User follower : followers) {
+            jdbcTemplate.update("INSERT INTO favorites (user_id, podcast_id) VALUES (?, ?)", follower.getId(), podcast.getId());
+        }
+        return podcast;
+    }
+
+    // Lo que hace EpisodeService.save: decidir el reparto y persistir en la misma transacción
+    private Episode publish(Podcast podcast, String title) {
+        Episode episode = Episode.builder()
+                .title(title)
+                .description("Descripción de " + title)
+                .season(1)
+                .chapter(1)
+                .audioPath("https://cdn.example.com/" + title.replace(' ', '-') + ".mp3")
+                .duration(Duration.ofMinutes(30))
+                .podcast(podcast)
+                .build();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            inboxService.publish(episode);
+            episodeRepository.save(episode);
+        });
+        return episode;
+    }
+
+    private Episode saveEpisode(Podcast podcast, String title, Long fanoutCursor) {
+        return episodeRepository.save(Episode.builder()
+                .title(title)
+                .description("Descripción de " + title)
+                .season(1)
+                .chapter(1)
+                .audioPath("https://cdn.example.com/" + title.replace(' ', '-') + ".mp3")
+                .duration(Duration.ofMinutes(30))
+                .podcast(podcast)
+                .fanoutCursor(fanoutCursor)
+                .build());
+    }
+
+    private Long fanoutCursor(Episode episode) {
+        return jdbcTemplate.queryForObject("SELECT fanout_cursor FROM episodes WHERE id = ?", Long.class, episode.getId());
+    }
+
+    private int inboxSize(User user) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_inbox WHERE user_id = ?", Integer.class, user.getId());
+    }
+
+    // El reparto corre en otro hilo después del commit
+    private void awaitInbox(User user, int expected) throws InterruptedException {
+        for (int i = 0; i < 100 && inboxSize(user) < expected; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(expected, inboxSize(user));
+    }
+
+    private static List<String> titles(CursorPageDTO<InboxEpisodeDTO> page) {
+        return page.getItems().stream().map(InboxEpisodeDTO::getTitle).toList();
+    }
+
+    @Test
+    void seRepartePorLotesAlPublicarYSeBorraAlDejarDeSeguir() throws InterruptedException {
+        User owner = saveUser("inbox_duenio");
+        User first = saveUser("inbox_seguidor1");
+        User second = saveUser("inbox_seguidor2");
+        User third = saveUser("inbox_seguidor3");
+        User stranger = saveUser("inbox_ajeno");
+        Podcast podcast = savePodcast(owner, "Podcast repartido", first, second, third);
+
+        Episode episode = publish(podcast, "Inbox repartido");
+
+        assertFalse(episode.getFanoutSkipped());
+        awaitInbox(first, 1);
+        awaitInbox(third, 1);
+        assertNull(fanoutCursor(episode));
+        assertEquals(List.of("Inbox repartido"), titles(inboxService.getFeed(second.getId(), 10, null)));
+        assertEquals(List.of(), inboxService.getFeed(stranger.getId(), 10, null).getItems());
+
+        inboxService.removeFavorite(second.getId(), podcast.getId());
+        assertEquals(0, inboxSize(second));
+        assertEquals(1, inboxSize(first));
+    }
+
+    @Test
+    void losPodcastsConMuchosSeguidoresSeLeenDelPodcastYSeMezclanConElInbox() throws InterruptedException {
+        User owner = saveUser("hibrido_duenio");
+        List<User> crowd = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            crowd.add(saveUser("hibrido_seguidor" + i));
+        }
+        User reader = crowd.get(0);
+        Podcast huge = savePodcast(owner, "Podcast masivo", crowd.toArray(User[]::new));
+        Podcast small = savePodcast(owner, "Podcast chico", reader);
+
+        publish(small, "Hibrido uno");
+        Episode pulled = publish(huge, "Hibrido dos");
+        publish(small, "Hibrido tres");
+        publish(huge, "Hibrido cuatro");
+        awaitInbox(reader, 2);
+
+        assertTrue(pulled.getFanoutSkipped());
+        StatementCounter.startCapture();
+        CursorPageDTO<InboxEpisodeDTO> firstPage = inboxService.getFeed(reader.getId(), 3, null);
+        assertEquals(1, StatementCounter.stopCapture().size());
+        assertEquals(List.of("Hibrido cuatro", "Hibrido tres", "Hibrido dos"), titles(firstPage));
+        assertNotNull(firstPage.getNextCursor());
+
+        CursorPageDTO<InboxEpisodeDTO> secondPage = inboxService.getFeed(reader.getId(), 3, firstPage.getNextCursor());
+        assertEquals(List.of("Hibrido uno"), titles(secondPage));
+        assertNull(secondPage.getNextCursor());
+
+        assertEquals(List.of("Hibrido cuatro", "Hibrido dos"), titles(inboxService.getFeed(crowd.get(1).getId(), 10, null)));
+    }
+
+    @Test
+    void unRepartoCortadoSeRetomaDesdeElCursorSinDuplicar() {
+        User owner = saveUser("retomar_duenio");
+        User first = saveUser("retomar_seguidor1");
+        User second = saveUser("retomar_seguidor2");
+        User third = saveUser("retomar_seguidor3");
+        Podcast podcast = savePodcast(owner, "Podcast retomado", first, second, third);
+
+        // Se cortó después del lote que llegó hasta first
+        Episode resumed = saveEpisode(podcast, "Retomado", first.getId());
+        // Se cortó antes de confirmar el avance de un lote que second ya tenía (otro nodo lo repitió)
+        Episode retried = saveEpisode(podcast, "Reintentado", 0L);
+        jdbcTemplate.update("INSERT INTO user_inbox (user_id, episode_id, podcast_id, published_at) VALUES (?, ?, ?, ?)",
+                second.getId(), retried.getId(), podcast.getId(), retried.getPublicationDate());
+
+        inboxService.resumePending();
+
+        assertEquals(List.of("Reintentado"), titles(inboxService.getFeed(first.getId(), 10, null)));
+        assertEquals(2, inboxSize(second));
+        assertEquals(2, inboxSize(third));
+        assertNull(fanoutCursor(resumed));
+        assertNull(fanoutCursor(retried));
+        assertEquals(0, inboxService.resume(retried.getId()));
+    }
+
+    @Test
+    void rechazaLimitesYCursoresInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> inboxService.getFeed(1L, 0, null));
+        assertThrows(IllegalArgumentException.class, () -> inboxService.getFeed(1L, 101, null));
+        assertThrows(IllegalArgumentException.class, () -> inboxService.getFeed(1L, 10, "no-es-un-cursor"));
+    }
+}
@@ -0,0 +1,142 @@
+package podcast.model.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import podcast.model.entities.MediaDeletion;
+import podcast.model.entities.enums.MediaDeletionStatus;
+import podcast.model.repositories.interfaces.IMediaDeletionRepository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class MediaDeletionServiceTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private IMediaDeletionRepository mediaDeletionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private InMemoryMediaStore store;
+    private MediaDeletionService service;
+
+    // MediaStore en memoria: cada URL puede fallar una cantidad de veces antes de borrarse
+    static class InMemoryMediaStore implements MediaStore {
+        final Set<String> deleted = ConcurrentHashMap.newKeySet();
+        final Map<String, AtomicInteger> failuresLeft = new ConcurrentHashMap<>();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+
+        @Override
+        public void delete(String url) throws Exception {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(20);
+                AtomicInteger failures = failuresLeft.get(url);
+                if (failures != null && failures.getAndDecrement() > 0) {
+                    throw new IllegalStateException("remoto no disponible");
+                }
+                deleted.add(url);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryMediaStore();
+        // concurrencia 2, lotes de 3, hasta 3 intentos, backoff de 1 minuto
+        service = new MediaDeletionService(mediaDeletionRepository, store, transactionManager, 2, 3, 3, 60_000, 600_000, 5_000, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private MediaDeletion reload(Long id) {
+        em.flush();
+        em.clear();
+        return em.find(MediaDeletion.class, id);
+    }
+
+    @Test
+    void despachaTodoLoPendienteConConcurrenciaAcotadaYBorraLasFilas() {
+        service.enqueue("a.mp3", "b.png", null, " ", "c.mp3", "d.mp3", "e.mp3");
+        assertEquals(5, mediaDeletionRepository.count());
+
+        assertEquals(5, service.dispatch());
+
+        assertEquals(Set.of("a.mp3", "b.png", "c.mp3", "d.mp3", "e.mp3"), store.deleted);
+        assertEquals(0, mediaDeletionRepository.count());
+        assertTrue(store.maxInFlight.get() <= 2);
+    }
+
+    @Test
+    void unFalloSeReprogramaConBackoffYLuegoSeReintenta() {
+        store.failuresLeft.put("a.mp3", new AtomicInteger(1));
+        service.enqueue("a.mp3");
+        Long id = mediaDeletionRepository.findAll().get(0).getId();
+
+        service.dispatch();
+        MediaDeletion retry = reload(id);
+        assertEquals(1, retry.getAttempts());
+        assertEquals(MediaDeletionStatus.PENDING, retry.getStatus());
+        assertTrue(retry.getLastError().contains("remoto no disponible"));
+        // Backoff de 30 a 60 segundos: todavía no vence
+        assertTrue(retry.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(29)));
+        assertEquals(0, service.dispatch());
+
+        retry.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        em.merge(retry);
+        em.flush();
+        assertEquals(1, service.dispatch());
+        assertTrue(store.deleted.contains("a.mp3"));
+        assertNull(reload(id));
+    }
+
+    @Test
+    void agotadosLosIntentosQuedaEnFailed() {
+        store.failuresLeft.put("a.mp3", new AtomicInteger(Integer.MAX_VALUE));
+        service.enqueue("a.mp3");
+        Long id = mediaDeletionRepository.findAll().get(0).getId();
+
+        for (int i = 0; i < 3; i++) {
+            MediaDeletion pending = reload(id);
+            pending.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+            em.merge(pending);
+            em.flush();
+            service.dispatch();
+        }
+
+        MediaDeletion failed = reload(id);
+        assertEquals(MediaDeletionStatus.FAILED, failed.getStatus());
+        assertEquals(3, failed.getAttempts());
+        assertEquals(0, service.dispatch());
+    }
+
+    @Test
+    void elBackoffCreceExponencialmenteHastaElTope() {
+        for (int attempts = 1; attempts <= 12; attempts++) {
+            long expected = Math.min(60_000L << (attempts - 1), 600_000);
+            long backoff = service.backoffMs(attempts);
+            assertTrue(backoff >= expected / 2 && backoff <= expected, "intento " + attempts + ": " + backoff);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package podcast.model.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import podcast.model.entities.*;
+import podcast.model.entities.enums.Category;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({PlayCounterService.class, PodcastStatsService.class})
+class PlayCounterServiceTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private PlayCounterService playCounterService;
+
+    @Autowired
+    private PodcastStatsService podcastStatsService;
+
+    private Episode episode;
+
+    @BeforeEach
+    void setUp() {
+        User owner = em.persist(new User("Ana", "Perez", "ana_p",
+                new Credential("ana@test.com", "ana_p", "password123")));
+        Podcast podcast = em.persist(Podcast.builder()
+                .title("Podcast")
+                .description("Descripción")
+                .isActive(true)
+                .categories(new ArrayList<>(List.of(Category.TECNOLOGIA)))
+                .user(owner)
+                .build());
+        podcastStatsService.onPodcastCreated(podcast.getId());
+        podcastStatsService.onEpisodeAdded(podcast.getId());
+        episode = em.persist(Episode.builder()
+                .title("Episodio 1")
+                .description("Episodio de prueba")
+                .season(1)
+                .chapter(1)
+                .audioPath("audio.mp3")
+                .duration(Duration.ofMinutes(10))
+                .podcast(podcast)
+                .build());
+        em.flush();
+    }
+
+    @Test
+    void noDeberiaPerderIncrementosConcurrentesAlVolcar() throws Exception {
+        Long episodeId = episode.getId().longValue();
+        Long podcastId = episode.getPodcast().getId();
+        int threads = 8;
+        int playsPerThread = 5_000;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < playsPerThread; i++) {
+                    playCounterService.recordPlay(episodeId, podcastId);
+                }
+            });
+        }
+        pool.shutdown();
+        // Volcados intercalados con los incrementos
+        while (!pool.awaitTermination(1, TimeUnit.MILLISECONDS)) {
+            playCounterService.flush();
+        }
+        playCounterService.flush();
+
+        em.clear();
+        long expected = (long) threads * playsPerThread;
+        assertEquals(expected, em.find(Episode.class, episode.getId()).getViews().longValue());
+        assertEquals(expected, em.find(PodcastStats.class, podcastId).getTotalViews());
+        assertEquals(0, playCounterService.pendingPlays(episodeId));
+        assertEquals(expected, playCounterService.getMetrics().getTotalFlushedPlays());
+    }
+
+    @Test
+    void noDeberiaSumarAlPodcastLasReproduccionesDeUnEpisodioBorrado() {
+        Long podcastId = episode.getPodcast().getId();
+        long viewsBefore = em.find(PodcastStats.class, podcastId).getTotalViews();
+        // Contador recreado por un /play que leyó el episodio antes de que se confirmara su borrado
+        Long deletedEpisodeId = episode.getId().longValue() + 1_000;
+        playCounterService.recordPlay(deletedEpisodeId, podcastId);
+
+        playCounterService.flush();
+
+        em.clear();
+        assertEquals(viewsBefore, em.find(PodcastStats.class, podcastId).getTotalViews());
+        assertEquals(0, playCounterService.pendingPlays(deletedEpisodeId));
+    }
+
+    @Test
+    void deberiaDescartarRecienAlConfirmarElBorrado() {
+        // Un id sin fila: los volcados de limpieza del final no tocan nada
+        Long episodeId = episode.getId().longValue() + 2_000;
+        playCounterService.recordPlay(episodeId, episode.getPodcast().getId());
+
+        // Dentro de la transacción del test, que termina en rollback
+        playCounterService.discard(episodeId);
+
+        assertEquals(1, playCounterService.pendingPlays(episodeId));
+        // El contador se vuelca sin efecto, se retira y se olvida: no queda para los otros tests
+        for (int i = 0; i < 3; i++) {
+            playCounterService.flush();
+        }
+        assertEquals(0, playCounterService.getMetrics().getTrackedEpisodes());
+    }
+
+    @Test
+    void deberiaOlvidarLosEpisodiosSinReproduccionesPendientes() {
+        Long episodeId = episode.getId().longValue();
+        Long podcastId = episode.getPodcast().getId();
+        long flushedBefore = playCounterService.getMetrics().getTotalFlushedPlays();
+
+        playCounterService.recordPlay(episodeId, podcastId);
+        playCounterService.flush();
+        assertEquals(1, playCounterService.getMetrics().getTrackedEpisodes());
+
+        // Primer volcado sin deltas: se retira; el siguiente lo olvida
+        playCounterService.flush();
+        assertEquals(0, playCounterService.getMetrics().getTrackedEpisodes());
+        playCounterService.flush();
+
+        playCounterService.recordPlay(episodeId, podcastId);
+        playCounterService.recordPlay(episodeId, podcastId);
+        assertEquals(2, playCounterService.pendingPlays(episodeId));
+        playCounterService.flush();
+
+        em.clear();
+        assertEquals(3, em.find(Episode.class, episode.getId()).getViews().longValue());
+        assertEquals(0, playCounterService.pendingPlays(episodeId));
+        assertEquals(flushedBefore + 3, playCounterService.getMetrics().getTotalFlushedPlays());
+    }
+}
@@ -0,0 +1,111 @@
+package podcast.model.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class PlayEventIngestionServiceTest {
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    // JdbcTemplate falso que solo registra el tamaño de cada batch recibido
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+        final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            batchSizes.add(batchArgs.size());
+            return new int[batchArgs.size()];
+        }
+    }
+
+    // Rechaza el batch entero si trae un episodio borrado, como la FK de episode_history
+    private static class OrphanRejectingJdbcTemplate extends JdbcTemplate {
+        final List<Long> inserted = Collections.synchronizedList(new ArrayList<>());
+        final long deletedEpisodeId;
+
+        OrphanRejectingJdbcTemplate(long deletedEpisodeId) {
+            this.deletedEpisodeId = deletedEpisodeId;
+        }
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            if (batchArgs.stream().anyMatch(args -> args[2].equals(deletedEpisodeId))) {
+                throw new DataIntegrityViolationException("FK_EPISODE_HISTORY_EPISODE");
+            }
+            batchArgs.forEach(args -> inserted.add((Long) args[2]));
+            return new int[batchArgs.size()];
+        }
+    }
+
+    @Test
+    void deberiaAgruparEventosEnBatchesYVaciarLaColaAlDetenerse() throws Exception {
+        RecordingJdbcTemplate jdbc = new RecordingJdbcTemplate();
+        PlayEventIngestionService service = new PlayEventIngestionService(jdbc, transactionManager, 10_000, 100, 10_000, 50);
+        service.start();
+
+        for (int i = 0; i < 250; i++) {
+            service.submit(1L, (long) i);
+        }
+        service.stop();
+
+        assertEquals(250, service.getMetrics().getWritten());
+        assertEquals(250, jdbc.batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(jdbc.batchSizes.stream().allMatch(size -> size <= 100));
+        assertEquals(0, service.getMetrics().getQueued());
+    }
+
+    @Test
+    void deberiaDescartarSoloElEventoHuerfanoDeUnBatchRechazado() throws Exception {
+        OrphanRejectingJdbcTemplate jdbc = new OrphanRejectingJdbcTemplate(37L);
+        // Linger largo: los 100 eventos van en un solo batch
+        PlayEventIngestionService service = new PlayEventIngestionService(jdbc, transactionManager, 10_000, 100, 10_000, 50);
+        service.start();
+
+        for (int i = 0; i < 100; i++) {
+            service.submit(1L, (long) i);
+        }
+        service.stop();
+
+        assertEquals(99, service.getMetrics().getWritten());
+        assertEquals(1, service.getMetrics().getFailed());
+        assertEquals(99, jdbc.inserted.size());
+        assertFalse(jdbc.inserted.contains(37L));
+    }
+
+    @Test
+    void deberiaEscribirDirectoCuandoLaColaNoAceptaEventos() throws Exception {
+        RecordingJdbcTemplate jdbc = new RecordingJdbcTemplate();
+        PlayEventIngestionService service = new PlayEventIngestionService(jdbc, transactionManager, 1, 100, 10_000, 1);
+        service.start();
+        service.stop();
+
+        // Con el escritor detenido el evento se escribe en el hilo que lo envía
+        service.submit(1L, 1L);
+        assertEquals(1, service.getMetrics().getDirectWrites());
+        assertEquals(1, service.getMetrics().getWritten());
+    }
+
+    @Test
+    void deberiaEsperarAQueLoEncoladoLlegueALaBase() throws Exception {
+        RecordingJdbcTemplate jdbc = new RecordingJdbcTemplate();
+        // Linger largo: sin esperar, los eventos seguirían en la cola
+        PlayEventIngestionService service = new PlayEventIngestionService(jdbc, transactionManager, 10_000, 100, 200, 50);
+        service.start();
+
+        for (int i = 0; i < 50; i++) {
+            service.submit(1L, (long) i);
+        }
+        assertTrue(service.awaitDrained(5_000));
+        assertEquals(50, service.getMetrics().getWritten());
+        service.stop();
+    }
+}
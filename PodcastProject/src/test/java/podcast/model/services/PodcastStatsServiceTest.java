@@ -0,0 +1,55 @@
+package podcast.model.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import podcast.model.entities.PodcastStats;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(PodcastStatsService.class)
+class PodcastStatsServiceTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private PodcastStatsService statsService;
+
+    private PodcastStats reload(Long podcastId) {
+        em.clear();
+        return em.find(PodcastStats.class, podcastId);
+    }
+
+    @Test
+    void deberiaMantenerEpisodiosYPromedioDeVistasIncrementalmente() {
+        statsService.onPodcastCreated(7L);
+        statsService.onEpisodeAdded(7L);
+        statsService.onEpisodeAdded(7L);
+        statsService.onPlays(7L, 5);
+        statsService.onPlays(7L, 2);
+
+        PodcastStats stats = reload(7L);
+        assertEquals(2, stats.getEpisodeCount());
+        assertEquals(7L, stats.getTotalViews());
+        assertEquals(3L, stats.getAverageViews());
+
+        statsService.onEpisodeDeleted(7L, 4, null);
+        stats = reload(7L);
+        assertEquals(1, stats.getEpisodeCount());
+        assertEquals(3L, stats.getAverageViews());
+    }
+
+    @Test
+    void deberiaCrearLaFilaSiNoExisteAlRecibirUnaEscritura() {
+        statsService.onEpisodeRatingChanged(9L, null, 8.5);
+        statsService.onEpisodeAdded(9L);
+
+        PodcastStats stats = reload(9L);
+        assertEquals(8.5, stats.getAverageRating());
+        assertEquals(1, stats.getEpisodeCount());
+    }
+}
@@ -0,0 +1,116 @@
+package podcast.model.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import podcast.model.entities.*;
+import podcast.model.entities.enums.Category;
+import podcast.model.exceptions.EpisodeNotFoundException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({RatingService.class, PodcastStatsService.class})
+class RatingServiceTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private PodcastStatsService podcastStatsService;
+
+    private Podcast podcast;
+    private Episode first;
+    private Episode second;
+    private User ana;
+    private User juan;
+
+    @BeforeEach
+    void setUp() {
+        ana = em.persist(new User("Ana", "Perez", "ana_p", new Credential("ana@test.com", "ana_p", "password123")));
+        juan = em.persist(new User("Juan", "Gomez", "juan_g", new Credential("juan@test.com", "juan_g", "password123")));
+        podcast = em.persist(Podcast.builder()
+                .title("Podcast")
+                .description("Descripción")
+                .isActive(true)
+                .categories(new ArrayList<>(List.of(Category.TECNOLOGIA)))
+                .user(ana)
+                .build());
+        podcastStatsService.onPodcastCreated(podcast.getId());
+        first = em.persist(episode("Episodio 1", 1));
+        second = em.persist(episode("Episodio 2", 2));
+        em.flush();
+    }
+
+    private Episode episode(String title, int chapter) {
+        return Episode.builder()
+                .title(title)
+                .description("Episodio de prueba")
+                .season(1)
+                .chapter(chapter)
+                .audioPath("audio.mp3")
+                .duration(Duration.ofMinutes(10))
+                .podcast(podcast)
+                .build();
+    }
+
+    private PodcastStats stats() {
+        em.flush();
+        em.clear();
+        return em.find(PodcastStats.class, podcast.getId());
+    }
+
+    @Test
+    void deberiaActualizarPromediosIncrementalmenteIncluyendoReRating() {
+        Long firstId = first.getId().longValue();
+        ratingService.rateEpisode(firstId, ana.getId(), 8L);
+        ratingService.rateEpisode(firstId, juan.getId(), 6L);
+        assertEquals(7.0, ratingService.getAverageRating(firstId));
+
+        // Re-rating: el puntaje viejo (6) se descuenta de la suma, la cantidad no cambia
+        ratingService.rateEpisode(firstId, juan.getId(), 10L);
+        ratingService.rateEpisode(second.getId().longValue(), ana.getId(), 4L);
+
+        assertEquals(9.0, ratingService.getAverageRating(firstId));
+        PodcastStats stats = stats();
+        assertEquals(2, stats.getRatedEpisodes());
+        assertEquals(6.5, stats.getAverageRating(), 1e-9); // (9 + 4) / 2
+        Episode reloaded = em.find(Episode.class, first.getId());
+        assertEquals(18L, reloaded.getRatingSum());
+        assertEquals(2L, reloaded.getRatingCount());
+    }
+
+    @Test
+    void deberiaRechazarPuntajesFueraDeRangoYEpisodiosSinRatings() {
+        Long firstId = first.getId().longValue();
+        assertThrows(IllegalArgumentException.class, () -> ratingService.rateEpisode(firstId, ana.getId(), 11L));
+        assertThrows(EpisodeNotFoundException.class, () -> ratingService.getAverageRating(firstId));
+        assertThrows(EpisodeNotFoundException.class, () -> ratingService.rateEpisode(999L, ana.getId(), 5L));
+    }
+
+    @Test
+    void deberiaReconstruirLosAgregadosSiNoCuadranConLosRatings() {
+        // Ratings cargados por fuera del servicio, como en una base previa a los agregados
+        em.persist(Rating.builder().user(ana).episode(first).score(9L).build());
+        em.persist(Rating.builder().user(juan).episode(first).score(5L).build());
+        em.persist(Rating.builder().user(ana).episode(second).score(3L).build());
+        em.flush();
+
+        ratingService.reconcileAggregates();
+
+        assertEquals(7.0, ratingService.getAverageRating(first.getId().longValue()));
+        PodcastStats stats = stats();
+        assertEquals(2, stats.getRatedEpisodes());
+        assertEquals(5.0, stats.getAverageRating(), 1e-9); // (7 + 3) / 2
+    }
+}
@@ -0,0 +1,143 @@
+package podcast.model.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import podcast.cfg.JwtUtil;
+import podcast.cfg.MetricsConfig;
+import podcast.cfg.PrincipalCache;
+import podcast.cfg.StatementCounter;
+import podcast.model.entities.Credential;
+import podcast.model.entities.Episode;
+import podcast.model.entities.Podcast;
+import podcast.model.entities.User;
+import podcast.model.entities.dto.RecommendedEpisodeDTO;
+import podcast.model.entities.enums.Category;
+import podcast.model.exceptions.EpisodeNotFoundException;
+import podcast.model.repositories.interfaces.IEpisodeRepository;
+import podcast.model.repositories.interfaces.IPodcastRepository;
+import podcast.model.repositories.interfaces.IUserRepository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin transacción del test: la reconstrucción lee lo que ya está confirmado
+@DataJpaTest(properties = "podcast.recommendations.shrinkage=0")
+@Import({RecommendationService.class, MetricsConfig.class, JwtUtil.class, PrincipalCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RecommendationServiceTest {
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private IPodcastRepository podcastRepository;
+
+    @Autowired
+    private IEpisodeRepository episodeRepository;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User saveUser(String username) {
+        return userRepository.save(User.builder()
+                .name("Nombre")
+                .lastName("Apellido")
+                .nickname(username)
+                .credential(Credential.builder()
+                        .username(username)
+                        .email(username + "@example.com")
+                        .password("Secret123!")
+                        .roles(new HashSet<>())
+                        .build())
+                .build());
+    }
+
+    private Episode saveEpisode(Podcast podcast, String title) {
+        return episodeRepository.save(Episode.builder()
+                .title(title)
+                .description("Descripción de " + title)
+                .season(1)
+                .chapter(1)
+                .audioPath("https://cdn.example.com/" + title.replace(' ', '-') + ".mp3")
+                .duration(Duration.ofMinutes(30))
+                .podcast(podcast)
+                .build());
+    }
+
+    private void listen(User user, Episode... episodes) {
+        for (Episode episode : episodes) {
+            jdbcTemplate.update("INSERT INTO episode_history (user_id, episode_id, listened_at) VALUES (?, ?, ?)",
+                    user.getId(), episode.getId(), Timestamp.valueOf(LocalDateTime.now()));
+        }
+    }
+
+    private static List<Long> ids(List<RecommendedEpisodeDTO> episodes) {
+        return episodes.stream().map(RecommendedEpisodeDTO::getEpisodeId).toList();
+    }
+
+    private static Long id(Episode episode) {
+        return episode.getId().longValue();
+    }
+
+    @Test
+    void recomiendaLoQueEscuchanLosOyentesParecidosSinRepetirLoEscuchado() {
+        User owner = saveUser("reco_duenio");
+        Podcast podcast = podcastRepository.save(Podcast.builder()
+                .title("Podcast recomendado")
+                .description("Descripción")
+                .isActive(true)
+                .categories(new ArrayList<>(List.of(Category.TECNOLOGIA)))
+                .user(owner)
+                .build());
+        Episode first = saveEpisode(podcast, "Reco uno");
+        Episode second = saveEpisode(podcast, "Reco dos");
+        Episode third = saveEpisode(podcast, "Reco tres");
+        Episode lonely = saveEpisode(podcast, "Reco sin oyentes");
+
+        User listener1 = saveUser("reco_oyente1");
+        User listener2 = saveUser("reco_oyente2");
+        User listener3 = saveUser("reco_oyente3");
+        User target = saveUser("reco_objetivo");
+        listen(listener1, first, second);
+        listen(listener2, first, second);
+        listen(listener3, first, third);
+        listen(target, first, first);
+
+        RecommendationService.Rebuild rebuild = recommendationService.rebuild();
+        assertTrue(rebuild.pairs() >= 4);
+
+        assertEquals(List.of(id(second), id(third)), ids(recommendationService.getSimilar(id(first), 10)));
+        assertEquals(List.of(id(second)), ids(recommendationService.getSimilar(id(first), 1)));
+        assertEquals(List.of(), recommendationService.getSimilar(id(lonely), 10));
+
+        StatementCounter.startCapture();
+        List<RecommendedEpisodeDTO> recommended = recommendationService.getRecommendations(target.getId(), 10);
+        assertEquals(1, StatementCounter.stopCapture().size());
+        assertEquals(List.of(id(second), id(third)), ids(recommended));
+        assertEquals("Podcast recomendado", recommended.get(0).getPodcastTitle());
+        assertTrue(recommended.get(0).getScore() > recommended.get(1).getScore());
+
+        assertEquals(List.of(), recommendationService.getRecommendations(owner.getId(), 10));
+    }
+
+    @Test
+    void unEpisodioInexistenteOUnLimiteFueraDeRangoSeRechazan() {
+        assertThrows(EpisodeNotFoundException.class, () -> recommendationService.getSimilar(999_999L, 10));
+        assertThrows(IllegalArgumentException.class, () -> recommendationService.getSimilar(1L, 0));
+        assertThrows(IllegalArgumentException.class, () -> recommendationService.getRecommendations(1L, 51));
+    }
+}
@@ -0,0 +1,70 @@
+package podcast.model.services;
+
+import org.junit.jupiter.api.Test;
+import podcast.model.entities.Episode;
+import podcast.model.entities.Podcast;
+import podcast.model.entities.enums.SearchDocumentType;
+import podcast.model.repositories.interfaces.IEpisodeRepository;
+import podcast.model.repositories.interfaces.IPodcastRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Sin transacción: los cambios al índice se aplican en el acto
+class SearchServiceTest {
+
+    private final IEpisodeRepository episodeRepository = mock(IEpisodeRepository.class);
+    private final SearchService searchService =
+            new SearchService(mock(IPodcastRepository.class), episodeRepository);
+
+    private static Podcast podcast(boolean active) {
+        return Podcast.builder().id(3L).title("Charlas de radio").description("Un podcast de radio").isActive(active).build();
+    }
+
+    private static Episode episode(Podcast podcast) {
+        return Episode.builder().id(30).title("Antenas caseras").description("Cómo armar antenas").podcast(podcast).build();
+    }
+
+    private int episodeHits(String query) {
+        return searchService.search(query, SearchDocumentType.EPISODE, 0, 10).getTotal();
+    }
+
+    @Test
+    void rechazaPaginasMasAllaDelMaximoDeResultados() {
+        // 100000000 * 50 desborda un int: antes terminaba en un NPE (500)
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("tecnologia", null, 100_000_000, 50));
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.search("tecnologia", null, SearchService.MAX_RESULTS / 50, 50));
+        assertEquals(0, searchService.search("tecnologia", null, SearchService.MAX_RESULTS / 50 - 1, 50).getTotal());
+    }
+
+    @Test
+    void noIndexaEpisodiosDeUnPodcastDesactivado() {
+        searchService.indexEpisode(episode(podcast(false)));
+
+        assertEquals(0, episodeHits("antenas"));
+    }
+
+    @Test
+    void alReactivarUnPodcastVuelvenSusEpisodios() {
+        Podcast podcast = podcast(true);
+        Episode episode = episode(podcast);
+        when(episodeRepository.findIdsByPodcastId(3L)).thenReturn(List.of(30L));
+        when(episodeRepository.findByPodcast_Id(3L)).thenReturn(List.of(episode));
+        searchService.indexPodcast(podcast);
+        searchService.indexEpisode(episode);
+        assertEquals(1, episodeHits("antenas"));
+
+        podcast.setIsActive(false);
+        searchService.indexPodcast(podcast);
+        assertEquals(0, episodeHits("antenas"));
+
+        podcast.setIsActive(true);
+        searchService.indexPodcast(podcast);
+        assertEquals(1, episodeHits("antenas"));
+        assertEquals(1, searchService.search("radio", SearchDocumentType.PODCAST, 0, 10).getTotal());
+    }
+}
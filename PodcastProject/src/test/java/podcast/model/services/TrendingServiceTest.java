@@ -0,0 +1,157 @@
+package podcast.model.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import podcast.model.entities.*;
+import podcast.model.entities.dto.TrendingEpisodeDTO;
+import podcast.model.entities.enums.Category;
+import podcast.model.entities.enums.TrendingWindow;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@DataJpaTest
+@Import({TrendingService.class, CategoryIndexService.class, PodcastStatsService.class, PlayEventIngestionService.class})
+class TrendingServiceTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @MockitoSpyBean
+    private CategoryIndexService categoryIndexService;
+
+    private User ana;
+    private Episode tecnologia;
+    private Episode ciencia;
+
+    @BeforeEach
+    void setUp() {
+        ana = em.persist(new User("Ana", "Perez", "ana_p", new Credential("ana@test.com", "ana_p", "password123")));
+        tecnologia = em.persist(episode(podcast("Podcast de tecnología", Category.TECNOLOGIA), "Episodio de tecnología"));
+        ciencia = em.persist(episode(podcast("Podcast de ciencia", Category.CIENCIA), "Episodio de ciencia"));
+        em.flush();
+    }
+
+    private Podcast podcast(String title, Category category) {
+        return em.persist(Podcast.builder()
+                .title(title)
+                .description("Descripción")
+                .isActive(true)
+                .categories(new ArrayList<>(List.of(category)))
+                .user(ana)
+                .build());
+    }
+
+    private Episode episode(Podcast podcast, String title) {
+        return Episode.builder()
+                .title(title)
+                .description("Episodio de prueba")
+                .season(1)
+                .chapter(1)
+                .audioPath("audio.mp3")
+                .duration(Duration.ofMinutes(10))
+                .podcast(podcast)
+                .build();
+    }
+
+    private void history(Episode episode, LocalDateTime listenedAt, int plays) {
+        for (int i = 0; i < plays; i++) {
+            jdbcTemplate.update("INSERT INTO episode_history (listened_at, user_id, episode_id) VALUES (?, ?, ?)",
+                    Timestamp.valueOf(listenedAt), ana.getId(), episode.getId());
+        }
+    }
+
+    private static List<Integer> ids(List<TrendingEpisodeDTO> trending) {
+        return trending.stream().map(dto -> dto.getEpisodeId().intValue()).toList();
+    }
+
+    @Test
+    void rebuild_replaysHistoryWithDecayPerWindow() {
+        LocalDateTime now = LocalDateTime.now();
+        history(tecnologia, now.minusDays(3), 10);  // muchas reproducciones viejas
+        history(ciencia, now.minusMinutes(5), 2);   // pocas pero recientes
+        categoryIndexService.rebuild();
+
+        assertEquals(12, trendingService.rebuild());
+
+        // Con vida media de una hora las reproducciones de hace 3 días ya no pesan
+        assertEquals(List.of(ciencia.getId(), tecnologia.getId()), ids(trendingService.getTrending(TrendingWindow.HOUR, null, 10)));
+        // Con vida media de una semana siguen pesando más que las recientes
+        List<TrendingEpisodeDTO> week = trendingService.getTrending(TrendingWindow.WEEK, null, 10);
+        assertEquals(List.of(tecnologia.getId(), ciencia.getId()), ids(week));
+        assertEquals("Podcast de tecnología", week.get(0).getPodcastTitle());
+        assertEquals(List.of(tecnologia.getId()), ids(trendingService.getTrending(TrendingWindow.WEEK, Category.TECNOLOGIA, 10)));
+    }
+
+    @Test
+    void rebuild_keepsPlaysRecordedWhileReplayingHistory() {
+        history(tecnologia, LocalDateTime.now().minusMinutes(5), 1);
+        categoryIndexService.rebuild();
+
+        // Dos reproducciones en vivo llegan mientras se recorre el historial
+        AtomicBoolean replaying = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (replaying.compareAndSet(false, true)) {
+                trendingService.recordPlay(ciencia);
+                trendingService.recordPlay(ciencia);
+            }
+            return invocation.callRealMethod();
+        }).when(categoryIndexService).categoriesOf(any());
+
+        assertEquals(1, trendingService.rebuild());
+
+        assertEquals(List.of(ciencia.getId(), tecnologia.getId()), ids(trendingService.getTrending(TrendingWindow.DAY, null, 10)));
+        assertEquals("Episodio de ciencia", trendingService.getTrending(TrendingWindow.DAY, null, 1).get(0).getTitle());
+    }
+
+    @Test
+    void recordPlay_updatesGlobalAndCategoryRankings() {
+        categoryIndexService.rebuild();
+        trendingService.recordPlay(tecnologia);
+        trendingService.recordPlay(ciencia);
+        trendingService.recordPlay(ciencia);
+
+        assertEquals(List.of(ciencia.getId(), tecnologia.getId()), ids(trendingService.getTrending(TrendingWindow.DAY, null, 10)));
+        assertEquals(List.of(ciencia.getId()), ids(trendingService.getTrending(TrendingWindow.DAY, Category.CIENCIA, 10)));
+        assertEquals(List.of(ciencia.getId()), ids(trendingService.getTrending(TrendingWindow.DAY, null, 1)));
+    }
+
+    @Test
+    void getTrending_skipsEpisodesOfInactivePodcasts() {
+        ciencia.getPodcast().setIsActive(false);
+        em.flush();
+        categoryIndexService.rebuild();
+        trendingService.recordPlay(tecnologia);
+        trendingService.recordPlay(ciencia);
+        trendingService.recordPlay(ciencia);
+
+        assertEquals(List.of(tecnologia.getId()), ids(trendingService.getTrending(TrendingWindow.DAY, null, 10)));
+    }
+
+    @Test
+    void getTrending_rejectsLimitOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> trendingService.getTrending(TrendingWindow.DAY, null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> trendingService.getTrending(TrendingWindow.DAY, null, TrendingService.MAX_LIMIT + 1));
+    }
+}